@@ -2,17 +2,19 @@ package ru.amayakasa.linguistic;
 
 import okhttp3.ResponseBody;
 import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-import retrofit2.Retrofit;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.YandexCall;
 import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
 import ru.amayakasa.linguistic.http.YandexExecutor;
 import ru.amayakasa.linguistic.http.YandexService;
 import ru.amayakasa.linguistic.parameters.*;
+import ru.amayakasa.linguistic.response.BulkResult;
 import ru.amayakasa.linguistic.response.Dictionary;
 import ru.amayakasa.linguistic.response.parser.ResponseParser;
+import ru.amayakasa.linguistic.stream.BulkPublisher;
+import ru.amayakasa.linguistic.stream.Publisher;
 
-import java.io.IOException;
 import java.util.List;
 
 /**
@@ -51,6 +53,32 @@ public class YandexDictionary extends YandexExecutor {
         super(key, version, responseInterface);
     }
 
+    /**
+     * Конструктор для инициализации нового объекта #YandexDictionary с другим базовым адресом сервиса
+     * (прокси, зеркало или локальная заглушка).
+     *
+     * @param key               API-ключ Яндекс.Словаря;
+     * @param version           версия API Яндекс.Словаря;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param baseUrl           базовый адрес сервиса (null — адрес Яндекса).
+     */
+    public YandexDictionary(String key, Version version, ResponseInterface responseInterface, String baseUrl) {
+        super(key, version, responseInterface, baseUrl);
+    }
+
+    /**
+     * Конструктор для инициализации нового объекта #YandexDictionary с настройками транспорта
+     * (базовый адрес, таймауты, пул соединений и перехватчики).
+     *
+     * @param key               API-ключ Яндекс.Словаря;
+     * @param version           версия API Яндекс.Словаря;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param configuration     настройки транспорта, см. {@link ru.amayakasa.linguistic.http.YandexConfiguration}.
+     */
+    public YandexDictionary(String key, Version version, ResponseInterface responseInterface, YandexConfiguration configuration) {
+        super(key, version, responseInterface, configuration);
+    }
+
     /**
      * Формирование HTTP-клиента для Яндекс.Словаря.
      * См.подробнее {@link ru.amayakasa.linguistic.http.YandexExecutor}
@@ -60,9 +88,7 @@ public class YandexDictionary extends YandexExecutor {
      */
     @Override
     protected YandexService setupService() {
-        Retrofit retrofit2 = new Retrofit.Builder().baseUrl("https://dictionary.yandex.net").build();
-
-        return retrofit2.create(YandexService.class);
+        return createService("https://dictionary.yandex.net");
     }
 
     /**
@@ -78,11 +104,7 @@ public class YandexDictionary extends YandexExecutor {
     public List<LanguagePair> getDictionaryDirections() throws Exception {
         Call<ResponseBody> call = generateDictionaryDirectionsCall();
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseDictionaryDirections(response);
+        return execute(Endpoint.DICTIONARY_LANGUAGES, call, ResponseParser::parseDictionaryDirections);
     }
 
     /**
@@ -95,28 +117,13 @@ public class YandexDictionary extends YandexExecutor {
      * См. подробнее {@link ru.amayakasa.linguistic.parameters.LanguagePair}
      * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
      *
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getDictionaryDirections(YandexCallback<List<LanguagePair>> callback) {
+    public YandexCall getDictionaryDirections(YandexCallback<List<LanguagePair>> callback) {
         Call<ResponseBody> call = generateDictionaryDirectionsCall();
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseDictionaryDirections(response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.DICTIONARY_LANGUAGES, call, ResponseParser::parseDictionaryDirections, callback);
     }
 
     /**
@@ -133,17 +140,11 @@ public class YandexDictionary extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public Dictionary getLookup(String text, LanguagePair language, Flag... flags) throws Exception {
-        int dictionaryFlag = 0;
-
-        for (Flag flag : flags) if (flag != null) dictionaryFlag = dictionaryFlag | flag.bitmask;
+        int dictionaryFlag = Flag.encode(flags);
 
         Call<ResponseBody> call = generateLookupCall(text, language, Language.ENGLISH, dictionaryFlag);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseDictionary(response);
+        return execute(Endpoint.LOOKUP, call, ResponseParser::parseDictionary);
     }
 
     /**
@@ -161,17 +162,11 @@ public class YandexDictionary extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public Dictionary getLookup(String text, LanguagePair language, Language userInterface, Flag... flags) throws Exception {
-        int dictionaryFlag = 0;
-
-        for (Flag flag : flags) if (flag != null) dictionaryFlag = dictionaryFlag | flag.bitmask;
+        int dictionaryFlag = Flag.encode(flags);
 
         Call<ResponseBody> call = generateLookupCall(text, language, userInterface, dictionaryFlag);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseDictionary(response);
+        return execute(Endpoint.LOOKUP, call, ResponseParser::parseDictionary);
     }
 
     /**
@@ -187,32 +182,15 @@ public class YandexDictionary extends YandexExecutor {
      * @param text     слово или фраза, для поиска словаре;
      * @param language направление перевода (пара языков);
      * @param flags    опции поиска для словаря (опционально);
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getLookup(String text, LanguagePair language, YandexCallback<Dictionary> callback, Flag... flags) {
-        int dictionaryFlag = 0;
-
-        for (Flag flag : flags) if (flag != null) dictionaryFlag = dictionaryFlag | flag.bitmask;
+    public YandexCall getLookup(String text, LanguagePair language, YandexCallback<Dictionary> callback, Flag... flags) {
+        int dictionaryFlag = Flag.encode(flags);
 
         Call<ResponseBody> call = generateLookupCall(text, language, Language.ENGLISH, dictionaryFlag);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseDictionary(response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.LOOKUP, call, ResponseParser::parseDictionary, callback);
     }
 
     /**
@@ -232,32 +210,38 @@ public class YandexDictionary extends YandexExecutor {
      * @param language      направление перевода (пара языков);
      * @param userInterface язык пользователя (опционально);
      * @param flags         опции поиска для словаря (опционально);
-     * @param callback      колбэк для обработки ответа на запрос.
+     * @param callback      колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getLookup(String text, LanguagePair language, Language userInterface, YandexCallback<Dictionary> callback, Flag... flags) {
-        int dictionaryFlag = 0;
-
-        for (Flag flag : flags) if (flag != null) dictionaryFlag = dictionaryFlag | flag.bitmask;
+    public YandexCall getLookup(String text, LanguagePair language, Language userInterface, YandexCallback<Dictionary> callback, Flag... flags) {
+        int dictionaryFlag = Flag.encode(flags);
 
         Call<ResponseBody> call = generateLookupCall(text, language, userInterface, dictionaryFlag);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseDictionary(response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
+        return enqueue(Endpoint.LOOKUP, call, ResponseParser::parseDictionary, callback);
+    }
 
-        call.enqueue(genericCallback);
+    /**
+     * Метод для поиска потока слов или фраз в словаре.
+     * <p>
+     * Этот метод создает асинхронные запросы к вышеупомянотому сервису по мере спроса получателя:
+     * одновременно выполняется не больше указанного кол-ва запросов, а следующее слово берется из источника
+     * только после выдачи очередного результата. Результат каждого слова вернется в виде объекта #BulkResult
+     * с объектом #Dictionary или ошибкой.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.stream.BulkPublisher}
+     * См. подробнее {@link ru.amayakasa.linguistic.response.BulkResult}
+     *
+     * @param texts          источник слов или фраз для поиска в словаре;
+     * @param language       направление перевода (пара языков);
+     * @param maxConcurrency максимальное кол-во одновременных запросов;
+     * @param ordered        выдавать ли результаты в порядке слов (иначе — в порядке завершения запросов);
+     * @param flags          опции поиска для словаря (опционально);
+     * @return источник результатов поиска.
+     */
+    public Publisher<BulkResult<String, Dictionary>> getLookups(Publisher<String> texts, LanguagePair language, int maxConcurrency,
+                                                              boolean ordered, Flag... flags) {
+        return new BulkPublisher<>(texts, (text, callback) -> getLookup(text, language, callback, flags), maxConcurrency, ordered);
     }
 
     /**
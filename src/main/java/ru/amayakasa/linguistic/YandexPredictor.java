@@ -2,19 +2,21 @@ package ru.amayakasa.linguistic;
 
 import okhttp3.ResponseBody;
 import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-import retrofit2.Retrofit;
 import ru.amayakasa.linguistic.response.parser.ResponseParser;
+import ru.amayakasa.linguistic.response.BulkResult;
 import ru.amayakasa.linguistic.response.Completion;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.YandexCall;
 import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
 import ru.amayakasa.linguistic.http.YandexExecutor;
 import ru.amayakasa.linguistic.http.YandexService;
 import ru.amayakasa.linguistic.parameters.Language;
 import ru.amayakasa.linguistic.parameters.ResponseInterface;
 import ru.amayakasa.linguistic.parameters.Version;
+import ru.amayakasa.linguistic.stream.BulkPublisher;
+import ru.amayakasa.linguistic.stream.Publisher;
 
-import java.io.IOException;
 import java.util.List;
 
 /**
@@ -50,6 +52,32 @@ public class YandexPredictor extends YandexExecutor {
         super(key, version, responseInterface);
     }
 
+    /**
+     * Конструктор для инициализации нового объекта #YandexPredictor с другим базовым адресом сервиса
+     * (прокси, зеркало или локальная заглушка).
+     *
+     * @param key               API-ключ Яндекс.Предиктора;
+     * @param version           версия API Яндекс.Предиктора;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param baseUrl           базовый адрес сервиса (null — адрес Яндекса).
+     */
+    public YandexPredictor(String key, Version version, ResponseInterface responseInterface, String baseUrl) {
+        super(key, version, responseInterface, baseUrl);
+    }
+
+    /**
+     * Конструктор для инициализации нового объекта #YandexPredictor с настройками транспорта
+     * (базовый адрес, таймауты, пул соединений и перехватчики).
+     *
+     * @param key               API-ключ Яндекс.Предиктора;
+     * @param version           версия API Яндекс.Предиктора;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param configuration     настройки транспорта, см. {@link ru.amayakasa.linguistic.http.YandexConfiguration}.
+     */
+    public YandexPredictor(String key, Version version, ResponseInterface responseInterface, YandexConfiguration configuration) {
+        super(key, version, responseInterface, configuration);
+    }
+
     /**
      * Формирование HTTP-клиента для Яндекс.Предиктора.
      * См.подробнее {@link ru.amayakasa.linguistic.http.YandexExecutor}
@@ -59,9 +87,7 @@ public class YandexPredictor extends YandexExecutor {
      */
     @Override
     protected YandexService setupService() {
-        Retrofit retrofit2 = new Retrofit.Builder().baseUrl("https://predictor.yandex.net").build();
-
-        return retrofit2.create(YandexService.class);
+        return createService("https://predictor.yandex.net");
     }
 
     /**
@@ -77,11 +103,7 @@ public class YandexPredictor extends YandexExecutor {
     public List<Language> getPredictionDirections() throws Exception {
         Call<ResponseBody> call = generatePredictionDirectionsCall();
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parsePredictionDirections(response);
+        return execute(Endpoint.PREDICTOR_LANGUAGES, call, ResponseParser::parsePredictionDirections);
     }
 
     /**
@@ -94,28 +116,13 @@ public class YandexPredictor extends YandexExecutor {
      * См. подробнее {@link ru.amayakasa.linguistic.parameters.Language}
      * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
      *
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getPredictionDirections(YandexCallback<List<Language>> callback) {
+    public YandexCall getPredictionDirections(YandexCallback<List<Language>> callback) {
         Call<ResponseBody> call = generatePredictionDirectionsCall();
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parsePredictionDirections(response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.PREDICTOR_LANGUAGES, call, ResponseParser::parsePredictionDirections, callback);
     }
 
     /**
@@ -133,11 +140,7 @@ public class YandexPredictor extends YandexExecutor {
     public Completion getCompletion(String text, Language language) throws Exception {
         Call<ResponseBody> call = generateCompletionCall(language, text, 1);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseCompletion(text, response);
+        return execute(Endpoint.COMPLETE, call, response -> ResponseParser.parseCompletion(text, response));
     }
 
     /**
@@ -156,11 +159,7 @@ public class YandexPredictor extends YandexExecutor {
     public Completion getCompletion(String text, Language language, int limit) throws Exception {
         Call<ResponseBody> call = generateCompletionCall(language, text, limit);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseCompletion(text, response);
+        return execute(Endpoint.COMPLETE, call, response -> ResponseParser.parseCompletion(text, response));
     }
 
     /**
@@ -175,28 +174,13 @@ public class YandexPredictor extends YandexExecutor {
      *
      * @param text     текст, который нуждается в дополнении;
      * @param language язык на котором написан указанный текст;
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getCompletion(String text, Language language, YandexCallback<Completion> callback) {
+    public YandexCall getCompletion(String text, Language language, YandexCallback<Completion> callback) {
         Call<ResponseBody> call = generateCompletionCall(language, text, 1);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseCompletion(text, response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.COMPLETE, call, response -> ResponseParser.parseCompletion(text, response), callback);
     }
 
     /**
@@ -212,28 +196,36 @@ public class YandexPredictor extends YandexExecutor {
      * @param text     текст, который нуждается в дополнении;
      * @param language язык на котором написан указанный текст;
      * @param limit    максимальное кол-во вариантов дополнения;
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getCompletion(String text, Language language, int limit, YandexCallback<Completion> callback) {
+    public YandexCall getCompletion(String text, Language language, int limit, YandexCallback<Completion> callback) {
         Call<ResponseBody> call = generateCompletionCall(language, text, limit);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseCompletion(text, response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
+        return enqueue(Endpoint.COMPLETE, call, response -> ResponseParser.parseCompletion(text, response), callback);
+    }
 
-        call.enqueue(genericCallback);
+    /**
+     * Метод для дополнения потока текстов.
+     * <p>
+     * Этот метод создает асинхронные запросы к вышеупомянотому сервису по мере спроса получателя:
+     * одновременно выполняется не больше указанного кол-ва запросов, а следующий текст берется из источника
+     * только после выдачи очередного результата. Результат каждого текста вернется в виде объекта #BulkResult
+     * с объектом #Completion или ошибкой.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.stream.BulkPublisher}
+     * См. подробнее {@link ru.amayakasa.linguistic.response.BulkResult}
+     *
+     * @param texts          источник текстов, которые нуждаются в дополнении;
+     * @param language       язык на котором написаны тексты;
+     * @param limit          максимальное кол-во вариантов дополнения;
+     * @param maxConcurrency максимальное кол-во одновременных запросов;
+     * @param ordered        выдавать ли результаты в порядке текстов (иначе — в порядке завершения запросов);
+     * @return источник результатов дополнения.
+     */
+    public Publisher<BulkResult<String, Completion>> getCompletions(Publisher<String> texts, Language language, int limit,
+                                                                   int maxConcurrency, boolean ordered) {
+        return new BulkPublisher<>(texts, (text, callback) -> getCompletion(text, language, limit, callback), maxConcurrency, ordered);
     }
 
     /**
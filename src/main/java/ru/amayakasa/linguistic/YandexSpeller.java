@@ -2,19 +2,26 @@ package ru.amayakasa.linguistic;
 
 import okhttp3.ResponseBody;
 import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-import retrofit2.Retrofit;
 import ru.amayakasa.linguistic.response.parser.ResponseParser;
 import ru.amayakasa.linguistic.parameters.Format;
+import ru.amayakasa.linguistic.response.BulkResult;
 import ru.amayakasa.linguistic.response.Phrase;
+import ru.amayakasa.linguistic.response.PhraseBatch;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.YandexCall;
 import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
 import ru.amayakasa.linguistic.http.YandexExecutor;
 import ru.amayakasa.linguistic.http.YandexService;
+import ru.amayakasa.linguistic.parameters.CorrectionPolicy;
 import ru.amayakasa.linguistic.parameters.Language;
+import ru.amayakasa.linguistic.parameters.Option;
 import ru.amayakasa.linguistic.parameters.ResponseInterface;
 import ru.amayakasa.linguistic.parameters.Version;
+import ru.amayakasa.linguistic.stream.BulkPublisher;
+import ru.amayakasa.linguistic.stream.Publisher;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -49,6 +56,30 @@ public class YandexSpeller extends YandexExecutor {
         super("speller-works-without-key", version, responseInterface);
     }
 
+    /**
+     * Конструктор для инициализации нового объекта #YandexSpeller с другим базовым адресом сервиса
+     * (прокси, зеркало или локальная заглушка).
+     *
+     * @param version           версия API Яндекс.Спеллера;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param baseUrl           базовый адрес сервиса (null — адрес Яндекса).
+     */
+    public YandexSpeller(Version version, ResponseInterface responseInterface, String baseUrl) {
+        super("speller-works-without-key", version, responseInterface, baseUrl);
+    }
+
+    /**
+     * Конструктор для инициализации нового объекта #YandexSpeller с настройками транспорта
+     * (базовый адрес, таймауты, пул соединений и перехватчики).
+     *
+     * @param version           версия API Яндекс.Спеллера;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param configuration     настройки транспорта, см. {@link ru.amayakasa.linguistic.http.YandexConfiguration}.
+     */
+    public YandexSpeller(Version version, ResponseInterface responseInterface, YandexConfiguration configuration) {
+        super("speller-works-without-key", version, responseInterface, configuration);
+    }
+
     /**
      * Формирование HTTP-клиента для Яндекс.Спеллера.
      * См.подробнее {@link ru.amayakasa.linguistic.http.YandexExecutor}
@@ -58,9 +89,7 @@ public class YandexSpeller extends YandexExecutor {
      */
     @Override
     protected YandexService setupService() {
-        Retrofit retrofit2 = new Retrofit.Builder().baseUrl("https://speller.yandex.net").build();
-
-        return retrofit2.create(YandexService.class);
+        return createService("https://speller.yandex.net");
     }
 
     /**
@@ -77,17 +106,11 @@ public class YandexSpeller extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public Phrase getSpelledPhrase(String text, Language language, int... options) throws Exception {
-        int spellerOptions = 0;
-
-        for (int option : options) spellerOptions = spellerOptions + option;
+        int spellerOptions = Option.encode(options);
 
         Call<ResponseBody> call = generateSpelledPhraseCall(text, language, spellerOptions, Format.PLAIN);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parsePhrase(text, response);
+        return execute(Endpoint.CHECK_TEXT, call, response -> ResponseParser.parsePhrase(text, response));
     }
 
     /**
@@ -105,17 +128,11 @@ public class YandexSpeller extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public Phrase getSpelledPhrase(String text, Language language, Format format, int... options) throws Exception {
-        int spellerOptions = 0;
-
-        for (int option : options) spellerOptions = spellerOptions + option;
+        int spellerOptions = Option.encode(options);
 
         Call<ResponseBody> call = generateSpelledPhraseCall(text, language, spellerOptions, format);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parsePhrase(text, response);
+        return execute(Endpoint.CHECK_TEXT, call, response -> ResponseParser.parsePhrase(text, response));
     }
 
     /**
@@ -131,32 +148,15 @@ public class YandexSpeller extends YandexExecutor {
      * @param text     фраза, которая нуждается в проверке;
      * @param language язык на котором написан указанная фраза;
      * @param options  опции для спеллера (опционально);
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getSpelledPhrase(String text, Language language, YandexCallback<Phrase> callback, int... options) {
-        int spellerOptions = 0;
-
-        for (int option : options) spellerOptions = spellerOptions + option;
+    public YandexCall getSpelledPhrase(String text, Language language, YandexCallback<Phrase> callback, int... options) {
+        int spellerOptions = Option.encode(options);
 
         Call<ResponseBody> call = generateSpelledPhraseCall(text, language, spellerOptions, Format.PLAIN);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parsePhrase(text, response));
-                } catch (Exception exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.CHECK_TEXT, call, response -> ResponseParser.parsePhrase(text, response), callback);
     }
 
     /**
@@ -173,32 +173,38 @@ public class YandexSpeller extends YandexExecutor {
      * @param language язык на котором написан указанная фраза;
      * @param format   формат проверяемого текста;
      * @param options  опции для спеллера (опционально);
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getSpelledPhrase(String text, Language language, Format format, YandexCallback<Phrase> callback, int... options) {
-        int spellerOptions = 0;
-
-        for (int option : options) spellerOptions = spellerOptions + option;
+    public YandexCall getSpelledPhrase(String text, Language language, Format format, YandexCallback<Phrase> callback, int... options) {
+        int spellerOptions = Option.encode(options);
 
         Call<ResponseBody> call = generateSpelledPhraseCall(text, language, spellerOptions, format);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parsePhrase(text, response));
-                } catch (Exception exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
+        return enqueue(Endpoint.CHECK_TEXT, call, response -> ResponseParser.parsePhrase(text, response), callback);
+    }
 
-        call.enqueue(genericCallback);
+    /**
+     * Метод для проверки потока фраз на орфографические ошибки.
+     * <p>
+     * Этот метод создает асинхронные запросы к вышеупомянотому сервису по мере спроса получателя:
+     * одновременно выполняется не больше указанного кол-ва запросов, а следующая фраза берется из источника
+     * только после выдачи очередного результата. Результат каждой фразы вернется в виде объекта #BulkResult
+     * с объектом #Phrase или ошибкой.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.stream.BulkPublisher}
+     * См. подробнее {@link ru.amayakasa.linguistic.response.BulkResult}
+     *
+     * @param texts          источник фраз, которые нуждаются в проверке;
+     * @param language       язык на котором написаны фразы;
+     * @param maxConcurrency максимальное кол-во одновременных запросов;
+     * @param ordered        выдавать ли результаты в порядке фраз (иначе — в порядке завершения запросов);
+     * @param options        опции для спеллера (опционально);
+     * @return источник результатов проверки.
+     */
+    public Publisher<BulkResult<String, Phrase>> getSpelledPhrases(Publisher<String> texts, Language language, int maxConcurrency,
+                                                                  boolean ordered, int... options) {
+        return new BulkPublisher<>(texts, (text, callback) -> getSpelledPhrase(text, language, callback, options), maxConcurrency, ordered);
     }
 
     /**
@@ -215,17 +221,11 @@ public class YandexSpeller extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public List<Phrase> getSpelledPhrases(String[] text, Language language, int... options) throws Exception {
-        int spellerOptions = 0;
-
-        for (int option : options) spellerOptions = spellerOptions + option;
+        int spellerOptions = Option.encode(options);
 
         Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, Format.PLAIN);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parsePhrases(text, response);
+        return execute(Endpoint.CHECK_TEXTS, call, response -> ResponseParser.parsePhrases(text, response));
     }
 
     /**
@@ -243,17 +243,35 @@ public class YandexSpeller extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public List<Phrase> getSpelledPhrases(String[] text, Language language, Format format, int... options) throws Exception {
-        int spellerOptions = 0;
-
-        for (int option : options) spellerOptions = spellerOptions + option;
+        int spellerOptions = Option.encode(options);
 
         Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, format);
 
-        Response<ResponseBody> response = call.execute();
+        return execute(Endpoint.CHECK_TEXTS, call, response -> ResponseParser.parsePhrases(text, response));
+    }
 
-        validateResponse(response);
+    /**
+     * Метод для проверки указанных фраз на орфографические ошибки.
+     * <p>
+     * Этот метод создает асинхронный запрос к вышеупомянотому сервису.
+     * Ответ на указанный запрос вернется в виде списка объектов #Phrase.
+     * Для обработки ответа данного запроса, используется #YandexCallback.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.response.Completion}
+     * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
+     *
+     * @param text     фразы, которые нуждаются в проверке;
+     * @param language язык на котором написан указанные фразы;
+     * @param options  опции для спеллера (опционально);
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
+     */
+    public YandexCall getSpelledPhrases(String[] text, Language language, YandexCallback<List<Phrase>> callback, int... options) {
+        int spellerOptions = Option.encode(options);
+
+        Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, Format.PLAIN);
 
-        return ResponseParser.parsePhrases(text, response);
+        return enqueue(Endpoint.CHECK_TEXTS, call, response -> ResponseParser.parsePhrases(text, response), callback);
     }
 
     /**
@@ -268,75 +286,324 @@ public class YandexSpeller extends YandexExecutor {
      *
      * @param text     фразы, которые нуждаются в проверке;
      * @param language язык на котором написан указанные фразы;
+     * @param format   формат проверяемого текста;
      * @param options  опции для спеллера (опционально);
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getSpelledPhrases(String[] text, Language language, YandexCallback<List<Phrase>> callback, int... options) {
-        int spellerOptions = 0;
+    public YandexCall getSpelledPhrases(String[] text, Language language, Format format, YandexCallback<List<Phrase>> callback, int... options) {
+        int spellerOptions = Option.encode(options);
 
-        for (int option : options) spellerOptions = spellerOptions + option;
+        Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, format);
+
+        return enqueue(Endpoint.CHECK_TEXTS, call, response -> ResponseParser.parsePhrases(text, response), callback);
+    }
+
+    /**
+     * Метод для проверки большого кол-ва фраз на орфографические ошибки.
+     * <p>
+     * В отличие от {@link #getSpelledPhrases}, слова с ошибками хранятся в массивах примитивов,
+     * а слова и варианты исправлений — в общем пуле строк, что значительно сокращает расход памяти.
+     * <p>
+     * Этот метод создает синхронный запрос к вышеупомянотому сервису.
+     * Ответ на указанный запрос вернется в компактном виде, в виде объекта #PhraseBatch.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.response.PhraseBatch}
+     *
+     * @param text     фразы, которые нуждаются в проверке;
+     * @param language язык на котором написан указанные фразы;
+     * @param options  опции для спеллера (опционально);
+     * @throws Exception при некорректном ответе или ошибке во время запроса.
+     */
+    public PhraseBatch getSpelledPhraseBatch(String[] text, Language language, int... options) throws Exception {
+        int spellerOptions = Option.encode(options);
 
         Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, Format.PLAIN);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
+        return execute(Endpoint.CHECK_TEXTS, call, response -> ResponseParser.parsePhraseBatch(text, response));
+    }
+
+    /**
+     * Метод для проверки большого кол-ва фраз на орфографические ошибки.
+     * <p>
+     * В отличие от {@link #getSpelledPhrases}, слова с ошибками хранятся в массивах примитивов,
+     * а слова и варианты исправлений — в общем пуле строк, что значительно сокращает расход памяти.
+     * <p>
+     * Этот метод создает синхронный запрос к вышеупомянотому сервису.
+     * Ответ на указанный запрос вернется в компактном виде, в виде объекта #PhraseBatch.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.response.PhraseBatch}
+     *
+     * @param text     фразы, которые нуждаются в проверке;
+     * @param language язык на котором написан указанные фразы;
+     * @param format   формат проверяемого текста;
+     * @param options  опции для спеллера (опционально);
+     * @throws Exception при некорректном ответе или ошибке во время запроса.
+     */
+    public PhraseBatch getSpelledPhraseBatch(String[] text, Language language, Format format, int... options) throws Exception {
+        int spellerOptions = Option.encode(options);
+
+        Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, format);
+
+        return execute(Endpoint.CHECK_TEXTS, call, response -> ResponseParser.parsePhraseBatch(text, response));
+    }
+
+    /**
+     * Метод для проверки большого кол-ва фраз на орфографические ошибки.
+     * <p>
+     * В отличие от {@link #getSpelledPhrases}, слова с ошибками хранятся в массивах примитивов,
+     * а слова и варианты исправлений — в общем пуле строк, что значительно сокращает расход памяти.
+     * <p>
+     * Этот метод создает асинхронный запрос к вышеупомянотому сервису.
+     * Ответ на указанный запрос вернется в компактном виде, в виде объекта #PhraseBatch.
+     * Для обработки ответа данного запроса, используется #YandexCallback.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.response.PhraseBatch}
+     * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
+     *
+     * @param text     фразы, которые нуждаются в проверке;
+     * @param language язык на котором написан указанные фразы;
+     * @param options  опции для спеллера (опционально);
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
+     */
+    public YandexCall getSpelledPhraseBatch(String[] text, Language language, YandexCallback<PhraseBatch> callback, int... options) {
+        int spellerOptions = Option.encode(options);
+
+        Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, Format.PLAIN);
+
+        return enqueue(Endpoint.CHECK_TEXTS, call, response -> ResponseParser.parsePhraseBatch(text, response), callback);
+    }
+
+    /**
+     * Метод для проверки большого кол-ва фраз на орфографические ошибки.
+     * <p>
+     * В отличие от {@link #getSpelledPhrases}, слова с ошибками хранятся в массивах примитивов,
+     * а слова и варианты исправлений — в общем пуле строк, что значительно сокращает расход памяти.
+     * <p>
+     * Этот метод создает асинхронный запрос к вышеупомянотому сервису.
+     * Ответ на указанный запрос вернется в компактном виде, в виде объекта #PhraseBatch.
+     * Для обработки ответа данного запроса, используется #YandexCallback.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.response.PhraseBatch}
+     * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
+     *
+     * @param text     фразы, которые нуждаются в проверке;
+     * @param language язык на котором написан указанные фразы;
+     * @param format   формат проверяемого текста;
+     * @param options  опции для спеллера (опционально);
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
+     */
+    public YandexCall getSpelledPhraseBatch(String[] text, Language language, Format format, YandexCallback<PhraseBatch> callback, int... options) {
+        int spellerOptions = Option.encode(options);
+
+        Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, format);
+
+        return enqueue(Endpoint.CHECK_TEXTS, call, response -> ResponseParser.parsePhraseBatch(text, response), callback);
+    }
+
+    /**
+     * Метод для автоматического исправления указанной фразы.
+     * <p>
+     * Этот метод создает синхронный запрос к вышеупомянотому сервису.
+     * Слова с ошибками заменяются по указанному правилу за один проход по фразе.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.parameters.CorrectionPolicy}
+     *
+     * @param text     фраза, которая нуждается в исправлении;
+     * @param language язык на котором написан указанная фраза;
+     * @param policy   правило исправления слов с ошибками;
+     * @param options  опции для спеллера (опционально);
+     * @return исправленная фраза.
+     * @throws Exception при некорректном ответе или ошибке во время запроса.
+     */
+    public String getCorrectedText(String text, Language language, CorrectionPolicy policy, int... options) throws Exception {
+        return getSpelledPhrase(text, language, options).getCorrectedText(policy);
+    }
+
+    /**
+     * Метод для автоматического исправления указанной фразы.
+     * <p>
+     * Этот метод создает синхронный запрос к вышеупомянотому сервису.
+     * Слова с ошибками заменяются по указанному правилу за один проход по фразе.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.parameters.CorrectionPolicy}
+     *
+     * @param text     фраза, которая нуждается в исправлении;
+     * @param language язык на котором написан указанная фраза;
+     * @param format   формат проверяемого текста;
+     * @param policy   правило исправления слов с ошибками;
+     * @param options  опции для спеллера (опционально);
+     * @return исправленная фраза.
+     * @throws Exception при некорректном ответе или ошибке во время запроса.
+     */
+    public String getCorrectedText(String text, Language language, Format format, CorrectionPolicy policy, int... options) throws Exception {
+        return getSpelledPhrase(text, language, format, options).getCorrectedText(policy);
+    }
+
+    /**
+     * Метод для автоматического исправления указанной фразы.
+     * <p>
+     * Этот метод создает асинхронный запрос к вышеупомянотому сервису.
+     * Слова с ошибками заменяются по указанному правилу за один проход по фразе.
+     * Для обработки ответа данного запроса, используется #YandexCallback.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.parameters.CorrectionPolicy}
+     * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
+     *
+     * @param text     фраза, которая нуждается в исправлении;
+     * @param language язык на котором написан указанная фраза;
+     * @param policy   правило исправления слов с ошибками;
+     * @param options  опции для спеллера (опционально);
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
+     */
+    public YandexCall getCorrectedText(String text, Language language, CorrectionPolicy policy, YandexCallback<String> callback, int... options) {
+        return getCorrectedText(text, language, Format.PLAIN, policy, callback, options);
+    }
+
+    /**
+     * Метод для автоматического исправления указанной фразы.
+     * <p>
+     * Этот метод создает асинхронный запрос к вышеупомянотому сервису.
+     * Слова с ошибками заменяются по указанному правилу за один проход по фразе.
+     * Для обработки ответа данного запроса, используется #YandexCallback.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.parameters.CorrectionPolicy}
+     * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
+     *
+     * @param text     фраза, которая нуждается в исправлении;
+     * @param language язык на котором написан указанная фраза;
+     * @param format   формат проверяемого текста;
+     * @param policy   правило исправления слов с ошибками;
+     * @param options  опции для спеллера (опционально);
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
+     */
+    public YandexCall getCorrectedText(String text, Language language, Format format, CorrectionPolicy policy, YandexCallback<String> callback, int... options) {
+        YandexCallback<Phrase> phraseCallback = new YandexCallback<Phrase>() {
             @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parsePhrases(text, response));
-                } catch (Exception exception) {
-                    callback.onFailure(exception);
-                }
+            public void onResponse(Phrase response) {
+                callback.onResponse(response.getCorrectedText(policy));
             }
 
             @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
+            public void onFailure(Throwable throwable) {
                 callback.onFailure(throwable);
             }
         };
 
-        call.enqueue(genericCallback);
+        return getSpelledPhrase(text, language, format, phraseCallback, options);
     }
 
     /**
-     * Метод для проверки указанных фраз на орфографические ошибки.
+     * Метод для автоматического исправления указанных фраз одним запросом.
+     * <p>
+     * Этот метод создает синхронный запрос к вышеупомянотому сервису.
+     * Слова с ошибками заменяются по указанному правилу за один проход по каждой фразе.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.parameters.CorrectionPolicy}
+     *
+     * @param text     фразы, которые нуждаются в исправлении;
+     * @param language язык на котором написан указанные фразы;
+     * @param policy   правило исправления слов с ошибками;
+     * @param options  опции для спеллера (опционально);
+     * @return исправленные фразы в исходном порядке.
+     * @throws Exception при некорректном ответе или ошибке во время запроса.
+     */
+    public List<String> getCorrectedTexts(String[] text, Language language, CorrectionPolicy policy, int... options) throws Exception {
+        return correct(getSpelledPhraseBatch(text, language, options), policy);
+    }
+
+    /**
+     * Метод для автоматического исправления указанных фраз одним запросом.
+     * <p>
+     * Этот метод создает синхронный запрос к вышеупомянотому сервису.
+     * Слова с ошибками заменяются по указанному правилу за один проход по каждой фразе.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.parameters.CorrectionPolicy}
+     *
+     * @param text     фразы, которые нуждаются в исправлении;
+     * @param language язык на котором написан указанные фразы;
+     * @param format   формат проверяемого текста;
+     * @param policy   правило исправления слов с ошибками;
+     * @param options  опции для спеллера (опционально);
+     * @return исправленные фразы в исходном порядке.
+     * @throws Exception при некорректном ответе или ошибке во время запроса.
+     */
+    public List<String> getCorrectedTexts(String[] text, Language language, Format format, CorrectionPolicy policy, int... options) throws Exception {
+        return correct(getSpelledPhraseBatch(text, language, format, options), policy);
+    }
+
+    /**
+     * Метод для автоматического исправления указанных фраз одним запросом.
      * <p>
      * Этот метод создает асинхронный запрос к вышеупомянотому сервису.
-     * Ответ на указанный запрос вернется в виде списка объектов #Phrase.
+     * Слова с ошибками заменяются по указанному правилу за один проход по каждой фразе.
      * Для обработки ответа данного запроса, используется #YandexCallback.
      * <p>
-     * См. подробнее {@link ru.amayakasa.linguistic.response.Completion}
+     * См. подробнее {@link ru.amayakasa.linguistic.parameters.CorrectionPolicy}
      * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
      *
-     * @param text     фразы, которые нуждаются в проверке;
+     * @param text     фразы, которые нуждаются в исправлении;
      * @param language язык на котором написан указанные фразы;
-     * @param format   формат проверяемого текста;
+     * @param policy   правило исправления слов с ошибками;
      * @param options  опции для спеллера (опционально);
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getSpelledPhrases(String[] text, Language language, Format format, YandexCallback<List<Phrase>> callback, int... options) {
-        int spellerOptions = 0;
-
-        for (int option : options) spellerOptions = spellerOptions + option;
-
-        Call<ResponseBody> call = generateSpelledPhrasesCall(text, language, spellerOptions, format);
+    public YandexCall getCorrectedTexts(String[] text, Language language, CorrectionPolicy policy, YandexCallback<List<String>> callback, int... options) {
+        return getCorrectedTexts(text, language, Format.PLAIN, policy, callback, options);
+    }
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
+    /**
+     * Метод для автоматического исправления указанных фраз одним запросом.
+     * <p>
+     * Этот метод создает асинхронный запрос к вышеупомянотому сервису.
+     * Слова с ошибками заменяются по указанному правилу за один проход по каждой фразе.
+     * Для обработки ответа данного запроса, используется #YandexCallback.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.parameters.CorrectionPolicy}
+     * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
+     *
+     * @param text     фразы, которые нуждаются в исправлении;
+     * @param language язык на котором написан указанные фразы;
+     * @param format   формат проверяемого текста;
+     * @param policy   правило исправления слов с ошибками;
+     * @param options  опции для спеллера (опционально);
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
+     */
+    public YandexCall getCorrectedTexts(String[] text, Language language, Format format, CorrectionPolicy policy, YandexCallback<List<String>> callback, int... options) {
+        YandexCallback<PhraseBatch> batchCallback = new YandexCallback<PhraseBatch>() {
             @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parsePhrases(text, response));
-                } catch (Exception exception) {
-                    callback.onFailure(exception);
-                }
+            public void onResponse(PhraseBatch response) {
+                callback.onResponse(correct(response, policy));
             }
 
             @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
+            public void onFailure(Throwable throwable) {
                 callback.onFailure(throwable);
             }
         };
 
-        call.enqueue(genericCallback);
+        return getSpelledPhraseBatch(text, language, format, batchCallback, options);
+    }
+
+    /**
+     * Исправление всех фраз из ответа Яндекс.Спеллера по указанному правилу.
+     *
+     * @param batch  проверенные фразы;
+     * @param policy правило исправления слов с ошибками;
+     * @return исправленные фразы в исходном порядке.
+     */
+    private static List<String> correct(PhraseBatch batch, CorrectionPolicy policy) {
+        List<String> corrected = new ArrayList<>(batch.size());
+
+        for (int phrase = 0; phrase < batch.size(); phrase++) corrected.add(batch.getPhrase(phrase).getCorrectedText(policy));
+
+        return corrected;
     }
 
     /**
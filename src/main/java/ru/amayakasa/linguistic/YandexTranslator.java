@@ -2,22 +2,42 @@ package ru.amayakasa.linguistic;
 
 import okhttp3.ResponseBody;
 import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-import retrofit2.Retrofit;
+import ru.amayakasa.linguistic.response.BulkResult;
+import ru.amayakasa.linguistic.response.MultiTranslation;
 import ru.amayakasa.linguistic.response.Translation;
 import ru.amayakasa.linguistic.response.parser.ResponseParser;
+import ru.amayakasa.linguistic.http.Deadline;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.YandexCall;
 import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
 import ru.amayakasa.linguistic.http.YandexExecutor;
 import ru.amayakasa.linguistic.http.YandexService;
 import ru.amayakasa.linguistic.parameters.Format;
 import ru.amayakasa.linguistic.parameters.Language;
+import ru.amayakasa.linguistic.parameters.Option;
 import ru.amayakasa.linguistic.parameters.ResponseInterface;
 import ru.amayakasa.linguistic.parameters.Version;
-
-import java.io.IOException;
-import java.text.MessageFormat;
+import ru.amayakasa.linguistic.stream.BulkPublisher;
+import ru.amayakasa.linguistic.stream.IterablePublisher;
+import ru.amayakasa.linguistic.stream.Publisher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Враппер для сервиса Яндекс.Переводчик
@@ -53,6 +73,32 @@ public class YandexTranslator extends YandexExecutor {
         super(key, version, responseInterface);
     }
 
+    /**
+     * Конструктор для инициализации нового объекта #YandexTranslator с другим базовым адресом сервиса
+     * (прокси, зеркало или локальная заглушка).
+     *
+     * @param key               API-ключ Яндекс.Переводчика;
+     * @param version           версия API Яндекс.Переводчика;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param baseUrl           базовый адрес сервиса (null — адрес Яндекса).
+     */
+    public YandexTranslator(String key, Version version, ResponseInterface responseInterface, String baseUrl) {
+        super(key, version, responseInterface, baseUrl);
+    }
+
+    /**
+     * Конструктор для инициализации нового объекта #YandexTranslator с настройками транспорта
+     * (базовый адрес, таймауты, пул соединений и перехватчики).
+     *
+     * @param key               API-ключ Яндекс.Переводчика;
+     * @param version           версия API Яндекс.Переводчика;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param configuration     настройки транспорта, см. {@link ru.amayakasa.linguistic.http.YandexConfiguration}.
+     */
+    public YandexTranslator(String key, Version version, ResponseInterface responseInterface, YandexConfiguration configuration) {
+        super(key, version, responseInterface, configuration);
+    }
+
     /**
      * Формирование HTTP-клиента для Яндекс.Переводчика.
      * См.подробнее {@link ru.amayakasa.linguistic.http.YandexExecutor}
@@ -62,9 +108,7 @@ public class YandexTranslator extends YandexExecutor {
      */
     @Override
     protected YandexService setupService() {
-        Retrofit retrofit2 = new Retrofit.Builder().baseUrl("https://translate.yandex.net").build();
-
-        return retrofit2.create(YandexService.class);
+        return createService("https://translate.yandex.net");
     }
 
     /**
@@ -80,11 +124,7 @@ public class YandexTranslator extends YandexExecutor {
     public List<Language> getTranslationDirections() throws Exception {
         Call<ResponseBody> call = generateTranslationDirectionsCall();
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseTranslationDirections(response);
+        return execute(Endpoint.TRANSLATOR_LANGUAGES, call, ResponseParser::parseTranslationDirections);
     }
 
     /**
@@ -97,28 +137,13 @@ public class YandexTranslator extends YandexExecutor {
      * См. подробнее {@link ru.amayakasa.linguistic.parameters.Language}
      * См. подробнее {@link ru.amayakasa.linguistic.http.YandexCallback}
      *
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getTranslationDirections(YandexCallback<List<Language>> callback) {
+    public YandexCall getTranslationDirections(YandexCallback<List<Language>> callback) {
         Call<ResponseBody> call = generateTranslationDirectionsCall();
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseTranslationDirections(response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.TRANSLATOR_LANGUAGES, call, ResponseParser::parseTranslationDirections, callback);
     }
 
     /**
@@ -134,21 +159,11 @@ public class YandexTranslator extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public Language getTextLanguage(String text, Language... languages) throws Exception {
-        StringBuilder hintBuilder = new StringBuilder();
-
-        for (Language language : languages) if (language != null) hintBuilder.append(",").append(language);
-
-        String hint = hintBuilder.toString();
-
-        if (hint.length() > 1) hint = hint.substring(1);
+        String hint = Language.hint(languages);
 
         Call<ResponseBody> call = generateTextLanguageCall(text, hint);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseTextLanguage(response);
+        return execute(Endpoint.DETECT, call, ResponseParser::parseTextLanguage);
     }
 
     /**
@@ -163,36 +178,15 @@ public class YandexTranslator extends YandexExecutor {
      *
      * @param text      текст для определения языка;
      * @param languages список подсказок (опционально);
-     * @param callback  колбэк для обработки ответа на запрос.
+     * @param callback  колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getTextLanguage(String text, YandexCallback<Language> callback, Language... languages) {
-        StringBuilder hintBuilder = new StringBuilder();
-
-        for (Language language : languages) if (language != null) hintBuilder.append(",").append(language);
-
-        String hint = hintBuilder.toString();
-
-        if (hint.length() > 1) hint = hint.substring(1);
+    public YandexCall getTextLanguage(String text, YandexCallback<Language> callback, Language... languages) {
+        String hint = Language.hint(languages);
 
         Call<ResponseBody> call = generateTextLanguageCall(text, hint);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseTextLanguage(response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.DETECT, call, ResponseParser::parseTextLanguage, callback);
     }
 
     /**
@@ -209,19 +203,13 @@ public class YandexTranslator extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public Translation getTextTranslation(String text, Language to, int... options) throws Exception {
-        int translatorOptions = 0;
-
-        for (int option : options) translatorOptions = translatorOptions + option;
+        int translatorOptions = Option.encode(options);
 
         String language = to.code;
 
         Call<ResponseBody> call = generateTextTranslationCall(text, language, Format.PLAIN, translatorOptions);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseTextTranslation(text, response);
+        return execute(Endpoint.TRANSLATE, call, response -> ResponseParser.parseTextTranslation(text, response));
     }
 
     /**
@@ -239,19 +227,13 @@ public class YandexTranslator extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public Translation getTextTranslation(String text, Language to, Format format, int... options) throws Exception {
-        int translatorOptions = 0;
-
-        for (int option : options) translatorOptions = translatorOptions + option;
+        int translatorOptions = Option.encode(options);
 
         String language = to.code;
 
         Call<ResponseBody> call = generateTextTranslationCall(text, language, format, translatorOptions);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseTextTranslation(text, response);
+        return execute(Endpoint.TRANSLATE, call, response -> ResponseParser.parseTextTranslation(text, response));
     }
 
     /**
@@ -270,19 +252,13 @@ public class YandexTranslator extends YandexExecutor {
      * @throws Exception при некорректном ответе или ошибке во время запроса.
      */
     public Translation getTextTranslation(String text, Language from, Language to, Format format, int... options) throws Exception {
-        int translatorOptions = 0;
-
-        for (int option : options) translatorOptions = translatorOptions + option;
+        int translatorOptions = Option.encode(options);
 
-        String language = from == null ? to.toString() : MessageFormat.format("{0}-{1}", from, to);
+        String language = Language.direction(from, to);
 
         Call<ResponseBody> call = generateTextTranslationCall(text, language, format, translatorOptions);
 
-        Response<ResponseBody> response = call.execute();
-
-        validateResponse(response);
-
-        return ResponseParser.parseTextTranslation(text, response);
+        return execute(Endpoint.TRANSLATE, call, response -> ResponseParser.parseTextTranslation(text, response));
     }
 
     /**
@@ -298,34 +274,17 @@ public class YandexTranslator extends YandexExecutor {
      * @param text     текст для дальнейшего перевода;
      * @param to       язык, на который будет совершен перевод;
      * @param options  опции для переводчика (опционально);
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getTextTranslation(String text, Language to, YandexCallback<Translation> callback, int... options) {
-        int translatorOptions = 0;
-
-        for (int option : options) translatorOptions = translatorOptions + option;
+    public YandexCall getTextTranslation(String text, Language to, YandexCallback<Translation> callback, int... options) {
+        int translatorOptions = Option.encode(options);
 
         String language = to.code;
 
         Call<ResponseBody> call = generateTextTranslationCall(text, language, Format.PLAIN, translatorOptions);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseTextTranslation(text, response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.TRANSLATE, call, response -> ResponseParser.parseTextTranslation(text, response), callback);
     }
 
     /**
@@ -342,34 +301,17 @@ public class YandexTranslator extends YandexExecutor {
      * @param to       язык, на который будет совершен перевод;
      * @param format   формат переводимого текста;
      * @param options  опции для переводчика (опционально);
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getTextTranslation(String text, Language to, Format format, YandexCallback<Translation> callback, int... options) {
-        int translatorOptions = 0;
-
-        for (int option : options) translatorOptions = translatorOptions + option;
+    public YandexCall getTextTranslation(String text, Language to, Format format, YandexCallback<Translation> callback, int... options) {
+        int translatorOptions = Option.encode(options);
 
         String language = to.code;
 
         Call<ResponseBody> call = generateTextTranslationCall(text, language, format, translatorOptions);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseTextTranslation(text, response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
-            }
-        };
-
-        call.enqueue(genericCallback);
+        return enqueue(Endpoint.TRANSLATE, call, response -> ResponseParser.parseTextTranslation(text, response), callback);
     }
 
     /**
@@ -387,34 +329,265 @@ public class YandexTranslator extends YandexExecutor {
      * @param from     язык, с которого будет совершен перевод;
      * @param format   формат переводимого текста;
      * @param options  опции для переводчика (опционально);
-     * @param callback колбэк для обработки ответа на запрос.
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
      */
-    public void getTextTranslation(String text, Language from, Language to, Format format, YandexCallback<Translation> callback, int... options) {
-        int translatorOptions = 0;
-
-        for (int option : options) translatorOptions = translatorOptions + option;
+    public YandexCall getTextTranslation(String text, Language from, Language to, Format format, YandexCallback<Translation> callback, int... options) {
+        int translatorOptions = Option.encode(options);
 
-        String language = from == null ? to.toString() : MessageFormat.format("{0}-{1}", from, to);
+        String language = Language.direction(from, to);
 
         Call<ResponseBody> call = generateTextTranslationCall(text, language, format, translatorOptions);
 
-        Callback<ResponseBody> genericCallback = new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                try {
-                    callback.onResponse(ResponseParser.parseTextTranslation(text, response));
-                } catch (IOException exception) {
-                    callback.onFailure(exception);
+        return enqueue(Endpoint.TRANSLATE, call, response -> ResponseParser.parseTextTranslation(text, response), callback);
+    }
+
+    /**
+     * Метод для перевода потока текстов на указанный язык.
+     * <p>
+     * Этот метод создает асинхронные запросы к вышеупомянотому сервису по мере спроса получателя:
+     * одновременно выполняется не больше указанного кол-ва запросов, а следующий текст берется из источника
+     * только после выдачи очередного результата. Результат каждого текста вернется в виде объекта #BulkResult
+     * с объектом #Translation или ошибкой.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.stream.BulkPublisher}
+     * См. подробнее {@link ru.amayakasa.linguistic.response.BulkResult}
+     *
+     * @param texts          источник текстов для перевода;
+     * @param to             язык, на который будет совершен перевод;
+     * @param maxConcurrency максимальное кол-во одновременных запросов;
+     * @param ordered        выдавать ли результаты в порядке текстов (иначе — в порядке завершения запросов);
+     * @param options        опции для переводчика (опционально);
+     * @return источник результатов перевода.
+     */
+    public Publisher<BulkResult<String, Translation>> getTextTranslations(Publisher<String> texts, Language to, int maxConcurrency,
+                                                                         boolean ordered, int... options) {
+        return new BulkPublisher<>(texts, (text, callback) -> getTextTranslation(text, to, callback, options), maxConcurrency, ordered);
+    }
+
+    /**
+     * Метод для перевода набора текстов на указанный язык.
+     * <p>
+     * Этот метод создает асинхронные запросы к вышеупомянотому сервису, одновременно выполняя не больше
+     * указанного кол-ва запросов, и ждет результатов всех текстов. Результат каждого текста вернется
+     * в виде объекта #BulkResult с объектом #Translation или ошибкой, в порядке текстов.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.response.BulkResult}
+     *
+     * @param texts          тексты для перевода;
+     * @param to             язык, на который будет совершен перевод;
+     * @param maxConcurrency максимальное кол-во одновременных запросов;
+     * @param options        опции для переводчика (опционально);
+     * @return результаты перевода в порядке текстов.
+     * @throws InterruptedException если поток прерван во время ожидания.
+     */
+    public List<BulkResult<String, Translation>> getTextTranslations(Iterable<String> texts, Language to, int maxConcurrency,
+                                                                    int... options) throws InterruptedException {
+        List<BulkResult<String, Translation>> results = texts instanceof Collection
+                ? new ArrayList<>(((Collection<String>) texts).size())
+                : new ArrayList<>();
+
+        getTextTranslations(texts, to, maxConcurrency, true, results::add, options);
+
+        return results;
+    }
+
+    /**
+     * Метод для перевода набора текстов на указанный язык с обработкой результатов по мере готовности.
+     * <p>
+     * Этот метод создает асинхронные запросы к вышеупомянотому сервису, одновременно выполняя не больше
+     * указанного кол-ва запросов. Тексты берутся из набора по мере освобождения мест, поэтому набор может быть
+     * сколь угодно большим. Результат каждого текста в виде объекта #BulkResult с объектом #Translation
+     * или ошибкой передается обработчику в потоке, вызвавшем метод, в порядке текстов или в порядке
+     * завершения запросов. Метод возвращает управление после обработки всех текстов.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.stream.BulkPublisher#forEach}
+     *
+     * @param texts          тексты для перевода;
+     * @param to             язык, на который будет совершен перевод;
+     * @param maxConcurrency максимальное кол-во одновременных запросов;
+     * @param ordered        передавать ли результаты в порядке текстов (иначе — в порядке завершения запросов);
+     * @param consumer       обработчик результатов;
+     * @param options        опции для переводчика (опционально).
+     * @throws InterruptedException если поток прерван во время ожидания.
+     */
+    public void getTextTranslations(Iterable<String> texts, Language to, int maxConcurrency, boolean ordered,
+                                    Consumer<? super BulkResult<String, Translation>> consumer, int... options) throws InterruptedException {
+        new BulkPublisher<String, Translation>(new IterablePublisher<>(texts),
+                (text, callback) -> getTextTranslation(text, to, callback, options), maxConcurrency, ordered).forEach(consumer);
+    }
+
+    /**
+     * Метод для перевода потока текстов на указанный язык с обработкой результатов по мере готовности.
+     * <p>
+     * См. подробнее {@link #getTextTranslations(Iterable, Language, int, boolean, Consumer, int...)}
+     *
+     * @param texts          поток текстов для перевода (обходится один раз);
+     * @param to             язык, на который будет совершен перевод;
+     * @param maxConcurrency максимальное кол-во одновременных запросов;
+     * @param ordered        передавать ли результаты в порядке текстов (иначе — в порядке завершения запросов);
+     * @param consumer       обработчик результатов;
+     * @param options        опции для переводчика (опционально).
+     * @throws InterruptedException если поток прерван во время ожидания.
+     */
+    public void getTextTranslations(Stream<String> texts, Language to, int maxConcurrency, boolean ordered,
+                                    Consumer<? super BulkResult<String, Translation>> consumer, int... options) throws InterruptedException {
+        getTextTranslations((Iterable<String>) texts::iterator, to, maxConcurrency, ordered, consumer, options);
+    }
+
+    /**
+     * Метод для перевода указанного текста сразу на несколько языков.
+     * <p>
+     * См. подробнее {@link #getMultiTranslation(String, Language, Collection, Format, long, TimeUnit, int...)}
+     *
+     * @param text    текст для дальнейшего перевода;
+     * @param targets языки, на которые будет совершен перевод;
+     * @param timeout общий срок ожидания всех переводов;
+     * @param unit    единица измерения срока;
+     * @param options опции для переводчика (опционально);
+     * @return переводы по языкам и ошибки по языкам, на которые перевод не получен.
+     * @throws InterruptedException если поток прерван во время ожидания.
+     */
+    public MultiTranslation getMultiTranslation(String text, Collection<Language> targets, long timeout, TimeUnit unit,
+                                                int... options) throws InterruptedException {
+        return getMultiTranslation(text, null, targets, Format.PLAIN, timeout, unit, options);
+    }
+
+    /**
+     * Метод для перевода указанного текста сразу на несколько языков.
+     * <p>
+     * В отличие от методов {@code getTextTranslations} (много текстов на один язык), здесь один текст
+     * переводится на много языков.
+     * Если язык текста не указан, он определяется один раз отдельным запросом, после чего запросы на перевод
+     * на все языки отправляются параллельно с известным направлением перевода. Все запросы, включая определение
+     * языка, укладываются в общий срок ожидания (и в срок {@link Deadline}, если он уже задан в потоке):
+     * по его истечении незавершенные запросы отменяются,
+     * а для их языков вместо перевода возвращается {@link TimeoutException}. Ошибка перевода на один язык
+     * не прерывает перевод на остальные. Если язык текста определить не удалось, сервис определяет его
+     * сам в каждом запросе на перевод.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.response.MultiTranslation}
+     *
+     * @param text    текст для дальнейшего перевода;
+     * @param from    язык, с которого будет совершен перевод (null — определить автоматически);
+     * @param targets языки, на которые будет совершен перевод;
+     * @param format  формат переводимого текста;
+     * @param timeout общий срок ожидания всех переводов;
+     * @param unit    единица измерения срока;
+     * @param options опции для переводчика (опционально);
+     * @return переводы по языкам и ошибки по языкам, на которые перевод не получен.
+     * @throws InterruptedException если поток прерван во время ожидания (все запросы при этом отменяются).
+     */
+    @SuppressWarnings("try")
+    public MultiTranslation getMultiTranslation(String text, Language from, Collection<Language> targets, Format format,
+                                                long timeout, TimeUnit unit, int... options) throws InterruptedException {
+        Deadline deadline = Deadline.after(timeout, unit).earliest(Deadline.current());
+
+        try (Deadline.Scope ignored = deadline.attach()) {
+            return translateWithin(text, from, new LinkedHashSet<>(targets), format, deadline, Option.encode(options));
+        }
+    }
+
+    /**
+     * Перевод текста на несколько языков в пределах срока, который уже действует в текущем потоке.
+     *
+     * @param text              текст для дальнейшего перевода;
+     * @param from              язык, с которого будет совершен перевод (null — определить автоматически);
+     * @param languages         языки, на которые будет совершен перевод;
+     * @param format            формат переводимого текста;
+     * @param deadline          срок ожидания;
+     * @param translatorOptions опции для переводчика;
+     * @return переводы по языкам и ошибки по языкам, на которые перевод не получен.
+     * @throws InterruptedException если поток прерван во время ожидания.
+     */
+    private MultiTranslation translateWithin(String text, Language from, Set<Language> languages, Format format,
+                                             Deadline deadline, int translatorOptions) throws InterruptedException {
+        Language source = from == null || from == Language.AUTODETECT ? detectTextLanguage(text, deadline) : from;
+
+        Map<Language, Translation> translations = new ConcurrentHashMap<>();
+        Map<Language, Throwable> failures = new ConcurrentHashMap<>();
+
+        CountDownLatch done = new CountDownLatch(languages.size());
+
+        AtomicBoolean expired = new AtomicBoolean();
+
+        List<YandexCall> calls = new ArrayList<>(languages.size());
+
+        for (Language to : languages) {
+            Call<ResponseBody> call = generateTextTranslationCall(text, Language.direction(source, to), format, translatorOptions);
+
+            calls.add(enqueue(Endpoint.TRANSLATE, call, response -> ResponseParser.parseTextTranslation(text, response), new YandexCallback<Translation>() {
+                @Override
+                public void onResponse(Translation translation) {
+                    if (!expired.get()) translations.put(to, translation);
+
+                    done.countDown();
                 }
-            }
 
+                @Override
+                public void onFailure(Throwable throwable) {
+                    if (!expired.get()) failures.put(to, throwable);
+
+                    done.countDown();
+                }
+            }));
+        }
+
+        try {
+            done.await(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } finally {
+            expired.set(true);
+
+            for (YandexCall call : calls) call.cancel();
+        }
+
+        Map<Language, Translation> received = new LinkedHashMap<>();
+        Map<Language, Throwable> missed = new LinkedHashMap<>();
+
+        for (Language to : languages) {
+            Translation translation = translations.get(to);
+
+            if (translation != null) received.put(to, translation);
+            else missed.put(to, failures.getOrDefault(to, new TimeoutException("Translation deadline expired")));
+        }
+
+        return new MultiTranslation(text, source, received, missed);
+    }
+
+    /**
+     * Определение языка текста в пределах срока ожидания.
+     *
+     * @param text     текст для определения языка;
+     * @param deadline срок ожидания;
+     * @return язык текста или null, если его не удалось определить до истечения срока.
+     * @throws InterruptedException если поток прерван во время ожидания.
+     */
+    private Language detectTextLanguage(String text, Deadline deadline) throws InterruptedException {
+        CompletableFuture<Language> language = new CompletableFuture<>();
+
+        Call<ResponseBody> call = generateTextLanguageCall(text, null);
+
+        YandexCall detection = enqueue(Endpoint.DETECT, call, ResponseParser::parseTextLanguage, new YandexCallback<Language>() {
             @Override
-            public void onFailure(Call<ResponseBody> call, Throwable throwable) {
-                callback.onFailure(throwable);
+            public void onResponse(Language response) {
+                language.complete(response);
             }
-        };
 
-        call.enqueue(genericCallback);
+            @Override
+            public void onFailure(Throwable throwable) {
+                language.completeExceptionally(throwable);
+            }
+        });
+
+        try {
+            return language.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | TimeoutException exception) {
+            detection.cancel();
+            return null;
+        } catch (InterruptedException exception) {
+            detection.cancel();
+            throw exception;
+        }
     }
 
     /**
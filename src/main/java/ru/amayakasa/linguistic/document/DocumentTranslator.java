@@ -0,0 +1,350 @@
+package ru.amayakasa.linguistic.document;
+
+import ru.amayakasa.linguistic.YandexTranslator;
+import ru.amayakasa.linguistic.http.Deadline;
+import ru.amayakasa.linguistic.http.YandexCall;
+import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.parameters.Format;
+import ru.amayakasa.linguistic.parameters.Language;
+import ru.amayakasa.linguistic.response.Translation;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Инкрементальный перевод редактируемых документов при помощи Яндекс.Переводчика.
+ * <p>
+ * Документ разбивается на предложения (для HTML — на строки, чтобы не разрывать разметку).
+ * Каждый сегмент хранится под ключом из хэша его текста, направления перевода и формата.
+ * При переводе новой редакции документа сохраненные переводы неизмененных сегментов используются повторно,
+ * а к сервису параллельно отправляются только новые или измененные сегменты. Пробелы и переводы строк
+ * между сегментами переносятся в результат без изменений.
+ * <p>
+ * Хранилище ограничено по кол-ву сегментов, при переполнении вытесняются давно не использованные переводы.
+ * <p>
+ * Методы перевода блокируют вызывающий поток до получения переводов всех сегментов. Ожидание ограничено
+ * сроком {@link Deadline}, если он задан в потоке или передан явно. При первой ошибке, истечении срока
+ * или прерывании потока остальные запросы отменяются.
+ * <p>
+ * См. подробнее {@link ru.amayakasa.linguistic.YandexTranslator}  — Яндекс.Переводчик.
+ *
+ * @author Amayakasa
+ */
+public class DocumentTranslator {
+
+    /**
+     * Максимальное кол-во сохраненных переводов сегментов по умолчанию.
+     */
+    public static final int DEFAULT_CAPACITY = 100_000;
+
+    /**
+     * Максимальное кол-во одновременных запросов к сервису по умолчанию.
+     */
+    public static final int DEFAULT_PARALLELISM = 8;
+
+    private final YandexTranslator translator;
+    private final int parallelism;
+
+    private final Map<Segment, Translation> translations;
+
+    /**
+     * Конструктор для инициализации нового объекта #DocumentTranslator.
+     *
+     * @param translator враппер Яндекс.Переводчика, через который выполняются запросы.
+     */
+    public DocumentTranslator(YandexTranslator translator) {
+        this(translator, DEFAULT_PARALLELISM, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Конструктор для инициализации нового объекта #DocumentTranslator.
+     *
+     * @param translator  враппер Яндекс.Переводчика, через который выполняются запросы;
+     * @param parallelism максимальное кол-во одновременных запросов к сервису;
+     * @param capacity    максимальное кол-во сохраненных переводов сегментов.
+     */
+    public DocumentTranslator(YandexTranslator translator, int parallelism, int capacity) {
+        this.translator = translator;
+        this.parallelism = Math.max(parallelism, 1);
+        this.translations = Collections.synchronizedMap(new LinkedHashMap<Segment, Translation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Segment, Translation> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * Перевод очередной редакции документа.
+     * <p>
+     * Метод блокирует поток до получения переводов всех сегментов или до первой ошибки.
+     * Ожидание ограничено только сроком {@link Deadline}, действующим в текущем потоке (если он задан).
+     *
+     * @param document текст документа;
+     * @param from     язык, с которого будет совершен перевод (null — определить автоматически);
+     * @param to       язык, на который будет совершен перевод;
+     * @param format   формат переводимого текста;
+     * @return объект-враппер #Translation для всего документа.
+     * @throws TimeoutException     если срок истек раньше, чем получены переводы всех сегментов;
+     * @throws InterruptedException если поток прерван во время ожидания;
+     * @throws Exception            при некорректном ответе или ошибке во время запроса.
+     */
+    public Translation translate(String document, Language from, Language to, Format format) throws Exception {
+        return translate(document, from, to, format, Deadline.current());
+    }
+
+    /**
+     * Перевод очередной редакции документа с ограничением времени ожидания.
+     * <p>
+     * См. подробнее {@link #translate(String, Language, Language, Format)}
+     *
+     * @param document текст документа;
+     * @param from     язык, с которого будет совершен перевод (null — определить автоматически);
+     * @param to       язык, на который будет совершен перевод;
+     * @param format   формат переводимого текста;
+     * @param timeout  срок ожидания переводов всех сегментов;
+     * @param unit     единица измерения срока;
+     * @return объект-враппер #Translation для всего документа.
+     * @throws TimeoutException     если срок истек раньше, чем получены переводы всех сегментов;
+     * @throws InterruptedException если поток прерван во время ожидания;
+     * @throws Exception            при некорректном ответе или ошибке во время запроса.
+     */
+    public Translation translate(String document, Language from, Language to, Format format,
+                                 long timeout, TimeUnit unit) throws Exception {
+        return translate(document, from, to, format, Deadline.after(timeout, unit).earliest(Deadline.current()));
+    }
+
+    /**
+     * Очистка хранилища переводов.
+     */
+    public void clear() {
+        translations.clear();
+    }
+
+    /**
+     * Перевод очередной редакции документа в пределах срока ожидания.
+     *
+     * @param document текст документа;
+     * @param from     язык, с которого будет совершен перевод (null — определить автоматически);
+     * @param to       язык, на который будет совершен перевод;
+     * @param format   формат переводимого текста;
+     * @param deadline срок ожидания (null — без срока);
+     * @return объект-враппер #Translation для всего документа.
+     * @throws Exception при некорректном ответе, ошибке во время запроса, истечении срока или прерывании потока.
+     */
+    private Translation translate(String document, Language from, Language to, Format format, Deadline deadline) throws Exception {
+        List<int[]> bounds = segment(document, from, format);
+
+        List<Segment> segments = new ArrayList<>(bounds.size());
+        Map<Segment, Translation> resolved = new HashMap<>();
+        Set<Segment> missing = new LinkedHashSet<>();
+
+        for (int[] bound : bounds) {
+            Segment segment = new Segment(document.substring(bound[0], bound[1]), from, to, format);
+
+            segments.add(segment);
+
+            if (resolved.containsKey(segment) || missing.contains(segment)) continue;
+
+            Translation translation = translations.get(segment);
+
+            if (translation != null) resolved.put(segment, translation);
+            else missing.add(segment);
+        }
+
+        resolved.putAll(translate(missing, deadline));
+
+        StringBuilder translated = new StringBuilder(document.length());
+
+        Language detected = from;
+
+        int cursor = 0;
+
+        for (int iterator = 0; iterator < segments.size(); iterator++) {
+            int[] bound = bounds.get(iterator);
+
+            Translation translation = resolved.get(segments.get(iterator));
+
+            if (detected == null) detected = translation.getFrom();
+
+            translated.append(document, cursor, bound[0]).append(translation.getTranslation());
+
+            cursor = bound[1];
+        }
+
+        translated.append(document, cursor, document.length());
+
+        return new Translation(document, detected == null ? Language.AUTODETECT : detected, to, translated.toString());
+    }
+
+    /**
+     * Параллельный перевод сегментов, для которых нет сохраненного перевода.
+     * При первой ошибке, истечении срока или прерывании потока незавершенные запросы отменяются.
+     *
+     * @param missing  сегменты, которые нуждаются в переводе;
+     * @param deadline срок ожидания (null — без срока);
+     * @return переводы сегментов.
+     * @throws Exception при некорректном ответе, ошибке во время запроса, истечении срока или прерывании потока.
+     */
+    @SuppressWarnings("try")
+    private Map<Segment, Translation> translate(Set<Segment> missing, Deadline deadline) throws Exception {
+        Map<Segment, Translation> translated = new HashMap<>();
+
+        if (missing.isEmpty()) return translated;
+
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicInteger remaining = new AtomicInteger(missing.size());
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+
+        List<YandexCall> calls = new ArrayList<>(missing.size());
+
+        try (Deadline.Scope ignored = deadline == null ? null : deadline.attach()) {
+            for (Segment segment : missing) {
+                if (deadline == null) permits.acquire();
+                else if (!permits.tryAcquire(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)) break;
+
+                if (completion.isDone()) break;
+
+                calls.add(translator.getTextTranslation(segment.text, segment.from, segment.to, segment.format, new YandexCallback<Translation>() {
+                    @Override
+                    public void onResponse(Translation response) {
+                        synchronized (translated) {
+                            translated.put(segment, response);
+                        }
+
+                        translations.put(segment, response);
+
+                        permits.release();
+
+                        if (remaining.decrementAndGet() == 0) completion.complete(null);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        completion.completeExceptionally(throwable);
+
+                        permits.release();
+                    }
+                }));
+            }
+
+            if (deadline == null) completion.get();
+            else completion.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException exception) {
+            throw new TimeoutException("Document translation deadline expired");
+        } catch (ExecutionException exception) {
+            Throwable throwable = exception.getCause();
+
+            if (throwable instanceof Exception) throw (Exception) throwable;
+
+            throw new Exception(throwable);
+        } finally {
+            for (YandexCall call : calls) call.cancel();
+        }
+
+        synchronized (translated) {
+            return new HashMap<>(translated);
+        }
+    }
+
+    /**
+     * Разбиение документа на сегменты без начальных и конечных пробелов.
+     *
+     * @param document текст документа;
+     * @param from     язык документа (для правил разбиения на предложения);
+     * @param format   формат документа;
+     * @return границы сегментов в виде пар индексов [начало, конец).
+     */
+    private static List<int[]> segment(String document, Language from, Format format) {
+        List<int[]> bounds = new ArrayList<>();
+
+        if (format == Format.HTML) {
+            int start = 0;
+
+            while (start <= document.length()) {
+                int end = document.indexOf('\n', start);
+
+                if (end < 0) end = document.length();
+
+                addTrimmed(document, start, end, bounds);
+
+                start = end + 1;
+            }
+
+            return bounds;
+        }
+
+        Locale locale = from == null || from == Language.AUTODETECT ? Locale.ROOT : new Locale(from.code);
+
+        BreakIterator sentences = BreakIterator.getSentenceInstance(locale);
+        sentences.setText(document);
+
+        int start = sentences.first();
+
+        for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+            addTrimmed(document, start, end, bounds);
+        }
+
+        return bounds;
+    }
+
+    private static void addTrimmed(String document, int start, int end, List<int[]> bounds) {
+        while (start < end && Character.isWhitespace(document.charAt(start))) start++;
+
+        while (end > start && Character.isWhitespace(document.charAt(end - 1))) end--;
+
+        if (start < end) bounds.add(new int[]{start, end});
+    }
+
+    /**
+     * Ключ сохраненного перевода: текст сегмента, направление перевода и формат.
+     */
+    private static final class Segment {
+
+        private final String text;
+        private final Language from;
+        private final Language to;
+        private final Format format;
+        private final int hash;
+
+        private Segment(String text, Language from, Language to, Format format) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+            this.format = format;
+            this.hash = Objects.hash(text, from, to, format);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+
+            if (!(object instanceof Segment)) return false;
+
+            Segment segment = (Segment) object;
+
+            return hash == segment.hash && from == segment.from && to == segment.to
+                    && format == segment.format && text.equals(segment.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
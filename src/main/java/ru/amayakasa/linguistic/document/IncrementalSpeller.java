@@ -0,0 +1,294 @@
+package ru.amayakasa.linguistic.document;
+
+import ru.amayakasa.linguistic.YandexSpeller;
+import ru.amayakasa.linguistic.parameters.Format;
+import ru.amayakasa.linguistic.parameters.Language;
+import ru.amayakasa.linguistic.response.Phrase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Инкрементальная проверка орфографии для редактируемых документов при помощи Яндекс.Спеллера.
+ * <p>
+ * Документ разбивается на абзацы (строки, разделенные символом '\n'). В формате {@link Format#HTML} перевод строки
+ * внутри тега, значения его атрибута или комментария абзац не завершает: такой абзац занимает несколько строк,
+ * а разметка не разрезается между запросами (непарный символ '<' в тексте только укрупняет абзацы).
+ * <p>
+ * Для каждого абзаца запоминается хэш его содержимого и результат проверки. При повторной проверке документа
+ * к сервису отправляются только новые или измененные абзацы — пачками через checkTexts, а результаты неизмененных
+ * абзацев берутся из кэша, и их позиции и строки сдвигаются с учетом нового положения абзаца в документе.
+ * Таким образом, стоимость повторной проверки определяется размером правки, а не размером документа.
+ * <p>
+ * Кэш хранит только абзацы последней проверенной версии документа.
+ * <p>
+ * См. подробнее {@link ru.amayakasa.linguistic.YandexSpeller}     — Яндекс.Спеллер.
+ *
+ * @author Amayakasa
+ */
+public class IncrementalSpeller {
+
+    /**
+     * Максимальный суммарный размер абзацев (в символах), отправляемых одним запросом checkTexts.
+     */
+    public static final int DEFAULT_BATCH_LIMIT = 10000;
+
+    private final YandexSpeller speller;
+    private final Language language;
+    private final Format format;
+    private final int options;
+    private final int batchLimit;
+
+    private Map<Integer, Paragraph> paragraphs = new HashMap<>();
+
+    /**
+     * Конструктор для инициализации нового объекта #IncrementalSpeller.
+     *
+     * @param speller  враппер Яндекс.Спеллера, через который выполняются запросы;
+     * @param language язык, на котором написан документ;
+     * @param format   формат проверяемого текста;
+     * @param options  опции для спеллера (сумма значений {@link ru.amayakasa.linguistic.parameters.Option}).
+     */
+    public IncrementalSpeller(YandexSpeller speller, Language language, Format format, int options) {
+        this(speller, language, format, options, DEFAULT_BATCH_LIMIT);
+    }
+
+    /**
+     * Конструктор для инициализации нового объекта #IncrementalSpeller.
+     *
+     * @param speller    враппер Яндекс.Спеллера, через который выполняются запросы;
+     * @param language   язык, на котором написан документ;
+     * @param format     формат проверяемого текста;
+     * @param options    опции для спеллера (сумма значений {@link ru.amayakasa.linguistic.parameters.Option});
+     * @param batchLimit максимальный суммарный размер абзацев в одном запросе.
+     */
+    public IncrementalSpeller(YandexSpeller speller, Language language, Format format, int options, int batchLimit) {
+        this.speller = speller;
+        this.language = language;
+        this.format = format;
+        this.options = options;
+        this.batchLimit = batchLimit;
+    }
+
+    /**
+     * Проверка очередной версии документа.
+     * <p>
+     * Позиции, номера строк и столбцов в результате указаны относительно всего документа.
+     *
+     * @param document текущее содержимое документа;
+     * @return объект-враппер #Phrase для всего документа.
+     * @throws Exception при некорректном ответе или ошибке во время запроса.
+     */
+    public synchronized Phrase check(String document) throws Exception {
+        List<Paragraph> current = new ArrayList<>();
+        List<Paragraph> changed = new ArrayList<>();
+
+        int start = 0;
+
+        while (start <= document.length()) {
+            int end = paragraphEnd(document, start);
+
+            Paragraph paragraph = lookup(document, start, end);
+
+            if (paragraph == null) {
+                paragraph = new Paragraph(document.substring(start, end));
+
+                if (isBlank(paragraph.text)) paragraph.phrase = new Phrase(paragraph.text, new ArrayList<>());
+                else changed.add(paragraph);
+            }
+
+            current.add(paragraph);
+
+            start = end + 1;
+        }
+
+        check(changed);
+
+        Map<Integer, Paragraph> cache = new HashMap<>();
+
+        List<Phrase.Word> words = new ArrayList<>();
+
+        int offset = 0;
+        int row = 0;
+
+        for (Paragraph paragraph : current) {
+            for (Phrase.Word word : paragraph.phrase.getMisspelledWords()) {
+                words.add(new Phrase.Word(
+                        word.getMistake(),
+                        word.getPosition() + offset,
+                        word.getRow() + row,
+                        word.getColumn(),
+                        word.getLength(),
+                        word.getText(),
+                        word.getVariants()
+                ));
+            }
+
+            paragraph.next = cache.get(paragraph.hash);
+            cache.put(paragraph.hash, paragraph);
+
+            offset = offset + paragraph.text.length() + 1;
+            row = row + paragraph.lines + 1;
+        }
+
+        paragraphs = cache;
+
+        return new Phrase(document, words);
+    }
+
+    /**
+     * Очистка кэша абзацев. Следующая проверка отправит весь документ заново.
+     */
+    public synchronized void reset() {
+        paragraphs = new HashMap<>();
+    }
+
+    /**
+     * Проверка измененных абзацев пачками через checkTexts.
+     *
+     * @param changed абзацы, которые нуждаются в проверке.
+     * @throws Exception при некорректном ответе или ошибке во время запроса.
+     */
+    private void check(List<Paragraph> changed) throws Exception {
+        int first = 0;
+
+        while (first < changed.size()) {
+            int last = first;
+            int size = 0;
+
+            while (last < changed.size() && (last == first || size + changed.get(last).text.length() <= batchLimit)) {
+                size = size + changed.get(last).text.length();
+                last++;
+            }
+
+            String[] text = new String[last - first];
+
+            for (int iterator = first; iterator < last; iterator++) text[iterator - first] = changed.get(iterator).text;
+
+            List<Phrase> phrases = speller.getSpelledPhrases(text, language, format, options);
+
+            for (int iterator = first; iterator < last; iterator++) changed.get(iterator).phrase = phrases.get(iterator - first);
+
+            first = last;
+        }
+    }
+
+    /**
+     * Поиск конца абзаца: ближайший символ '\n', а в формате {@link Format#HTML} — ближайший символ '\n' вне тега
+     * и комментария. Абзац всегда начинается с начала строки, поэтому столбцы слов в нем совпадают со столбцами
+     * в документе.
+     *
+     * @param document документ;
+     * @param start    индекс начала абзаца (вне разметки);
+     * @return индекс конца абзаца (исключительно).
+     */
+    private int paragraphEnd(String document, int start) {
+        if (format != Format.HTML) {
+            int end = document.indexOf('\n', start);
+
+            return end < 0 ? document.length() : end;
+        }
+
+        boolean tag = false;
+        char quote = 0;
+
+        for (int iterator = start; iterator < document.length(); iterator++) {
+            char next = document.charAt(iterator);
+
+            if (tag) {
+                if (quote != 0) {
+                    if (next == quote) quote = 0;
+                } else if (next == '"' || next == '\'') {
+                    quote = next;
+                } else if (next == '>') {
+                    tag = false;
+                }
+            } else if (next == '<') {
+                if (document.startsWith("<!--", iterator)) {
+                    int close = document.indexOf("-->", iterator + 4);
+
+                    if (close < 0) return document.length();
+
+                    iterator = close + 2;
+                } else {
+                    tag = true;
+                }
+            } else if (next == '\n') {
+                return iterator;
+            }
+        }
+
+        return document.length();
+    }
+
+    /**
+     * Поиск абзаца из предыдущей версии документа с тем же содержимым, без выделения подстроки.
+     *
+     * @param document документ;
+     * @param start    индекс начала абзаца (включительно);
+     * @param end      индекс конца абзаца (исключительно);
+     * @return найденный абзац или null, если абзац новый или изменился.
+     */
+    private Paragraph lookup(String document, int start, int end) {
+        int hash = 0;
+
+        for (int iterator = start; iterator < end; iterator++) hash = 31 * hash + document.charAt(iterator);
+
+        for (Paragraph paragraph = paragraphs.get(hash); paragraph != null; paragraph = paragraph.next) {
+            if (paragraph.text.length() == end - start && document.regionMatches(start, paragraph.text, 0, end - start)) {
+                return paragraph.reuse();
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean isBlank(String text) {
+        for (int iterator = 0; iterator < text.length(); iterator++) {
+            if (!Character.isWhitespace(text.charAt(iterator))) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Абзац документа вместе с результатом его проверки (позиции указаны относительно абзаца).
+     */
+    private static final class Paragraph {
+
+        private final String text;
+        private final int hash;
+
+        // Кол-во переводов строки внутри абзаца (бывают только в HTML)
+        private final int lines;
+
+        private Phrase phrase;
+
+        private Paragraph next;
+
+        private Paragraph(String text) {
+            this.text = text;
+            this.hash = text.hashCode();
+            this.lines = count(text, '\n');
+        }
+
+        private static int count(String text, char character) {
+            int count = 0;
+
+            for (int iterator = text.indexOf(character); iterator >= 0; iterator = text.indexOf(character, iterator + 1)) count++;
+
+            return count;
+        }
+
+        /**
+         * Копия абзаца для новой версии документа (один и тот же абзац может встречаться несколько раз).
+         */
+        private Paragraph reuse() {
+            Paragraph paragraph = new Paragraph(text);
+            paragraph.phrase = phrase;
+            return paragraph;
+        }
+    }
+}
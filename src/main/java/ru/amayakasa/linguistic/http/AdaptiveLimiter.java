@@ -0,0 +1,427 @@
+package ru.amayakasa.linguistic.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Адаптивное ограничение кол-ва одновременных запросов к каждому методу сервиса (AIMD).
+ * <p>
+ * Для каждого метода ({@link Endpoint}) хранится текущий предел одновременных запросов. После каждого запроса
+ * предел пересчитывается по измеренному времени сети: успешный запрос без признаков перегрузки увеличивает
+ * предел примерно на единицу за каждые {@code предел} запросов (если предел действительно используется),
+ * а сетевая ошибка, ответ с кодом 5xx или среднее время сети последних запросов больше {@code rttTolerance}
+ * долгосрочного среднего уменьшают предел в {@code backoffRatio} раз (не больше одного раза для запросов,
+ * отправленных до предыдущего снижения). Так предел растет, пока сервис отвечает быстро, и быстро снижается
+ * при первых признаках перегрузки.
+ * <p>
+ * Запросы сверх предела ждут в очереди и отправляются по мере завершения предыдущих; если очередь заполнена,
+ * запрос сразу завершается {@link RejectedExecutionException}. Синхронный запрос ждет в очереди не дольше
+ * {@code maxWait}. Отмененные запросы и ошибки валидации ответа (коды 4xx) на предел не влияют.
+ * <p>
+ * Текущий предел передается в метрики врапперов ({@link ru.amayakasa.linguistic.metrics.YandexMetrics#onConcurrencyLimit})
+ * и доступен через {@link #getLimit(Endpoint)}. Один объект можно передать сразу нескольким врапперам
+ * через {@link YandexConfiguration.Builder#adaptiveLimiter(AdaptiveLimiter)}: тогда предел у них общий.
+ *
+ * @author Amayakasa
+ */
+public class AdaptiveLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private final EndpointLimit[] limits = new EndpointLimit[Endpoint.values().length];
+
+    private AdaptiveLimiter(Builder builder) {
+        if (builder.minLimit < 1 || builder.maxLimit < builder.minLimit) throw new IllegalArgumentException(
+                "Invalid limit range: " + builder.minLimit + ".." + builder.maxLimit
+        );
+
+        if (builder.backoffRatio <= 0 || builder.backoffRatio >= 1) throw new IllegalArgumentException(
+                "Backoff ratio must be in (0, 1): " + builder.backoffRatio
+        );
+
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.rttTolerance = builder.rttTolerance;
+        this.maxQueue = builder.maxQueue;
+        this.maxWaitNanos = builder.maxWaitNanos;
+
+        int initialLimit = Math.max(minLimit, Math.min(maxLimit, builder.initialLimit));
+
+        for (int index = 0; index < limits.length; index++) limits[index] = new EndpointLimit(initialLimit);
+    }
+
+    /**
+     * Создание нового объекта #Builder.
+     *
+     * @return построитель ограничения.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Геттер для получения текущего предела одновременных запросов.
+     *
+     * @param endpoint метод сервиса;
+     * @return предел одновременных запросов.
+     */
+    public int getLimit(Endpoint endpoint) {
+        EndpointLimit limit = limits[endpoint.ordinal()];
+
+        synchronized (limit) {
+            return (int) limit.limit;
+        }
+    }
+
+    /**
+     * Геттер для получения кол-ва выполняющихся запросов.
+     *
+     * @param endpoint метод сервиса;
+     * @return кол-во выполняющихся запросов.
+     */
+    public int getInFlight(Endpoint endpoint) {
+        EndpointLimit limit = limits[endpoint.ordinal()];
+
+        synchronized (limit) {
+            return limit.inFlight;
+        }
+    }
+
+    /**
+     * Геттер для получения кол-ва запросов в очереди.
+     *
+     * @param endpoint метод сервиса;
+     * @return кол-во запросов, ожидающих разрешения.
+     */
+    public int getQueued(Endpoint endpoint) {
+        EndpointLimit limit = limits[endpoint.ordinal()];
+
+        synchronized (limit) {
+            return limit.queue.size();
+        }
+    }
+
+    /**
+     * Получение разрешения на синхронный запрос с ожиданием в очереди.
+     *
+     * @param endpoint метод сервиса;
+     * @param deadline срок запроса, ограничивающий ожидание (null — только {@code maxWait});
+     * @return разрешение, которое освобождается по завершении запроса.
+     * @throws RejectedExecutionException если очередь заполнена или разрешение не получено за {@code maxWait}.
+     * @throws InterruptedException       если поток прерван во время ожидания.
+     */
+    Permit acquire(Endpoint endpoint, Deadline deadline) throws InterruptedException {
+        EndpointLimit limit = limits[endpoint.ordinal()];
+
+        Waiter.Blocking<Permit> waiter;
+
+        synchronized (limit) {
+            if (limit.inFlight < (int) limit.limit && limit.queue.isEmpty()) return limit.grant();
+
+            if (limit.queue.size() >= maxQueue) throw rejected(endpoint, limit);
+
+            if (deadline != null && deadline.isExpired()) throw new RejectedExecutionException("Deadline expired");
+
+            waiter = new Waiter.Blocking<>();
+
+            limit.queue.add(waiter);
+        }
+
+        Permit permit;
+
+        try {
+            permit = waiter.await(waitNanos(deadline), Permit::ignore);
+        } catch (InterruptedException exception) {
+            remove(limit, waiter);
+
+            throw exception;
+        }
+
+        if (permit != null) return permit;
+
+        // Ожидающий уже захвачен таймаутом: без снятия с очереди он занимал бы место до следующего освобождения
+        remove(limit, waiter);
+
+        throw new RejectedExecutionException(endpoint + " concurrency limit wait timed out");
+    }
+
+    private static void remove(EndpointLimit limit, Waiter<Permit> waiter) {
+        synchronized (limit) {
+            limit.queue.remove(waiter);
+        }
+    }
+
+    private long waitNanos(Deadline deadline) {
+        if (deadline == null) return maxWaitNanos;
+
+        long remaining = Math.max(1, deadline.remaining(TimeUnit.NANOSECONDS));
+
+        return maxWaitNanos > 0 ? Math.min(maxWaitNanos, remaining) : remaining;
+    }
+
+    /**
+     * Получение разрешения на асинхронный запрос: ожидающий получает разрешение сразу или после завершения одного
+     * из выполняющихся запросов (в его потоке).
+     *
+     * @param endpoint метод сервиса;
+     * @param waiter   ожидающий, которому выдается разрешение;
+     * @param rejected обработчик отказа, если очередь заполнена;
+     * @return true, если запрос поставлен в очередь (его можно снять с нее через {@link #abandon(Endpoint, Waiter)}).
+     */
+    boolean acquire(Endpoint endpoint, Waiter<Permit> waiter, Consumer<RejectedExecutionException> rejected) {
+        EndpointLimit limit = limits[endpoint.ordinal()];
+
+        Permit permit;
+
+        synchronized (limit) {
+            if (limit.inFlight < (int) limit.limit && limit.queue.isEmpty()) {
+                permit = limit.grant();
+            } else if (limit.queue.size() >= maxQueue) {
+                permit = null;
+            } else {
+                limit.queue.add(waiter);
+                return true;
+            }
+        }
+
+        if (permit != null) waiter.grant(permit);
+        else rejected.accept(rejected(endpoint, limit));
+
+        return false;
+    }
+
+    /**
+     * Снятие асинхронного запроса с очереди (запрос отменен или истек его срок).
+     *
+     * @param endpoint метод сервиса;
+     * @param waiter   ожидающий;
+     * @return true, если запрос снят с очереди и разрешения не получит; false, если разрешение уже выдано.
+     */
+    boolean abandon(Endpoint endpoint, Waiter<Permit> waiter) {
+        EndpointLimit limit = limits[endpoint.ordinal()];
+
+        synchronized (limit) {
+            if (!limit.queue.remove(waiter)) return false;
+        }
+
+        return waiter.claim();
+    }
+
+    private RejectedExecutionException rejected(Endpoint endpoint, EndpointLimit limit) {
+        return new RejectedExecutionException(endpoint + " concurrency limit " + (int) limit.limit + " reached, queue is full");
+    }
+
+    /**
+     * Разрешение на один запрос.
+     */
+    final class Permit {
+
+        private final EndpointLimit owner;
+        private final int inFlight;
+        private final long startNanos = System.nanoTime();
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(EndpointLimit owner, int inFlight) {
+            this.owner = owner;
+            this.inFlight = inFlight;
+        }
+
+        /**
+         * Освобождение разрешения с учетом результата запроса.
+         *
+         * @param rttNanos время сети в наносекундах;
+         * @param dropped  признак перегрузки (сетевая ошибка или ответ 5xx);
+         * @return новый предел одновременных запросов.
+         */
+        int release(long rttNanos, boolean dropped) {
+            return released.compareAndSet(false, true) ? owner.release(this, rttNanos, dropped, true) : -1;
+        }
+
+        /**
+         * Освобождение разрешения без изменения предела (запрос отменен или не отправлен).
+         *
+         * @return текущий предел одновременных запросов.
+         */
+        int ignore() {
+            return released.compareAndSet(false, true) ? owner.release(this, 0, false, false) : -1;
+        }
+    }
+
+    /**
+     * Предел и очередь одного метода сервиса. Все поля защищены блокировкой объекта.
+     */
+    private final class EndpointLimit {
+
+        private static final int SHORT_WINDOW = 10;
+        private static final int LONG_WINDOW = 500;
+
+        private double limit;
+        private int inFlight;
+
+        private final ArrayDeque<Waiter<Permit>> queue = new ArrayDeque<>();
+
+        private double shortRtt, longRtt;
+        private long backoffNanos = Long.MIN_VALUE;
+
+        private EndpointLimit(int limit) {
+            this.limit = limit;
+        }
+
+        private Permit grant() {
+            return new Permit(this, ++inFlight);
+        }
+
+        private int release(Permit permit, long rttNanos, boolean dropped, boolean sample) {
+            List<Waiter<Permit>> granted = new ArrayList<>();
+            List<Permit> permits = new ArrayList<>();
+
+            int current;
+
+            synchronized (this) {
+                inFlight--;
+
+                if (sample) update(permit, rttNanos, dropped);
+
+                while (inFlight < (int) limit && !queue.isEmpty()) {
+                    Waiter<Permit> waiter = queue.poll();
+
+                    if (!waiter.claim()) continue;
+
+                    granted.add(waiter);
+                    permits.add(grant());
+                }
+
+                current = (int) limit;
+            }
+
+            for (int index = 0; index < granted.size(); index++) granted.get(index).grant(permits.get(index));
+
+            return current;
+        }
+
+        private void update(Permit permit, long rttNanos, boolean dropped) {
+            if (!dropped && rttNanos > 0) {
+                if (longRtt == 0) {
+                    shortRtt = longRtt = rttNanos;
+                } else {
+                    shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+                    longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+                }
+            }
+
+            if (dropped || shortRtt > rttTolerance * longRtt) {
+                // Запросы, отправленные до последнего снижения, уже учтены в нем: не больше одного снижения на поколение
+                if (permit.startNanos - backoffNanos > 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    backoffNanos = System.nanoTime();
+                }
+            } else if (permit.inFlight * 2 >= (int) limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    /**
+     * Построитель для #AdaptiveLimiter.
+     */
+    public static class Builder {
+
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+
+        private double backoffRatio = 0.9;
+        private double rttTolerance = 2.0;
+
+        private int maxQueue = 1000;
+        private long maxWaitNanos = TimeUnit.SECONDS.toNanos(10);
+
+        private Builder() {
+        }
+
+        /**
+         * Начальный предел одновременных запросов к каждому методу.
+         *
+         * @param initialLimit начальный предел;
+         * @return этот построитель.
+         */
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Границы предела одновременных запросов.
+         *
+         * @param minLimit минимальный предел;
+         * @param maxLimit максимальный предел;
+         * @return этот построитель.
+         */
+        public Builder limits(int minLimit, int maxLimit) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Множитель уменьшения предела при перегрузке.
+         *
+         * @param backoffRatio множитель (от 0 до 1, по умолчанию 0.9);
+         * @return этот построитель.
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Во сколько раз среднее время сети последних запросов может превышать долгосрочное среднее, прежде чем запрос считается признаком перегрузки.
+         *
+         * @param rttTolerance допустимое превышение (по умолчанию 2.0);
+         * @return этот построитель.
+         */
+        public Builder rttTolerance(double rttTolerance) {
+            this.rttTolerance = rttTolerance;
+            return this;
+        }
+
+        /**
+         * Максимальное кол-во запросов в очереди к каждому методу (0 — сразу отказывать сверх предела).
+         *
+         * @param maxQueue размер очереди;
+         * @return этот построитель.
+         */
+        public Builder maxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+            return this;
+        }
+
+        /**
+         * Максимальное время ожидания синхронного запроса в очереди.
+         *
+         * @param maxWait время ожидания (0 — без ограничения);
+         * @param unit    единица измерения;
+         * @return этот построитель.
+         */
+        public Builder maxWait(long maxWait, TimeUnit unit) {
+            this.maxWaitNanos = unit.toNanos(maxWait);
+            return this;
+        }
+
+        public AdaptiveLimiter build() {
+            return new AdaptiveLimiter(this);
+        }
+    }
+}
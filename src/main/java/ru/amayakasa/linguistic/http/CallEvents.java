@@ -0,0 +1,48 @@
+package ru.amayakasa.linguistic.http;
+
+import retrofit2.Call;
+
+/**
+ * Точка входа для событий Java Flight Recorder о запросах к сервисам.
+ * <p>
+ * Основная версия класса (Java 8) событий не создает: на запрос тратится одна проверка без выделения памяти.
+ * События пишет версия для Java 11+ из {@code META-INF/versions/11} многоверсионного jar (исходники
+ * в {@code src/main/java11}), которая собирается на JDK 11+ вместе с классом события.
+ *
+ * @author Amayakasa
+ */
+final class CallEvents {
+
+    private CallEvents() {
+    }
+
+    /**
+     * Начало события для указанного запроса.
+     *
+     * @param endpoint метод сервиса;
+     * @param call     запрос для HTTP-клиента;
+     * @return событие или null, если событие не записывается.
+     */
+    static Object begin(Endpoint endpoint, Call<?> call) {
+        return null;
+    }
+
+    /**
+     * Получен ответ с указанным кодом.
+     *
+     * @param event событие (может быть null);
+     * @param code  HTTP-код ответа.
+     */
+    static void respond(Object event, int code) {
+    }
+
+    /**
+     * Завершение и запись события.
+     *
+     * @param event      событие (может быть null);
+     * @param parseNanos время парсинга в наносекундах;
+     * @param throwable  ошибка, которой завершился запрос (null — запрос успешен).
+     */
+    static void end(Object event, long parseNanos, Throwable throwable) {
+    }
+}
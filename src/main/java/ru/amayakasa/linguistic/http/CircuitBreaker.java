@@ -0,0 +1,404 @@
+package ru.amayakasa.linguistic.http;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Автоматический выключатель (circuit breaker) запросов к деградировавшему методу сервиса.
+ * <p>
+ * Для каждого метода ({@link Endpoint}) или для всех методов одного сервиса ({@link Builder#perService()})
+ * учитываются последние {@code window} завершенных запросов. Запрос считается ошибочным при сетевой ошибке
+ * или ответе с кодом 5xx (кроме 501 — направление перевода не поддерживается), а медленным — если время сети
+ * не меньше {@code slowCall}. Когда в окне набралось не меньше {@code minCalls} запросов и доля ошибочных достигла
+ * {@code failureRate} или доля медленных достигла {@code slowCallRate}, выключатель размыкается: в течение
+ * {@code openDuration} запросы сразу завершаются {@link RejectedExecutionException} (или получают ответ
+ * {@link YandexFallback}) и не занимают потоки и соединения.
+ * <p>
+ * После {@code openDuration} выключатель пропускает {@code probes} пробных запросов (полуразомкнутое состояние),
+ * остальные по-прежнему отклоняются. Если доли ошибочных и медленных пробных запросов ниже порогов, выключатель
+ * замыкается с чистым окном, иначе снова размыкается. Отмененные запросы, прочие ошибки валидации ответа
+ * и запросы, отправленные до смены состояния, не учитываются.
+ * <p>
+ * Состояние передается в метрики врапперов ({@link ru.amayakasa.linguistic.metrics.YandexMetrics#onCircuitState})
+ * и доступно через {@link #getState(Endpoint)}. Один объект можно передать сразу нескольким врапперам
+ * через {@link YandexConfiguration.Builder#circuitBreaker(CircuitBreaker)}: тогда состояние у них общее.
+ *
+ * @author Amayakasa
+ */
+public class CircuitBreaker {
+
+    /**
+     * Состояние выключателя.
+     */
+    public enum State {
+
+        /**
+         * Запросы выполняются.
+         */
+        CLOSED,
+
+        /**
+         * Запросы сразу отклоняются.
+         */
+        OPEN,
+
+        /**
+         * Выполняются только пробные запросы.
+         */
+        HALF_OPEN
+    }
+
+    private static final int FAILED = 1;
+    private static final int SLOW = 2;
+
+    private final double failureRate;
+    private final double slowCallRate;
+    private final long slowCallNanos;
+    private final int window;
+    private final int minCalls;
+    private final long openNanos;
+    private final int probes;
+    private final YandexFallback fallback;
+
+    private final Circuit[] circuits = new Circuit[Endpoint.values().length];
+
+    private CircuitBreaker(Builder builder) {
+        if (builder.failureRate <= 0 || builder.failureRate > 1 || builder.slowCallRate <= 0 || builder.slowCallRate > 1) {
+            throw new IllegalArgumentException(
+                    "Rates must be in (0, 1]: failure " + builder.failureRate + ", slow call " + builder.slowCallRate
+            );
+        }
+
+        if (builder.window < 1 || builder.minCalls < 1 || builder.minCalls > builder.window) throw new IllegalArgumentException(
+                "Invalid window: " + builder.window + ", min calls " + builder.minCalls
+        );
+
+        if (builder.probes < 1) throw new IllegalArgumentException("Probes must be positive: " + builder.probes);
+
+        this.failureRate = builder.failureRate;
+        this.slowCallRate = builder.slowCallRate;
+        this.slowCallNanos = builder.slowCallNanos;
+        this.window = builder.window;
+        this.minCalls = builder.minCalls;
+        this.openNanos = builder.openNanos;
+        this.probes = builder.probes;
+        this.fallback = builder.fallback;
+
+        Endpoint[] endpoints = Endpoint.values();
+
+        for (int index = 0; index < circuits.length; index++) {
+            Endpoint endpoint = endpoints[index];
+
+            Circuit shared = null;
+
+            if (builder.perService) {
+                for (int other = 0; other < index && shared == null; other++) {
+                    if (endpoints[other].service.equals(endpoint.service)) shared = circuits[other];
+                }
+            }
+
+            circuits[index] = shared == null ? new Circuit(builder.perService ? endpoint.service : endpoint.toString()) : shared;
+        }
+    }
+
+    /**
+     * Создание нового объекта #Builder.
+     *
+     * @return построитель выключателя.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Геттер для получения текущего состояния выключателя.
+     *
+     * @param endpoint метод сервиса;
+     * @return состояние.
+     */
+    public State getState(Endpoint endpoint) {
+        Circuit circuit = circuits[endpoint.ordinal()];
+
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    /**
+     * Геттер для получения кол-ва отклоненных запросов.
+     *
+     * @param endpoint метод сервиса;
+     * @return кол-во запросов, отклоненных разомкнутым выключателем (общее для методов сервиса при {@link Builder#perService()}).
+     */
+    public long getRejected(Endpoint endpoint) {
+        return circuits[endpoint.ordinal()].rejected.sum();
+    }
+
+    /**
+     * Геттер для получения запасного источника ответов.
+     *
+     * @return запасной источник или null, если отклоненные запросы завершаются отказом.
+     */
+    public YandexFallback getFallback() {
+        return fallback;
+    }
+
+    /**
+     * Получение разрешения на запрос.
+     *
+     * @param endpoint метод сервиса;
+     * @return разрешение, которое освобождается по завершении запроса.
+     * @throws RejectedExecutionException если выключатель разомкнут или все пробные запросы уже отправлены.
+     */
+    Permit acquire(Endpoint endpoint) {
+        Circuit circuit = circuits[endpoint.ordinal()];
+
+        synchronized (circuit) {
+            Permit permit = circuit.tryAcquire();
+
+            if (permit != null) return permit;
+        }
+
+        circuit.rejected.increment();
+
+        throw new RejectedExecutionException(circuit.name + " circuit breaker is open");
+    }
+
+    /**
+     * Разрешение на один запрос.
+     */
+    final class Permit {
+
+        private final Circuit owner;
+        private final long generation;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Circuit owner, long generation) {
+            this.owner = owner;
+            this.generation = generation;
+        }
+
+        /**
+         * Освобождение разрешения с учетом результата запроса.
+         *
+         * @param networkNanos время сети в наносекундах;
+         * @param failed       признак ошибки сервиса (сетевая ошибка или ответ 5xx, кроме 501);
+         * @return новое состояние выключателя или null, если состояние не изменилось.
+         */
+        State release(long networkNanos, boolean failed) {
+            if (!released.compareAndSet(false, true)) return null;
+
+            int outcome = (failed ? FAILED : 0) | (networkNanos >= slowCallNanos ? SLOW : 0);
+
+            synchronized (owner) {
+                return owner.record(this, outcome);
+            }
+        }
+
+        /**
+         * Освобождение разрешения без учета результата (запрос отменен, не отправлен или отклонен как некорректный).
+         */
+        void ignore() {
+            if (!released.compareAndSet(false, true)) return;
+
+            synchronized (owner) {
+                if (owner.state == State.HALF_OPEN && generation == owner.generation) owner.started--;
+            }
+        }
+    }
+
+    /**
+     * Состояние и окно результатов одного метода или сервиса. Все поля защищены блокировкой объекта.
+     */
+    private final class Circuit {
+
+        private final String name;
+
+        private final LongAdder rejected = new LongAdder();
+
+        private State state = State.CLOSED;
+        private long generation;
+        private long openedNanos;
+
+        // Кольцевой буфер результатов: биты FAILED и SLOW
+        private final byte[] outcomes = new byte[window];
+        private int position, calls, failures, slowCalls;
+
+        // Пробные запросы полуразомкнутого состояния
+        private int started;
+
+        private Circuit(String name) {
+            this.name = name;
+        }
+
+        private Permit tryAcquire() {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedNanos < openNanos) return null;
+
+                transition(State.HALF_OPEN);
+            }
+
+            if (state == State.HALF_OPEN) {
+                if (started >= probes) return null;
+
+                started++;
+            }
+
+            return new Permit(this, generation);
+        }
+
+        private State record(Permit permit, int outcome) {
+            // Результаты запросов, отправленных до смены состояния, уже не относятся к нему
+            if (permit.generation != generation || state == State.OPEN) return null;
+
+            if (calls == outcomes.length) {
+                int evicted = outcomes[position];
+
+                if ((evicted & FAILED) != 0) failures--;
+                if ((evicted & SLOW) != 0) slowCalls--;
+            } else {
+                calls++;
+            }
+
+            outcomes[position] = (byte) outcome;
+            position = (position + 1) % outcomes.length;
+
+            if ((outcome & FAILED) != 0) failures++;
+            if ((outcome & SLOW) != 0) slowCalls++;
+
+            boolean tripped = failures >= failureRate * calls || slowCalls >= slowCallRate * calls;
+
+            if (state == State.HALF_OPEN) {
+                if (calls < probes) return null;
+
+                return transition(tripped ? State.OPEN : State.CLOSED);
+            }
+
+            return calls >= minCalls && tripped ? transition(State.OPEN) : null;
+        }
+
+        private State transition(State next) {
+            state = next;
+            generation++;
+
+            position = calls = failures = slowCalls = started = 0;
+
+            if (next == State.OPEN) openedNanos = System.nanoTime();
+
+            return next;
+        }
+    }
+
+    /**
+     * Построитель для #CircuitBreaker.
+     */
+    public static class Builder {
+
+        private double failureRate = 0.5;
+        private double slowCallRate = 0.8;
+        private long slowCallNanos = TimeUnit.SECONDS.toNanos(2);
+
+        private int window = 100;
+        private int minCalls = 20;
+
+        private long openNanos = TimeUnit.SECONDS.toNanos(10);
+        private int probes = 5;
+
+        private boolean perService;
+
+        private YandexFallback fallback;
+
+        private Builder() {
+        }
+
+        /**
+         * Доля ошибочных запросов, при которой выключатель размыкается (по умолчанию 0.5).
+         *
+         * @param failureRate доля ошибочных запросов;
+         * @return этот построитель.
+         */
+        public Builder failureRate(double failureRate) {
+            this.failureRate = failureRate;
+            return this;
+        }
+
+        /**
+         * Время сети, начиная с которого запрос считается медленным, и доля медленных запросов,
+         * при которой выключатель размыкается (по умолчанию 2 с и 0.8).
+         *
+         * @param slowCall     время медленного запроса;
+         * @param unit         единица измерения;
+         * @param slowCallRate доля медленных запросов;
+         * @return этот построитель.
+         */
+        public Builder slowCalls(long slowCall, TimeUnit unit, double slowCallRate) {
+            this.slowCallNanos = unit.toNanos(slowCall);
+            this.slowCallRate = slowCallRate;
+            return this;
+        }
+
+        /**
+         * Размер окна последних запросов и минимальное кол-во запросов в окне до размыкания (по умолчанию 100 и 20).
+         *
+         * @param window   размер окна;
+         * @param minCalls минимальное кол-во запросов;
+         * @return этот построитель.
+         */
+        public Builder window(int window, int minCalls) {
+            this.window = window;
+            this.minCalls = minCalls;
+            return this;
+        }
+
+        /**
+         * Время в разомкнутом состоянии до пробных запросов (по умолчанию 10 с).
+         *
+         * @param openDuration время в разомкнутом состоянии;
+         * @param unit         единица измерения;
+         * @return этот построитель.
+         */
+        public Builder openDuration(long openDuration, TimeUnit unit) {
+            this.openNanos = unit.toNanos(openDuration);
+            return this;
+        }
+
+        /**
+         * Кол-во пробных запросов в полуразомкнутом состоянии (по умолчанию 5).
+         *
+         * @param probes кол-во пробных запросов;
+         * @return этот построитель.
+         */
+        public Builder probes(int probes) {
+            this.probes = probes;
+            return this;
+        }
+
+        /**
+         * Одно состояние на все методы сервиса вместо отдельного состояния для каждого метода.
+         *
+         * @return этот построитель.
+         */
+        public Builder perService() {
+            this.perService = true;
+            return this;
+        }
+
+        /**
+         * Запасной источник ответов для отклоненных запросов (см. {@link YandexFallback}).
+         *
+         * @param fallback запасной источник (null — завершать отклоненные запросы отказом);
+         * @return этот построитель.
+         */
+        public Builder fallback(YandexFallback fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ru.amayakasa.linguistic.http;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Срок, до которого должен завершиться запрос к сервису.
+ * <p>
+ * Срок задается для всех запросов, отправленных в текущем потоке внутри блока {@link #attach()}:
+ * <pre>{@code
+ * try (Deadline.Scope scope = Deadline.after(300, TimeUnit.MILLISECONDS).attach()) {
+ *     Translation translation = translator.getTextTranslation(text, Language.RUSSIAN);
+ * }
+ * }</pre>
+ * Для каждого запроса срок становится таймаутом вызова OkHttp: по его истечении соединение закрывается,
+ * повторы не выполняются, а ответ, полученный после срока, не парсится. Синхронный запрос завершается
+ * {@link java.util.concurrent.TimeoutException}, асинхронный — передает ее в колбэк. Срок асинхронного запроса
+ * действует и внутри его колбэка, поэтому запросы, отправленные из колбэка, укладываются в тот же срок.
+ * Вложенный блок не может продлить срок внешнего: действует наименьший из них.
+ * <p>
+ * См. подробнее {@link YandexCall}
+ *
+ * @author Amayakasa
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long nanos;
+
+    private Deadline(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Метод для получения срока, наступающего через указанное время.
+     *
+     * @param timeout время до срока;
+     * @param unit    единица измерения;
+     * @return срок.
+     */
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Метод для получения срока, действующего в текущем потоке.
+     *
+     * @return срок или null, если срок не задан.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Геттер для получения времени, оставшегося до срока.
+     *
+     * @param unit единица измерения;
+     * @return оставшееся время (0, если срок истек).
+     */
+    public long remaining(TimeUnit unit) {
+        return unit.convert(Math.max(0, nanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Истек ли срок.
+     *
+     * @return true, если срок истек.
+     */
+    public boolean isExpired() {
+        return nanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Метод для получения наименьшего из двух сроков.
+     *
+     * @param other другой срок (null — нет срока);
+     * @return наименьший срок.
+     */
+    public Deadline earliest(Deadline other) {
+        return other == null || nanos - other.nanos <= 0 ? this : other;
+    }
+
+    /**
+     * Установка срока для запросов текущего потока до закрытия блока.
+     *
+     * @return блок, закрытие которого восстанавливает предыдущий срок.
+     */
+    public Scope attach() {
+        Deadline previous = CURRENT.get();
+
+        CURRENT.set(earliest(previous));
+
+        return new Scope(previous);
+    }
+
+    /**
+     * Установка срока на время выполнения колбэка без учета внешнего срока потока диспетчера.
+     *
+     * @param deadline срок (null — без срока).
+     * @return блок, закрытие которого восстанавливает предыдущий срок.
+     */
+    static Scope replace(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+
+        CURRENT.set(deadline);
+
+        return new Scope(previous);
+    }
+
+    /**
+     * Выполнение задачи по истечении срока в общем потоке таймера (например, снятие запроса с очереди).
+     *
+     * @param task задача, которая должна быть быстрой;
+     * @return запланированная задача, которую можно отменить.
+     */
+    ScheduledFuture<?> schedule(Runnable task) {
+        return Timer.INSTANCE.schedule(task, remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[" + remaining(TimeUnit.MILLISECONDS) + " ms]";
+    }
+
+    /**
+     * Поток таймера создается при первом запросе, который ждет в очереди со сроком.
+     */
+    private static final class Timer {
+
+        private static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "YandexDeadline");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            // Большинство запросов покидает очередь до срока: отмененные задачи сразу убираются из очереди таймера
+            timer.setRemoveOnCancelPolicy(true);
+
+            return timer;
+        }
+    }
+
+    /**
+     * Блок действия срока, см. {@link #attach()}.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Deadline previous;
+
+        private Scope(Deadline previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.amayakasa.linguistic.http;
+
+/**
+ * Список методов Яндекс.Переводчика, Яндекс.Словаря, Яндекс.Предиктора и Яндекс.Спеллера.
+ * Используется для учета метрик и настройки поведения запросов отдельно для каждого метода.
+ * <p>
+ * См. подробнее {@link ru.amayakasa.linguistic.http.YandexService}
+ *
+ * @author Amayakasa
+ */
+public enum Endpoint {
+
+    TRANSLATOR_LANGUAGES("translate", "getLangs"),
+    DETECT("translate", "detect"),
+    TRANSLATE("translate", "translate"),
+    DICTIONARY_LANGUAGES("dictionary", "getLangs"),
+    LOOKUP("dictionary", "lookup"),
+    PREDICTOR_LANGUAGES("predictor", "getLangs"),
+    COMPLETE("predictor", "complete"),
+    CHECK_TEXT("speller", "checkText"),
+    CHECK_TEXTS("speller", "checkTexts");
+
+    public final String service;
+    public final String method;
+
+    private static final Endpoint[] VALUES = values();
+
+    Endpoint(String service, String method) {
+        this.service = service;
+        this.method = method;
+    }
+
+    /**
+     * Метод для получения метода сервиса по пути запроса, например {@code /api/v1.5/tr.json/translate}.
+     *
+     * @param path путь запроса;
+     * @return метод сервиса или null, если путь не относится ни к одному из сервисов.
+     */
+    public static Endpoint byPath(String path) {
+        int slash = path.lastIndexOf('/');
+
+        if (slash <= 0) return null;
+
+        String method = path.substring(slash + 1);
+        String service = service(path.substring(path.lastIndexOf('/', slash - 1) + 1, slash));
+
+        if (service == null) return null;
+
+        for (Endpoint endpoint : VALUES) {
+            if (endpoint.service.equals(service) && endpoint.method.equals(method)) return endpoint;
+        }
+
+        return null;
+    }
+
+    private static String service(String responseInterface) {
+        int dot = responseInterface.indexOf('.');
+
+        switch (dot < 0 ? responseInterface : responseInterface.substring(0, dot)) {
+            case "tr":
+                return "translate";
+            case "dicservice":
+                return "dictionary";
+            case "predict":
+                return "predictor";
+            case "spellservice":
+                return "speller";
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return service + "/" + method;
+    }
+}
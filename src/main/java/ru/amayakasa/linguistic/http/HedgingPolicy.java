@@ -0,0 +1,308 @@
+package ru.amayakasa.linguistic.http;
+
+import ru.amayakasa.linguistic.metrics.LatencyHistogram;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Дублирование (hedging) медленных запросов для сокращения хвоста задержек.
+ * <p>
+ * Все методы сервисов — идемпотентные GET-запросы, поэтому если ответ на запрос не пришел за время,
+ * равное {@code percentile}-му перцентилю недавнего времени сети этого метода, отправляется копия запроса
+ * ({@link retrofit2.Call#clone()}). Используется ответ, пришедший первым, а второй запрос отменяется.
+ * Ошибка одного из запросов не завершает вызов, пока второй еще выполняется. Перцентиль считается по окну
+ * из последних {@code window} ответов; пока ответов меньше {@code minSamples}, запросы не дублируются.
+ * <p>
+ * Дополнительная нагрузка ограничена бюджетом (token bucket): каждый запрос добавляет {@code budgetRatio}
+ * жетона (не больше {@code budgetBurst}), а каждая копия тратит один жетон. Так при бюджете 0.05 копий не больше
+ * ~5% от числа запросов, даже если сервис замедлился целиком и дублирование не помогает.
+ * <p>
+ * Дублируются только запросы врапперов с приоритетом {@link Priority#INTERACTIVE} к указанным методам
+ * (по умолчанию ко всем). Копия не занимает отдельного места {@link PriorityScheduler} и {@link AdaptiveLimiter}.
+ * Исходный синхронный запрос выполняется в вызывающем потоке, а его копия — асинхронно через диспетчер OkHttp,
+ * поэтому ограничения диспетчера ({@link YandexConfiguration.Builder#maxRequestsPerHost(int)}) касаются только копий.
+ * <p>
+ * Один объект передается врапперам через {@link YandexConfiguration.Builder#hedgingPolicy(HedgingPolicy)}.
+ *
+ * @author Amayakasa
+ */
+public class HedgingPolicy {
+
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final int minSamples;
+    private final int window;
+    private final double budgetRatio;
+    private final double budgetBurst;
+    private final Set<Endpoint> endpoints;
+
+    private final EndpointStats[] stats = new EndpointStats[Endpoint.values().length];
+
+    private double tokens;
+
+    private HedgingPolicy(Builder builder) {
+        if (builder.percentile <= 0 || builder.percentile >= 100) throw new IllegalArgumentException(
+                "Percentile must be in (0, 100): " + builder.percentile
+        );
+
+        if (builder.budgetRatio < 0 || builder.budgetBurst < 1) throw new IllegalArgumentException(
+                "Invalid budget: ratio " + builder.budgetRatio + ", burst " + builder.budgetBurst
+        );
+
+        this.percentile = builder.percentile;
+        this.minDelayNanos = builder.minDelayNanos;
+        this.maxDelayNanos = builder.maxDelayNanos;
+        this.minSamples = builder.minSamples;
+        this.window = Math.max(builder.window, builder.minSamples);
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetBurst = builder.budgetBurst;
+        this.endpoints = EnumSet.copyOf(builder.endpoints);
+
+        this.tokens = builder.budgetBurst;
+
+        for (int index = 0; index < stats.length; index++) stats[index] = new EndpointStats();
+    }
+
+    /**
+     * Создание нового объекта #Builder.
+     *
+     * @return построитель политики.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Геттер для получения текущей задержки перед отправкой копии запроса.
+     *
+     * @param endpoint метод сервиса;
+     * @param unit     единица измерения;
+     * @return задержка или -1, если ответов пока недостаточно.
+     */
+    public long getDelay(Endpoint endpoint, TimeUnit unit) {
+        long delay = stats[endpoint.ordinal()].delayNanos;
+
+        return delay < 0 ? -1 : unit.convert(delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Геттер для получения кол-ва отправленных копий запросов.
+     *
+     * @param endpoint метод сервиса;
+     * @return кол-во копий.
+     */
+    public long getHedges(Endpoint endpoint) {
+        return stats[endpoint.ordinal()].hedges.sum();
+    }
+
+    /**
+     * Геттер для получения кол-ва вызовов, в которых копия ответила раньше исходного запроса.
+     *
+     * @param endpoint метод сервиса;
+     * @return кол-во выигравших копий.
+     */
+    public long getHedgeWins(Endpoint endpoint) {
+        return stats[endpoint.ordinal()].wins.sum();
+    }
+
+    /**
+     * Дублируются ли запросы враппера с указанным приоритетом к методу.
+     */
+    boolean appliesTo(Endpoint endpoint, Priority priority) {
+        return priority == Priority.INTERACTIVE && endpoints.contains(endpoint);
+    }
+
+    /**
+     * Планирование копии запроса: задача выполняется по истечении задержки, если бюджет позволяет.
+     *
+     * @param endpoint метод сервиса;
+     * @param hedge    отправка копии;
+     * @return запланированная задача или null, если задержка пока неизвестна.
+     */
+    ScheduledFuture<?> schedule(Endpoint endpoint, Runnable hedge) {
+        synchronized (this) {
+            tokens = Math.min(budgetBurst, tokens + budgetRatio);
+        }
+
+        long delay = stats[endpoint.ordinal()].delayNanos;
+
+        if (delay < 0) return null;
+
+        return TIMER.schedule(() -> {
+            if (tryAcquire()) hedge.run();
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Учет времени сети ответа.
+     *
+     * @param endpoint     метод сервиса;
+     * @param networkNanos время сети в наносекундах;
+     * @param hedgeWon     ответила ли первой копия запроса.
+     */
+    void record(Endpoint endpoint, long networkNanos, boolean hedgeWon) {
+        EndpointStats endpointStats = stats[endpoint.ordinal()];
+
+        if (hedgeWon) endpointStats.wins.increment();
+
+        endpointStats.record(networkNanos);
+    }
+
+    /**
+     * Учет отправленной копии запроса.
+     *
+     * @param endpoint метод сервиса.
+     */
+    void onHedge(Endpoint endpoint) {
+        stats[endpoint.ordinal()].hedges.increment();
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (tokens < 1) return false;
+
+        tokens -= 1;
+        return true;
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "YandexHedging");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Копии большинства запросов не нужны: отмененные задачи сразу убираются из очереди таймера
+        timer.setRemoveOnCancelPolicy(true);
+
+        return timer;
+    }
+
+    /**
+     * Окно времени сети одного метода и вычисленная по нему задержка.
+     */
+    private final class EndpointStats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final AtomicLong samples = new AtomicLong();
+
+        private final LongAdder hedges = new LongAdder();
+        private final LongAdder wins = new LongAdder();
+
+        private volatile long delayNanos = -1;
+
+        private void record(long networkNanos) {
+            latency.record(networkNanos);
+
+            long count = samples.incrementAndGet();
+
+            // Перцентиль пересчитывается раз в 32 ответа, а окно начинается заново после window ответов
+            if (count < minSamples || count % 32 != 0 && count < window) return;
+
+            long delay = latency.getPercentile(percentile, TimeUnit.NANOSECONDS);
+
+            delayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, delay));
+
+            if (count >= window && samples.compareAndSet(count, 0)) latency.reset();
+        }
+    }
+
+    /**
+     * Построитель для #HedgingPolicy.
+     */
+    public static class Builder {
+
+        private double percentile = 95;
+
+        private long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(5);
+        private long maxDelayNanos = TimeUnit.SECONDS.toNanos(2);
+
+        private int minSamples = 100;
+        private int window = 2000;
+
+        private double budgetRatio = 0.05;
+        private double budgetBurst = 10;
+
+        private Set<Endpoint> endpoints = EnumSet.allOf(Endpoint.class);
+
+        private Builder() {
+        }
+
+        /**
+         * Перцентиль времени сети, после которого отправляется копия запроса (по умолчанию 95).
+         *
+         * @param percentile перцентиль;
+         * @return этот построитель.
+         */
+        public Builder percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Границы задержки перед отправкой копии (по умолчанию от 5 мс до 2 с).
+         *
+         * @param minDelay минимальная задержка;
+         * @param maxDelay максимальная задержка;
+         * @param unit     единица измерения;
+         * @return этот построитель.
+         */
+        public Builder delayBounds(long minDelay, long maxDelay, TimeUnit unit) {
+            this.minDelayNanos = unit.toNanos(minDelay);
+            this.maxDelayNanos = unit.toNanos(maxDelay);
+            return this;
+        }
+
+        /**
+         * Размер окна ответов для вычисления перцентиля и минимальное кол-во ответов до начала дублирования
+         * (по умолчанию 2000 и 100).
+         *
+         * @param window     размер окна;
+         * @param minSamples минимальное кол-во ответов;
+         * @return этот построитель.
+         */
+        public Builder window(int window, int minSamples) {
+            this.window = window;
+            this.minSamples = minSamples;
+            return this;
+        }
+
+        /**
+         * Бюджет копий: доля от числа запросов и запас для всплесков (по умолчанию 0.05 и 10).
+         *
+         * @param ratio доля копий;
+         * @param burst запас копий;
+         * @return этот построитель.
+         */
+        public Builder budget(double ratio, int burst) {
+            this.budgetRatio = ratio;
+            this.budgetBurst = burst;
+            return this;
+        }
+
+        /**
+         * Методы, запросы к которым дублируются (по умолчанию все).
+         *
+         * @param endpoint  метод сервиса;
+         * @param endpoints остальные методы сервиса;
+         * @return этот построитель.
+         */
+        public Builder endpoints(Endpoint endpoint, Endpoint... endpoints) {
+            this.endpoints = EnumSet.of(endpoint, endpoints);
+            return this;
+        }
+
+        public HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.amayakasa.linguistic.http;
+
+/**
+ * Класс приоритета запросов враппера для {@link PriorityScheduler}.
+ * <p>
+ * См. подробнее {@link YandexExecutor#setPriority(Priority)}
+ *
+ * @author Amayakasa
+ */
+public enum Priority {
+
+    /**
+     * Запросы, которых ждет пользователь: подсказки, проверка орфографии при вводе.
+     */
+    INTERACTIVE,
+
+    /**
+     * Фоновые запросы: пакетный перевод, ночные задачи.
+     */
+    BATCH
+}
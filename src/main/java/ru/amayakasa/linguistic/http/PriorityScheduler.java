@@ -0,0 +1,387 @@
+package ru.amayakasa.linguistic.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Планировщик запросов по классам приоритета ({@link Priority}) с общим ограничением одновременных запросов.
+ * <p>
+ * Всего одновременно выполняется не больше {@code maxConcurrency} запросов всех врапперов, использующих
+ * планировщик. Часть мест резервируется за классом (по умолчанию — за {@link Priority#INTERACTIVE}):
+ * остальные классы их не занимают, поэтому интерактивный запрос не ждет, пока фоновые запросы освободят места,
+ * а фоновые запросы используют всю остальную пропускную способность.
+ * <p>
+ * Запросы сверх ограничения ждут в отдельной очереди своего класса. Освободившееся место получает очередь,
+ * выбранная взвешенным циклическим перебором (smooth weighted round-robin) с весами классов, так что при
+ * нагрузке обоих классов места делятся в пропорции весов, а ни одна очередь не простаивает бесконечно.
+ * Если очередь класса заполнена, запрос сразу завершается {@link RejectedExecutionException}.
+ * Синхронный запрос ждет в очереди не дольше {@code maxWait}.
+ * <p>
+ * Асинхронные запросы после получения места попадают в диспетчер OkHttp, поэтому его ограничения
+ * ({@link YandexConfiguration.Builder#maxRequests(int)}, {@link YandexConfiguration.Builder#maxRequestsPerHost(int)})
+ * должны быть не меньше {@code maxConcurrency}, иначе в очереди диспетчера приоритеты снова перемешаются.
+ * <p>
+ * Один объект передается врапперам через {@link YandexConfiguration.Builder#priorityScheduler(PriorityScheduler)},
+ * а класс приоритета задается каждому врапперу через {@link YandexExecutor#setPriority(Priority)}.
+ *
+ * @author Amayakasa
+ */
+public class PriorityScheduler {
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private final int maxConcurrency;
+    private final int[] reserved = new int[PRIORITIES.length];
+    private final int[] weights = new int[PRIORITIES.length];
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    private final int[] inFlight = new int[PRIORITIES.length];
+    private final int[] currentWeights = new int[PRIORITIES.length];
+
+    private final List<ArrayDeque<Waiter<Slot>>> queues = new ArrayList<>();
+
+    private int totalInFlight;
+
+    private PriorityScheduler(Builder builder) {
+        int totalReserved = 0;
+
+        for (Priority priority : PRIORITIES) {
+            reserved[priority.ordinal()] = builder.reserved.getOrDefault(priority, 0);
+            weights[priority.ordinal()] = builder.weights.getOrDefault(priority, 1);
+
+            if (weights[priority.ordinal()] < 1) throw new IllegalArgumentException(
+                    "Weight must be positive: " + priority + "=" + weights[priority.ordinal()]
+            );
+
+            totalReserved += reserved[priority.ordinal()];
+
+            queues.add(new ArrayDeque<>());
+        }
+
+        if (builder.maxConcurrency < 1 || totalReserved >= builder.maxConcurrency) throw new IllegalArgumentException(
+                "Reserved capacity " + totalReserved + " must be less than maxConcurrency " + builder.maxConcurrency
+        );
+
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxQueue = builder.maxQueue;
+        this.maxWaitNanos = builder.maxWaitNanos;
+    }
+
+    /**
+     * Создание нового объекта #Builder.
+     *
+     * @return построитель планировщика.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Геттер для получения кол-ва выполняющихся запросов класса.
+     *
+     * @param priority класс приоритета;
+     * @return кол-во выполняющихся запросов.
+     */
+    public synchronized int getInFlight(Priority priority) {
+        return inFlight[priority.ordinal()];
+    }
+
+    /**
+     * Геттер для получения кол-ва запросов класса в очереди.
+     *
+     * @param priority класс приоритета;
+     * @return кол-во запросов, ожидающих места.
+     */
+    public synchronized int getQueued(Priority priority) {
+        return queues.get(priority.ordinal()).size();
+    }
+
+    /**
+     * Получение места для синхронного запроса с ожиданием в очереди класса.
+     *
+     * @param priority класс приоритета;
+     * @param deadline срок запроса, ограничивающий ожидание (null — только {@code maxWait});
+     * @return место, которое освобождается по завершении запроса.
+     * @throws RejectedExecutionException если очередь заполнена или место не получено за {@code maxWait}.
+     * @throws InterruptedException       если поток прерван во время ожидания.
+     */
+    Slot acquire(Priority priority, Deadline deadline) throws InterruptedException {
+        Waiter.Blocking<Slot> waiter;
+
+        synchronized (this) {
+            ArrayDeque<Waiter<Slot>> queue = queues.get(priority.ordinal());
+
+            if (queue.isEmpty() && hasCapacity(priority.ordinal())) return grant(priority.ordinal());
+
+            if (queue.size() >= maxQueue) throw rejected(priority);
+
+            if (deadline != null && deadline.isExpired()) throw new RejectedExecutionException("Deadline expired");
+
+            waiter = new Waiter.Blocking<>();
+
+            queue.add(waiter);
+        }
+
+        Slot slot;
+
+        try {
+            slot = waiter.await(waitNanos(deadline), Slot::release);
+        } catch (InterruptedException exception) {
+            remove(priority, waiter);
+
+            throw exception;
+        }
+
+        if (slot != null) return slot;
+
+        // Ожидающий уже захвачен таймаутом: без снятия с очереди он занимал бы место до следующего освобождения
+        remove(priority, waiter);
+
+        throw new RejectedExecutionException(priority + " queue wait timed out");
+    }
+
+    private synchronized void remove(Priority priority, Waiter<Slot> waiter) {
+        queues.get(priority.ordinal()).remove(waiter);
+    }
+
+    private long waitNanos(Deadline deadline) {
+        if (deadline == null) return maxWaitNanos;
+
+        long remaining = Math.max(1, deadline.remaining(TimeUnit.NANOSECONDS));
+
+        return maxWaitNanos > 0 ? Math.min(maxWaitNanos, remaining) : remaining;
+    }
+
+    /**
+     * Получение места для асинхронного запроса: ожидающий получает место сразу или после завершения одного
+     * из выполняющихся запросов (в его потоке).
+     *
+     * @param priority класс приоритета;
+     * @param waiter   ожидающий, которому выдается место;
+     * @param rejected обработчик отказа, если очередь заполнена;
+     * @return true, если запрос поставлен в очередь (его можно снять с нее через {@link #abandon(Waiter)}).
+     */
+    boolean acquire(Priority priority, Waiter<Slot> waiter, Consumer<RejectedExecutionException> rejected) {
+        Slot slot;
+
+        synchronized (this) {
+            ArrayDeque<Waiter<Slot>> queue = queues.get(priority.ordinal());
+
+            if (queue.isEmpty() && hasCapacity(priority.ordinal())) {
+                slot = grant(priority.ordinal());
+            } else if (queue.size() >= maxQueue) {
+                slot = null;
+            } else {
+                queue.add(waiter);
+                return true;
+            }
+        }
+
+        if (slot != null) waiter.grant(slot);
+        else rejected.accept(rejected(priority));
+
+        return false;
+    }
+
+    /**
+     * Снятие асинхронного запроса с очереди (запрос отменен или истек его срок).
+     *
+     * @param waiter ожидающий;
+     * @return true, если запрос снят с очереди и места не получит; false, если место уже выдано.
+     */
+    boolean abandon(Waiter<Slot> waiter) {
+        synchronized (this) {
+            boolean removed = false;
+
+            for (ArrayDeque<Waiter<Slot>> queue : queues) removed |= queue.remove(waiter);
+
+            if (!removed) return false;
+        }
+
+        return waiter.claim();
+    }
+
+    private RejectedExecutionException rejected(Priority priority) {
+        return new RejectedExecutionException(priority + " queue is full");
+    }
+
+    /**
+     * Есть ли свободное место для класса с учетом мест, зарезервированных за остальными классами.
+     */
+    private boolean hasCapacity(int priority) {
+        if (totalInFlight >= maxConcurrency) return false;
+
+        int reservedByOthers = 0;
+
+        for (int other = 0; other < reserved.length; other++) {
+            if (other != priority) reservedByOthers += Math.max(0, reserved[other] - inFlight[other]);
+        }
+
+        return totalInFlight + reservedByOthers < maxConcurrency;
+    }
+
+    private Slot grant(int priority) {
+        inFlight[priority]++;
+        totalInFlight++;
+
+        return new Slot(priority);
+    }
+
+    private void release(int priority) {
+        List<Waiter<Slot>> granted = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+
+        synchronized (this) {
+            inFlight[priority]--;
+            totalInFlight--;
+
+            int next;
+
+            while ((next = next()) >= 0) {
+                Waiter<Slot> waiter = queues.get(next).poll();
+
+                if (!waiter.claim()) continue;
+
+                granted.add(waiter);
+                slots.add(grant(next));
+            }
+        }
+
+        for (int index = 0; index < granted.size(); index++) granted.get(index).grant(slots.get(index));
+    }
+
+    /**
+     * Выбор очереди для освободившегося места взвешенным циклическим перебором среди очередей,
+     * у которых есть ожидающие и свободное место.
+     *
+     * @return номер класса или -1, если место некому отдать.
+     */
+    private int next() {
+        int selected = -1;
+        int totalWeight = 0;
+
+        for (int priority = 0; priority < weights.length; priority++) {
+            if (queues.get(priority).isEmpty() || !hasCapacity(priority)) continue;
+
+            currentWeights[priority] += weights[priority];
+            totalWeight += weights[priority];
+
+            if (selected < 0 || currentWeights[priority] > currentWeights[selected]) selected = priority;
+        }
+
+        if (selected >= 0) currentWeights[selected] -= totalWeight;
+
+        return selected;
+    }
+
+    /**
+     * Место для одного запроса.
+     */
+    final class Slot {
+
+        private final int priority;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(int priority) {
+            this.priority = priority;
+        }
+
+        /**
+         * Освобождение места по завершении запроса (повторные вызовы игнорируются).
+         */
+        void release() {
+            if (released.compareAndSet(false, true)) PriorityScheduler.this.release(priority);
+        }
+    }
+
+    /**
+     * Построитель для #PriorityScheduler.
+     */
+    public static class Builder {
+
+        private int maxConcurrency = 64;
+
+        private final Map<Priority, Integer> reserved = new EnumMap<>(Priority.class);
+        private final Map<Priority, Integer> weights = new EnumMap<>(Priority.class);
+
+        private int maxQueue = 1000;
+        private long maxWaitNanos = TimeUnit.SECONDS.toNanos(10);
+
+        private Builder() {
+            reserved.put(Priority.INTERACTIVE, 8);
+            weights.put(Priority.INTERACTIVE, 4);
+            weights.put(Priority.BATCH, 1);
+        }
+
+        /**
+         * Максимальное кол-во одновременных запросов всех классов (по умолчанию 64).
+         *
+         * @param maxConcurrency кол-во запросов;
+         * @return этот построитель.
+         */
+        public Builder maxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Кол-во мест, которые не могут занять остальные классы (по умолчанию 8 для {@link Priority#INTERACTIVE}).
+         *
+         * @param priority класс приоритета;
+         * @param slots    кол-во мест;
+         * @return этот построитель.
+         */
+        public Builder reserve(Priority priority, int slots) {
+            this.reserved.put(priority, slots);
+            return this;
+        }
+
+        /**
+         * Вес класса при выборе очереди (по умолчанию 4 для {@link Priority#INTERACTIVE} и 1 для {@link Priority#BATCH}).
+         *
+         * @param priority класс приоритета;
+         * @param weight   вес;
+         * @return этот построитель.
+         */
+        public Builder weight(Priority priority, int weight) {
+            this.weights.put(priority, weight);
+            return this;
+        }
+
+        /**
+         * Максимальное кол-во запросов в очереди каждого класса (0 — сразу отказывать сверх ограничения).
+         *
+         * @param maxQueue размер очереди;
+         * @return этот построитель.
+         */
+        public Builder maxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+            return this;
+        }
+
+        /**
+         * Максимальное время ожидания синхронного запроса в очереди.
+         *
+         * @param maxWait время ожидания (0 — без ограничения);
+         * @param unit    единица измерения;
+         * @return этот построитель.
+         */
+        public Builder maxWait(long maxWait, TimeUnit unit) {
+            this.maxWaitNanos = unit.toNanos(maxWait);
+            return this;
+        }
+
+        public PriorityScheduler build() {
+            return new PriorityScheduler(this);
+        }
+    }
+}
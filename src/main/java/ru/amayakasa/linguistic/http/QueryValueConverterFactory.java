@@ -0,0 +1,42 @@
+package ru.amayakasa.linguistic.http;
+
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import ru.amayakasa.linguistic.parameters.Option;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Преобразование целочисленных параметров запроса (сумма опций "options", флаги "flags") в строку
+ * без создания новой строки на каждый запрос.
+ * <p>
+ * Retrofit по умолчанию вызывает {@link String#valueOf(Object)} для каждого значения; для всех возможных
+ * сочетаний опций и флагов строки подготовлены заранее (см. {@link Option#query(int)}).
+ * См. подробнее {@link ru.amayakasa.linguistic.http.YandexService}
+ *
+ * @author Amayakasa
+ */
+public final class QueryValueConverterFactory extends Converter.Factory {
+
+    private static final QueryValueConverterFactory INSTANCE = new QueryValueConverterFactory();
+
+    private static final Converter<Integer, String> QUERY = Option::query;
+
+    private QueryValueConverterFactory() {
+    }
+
+    /**
+     * Получение общего экземпляра.
+     *
+     * @return фабрика преобразователей для {@link Retrofit.Builder#addConverterFactory(Converter.Factory)}.
+     */
+    public static QueryValueConverterFactory create() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Converter<?, String> stringConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        return type == int.class || type == Integer.class ? QUERY : null;
+    }
+}
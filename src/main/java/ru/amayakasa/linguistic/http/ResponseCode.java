@@ -34,9 +34,19 @@ public enum ResponseCode {
         this.description = description;
     }
 
-    public static ResponseCode byCode(int code) {
-        for (ResponseCode responseCode : values()) if (responseCode.code == code) return responseCode;
+    private static final ResponseCode[] BY_CODE;
+
+    static {
+        int maximum = 0;
+
+        for (ResponseCode responseCode : values()) maximum = Math.max(maximum, responseCode.code);
+
+        BY_CODE = new ResponseCode[maximum + 1];
 
-        return null;
+        for (ResponseCode responseCode : values()) BY_CODE[responseCode.code] = responseCode;
+    }
+
+    public static ResponseCode byCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
     }
 }
@@ -0,0 +1,25 @@
+package ru.amayakasa.linguistic.http;
+
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+import java.io.IOException;
+
+/**
+ * Обработчик ответа от Яндекс.Переводчика, Яндекс.Словаря, Яндекс.Предиктора и Яндекс.Спеллера.
+ * Как правило, это один из методов {@link ru.amayakasa.linguistic.response.parser.ResponseParser}.
+ *
+ * @author Amayakasa
+ */
+@FunctionalInterface
+public interface ResponseHandler<T> {
+
+    /**
+     * Парсинг и обертка провалидированного ответа.
+     *
+     * @param response ответ на запрос, пришедший от сервиса;
+     * @return пропарсенный и обернутый ответ;
+     * @throws IOException в случае, если нельзя прочитать или пропарсить ответ.
+     */
+    T handle(Response<ResponseBody> response) throws IOException;
+}
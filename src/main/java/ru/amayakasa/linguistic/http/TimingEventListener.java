@@ -0,0 +1,162 @@
+package ru.amayakasa.linguistic.http;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import ru.amayakasa.linguistic.metrics.CallTiming;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * Слушатель событий OkHttp, запоминающий время этапов одного запроса.
+ * <p>
+ * Фабрика {@link #factory(EventListener.Factory)} подключается к общему HTTP-клиенту и создает слушатель только для тех запросов,
+ * которые были явно помечены через {@link #attach(retrofit2.Call)}: остальные запросы получают
+ * {@link EventListener#NONE} и не платят за отслеживание.
+ * <p>
+ * Все события одного запроса приходят последовательно, а результат читается после его завершения.
+ *
+ * @author Amayakasa
+ */
+final class TimingEventListener extends EventListener {
+
+    private static final ThreadLocal<TimingEventListener> PENDING = new ThreadLocal<>();
+
+    /**
+     * Фабрика слушателей для {@link okhttp3.OkHttpClient.Builder#eventListenerFactory(EventListener.Factory)}.
+     *
+     * @param fallback фабрика для запросов без отслеживания (null — {@link EventListener#NONE});
+     * @return фабрика слушателей.
+     */
+    static EventListener.Factory factory(EventListener.Factory fallback) {
+        return call -> {
+            TimingEventListener listener = PENDING.get();
+
+            if (listener == null) return fallback == null ? EventListener.NONE : fallback.create(call);
+
+            PENDING.remove();
+
+            listener.attached = true;
+
+            return listener;
+        };
+    }
+
+    private boolean attached;
+
+    private long dnsStart, dns, connectStart, connect, tlsStart, tls;
+
+    private long requestSent, firstByte, bodyStart, bodyEnd, bodyRead;
+
+    /**
+     * Привязка нового слушателя к указанному запросу Retrofit2.
+     * <p>
+     * OkHttp создает свой запрос (и запрашивает у фабрики слушатель) при первом обращении к {@link retrofit2.Call#request()},
+     * поэтому метод должен вызываться до любых других обращений к запросу.
+     *
+     * @param call запрос для HTTP-клиента;
+     * @return слушатель или null, если запрос OkHttp уже был создан ранее.
+     */
+    static TimingEventListener attach(retrofit2.Call<?> call) {
+        TimingEventListener listener = new TimingEventListener();
+
+        PENDING.set(listener);
+
+        try {
+            call.request();
+        } finally {
+            PENDING.remove();
+        }
+
+        return listener.attached ? listener : null;
+    }
+
+    private TimingEventListener() {
+    }
+
+    /**
+     * Формирование итоговой разбивки времени запроса.
+     *
+     * @param endpoint   метод сервиса;
+     * @param received   момент получения ответа враппером (System.nanoTime);
+     * @param parsed     момент окончания парсинга (0, если парсинг не завершен);
+     * @param dispatch   время работы колбэка в наносекундах;
+     * @param total      полное время запроса в наносекундах;
+     * @param successful признак успешного завершения запроса;
+     * @return разбивка времени запроса.
+     */
+    CallTiming toTiming(Endpoint endpoint, long received, long parsed, long dispatch, long total, boolean successful) {
+        long ttfb = firstByte == 0 || requestSent == 0 ? 0 : firstByte - requestSent;
+        long parse = parsed == 0 ? 0 : Math.max(0, parsed - (bodyEnd == 0 ? received : Math.max(bodyEnd, received)));
+
+        return new CallTiming(endpoint, dns, connect, tls, ttfb, bodyRead, parse, dispatch, total, successful);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dns += System.nanoTime() - dnsStart;
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        tlsStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tls += System.nanoTime() - tlsStart;
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connect += System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        connect += System.nanoTime() - connectStart;
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestSent = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        firstByte = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        bodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        bodyEnd = System.nanoTime();
+        bodyRead += bodyEnd - bodyStart;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.amayakasa.linguistic.http;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Исполнитель задач на виртуальных потоках (Java 21+).
+ * <p>
+ * Блокирующий запрос на виртуальном потоке занимает несколько килобайт кучи вместо отдельного потока ОС
+ * со стеком в мегабайт, поэтому десятки тысяч одновременных синхронных вызовов врапперов можно выполнять
+ * без огромных пулов потоков: достаточно вызывать синхронные методы из задач этого исполнителя.
+ * Библиотека сама не переносит синхронные вызовы на другие потоки; для асинхронных вызовов и колбэков
+ * см. {@link YandexConfiguration.Builder#virtualThreads()}.
+ * <p>
+ * Библиотека собирается как многоверсионный jar: на Java 21+ загружается версия класса из
+ * {@code META-INF/versions/21}, а на Java 8-20 используется эта версия, в которой виртуальных потоков нет
+ * и исполнитель создает обычные потоки-демоны по требованию (как диспетчер OkHttp по умолчанию).
+ *
+ * @author Amayakasa
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Проверка поддержки виртуальных потоков текущей JVM.
+     *
+     * @return true, если исполнитель создает виртуальные потоки.
+     */
+    public static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Создание исполнителя, запускающего каждую задачу в новом виртуальном потоке.
+     *
+     * @param name префикс имени потоков;
+     * @return исполнитель без ограничения кол-ва одновременных задач.
+     */
+    public static ExecutorService newExecutor(String name) {
+        AtomicInteger counter = new AtomicInteger();
+
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+}
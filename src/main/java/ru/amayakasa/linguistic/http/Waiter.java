@@ -0,0 +1,124 @@
+package ru.amayakasa.linguistic.http;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Запрос в очереди за разрешением ({@link AdaptiveLimiter}, {@link PriorityScheduler}).
+ * <p>
+ * Ожидающего захватывает первым либо очередь для выдачи разрешения, либо сам ожидающий при отказе
+ * от ожидания (таймаут, прерывание, отмена асинхронного запроса или истечение его срока), поэтому разрешение
+ * не теряется и не выдается дважды.
+ *
+ * @param <P> тип разрешения.
+ * @author Amayakasa
+ */
+abstract class Waiter<P> {
+
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    /**
+     * Захват ожидающего: либо для выдачи разрешения, либо для отказа от ожидания.
+     *
+     * @return true, если захват удался первым.
+     */
+    boolean claim() {
+        return claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * Выдача разрешения захваченному ожидающему.
+     *
+     * @param permit разрешение.
+     */
+    abstract void grant(P permit);
+
+    /**
+     * Ожидающий синхронный запрос: поток блокируется до выдачи разрешения.
+     */
+    static final class Blocking<P> extends Waiter<P> {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private volatile P permit;
+
+        @Override
+        void grant(P permit) {
+            this.permit = permit;
+            latch.countDown();
+        }
+
+        /**
+         * Ожидание разрешения.
+         *
+         * @param maxWaitNanos максимальное время ожидания в наносекундах (0 — без ограничения);
+         * @param abandon      освобождение разрешения, выданного одновременно с прерыванием потока;
+         * @return разрешение или null, если время ожидания истекло.
+         * @throws InterruptedException если поток прерван во время ожидания.
+         */
+        P await(long maxWaitNanos, Consumer<P> abandon) throws InterruptedException {
+            boolean granted;
+
+            try {
+                if (maxWaitNanos > 0) {
+                    granted = latch.await(maxWaitNanos, TimeUnit.NANOSECONDS);
+                } else {
+                    latch.await();
+                    granted = true;
+                }
+            } catch (InterruptedException exception) {
+                if (!claim()) {
+                    // Разрешение уже выдается: дожидаемся его и возвращаем, не отправляя запрос
+                    abandon.accept(awaitGrant());
+                }
+
+                throw exception;
+            }
+
+            if (granted || !claim()) return awaitGrant();
+
+            return null;
+        }
+
+        /**
+         * Ожидание выданного разрешения без реакции на прерывание (выдача уже началась и займет мгновение).
+         *
+         * @return выданное разрешение.
+         */
+        private P awaitGrant() {
+            boolean interrupted = false;
+
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+
+            if (interrupted) Thread.currentThread().interrupt();
+
+            return permit;
+        }
+    }
+
+    /**
+     * Ожидающий асинхронный запрос: разрешение передается обработчику в потоке, который его выдал.
+     */
+    static final class Callback<P> extends Waiter<P> {
+
+        private final Consumer<P> granted;
+
+        Callback(Consumer<P> granted) {
+            this.granted = granted;
+        }
+
+        @Override
+        void grant(P permit) {
+            granted.accept(permit);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.amayakasa.linguistic.http;
+
+/**
+ * Управление асинхронным запросом к сервису, отправленным через {@link YandexCallback}.
+ * <p>
+ * Отмена закрывает соединение запроса (или сразу снимает его с очереди {@link AdaptiveLimiter} или
+ * {@link PriorityScheduler}, не отправляя), ответ отмененного запроса не парсится,
+ * а колбэк получает {@link java.io.IOException}. Если запрос дублирован ({@link HedgingPolicy}),
+ * отменяются обе его попытки.
+ * <p>
+ * См. подробнее {@link Deadline}
+ *
+ * @author Amayakasa
+ */
+public final class YandexCall {
+
+    private final Runnable canceler;
+    private final Deadline deadline;
+
+    private volatile boolean canceled;
+
+    YandexCall(Runnable canceler, Deadline deadline) {
+        this.canceler = canceler;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Отмена запроса. Повторная отмена и отмена завершенного запроса ничего не делают.
+     */
+    public void cancel() {
+        canceled = true;
+        canceler.run();
+    }
+
+    /**
+     * Был ли запрос отменен через {@link #cancel()}.
+     *
+     * @return true, если запрос отменен.
+     */
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    /**
+     * Геттер для получения срока запроса.
+     *
+     * @return срок или null, если срок не задан.
+     */
+    public Deadline getDeadline() {
+        return deadline;
+    }
+}
@@ -7,6 +7,10 @@ package ru.amayakasa.linguistic.http;
  * См. подробнее {@link ru.amayakasa.linguistic.YandexDictionary}  — Яндекс.Словарь;
  * См. подробнее {@link ru.amayakasa.linguistic.YandexPredictor}   — Яндекс.Предиктор;
  * См. подробнее {@link ru.amayakasa.linguistic.YandexSpeller}     — Яндекс.Спеллер.
+ * <p>
+ * Асинхронные методы врапперов возвращают {@link YandexCall} для отмены запроса,
+ * а срок запроса задается через {@link Deadline}. Методы колбэка вызываются в потоке диспетчера OkHttp
+ * или в исполнителях из {@link YandexConfiguration.Builder#parseExecutor} и {@link YandexConfiguration.Builder#callbackExecutor}.
  *
  * @author Amayakasa
  */
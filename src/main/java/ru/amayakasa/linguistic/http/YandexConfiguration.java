@@ -0,0 +1,474 @@
+package ru.amayakasa.linguistic.http;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Настройки транспорта для Яндекс.Переводчика, Яндекс.Словаря, Яндекс.Предиктора и Яндекс.Спеллера.
+ * <p>
+ * Позволяет указать свой базовый адрес сервиса (региональный кэширующий прокси, внутреннее зеркало или
+ * локальная заглушка), таймауты, размер пула соединений, ограничения диспетчера асинхронных запросов,
+ * перехватчики OkHttp или собственный HTTP-клиент OkHttp целиком, а также адаптивное ограничение
+ * одновременных запросов ({@link AdaptiveLimiter}), планировщик запросов по приоритетам ({@link PriorityScheduler})
+ * дублирование медленных запросов ({@link HedgingPolicy}), автоматический выключатель запросов к деградировавшим
+ * методам ({@link CircuitBreaker}) и исполнители для парсинга ответов и вызова колбэков асинхронных запросов.
+ * <p>
+ * Объект неизменяемый и может быть передан сразу нескольким врапперам: в этом случае они используют
+ * один и тот же HTTP-клиент. Без настроек все врапперы используют общий HTTP-клиент по умолчанию.
+ * <p>
+ * См. подробнее {@link Builder}
+ *
+ * @author Amayakasa
+ */
+public class YandexConfiguration {
+
+    /**
+     * Общий HTTP-клиент всех врапперов без собственных настроек транспорта.
+     */
+    private static final OkHttpClient SHARED_CLIENT = new OkHttpClient.Builder()
+            .eventListenerFactory(TimingEventListener.factory(null))
+            .build();
+
+    /**
+     * Настройки по умолчанию: адреса Яндекса и общий HTTP-клиент.
+     */
+    public static final YandexConfiguration DEFAULT = new Builder().build();
+
+    private final String baseUrl;
+
+    private final OkHttpClient client;
+
+    private final AdaptiveLimiter adaptiveLimiter;
+
+    private final PriorityScheduler priorityScheduler;
+
+    private final HedgingPolicy hedgingPolicy;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Executor parseExecutor;
+
+    private final Executor callbackExecutor;
+
+    private YandexConfiguration(Builder builder) {
+        this.baseUrl = builder.baseUrl;
+        this.client = builder.createClient();
+        this.adaptiveLimiter = builder.adaptiveLimiter;
+        this.priorityScheduler = builder.priorityScheduler;
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.parseExecutor = builder.parseExecutor;
+        this.callbackExecutor = builder.createCallbackExecutor();
+    }
+
+    /**
+     * Создание нового объекта #Builder.
+     *
+     * @return построитель настроек.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Геттер для получения базового адреса сервиса.
+     *
+     * @return базовый адрес или null, если используется адрес Яндекса.
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Геттер для получения HTTP-клиента, через который выполняются запросы.
+     *
+     * @return HTTP-клиент OkHttp.
+     */
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    /**
+     * Геттер для получения адаптивного ограничения одновременных запросов.
+     *
+     * @return ограничение или null, если запросы не ограничиваются.
+     */
+    public AdaptiveLimiter getAdaptiveLimiter() {
+        return adaptiveLimiter;
+    }
+
+    /**
+     * Геттер для получения планировщика запросов по приоритетам.
+     *
+     * @return планировщик или null, если запросы не планируются.
+     */
+    public PriorityScheduler getPriorityScheduler() {
+        return priorityScheduler;
+    }
+
+    /**
+     * Геттер для получения политики дублирования медленных запросов.
+     *
+     * @return политика или null, если запросы не дублируются.
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Геттер для получения автоматического выключателя запросов.
+     *
+     * @return выключатель или null, если запросы не отключаются.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Геттер для получения исполнителя, в котором парсятся ответы на асинхронные запросы.
+     *
+     * @return исполнитель или null, если ответы парсятся в потоке диспетчера OkHttp.
+     */
+    public Executor getParseExecutor() {
+        return parseExecutor;
+    }
+
+    /**
+     * Геттер для получения исполнителя, в котором вызываются колбэки асинхронных запросов.
+     *
+     * @return исполнитель (заданный или виртуальные потоки, см. {@link Builder#virtualThreads()}) или null,
+     * если колбэки вызываются в потоке, где завершился запрос или парсинг.
+     */
+    public Executor getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    /**
+     * Построитель для #YandexConfiguration.
+     * <p>
+     * Все параметры необязательные: не указанные параметры берутся из переданного HTTP-клиента
+     * (см. {@link #client(OkHttpClient)}) или из HTTP-клиента по умолчанию.
+     */
+    public static class Builder {
+
+        private String baseUrl;
+
+        private OkHttpClient client;
+
+        private long connectTimeout = -1, readTimeout = -1, writeTimeout = -1, callTimeout = -1;
+
+        private int maxIdleConnections = -1;
+        private long keepAliveMillis = -1;
+
+        private int maxRequests = -1, maxRequestsPerHost = -1;
+
+        private boolean virtualThreads;
+
+        private AdaptiveLimiter adaptiveLimiter;
+
+        private PriorityScheduler priorityScheduler;
+
+        private HedgingPolicy hedgingPolicy;
+
+        private CircuitBreaker circuitBreaker;
+
+        private Executor parseExecutor;
+
+        private Executor callbackExecutor;
+
+        private final List<Interceptor> interceptors = new ArrayList<>();
+        private final List<Interceptor> networkInterceptors = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Базовый адрес сервиса вместо адреса Яндекса, например {@code http://127.0.0.1:8080}.
+         *
+         * @param baseUrl базовый адрес (null — адрес Яндекса);
+         * @return этот построитель.
+         */
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * Собственный HTTP-клиент OkHttp, настройки которого берутся за основу.
+         * Слушатель событий клиента сохраняется, но для запросов с отслеживанием времени этапов
+         * (см. {@link ru.amayakasa.linguistic.metrics.CallTimingListener}) он не вызывается.
+         *
+         * @param client HTTP-клиент;
+         * @return этот построитель.
+         */
+        public Builder client(OkHttpClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Таймаут установки соединения.
+         *
+         * @param timeout таймаут (0 — без ограничения);
+         * @param unit    единица измерения;
+         * @return этот построитель.
+         */
+        public Builder connectTimeout(long timeout, TimeUnit unit) {
+            this.connectTimeout = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Таймаут чтения ответа.
+         *
+         * @param timeout таймаут (0 — без ограничения);
+         * @param unit    единица измерения;
+         * @return этот построитель.
+         */
+        public Builder readTimeout(long timeout, TimeUnit unit) {
+            this.readTimeout = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Таймаут отправки запроса.
+         *
+         * @param timeout таймаут (0 — без ограничения);
+         * @param unit    единица измерения;
+         * @return этот построитель.
+         */
+        public Builder writeTimeout(long timeout, TimeUnit unit) {
+            this.writeTimeout = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Таймаут всего запроса целиком: от разрешения имени до чтения тела ответа.
+         *
+         * @param timeout таймаут (0 — без ограничения);
+         * @param unit    единица измерения;
+         * @return этот построитель.
+         */
+        public Builder callTimeout(long timeout, TimeUnit unit) {
+            this.callTimeout = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Размер пула соединений.
+         *
+         * @param maxIdleConnections максимальное кол-во простаивающих соединений;
+         * @param keepAlive          время жизни простаивающего соединения;
+         * @param unit               единица измерения;
+         * @return этот построитель.
+         */
+        public Builder connectionPool(int maxIdleConnections, long keepAlive, TimeUnit unit) {
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveMillis = unit.toMillis(keepAlive);
+            return this;
+        }
+
+        /**
+         * Максимальное кол-во одновременных асинхронных запросов.
+         *
+         * @param maxRequests кол-во запросов;
+         * @return этот построитель.
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Максимальное кол-во одновременных асинхронных запросов к одному хосту (в OkHttp по умолчанию — 5).
+         *
+         * @param maxRequestsPerHost кол-во запросов;
+         * @return этот построитель.
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Выполнение асинхронных запросов и колбэков на виртуальных потоках (Java 21+, см. {@link VirtualThreads}).
+         * Потоки диспетчера OkHttp становятся виртуальными, а если исполнитель колбэков не задан
+         * ({@link #callbackExecutor(Executor)}), каждый колбэк вызывается в новом виртуальном потоке: медленный
+         * или блокирующий колбэк не задерживает освобождение места в диспетчере. На более старых JVM потоки
+         * диспетчера остаются обычными, а колбэки вызываются так же, как без этой настройки.
+         * <p>
+         * Кол-во одновременных асинхронных запросов по-прежнему ограничено диспетчером OkHttp
+         * (см. {@link #maxRequests(int)} и {@link #maxRequestsPerHost(int)}).
+         * <p>
+         * Синхронные методы врапперов выполняются в вызывающем потоке, и эта настройка на них не влияет:
+         * чтобы выполнять их на виртуальных потоках, вызывайте их из задач {@link VirtualThreads#newExecutor(String)}.
+         *
+         * @return этот построитель.
+         */
+        public Builder virtualThreads() {
+            this.virtualThreads = true;
+            return this;
+        }
+
+        /**
+         * Адаптивное ограничение одновременных запросов к каждому методу сервиса (см. {@link AdaptiveLimiter}).
+         * Ограничение не меняет HTTP-клиент, поэтому врапперы с одним и тем же ограничением могут
+         * по-прежнему использовать общий HTTP-клиент по умолчанию.
+         *
+         * @param adaptiveLimiter ограничение (null — не ограничивать);
+         * @return этот построитель.
+         */
+        public Builder adaptiveLimiter(AdaptiveLimiter adaptiveLimiter) {
+            this.adaptiveLimiter = adaptiveLimiter;
+            return this;
+        }
+
+        /**
+         * Планировщик запросов по классам приоритета (см. {@link PriorityScheduler}): общий для всех врапперов
+         * с этими настройками, класс приоритета задается каждому врапперу отдельно.
+         *
+         * @param priorityScheduler планировщик (null — отправлять запросы без планирования);
+         * @return этот построитель.
+         */
+        public Builder priorityScheduler(PriorityScheduler priorityScheduler) {
+            this.priorityScheduler = priorityScheduler;
+            return this;
+        }
+
+        /**
+         * Дублирование медленных запросов (см. {@link HedgingPolicy}).
+         *
+         * @param hedgingPolicy политика дублирования (null — не дублировать);
+         * @return этот построитель.
+         */
+        public Builder hedgingPolicy(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Автоматический выключатель запросов к деградировавшим методам (см. {@link CircuitBreaker}).
+         * Чтобы сбои одного сервиса не влияли на остальные, врапперам разных сервисов можно передать
+         * один выключатель: состояние все равно ведется отдельно для каждого метода или сервиса.
+         *
+         * @param circuitBreaker выключатель (null — не отключать запросы);
+         * @return этот построитель.
+         */
+        public Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Исполнитель для валидации и парсинга ответов на асинхронные запросы. По умолчанию ответ парсится прямо
+         * в потоке диспетчера OkHttp, и тяжелый парсинг задерживает чтение других ответов; отдельный пул
+         * (например, по числу ядер) отделяет работу процессора от сетевого ввода-вывода. Если исполнитель
+         * отказывает в задаче, ответ парсится в потоке диспетчера.
+         *
+         * @param parseExecutor исполнитель (null — парсить в потоке диспетчера);
+         * @return этот построитель.
+         */
+        public Builder parseExecutor(Executor parseExecutor) {
+            this.parseExecutor = parseExecutor;
+            return this;
+        }
+
+        /**
+         * Исполнитель для вызова колбэков асинхронных запросов ({@link YandexCallback}), чтобы медленный код
+         * приложения не занимал потоки диспетчера OkHttp и парсинга. Если исполнитель отказывает в задаче,
+         * колбэк вызывается в текущем потоке. Синхронные запросы исполнитель не используют.
+         *
+         * @param callbackExecutor исполнитель (null — вызывать колбэк в потоке, где завершился запрос или парсинг,
+         *                         или в виртуальном потоке при {@link #virtualThreads()});
+         * @return этот построитель.
+         */
+        public Builder callbackExecutor(Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Перехватчик, вызываемый один раз на запрос (до повторов и перенаправлений).
+         *
+         * @param interceptor перехватчик;
+         * @return этот построитель.
+         */
+        public Builder addInterceptor(Interceptor interceptor) {
+            this.interceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Перехватчик, вызываемый для каждого сетевого обмена.
+         *
+         * @param interceptor перехватчик;
+         * @return этот построитель.
+         */
+        public Builder addNetworkInterceptor(Interceptor interceptor) {
+            this.networkInterceptors.add(interceptor);
+            return this;
+        }
+
+        /**
+         * Формирование настроек.
+         *
+         * @return неизменяемый объект #YandexConfiguration.
+         */
+        public YandexConfiguration build() {
+            return new YandexConfiguration(this);
+        }
+
+        private boolean isTransportDefault() {
+            return client == null && connectTimeout < 0 && readTimeout < 0 && writeTimeout < 0 && callTimeout < 0
+                    && maxIdleConnections < 0 && maxRequests < 0 && maxRequestsPerHost < 0 && !virtualThreads
+                    && interceptors.isEmpty() && networkInterceptors.isEmpty();
+        }
+
+        private Executor createCallbackExecutor() {
+            if (callbackExecutor != null || !virtualThreads || !VirtualThreads.isAvailable()) return callbackExecutor;
+
+            return VirtualThreads.newExecutor("YandexCallback");
+        }
+
+        private OkHttpClient createClient() {
+            if (isTransportDefault()) return SHARED_CLIENT;
+
+            OkHttpClient.Builder builder;
+
+            if (client == null) builder = SHARED_CLIENT.newBuilder();
+            else builder = client.newBuilder().eventListenerFactory(TimingEventListener.factory(client.eventListenerFactory()));
+
+            if (connectTimeout >= 0) builder.connectTimeout(connectTimeout, TimeUnit.MILLISECONDS);
+            if (readTimeout >= 0) builder.readTimeout(readTimeout, TimeUnit.MILLISECONDS);
+            if (writeTimeout >= 0) builder.writeTimeout(writeTimeout, TimeUnit.MILLISECONDS);
+            if (callTimeout >= 0) builder.callTimeout(callTimeout, TimeUnit.MILLISECONDS);
+
+            if (maxIdleConnections >= 0) builder.connectionPool(
+                    new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS)
+            );
+
+            if (maxRequests >= 0 || maxRequestsPerHost >= 0 || virtualThreads) {
+                Dispatcher dispatcher = virtualThreads && VirtualThreads.isAvailable()
+                        ? new Dispatcher(VirtualThreads.newExecutor("YandexDispatcher"))
+                        : new Dispatcher();
+
+                if (maxRequests >= 0) dispatcher.setMaxRequests(maxRequests);
+                if (maxRequestsPerHost >= 0) dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+                builder.dispatcher(dispatcher);
+            }
+
+            for (Interceptor interceptor : interceptors) builder.addInterceptor(interceptor);
+            for (Interceptor interceptor : networkInterceptors) builder.addNetworkInterceptor(interceptor);
+
+            return builder.build();
+        }
+    }
+}
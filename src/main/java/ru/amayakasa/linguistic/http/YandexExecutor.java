@@ -1,11 +1,24 @@
 package ru.amayakasa.linguistic.http;
 
 import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
+import retrofit2.Retrofit;
+import ru.amayakasa.linguistic.metrics.CallTimingListener;
+import ru.amayakasa.linguistic.metrics.YandexMetrics;
 import ru.amayakasa.linguistic.parameters.ResponseInterface;
 import ru.amayakasa.linguistic.parameters.Version;
 
+import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Основа для объектов Яндекс.Переводчика, Яндекс.Словаря, Яндекс.Предиктора и Яндекс.Спеллера.
@@ -24,6 +37,11 @@ public abstract class YandexExecutor {
     private String key;
     private Version version;
     private ResponseInterface responseInterface;
+    private YandexConfiguration configuration;
+
+    private volatile YandexMetrics metrics = YandexMetrics.NONE;
+    private volatile CallTimingListener timingListener;
+    private volatile Priority priority = Priority.INTERACTIVE;
 
     /**
      * Геттер для получения интерфейса реализуемого сервиса.
@@ -63,10 +81,108 @@ public abstract class YandexExecutor {
         return responseInterface;
     }
 
+    /**
+     * Геттер для получения настроек транспорта реализуемого сервиса.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.http.YandexConfiguration}
+     */
+    public YandexConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Геттер для получения объекта, который собирает метрики запросов.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.metrics.YandexMetrics}
+     */
+    public YandexMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Сеттер для объекта, который собирает метрики запросов этого враппера.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.metrics.YandexMetrics}
+     * См. подробнее {@link ru.amayakasa.linguistic.metrics.SimpleMetrics}
+     *
+     * @param metrics объект для сбора метрик (null — не собирать метрики).
+     */
+    public void setMetrics(YandexMetrics metrics) {
+        this.metrics = metrics == null ? YandexMetrics.NONE : metrics;
+    }
+
+    /**
+     * Геттер для получения слушателя, который получает разбивку времени каждого запроса по этапам.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.metrics.CallTimingListener}
+     */
+    public CallTimingListener getTimingListener() {
+        return timingListener;
+    }
+
+    /**
+     * Сеттер для слушателя, который получает разбивку времени каждого запроса этого враппера по этапам.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.metrics.CallTimingListener}
+     * См. подробнее {@link ru.amayakasa.linguistic.metrics.CallTiming}
+     *
+     * @param timingListener слушатель (null — не отслеживать время этапов).
+     */
+    public void setTimingListener(CallTimingListener timingListener) {
+        this.timingListener = timingListener;
+    }
+
+    /**
+     * Геттер для получения класса приоритета запросов этого враппера.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.http.PriorityScheduler}
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * Сеттер для класса приоритета запросов этого враппера (по умолчанию {@link Priority#INTERACTIVE}).
+     * Учитывается, только если в настройках транспорта задан {@link PriorityScheduler}: например, для ночного
+     * пакетного перевода создается отдельный враппер с теми же настройками и приоритетом {@link Priority#BATCH}.
+     * <p>
+     * См. подробнее {@link ru.amayakasa.linguistic.http.PriorityScheduler}
+     *
+     * @param priority класс приоритета (null — {@link Priority#INTERACTIVE}).
+     */
+    public void setPriority(Priority priority) {
+        this.priority = priority == null ? Priority.INTERACTIVE : priority;
+    }
+
     public YandexExecutor(String key, Version version, ResponseInterface responseInterface) {
+        this(key, version, responseInterface, YandexConfiguration.DEFAULT);
+    }
+
+    /**
+     * Конструктор с базовым адресом сервиса, отличным от адреса Яндекса (прокси, зеркало или локальная заглушка).
+     *
+     * @param key               API-ключ сервиса;
+     * @param version           версия API сервиса;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param baseUrl           базовый адрес сервиса (null — адрес Яндекса).
+     */
+    public YandexExecutor(String key, Version version, ResponseInterface responseInterface, String baseUrl) {
+        this(key, version, responseInterface, YandexConfiguration.builder().baseUrl(baseUrl).build());
+    }
+
+    /**
+     * Конструктор с настройками транспорта: базовым адресом, таймаутами, пулом соединений и перехватчиками.
+     *
+     * @param key               API-ключ сервиса;
+     * @param version           версия API сервиса;
+     * @param responseInterface форма ответа (JSON или XML);
+     * @param configuration     настройки транспорта, см. {@link ru.amayakasa.linguistic.http.YandexConfiguration}.
+     */
+    public YandexExecutor(String key, Version version, ResponseInterface responseInterface, YandexConfiguration configuration) {
         this.key = key;
         this.version = version;
         this.responseInterface = responseInterface;
+        this.configuration = configuration == null ? YandexConfiguration.DEFAULT : configuration;
 
         this.service = this.setupService();
     }
@@ -77,6 +193,26 @@ public abstract class YandexExecutor {
      */
     protected abstract YandexService setupService();
 
+    /**
+     * Формирование HTTP-клиента Retrofit2 поверх HTTP-клиента OkHttp из настроек транспорта.
+     * Если в настройках указан свой базовый адрес, то используется он.
+     * См. подробнее {@link ru.amayakasa.linguistic.http.YandexService}
+     *
+     * @param defaultBaseUrl базовый адрес сервиса Яндекса;
+     * @return HTTP-клиент для сервиса.
+     */
+    protected YandexService createService(String defaultBaseUrl) {
+        String url = configuration.getBaseUrl() == null ? defaultBaseUrl : configuration.getBaseUrl();
+
+        Retrofit retrofit2 = new Retrofit.Builder()
+                .baseUrl(url)
+                .client(configuration.getClient())
+                .addConverterFactory(QueryValueConverterFactory.create())
+                .build();
+
+        return retrofit2.create(YandexService.class);
+    }
+
     /**
      * Валидация ответа от Яндекс.Переводчика, Яндекс.Словаря, Яндекс.Предиктора и Яндекс.Спеллера.
      * <p>
@@ -103,4 +239,1003 @@ public abstract class YandexExecutor {
 
         if (response.body() == null) throw new Exception("Empty response body");
     }
+
+    /**
+     * Выполнение синхронного запроса к сервису: отправка, валидация ответа и его парсинг.
+     * По пути записываются метрики запроса, см. {@link ru.amayakasa.linguistic.metrics.YandexMetrics},
+     * и разбивка его времени по этапам, см. {@link ru.amayakasa.linguistic.metrics.CallTimingListener}.
+     * Если в настройках заданы {@link AdaptiveLimiter} и {@link PriorityScheduler}, запрос сначала ждет разрешения
+     * ограничения, а затем места в очереди своего класса приоритета: место планировщика не занимается,
+     * пока запрос ждет в очереди ограничения своего метода.
+     * Если в потоке задан срок ({@link Deadline}), запрос вместе с ожиданием в очередях укладывается в него.
+     * Если в настройках задан {@link CircuitBreaker} и он разомкнут, запрос не отправляется, а ответ берется
+     * из {@link YandexFallback}.
+     * Если запрос дублируется ({@link HedgingPolicy}), исходный запрос все равно выполняется в вызывающем потоке,
+     * а через диспетчер OkHttp отправляется только его копия.
+     *
+     * @param endpoint метод сервиса;
+     * @param call     сгенерированный запрос для HTTP-клиента;
+     * @param handler  обработчик ответа;
+     * @return пропарсенный и обернутый ответ;
+     * @throws Exception при некорректном ответе или ошибке во время запроса
+     *                   ({@link RejectedExecutionException}, если запрос отклонен выключателем, планировщиком
+     *                   или ограничением, {@link TimeoutException}, если истек срок).
+     */
+    protected <T> T execute(Endpoint endpoint, Call<ResponseBody> call, ResponseHandler<T> handler) throws Exception {
+        CircuitBreaker breaker = configuration.getCircuitBreaker();
+
+        CircuitBreaker.Permit circuit = null;
+
+        if (breaker != null) {
+            try {
+                circuit = breaker.acquire(endpoint);
+            } catch (RejectedExecutionException rejected) {
+                return fallback(endpoint, call, handler, breaker.getFallback(), rejected);
+            }
+        }
+
+        Deadline deadline = Deadline.current();
+
+        PriorityScheduler scheduler = configuration.getPriorityScheduler();
+        AdaptiveLimiter limiter = configuration.getAdaptiveLimiter();
+
+        PriorityScheduler.Slot slot = null;
+        AdaptiveLimiter.Permit permit = null;
+
+        try {
+            if (deadline != null && deadline.isExpired()) throw expired(null);
+
+            if (limiter != null) permit = limiter.acquire(endpoint, deadline);
+            if (scheduler != null) slot = scheduler.acquire(priority, deadline);
+        } catch (RejectedExecutionException | InterruptedException | TimeoutException exception) {
+            if (circuit != null) circuit.ignore();
+            if (permit != null) permit.ignore();
+
+            Exception failure = exception instanceof RejectedExecutionException && deadline != null && deadline.isExpired()
+                    ? expired(exception)
+                    : exception;
+
+            metrics.onFailure(endpoint, failure);
+            throw failure;
+        }
+
+        Exchange exchange = new Exchange(endpoint, call, metrics, timingListener, deadline, circuit, slot, permit);
+
+        HedgingPolicy hedging = configuration.getHedgingPolicy();
+
+        if (hedging != null && hedging.appliesTo(endpoint, priority)) {
+            return new HedgedExchange<>(endpoint, call, handler, hedging, deadline, circuit, slot, permit).execute(exchange);
+        }
+
+        Response<ResponseBody> response;
+
+        try {
+            response = call.execute();
+        } catch (Exception exception) {
+            Exception failure = exchange.translate(exception);
+
+            exchange.onFailure(failure);
+            throw failure;
+        }
+
+        exchange.onResponse(response);
+
+        T result = handle(exchange, response, handler);
+
+        exchange.onComplete(0);
+
+        return result;
+    }
+
+    /**
+     * Выполнение асинхронного запроса к сервису: отправка, валидация ответа и его парсинг.
+     * Результат или ошибка передаются в указанный колбэк.
+     * По пути записываются метрики запроса, см. {@link ru.amayakasa.linguistic.metrics.YandexMetrics},
+     * и разбивка его времени по этапам, см. {@link ru.amayakasa.linguistic.metrics.CallTimingListener}.
+     * Если в настройках заданы {@link AdaptiveLimiter} и {@link PriorityScheduler}, запрос отправляется после
+     * получения разрешения ограничения и места в очереди своего класса приоритета, а при заполненной очереди
+     * колбэк получает {@link RejectedExecutionException}. Запрос, отмененный через {@link YandexCall#cancel()}
+     * во время ожидания в очереди, сразу снимается с нее, а колбэк получает {@link IOException}.
+     * Если в потоке задан срок ({@link Deadline}), он действует для запроса и внутри колбэка; по истечении срока
+     * запрос снимается с очереди и не отправляется, а колбэк получает {@link TimeoutException}.
+     * Если в настройках задан {@link CircuitBreaker} и он разомкнут, запрос не отправляется, а колбэк сразу
+     * получает ответ из {@link YandexFallback} или {@link RejectedExecutionException}.
+     * <p>
+     * Ответ парсится в потоке диспетчера OkHttp или в {@link YandexConfiguration#getParseExecutor()}, а колбэк
+     * вызывается в потоке, где завершился запрос или парсинг, или в {@link YandexConfiguration#getCallbackExecutor()}.
+     *
+     * @param endpoint метод сервиса;
+     * @param call     сгенерированный запрос для HTTP-клиента;
+     * @param handler  обработчик ответа;
+     * @param callback колбэк для обработки ответа на запрос;
+     * @return управление запросом для его отмены.
+     */
+    protected <T> YandexCall enqueue(Endpoint endpoint, Call<ResponseBody> call, ResponseHandler<T> handler, YandexCallback<T> callback) {
+        return enqueue(endpoint, call, handler, callback, configuration.getCallbackExecutor());
+    }
+
+    private <T> YandexCall enqueue(Endpoint endpoint, Call<ResponseBody> call, ResponseHandler<T> handler,
+                                   YandexCallback<T> callback, Executor callbacks) {
+        AsyncExchange<T> exchange = new AsyncExchange<>(endpoint, call, handler, callback, callbacks, Deadline.current());
+
+        YandexCall handle = new YandexCall(exchange::cancel, exchange.deadline);
+
+        CircuitBreaker breaker = configuration.getCircuitBreaker();
+
+        if (breaker != null && !exchange.admit(breaker)) return handle;
+
+        exchange.limit();
+
+        return handle;
+    }
+
+    /**
+     * Ответ запасного источника на запрос, отклоненный разомкнутым {@link CircuitBreaker}.
+     */
+    private <T> T fallback(Endpoint endpoint, Call<ResponseBody> call, ResponseHandler<T> handler,
+                           YandexFallback fallback, RejectedExecutionException rejected) throws Exception {
+        try {
+            ResponseBody body = fallback == null ? null : fallback.fallback(endpoint, call.request(), rejected);
+
+            if (body == null) throw rejected;
+
+            Response<ResponseBody> response = Response.success(body);
+
+            validateResponse(response);
+
+            return handler.handle(response);
+        } catch (Exception exception) {
+            metrics.onFailure(endpoint, exception);
+            throw exception;
+        }
+    }
+
+    private <T> T handle(Exchange exchange, Response<ResponseBody> response, ResponseHandler<T> handler) throws Exception {
+        exchange.onParsing();
+
+        try {
+            exchange.checkAbandoned(response);
+
+            validateResponse(response);
+
+            T result = handler.handle(response);
+
+            exchange.onParse();
+
+            return result;
+        } catch (Exception exception) {
+            exchange.onFailure(exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * Передача задачи исполнителю; если исполнитель отказал (остановлен или переполнен), задача выполняется
+     * в текущем потоке, чтобы ответ и колбэк не потерялись.
+     */
+    private static void dispatch(Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException rejected) {
+            task.run();
+        }
+    }
+
+    private static TimeoutException expired(Throwable cause) {
+        TimeoutException exception = new TimeoutException("Deadline expired");
+
+        if (cause != null) exception.initCause(cause);
+
+        return exception;
+    }
+
+    /**
+     * Асинхронный запрос на пути через очереди {@link PriorityScheduler} и {@link AdaptiveLimiter} к диспетчеру OkHttp,
+     * вместе с копией запроса, если он дублируется ({@link HedgingPolicy}).
+     */
+    private final class AsyncExchange<T> {
+
+        private final Endpoint endpoint;
+        private final Call<ResponseBody> call;
+        private final ResponseHandler<T> handler;
+        private final YandexCallback<T> callback;
+        private final Executor callbacks;
+        private final Deadline deadline;
+        private final Priority priority;
+        private final HedgingPolicy hedging;
+
+        private CircuitBreaker.Permit circuit;
+
+        // Ожидание в очередях, защищено блокировкой объекта
+        private Waiter<AdaptiveLimiter.Permit> permitWaiter;
+        private Waiter<PriorityScheduler.Slot> slotWaiter;
+        private AdaptiveLimiter.Permit queuedPermit;
+        private ScheduledFuture<?> expiry;
+
+        // Состояние попыток, защищено блокировкой объекта
+        private boolean settled;
+        private int outstanding;
+        private Call<ResponseBody> hedge;
+        private ScheduledFuture<?> timer;
+
+        // Время отправки исходного запроса
+        private long sent;
+
+        private AsyncExchange(Endpoint endpoint, Call<ResponseBody> call, ResponseHandler<T> handler,
+                              YandexCallback<T> callback, Executor callbacks, Deadline deadline) {
+            this.endpoint = endpoint;
+            this.call = call;
+            this.handler = handler;
+            this.callback = callback;
+            this.callbacks = callbacks;
+            this.deadline = deadline;
+            this.priority = YandexExecutor.this.priority;
+
+            HedgingPolicy policy = configuration.getHedgingPolicy();
+
+            this.hedging = policy != null && policy.appliesTo(endpoint, priority) ? policy : null;
+        }
+
+        /**
+         * Разрешение {@link CircuitBreaker}: если выключатель разомкнут, колбэк сразу получает ответ
+         * запасного источника или отказ.
+         *
+         * @return false, если запрос не будет отправлен.
+         */
+        private boolean admit(CircuitBreaker breaker) {
+            try {
+                circuit = breaker.acquire(endpoint);
+                return true;
+            } catch (RejectedExecutionException rejected) {
+                T result;
+
+                try {
+                    result = fallback(endpoint, call, handler, breaker.getFallback(), rejected);
+                } catch (Exception exception) {
+                    fail(exception);
+                    return false;
+                }
+
+                deliver(result, null);
+                return false;
+            }
+        }
+
+        /**
+         * Ожидание разрешения {@link AdaptiveLimiter}.
+         */
+        private void limit() {
+            AdaptiveLimiter limiter = configuration.getAdaptiveLimiter();
+
+            if (limiter == null) {
+                schedule(null);
+                return;
+            }
+
+            Waiter<AdaptiveLimiter.Permit> waiter = new Waiter.Callback<>(this::schedule);
+
+            synchronized (this) {
+                permitWaiter = waiter;
+            }
+
+            if (limiter.acquire(endpoint, waiter, this::reject)) onQueued();
+        }
+
+        /**
+         * Ожидание места {@link PriorityScheduler} после получения разрешения ограничения.
+         */
+        private void schedule(AdaptiveLimiter.Permit permit) {
+            PriorityScheduler scheduler = configuration.getPriorityScheduler();
+
+            if (scheduler == null) {
+                send(null, permit);
+                return;
+            }
+
+            Waiter<PriorityScheduler.Slot> waiter = new Waiter.Callback<>(slot -> send(slot, permit));
+
+            synchronized (this) {
+                slotWaiter = waiter;
+                queuedPermit = permit;
+            }
+
+            boolean queued = scheduler.acquire(priority, waiter, rejected -> {
+                if (permit != null) permit.ignore();
+
+                reject(rejected);
+            });
+
+            if (queued) onQueued();
+        }
+
+        /**
+         * Запрос поставлен в очередь: по истечении срока он будет снят с нее. Отмена или истечение срока,
+         * совпавшие с переходом между очередями, снимают запрос сразу.
+         */
+        private void onQueued() {
+            if (call.isCanceled()) {
+                abandon(new IOException("Canceled"));
+                return;
+            }
+
+            if (deadline == null) return;
+
+            if (deadline.isExpired()) {
+                abandon(expired(null));
+                return;
+            }
+
+            synchronized (this) {
+                if (expiry == null) expiry = deadline.schedule(() -> abandon(expired(null)));
+            }
+        }
+
+        /**
+         * Снятие запроса с очереди, в которой он ждет: колбэк получает ошибку, а полученное разрешение
+         * ограничения освобождается без изменения предела. Если запрос уже покинул очереди, ничего не делает.
+         *
+         * @param failure ошибка для колбэка.
+         */
+        private void abandon(Throwable failure) {
+            Waiter<AdaptiveLimiter.Permit> permits;
+            Waiter<PriorityScheduler.Slot> slots;
+            AdaptiveLimiter.Permit permit;
+
+            synchronized (this) {
+                permits = permitWaiter;
+                slots = slotWaiter;
+                permit = queuedPermit;
+            }
+
+            if (slots != null) {
+                if (!configuration.getPriorityScheduler().abandon(slots)) return;
+
+                if (permit != null) permit.ignore();
+            } else if (permits == null || !configuration.getAdaptiveLimiter().abandon(endpoint, permits)) {
+                return;
+            }
+
+            if (circuit != null) circuit.ignore();
+
+            metrics.onFailure(endpoint, failure);
+            fail(failure);
+        }
+
+        private void reject(RejectedExecutionException rejected) {
+            if (circuit != null) circuit.ignore();
+
+            metrics.onFailure(endpoint, rejected);
+            fail(rejected);
+        }
+
+        private void send(PriorityScheduler.Slot slot, AdaptiveLimiter.Permit permit) {
+            ScheduledFuture<?> expiring;
+
+            synchronized (this) {
+                expiring = expiry;
+            }
+
+            if (expiring != null) expiring.cancel(false);
+
+            // Запрос, от которого отказались, пока он ждал в очередях, не отправляется
+            if (call.isCanceled() || deadline != null && deadline.isExpired()) {
+                if (circuit != null) circuit.ignore();
+                if (slot != null) slot.release();
+                if (permit != null) permit.ignore();
+
+                Throwable failure = call.isCanceled() ? new IOException("Canceled") : expired(null);
+
+                metrics.onFailure(endpoint, failure);
+                fail(failure);
+                return;
+            }
+
+            synchronized (this) {
+                outstanding = 1;
+            }
+
+            sent = System.nanoTime();
+
+            attempt(call, slot, permit);
+
+            if (hedging == null) return;
+
+            ScheduledFuture<?> scheduled = hedging.schedule(endpoint, () -> hedge(slot, permit));
+
+            if (scheduled == null) return;
+
+            boolean done;
+
+            synchronized (this) {
+                done = settled;
+
+                if (!done) timer = scheduled;
+            }
+
+            if (done) scheduled.cancel(false);
+        }
+
+        /**
+         * Отправка копии запроса, если исходный запрос еще не завершен.
+         */
+        private void hedge(PriorityScheduler.Slot slot, AdaptiveLimiter.Permit permit) {
+            Call<ResponseBody> copy;
+
+            synchronized (this) {
+                if (settled || call.isCanceled() || deadline != null && deadline.isExpired()) return;
+
+                copy = call.clone();
+
+                hedge = copy;
+                outstanding++;
+            }
+
+            hedging.onHedge(endpoint);
+
+            attempt(copy, slot, permit);
+        }
+
+        /**
+         * Отправка одной попытки запроса: исходного запроса или его копии. Результат первой завершившейся
+         * попытки передается в колбэк, а вторая попытка отменяется. Ошибка попытки передается в колбэк,
+         * только если другой попытки нет или запрос отменен; иначе она отбрасывается, как результат проигравшей
+         * попытки. Общие место, разрешения и метрики вызова освобождает и записывает только попытка,
+         * завершившая вызов.
+         */
+        private void attempt(Call<ResponseBody> attempt, PriorityScheduler.Slot slot, AdaptiveLimiter.Permit permit) {
+            Exchange exchange = new Exchange(endpoint, attempt, metrics, timingListener, deadline, circuit, slot, permit);
+
+            attempt.enqueue(new Callback<ResponseBody>() {
+                @Override
+                public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                    if (!settle(attempt, true)) {
+                        exchange.onAbandoned(response, null);
+                        return;
+                    }
+
+                    if (hedging != null) hedging.record(endpoint, System.nanoTime() - sent, attempt != AsyncExchange.this.call);
+
+                    exchange.onResponse(response);
+
+                    Executor parsers = configuration.getParseExecutor();
+
+                    if (parsers == null) complete(exchange, response);
+                    else dispatch(parsers, () -> complete(exchange, response));
+                }
+
+                @Override
+                public void onFailure(Call<ResponseBody> call, Throwable throwable) {
+                    Throwable failure = exchange.translate(throwable);
+
+                    if (!settle(attempt, false)) {
+                        exchange.onAbandoned(null, failure);
+                        return;
+                    }
+
+                    exchange.onFailure(failure);
+                    fail(failure);
+                }
+            });
+        }
+
+        /**
+         * Парсинг ответа попытки, завершившей вызов, и передача результата в колбэк.
+         */
+        private void complete(Exchange exchange, Response<ResponseBody> response) {
+            T result;
+
+            try {
+                result = handle(exchange, response, handler);
+            } catch (Exception exception) {
+                fail(exception);
+                return;
+            }
+
+            deliver(result, exchange);
+        }
+
+        /**
+         * Завершение вызова попыткой: ответ завершает вызов всегда, ошибка — если это последняя попытка
+         * или запрос отменен пользователем. Остальные попытки и таймер копии при этом отменяются.
+         *
+         * @param attempt  завершившаяся попытка;
+         * @param response получен ли ответ;
+         * @return false, если вызов уже завершен другой попыткой или ошибка попытки ждет другой попытки
+         * (результат попытки отбрасывается).
+         */
+        private boolean settle(Call<ResponseBody> attempt, boolean response) {
+            Call<ResponseBody> other;
+            ScheduledFuture<?> scheduled;
+
+            synchronized (this) {
+                if (settled) return false;
+
+                outstanding--;
+
+                if (!response && outstanding > 0 && !call.isCanceled()) return false;
+
+                settled = true;
+
+                other = outstanding > 0 ? (attempt == call ? hedge : call) : null;
+                scheduled = timer;
+            }
+
+            if (scheduled != null) scheduled.cancel(false);
+            if (other != null) other.cancel();
+
+            return true;
+        }
+
+        private void cancel() {
+            Call<ResponseBody> copy;
+
+            synchronized (this) {
+                copy = hedge;
+            }
+
+            call.cancel();
+
+            if (copy != null) copy.cancel();
+
+            abandon(new IOException("Canceled"));
+        }
+
+        private void deliver(T result, Exchange exchange) {
+            if (callbacks == null) respond(result, exchange);
+            else dispatch(callbacks, () -> respond(result, exchange));
+        }
+
+        private void fail(Throwable throwable) {
+            if (callbacks == null) failNow(throwable);
+            else dispatch(callbacks, () -> failNow(throwable));
+        }
+
+        @SuppressWarnings("try")
+        private void respond(T result, Exchange exchange) {
+            long dispatch = System.nanoTime();
+
+            try {
+                if (deadline == null) {
+                    callback.onResponse(result);
+                    return;
+                }
+
+                try (Deadline.Scope ignored = Deadline.replace(deadline)) {
+                    callback.onResponse(result);
+                }
+            } finally {
+                if (exchange != null) exchange.onComplete(System.nanoTime() - dispatch);
+            }
+        }
+
+        @SuppressWarnings("try")
+        private void failNow(Throwable throwable) {
+            if (deadline == null) {
+                callback.onFailure(throwable);
+                return;
+            }
+
+            try (Deadline.Scope ignored = Deadline.replace(deadline)) {
+                callback.onFailure(throwable);
+            }
+        }
+    }
+
+    /**
+     * Синхронный запрос с копией ({@link HedgingPolicy}): исходный запрос выполняется в вызывающем потоке
+     * через {@link Call#execute()} и не попадает в диспетчер OkHttp, а копия отправляется по таймеру политики
+     * асинхронно. Попытки завершают вызов по тем же правилам, что и в {@link AsyncExchange}; ответ копии парсится
+     * в вызывающем потоке.
+     */
+    private final class HedgedExchange<T> {
+
+        private final Endpoint endpoint;
+        private final Call<ResponseBody> call;
+        private final ResponseHandler<T> handler;
+        private final HedgingPolicy hedging;
+        private final Deadline deadline;
+        private final CircuitBreaker.Permit circuit;
+        private final PriorityScheduler.Slot slot;
+        private final AdaptiveLimiter.Permit permit;
+
+        // Ответ копии, завершившей вызов, или ошибка последней попытки
+        private final CompletableFuture<Response<ResponseBody>> hedged = new CompletableFuture<>();
+
+        // Состояние попыток, защищено блокировкой объекта
+        private boolean settled;
+        private int outstanding = 1;
+        private Call<ResponseBody> hedge;
+        private Exchange hedgeExchange;
+        private ScheduledFuture<?> timer;
+
+        // Время отправки исходного запроса
+        private long sent;
+
+        private HedgedExchange(Endpoint endpoint, Call<ResponseBody> call, ResponseHandler<T> handler, HedgingPolicy hedging,
+                               Deadline deadline, CircuitBreaker.Permit circuit, PriorityScheduler.Slot slot,
+                               AdaptiveLimiter.Permit permit) {
+            this.endpoint = endpoint;
+            this.call = call;
+            this.handler = handler;
+            this.hedging = hedging;
+            this.deadline = deadline;
+            this.circuit = circuit;
+            this.slot = slot;
+            this.permit = permit;
+        }
+
+        private T execute(Exchange exchange) throws Exception {
+            sent = System.nanoTime();
+
+            ScheduledFuture<?> scheduled = hedging.schedule(endpoint, this::hedge);
+
+            if (scheduled != null) {
+                boolean done;
+
+                synchronized (this) {
+                    done = settled;
+
+                    if (!done) timer = scheduled;
+                }
+
+                if (done) scheduled.cancel(false);
+            }
+
+            Response<ResponseBody> response;
+
+            try {
+                response = call.execute();
+            } catch (Exception exception) {
+                Exception failure = exchange.translate(exception);
+
+                if (settle(call, false)) {
+                    exchange.onFailure(failure);
+                    throw failure;
+                }
+
+                exchange.onAbandoned(null, failure);
+
+                return awaitHedge();
+            }
+
+            if (!settle(call, true)) {
+                exchange.onAbandoned(response, null);
+
+                return awaitHedge();
+            }
+
+            hedging.record(endpoint, System.nanoTime() - sent, false);
+
+            exchange.onResponse(response);
+
+            T result = handle(exchange, response, handler);
+
+            exchange.onComplete(0);
+
+            return result;
+        }
+
+        /**
+         * Отправка копии запроса, если исходный запрос еще не завершен (в потоке таймера политики).
+         */
+        private void hedge() {
+            Call<ResponseBody> copy;
+            Exchange exchange;
+
+            synchronized (this) {
+                if (settled || deadline != null && deadline.isExpired()) return;
+
+                copy = call.clone();
+                exchange = new Exchange(endpoint, copy, metrics, timingListener, deadline, circuit, slot, permit);
+
+                hedge = copy;
+                hedgeExchange = exchange;
+                outstanding++;
+            }
+
+            hedging.onHedge(endpoint);
+
+            copy.enqueue(new Callback<ResponseBody>() {
+                @Override
+                public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                    if (!settle(copy, true)) {
+                        exchange.onAbandoned(response, null);
+                        return;
+                    }
+
+                    hedging.record(endpoint, System.nanoTime() - sent, true);
+
+                    exchange.onResponse(response);
+
+                    hedged.complete(response);
+                }
+
+                @Override
+                public void onFailure(Call<ResponseBody> call, Throwable throwable) {
+                    Throwable failure = exchange.translate(throwable);
+
+                    if (!settle(copy, false)) {
+                        exchange.onAbandoned(null, failure);
+                        return;
+                    }
+
+                    exchange.onFailure(failure);
+
+                    hedged.completeExceptionally(failure);
+                }
+            });
+        }
+
+        /**
+         * Ожидание копии, когда исходный запрос проиграл ей или завершился ошибкой раньше нее.
+         */
+        private T awaitHedge() throws Exception {
+            Response<ResponseBody> response;
+
+            try {
+                response = hedged.get();
+            } catch (InterruptedException exception) {
+                abandonHedge();
+                throw exception;
+            } catch (ExecutionException exception) {
+                Throwable cause = exception.getCause();
+
+                if (cause instanceof Exception) throw (Exception) cause;
+                if (cause instanceof Error) throw (Error) cause;
+
+                throw exception;
+            }
+
+            Exchange exchange;
+
+            synchronized (this) {
+                exchange = hedgeExchange;
+            }
+
+            T result = handle(exchange, response, handler);
+
+            exchange.onComplete(0);
+
+            return result;
+        }
+
+        /**
+         * Отказ от копии при прерывании потока: ответ копии, даже если он уже получен, не парсится,
+         * а место и разрешения освобождаются как у отмененного запроса.
+         */
+        private void abandonHedge() {
+            Call<ResponseBody> copy;
+            Exchange exchange;
+
+            synchronized (this) {
+                copy = hedge;
+                exchange = hedgeExchange;
+            }
+
+            if (copy == null) return;
+
+            copy.cancel();
+
+            hedged.thenAccept(response -> {
+                ResponseBody body = response.body();
+
+                if (body != null) body.close();
+
+                exchange.onFailure(new IOException("Canceled"));
+            });
+        }
+
+        /**
+         * Завершение вызова попыткой: ответ завершает вызов всегда, ошибка — если это последняя попытка.
+         * Остальные попытки и таймер копии при этом отменяются.
+         *
+         * @param attempt  завершившаяся попытка;
+         * @param response получен ли ответ;
+         * @return false, если вызов уже завершен другой попыткой или ошибка попытки ждет другой попытки.
+         */
+        private boolean settle(Call<ResponseBody> attempt, boolean response) {
+            Call<ResponseBody> other;
+            ScheduledFuture<?> scheduled;
+
+            synchronized (this) {
+                if (settled) return false;
+
+                outstanding--;
+
+                if (!response && outstanding > 0) return false;
+
+                settled = true;
+
+                other = outstanding > 0 ? (attempt == call ? hedge : call) : null;
+                scheduled = timer;
+            }
+
+            if (scheduled != null) scheduled.cancel(false);
+            if (other != null) other.cancel();
+
+            return true;
+        }
+    }
+
+    /**
+     * Состояние одного запроса: время его этапов, получатели метрик, событие Java Flight Recorder,
+     * срок, разрешение {@link CircuitBreaker}, место {@link PriorityScheduler} и разрешение {@link AdaptiveLimiter}.
+     */
+    private static final class Exchange {
+
+        private final Endpoint endpoint;
+        private final Call<ResponseBody> call;
+        private final Deadline deadline;
+        private final CircuitBreaker.Permit circuit;
+        private final PriorityScheduler.Slot slot;
+        private final AdaptiveLimiter.Permit permit;
+        private final YandexMetrics metrics;
+        private final CallTimingListener timingListener;
+        private final TimingEventListener events;
+        private final Object event;
+
+        private final long start;
+
+        private long received, parsing, parsed;
+
+        private int code;
+
+        private Exchange(Endpoint endpoint, Call<ResponseBody> call, YandexMetrics metrics, CallTimingListener timingListener,
+                         Deadline deadline, CircuitBreaker.Permit circuit, PriorityScheduler.Slot slot,
+                         AdaptiveLimiter.Permit permit) {
+            this.endpoint = endpoint;
+            this.call = call;
+            this.deadline = deadline;
+            this.circuit = circuit;
+            this.slot = slot;
+            this.permit = permit;
+            this.metrics = metrics;
+
+            this.events = timingListener == null ? null : TimingEventListener.attach(call);
+            this.timingListener = events == null ? null : timingListener;
+
+            if (metrics != YandexMetrics.NONE) metrics.onRequest(endpoint, call.request().url().toString().length());
+
+            this.event = CallEvents.begin(endpoint, call);
+
+            if (deadline != null) limitTimeout(call, deadline);
+
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Таймаут вызова OkHttp — не больше времени, оставшегося до срока: по его истечении OkHttp отменяет
+         * вызов, закрывает соединение и не выполняет повторы.
+         */
+        private static void limitTimeout(Call<ResponseBody> call, Deadline deadline) {
+            long remaining = Math.max(1, deadline.remaining(TimeUnit.NANOSECONDS));
+
+            long configured = call.timeout().timeoutNanos();
+
+            if (configured == 0 || remaining < configured) call.timeout().timeout(remaining, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Ошибка запроса с учетом срока: сетевая ошибка после истечения срока — это {@link TimeoutException}.
+         */
+        private Exception translate(Exception exception) {
+            return exception instanceof IOException && deadline != null && deadline.isExpired() ? expired(exception) : exception;
+        }
+
+        private Throwable translate(Throwable throwable) {
+            return throwable instanceof Exception ? translate((Exception) throwable) : throwable;
+        }
+
+        /**
+         * Ответ на запрос, который отменен или не уложился в срок, не валидируется и не парсится.
+         */
+        private void checkAbandoned(Response<ResponseBody> response) throws Exception {
+            boolean canceled = call.isCanceled();
+
+            if (!canceled && (deadline == null || !deadline.isExpired())) return;
+
+            ResponseBody body = response.body();
+
+            if (body != null) body.close();
+
+            if (canceled) throw new IOException("Canceled");
+
+            throw expired(null);
+        }
+
+        private void onResponse(Response<ResponseBody> response) {
+            received = System.nanoTime();
+            code = response.code();
+
+            CallEvents.respond(event, response.code());
+
+            ResponseBody body = response.isSuccessful() ? response.body() : response.errorBody();
+
+            metrics.onResponse(endpoint, response.code(), received - start, body == null ? -1 : body.contentLength());
+        }
+
+        /**
+         * Начало парсинга: отдельно от получения ответа, так как ответ может ждать исполнителя парсинга.
+         */
+        private void onParsing() {
+            parsing = System.nanoTime();
+        }
+
+        private void onParse() {
+            parsed = System.nanoTime();
+
+            metrics.onParse(endpoint, parsed - parsing);
+
+            // Места освобождаются до обратного вызова, чтобы очереди не ждали кода пользователя
+            if (circuit != null) onCircuit(circuit.release(received - start, false));
+            if (slot != null) slot.release();
+            if (permit != null) onLimit(permit.release(received - start, false));
+        }
+
+        private void onFailure(Throwable throwable) {
+            metrics.onFailure(endpoint, throwable);
+
+            if (slot != null) slot.release();
+
+            if (permit != null) {
+                // Истекший срок учитывается как медленный ответ, а отмена и ошибки валидации (4xx)
+                // не говорят о перегрузке сервиса
+                if (deadline != null && deadline.isExpired()) onLimit(permit.release(System.nanoTime() - start, false));
+                else if (call.isCanceled()) onLimit(permit.ignore());
+                else if (throwable instanceof IOException) onLimit(permit.release(System.nanoTime() - start, true));
+                else if (received != 0) onLimit(permit.release(received - start, code >= 500));
+                else onLimit(permit.ignore());
+            }
+
+            if (circuit != null) {
+                // Для выключателя истекший срок — не ошибка сервиса, но может быть медленным запросом
+                if (deadline != null && deadline.isExpired()) onCircuit(circuit.release(System.nanoTime() - start, false));
+                else if (call.isCanceled()) circuit.ignore();
+                else if (throwable instanceof IOException) onCircuit(circuit.release(System.nanoTime() - start, true));
+                else if (code >= 500 && code != ResponseCode.LANGUAGE_NOT_SUPPORTED.code) onCircuit(circuit.release(received - start, true));
+                else circuit.ignore();
+            }
+
+            CallEvents.end(event, parsed == 0 ? 0 : parsed - parsing, throwable);
+
+            report(0, false);
+        }
+
+        /**
+         * Попытка, проигравшая другой попытке того же вызова: без метрик ошибки и без парсинга ответа.
+         */
+        private void onAbandoned(Response<ResponseBody> response, Throwable throwable) {
+            if (response != null) {
+                ResponseBody body = response.body();
+
+                if (body != null) body.close();
+            }
+
+            CallEvents.end(event, 0, throwable);
+
+            report(0, false);
+        }
+
+        private void onComplete(long dispatch) {
+            CallEvents.end(event, parsed - parsing, null);
+
+            report(dispatch, true);
+        }
+
+        private void onLimit(int limit) {
+            if (limit >= 0) metrics.onConcurrencyLimit(endpoint, limit);
+        }
+
+        private void onCircuit(CircuitBreaker.State state) {
+            if (state != null) metrics.onCircuitState(endpoint, state);
+        }
+
+        private void report(long dispatch, boolean successful) {
+            if (timingListener == null) return;
+
+            long total = System.nanoTime() - start;
+
+            timingListener.onTiming(events.toTiming(endpoint, parsing == 0 ? received : parsing, parsed, dispatch, total, successful));
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package ru.amayakasa.linguistic.http;
+
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Запасной источник ответов для запросов, отклоненных разомкнутым {@link CircuitBreaker}.
+ * <p>
+ * Возвращенное тело ответа валидируется и парсится так же, как ответ сервиса, поэтому запасным источником
+ * может быть, например, кэш тел успешных ответов по URL запроса.
+ * Метод вызывается в потоке, отправляющем запрос, и должен быть быстрым.
+ *
+ * @author Amayakasa
+ */
+public interface YandexFallback {
+
+    /**
+     * Ответ вместо запроса к сервису.
+     *
+     * @param endpoint метод сервиса;
+     * @param request  запрос, который не был отправлен;
+     * @param cause    отказ {@link CircuitBreaker};
+     * @return тело ответа с кодом 200 (OK) или null, если ответа нет и запрос завершается отказом.
+     * @throws Exception если запасной источник недоступен (ошибка передается вместо отказа).
+     */
+    ResponseBody fallback(Endpoint endpoint, Request request, RejectedExecutionException cause) throws Exception;
+}
@@ -0,0 +1,111 @@
+package ru.amayakasa.linguistic.metrics;
+
+import ru.amayakasa.linguistic.http.Endpoint;
+
+import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбивка времени одного запроса к Яндекс.Переводчику, Яндекс.Словарю, Яндекс.Предиктору или Яндекс.Спеллеру по этапам.
+ * <p>
+ * Сетевые этапы берутся из событий OkHttp ({@link okhttp3.EventListener}), парсинг и вызов колбэка измеряются враппером.
+ * Если соединение было взято из пула, время DNS, соединения и TLS равно нулю.
+ * Время парсинга не включает чтение тела ответа, которое указано отдельно.
+ * <p>
+ * См. подробнее {@link CallTimingListener}
+ *
+ * @author Amayakasa
+ */
+public class CallTiming {
+
+    private final Endpoint endpoint;
+
+    private final long dns, connect, tls, timeToFirstByte, bodyRead, parse, dispatch, total;
+
+    private final boolean successful;
+
+    /**
+     * Конструктор для инициализации нового объекта #CallTiming (все значения в наносекундах).
+     *
+     * @param endpoint        метод сервиса;
+     * @param dns             время разрешения имени;
+     * @param connect         время установки TCP-соединения (включая TLS);
+     * @param tls             время TLS-рукопожатия;
+     * @param timeToFirstByte время от отправки запроса до начала получения заголовков ответа;
+     * @param bodyRead        время чтения тела ответа;
+     * @param parse           время парсинга ответа (без чтения тела);
+     * @param dispatch        время работы колбэка (для асинхронных запросов);
+     * @param total           полное время запроса;
+     * @param successful      признак успешного завершения запроса.
+     */
+    public CallTiming(Endpoint endpoint, long dns, long connect, long tls, long timeToFirstByte, long bodyRead,
+                      long parse, long dispatch, long total, boolean successful) {
+        this.endpoint = endpoint;
+        this.dns = dns;
+        this.connect = connect;
+        this.tls = tls;
+        this.timeToFirstByte = timeToFirstByte;
+        this.bodyRead = bodyRead;
+        this.parse = parse;
+        this.dispatch = dispatch;
+        this.total = total;
+        this.successful = successful;
+    }
+
+    public Endpoint getEndpoint() {
+        return endpoint;
+    }
+
+    public long getDns(TimeUnit unit) {
+        return unit.convert(dns, TimeUnit.NANOSECONDS);
+    }
+
+    public long getConnect(TimeUnit unit) {
+        return unit.convert(connect, TimeUnit.NANOSECONDS);
+    }
+
+    public long getTls(TimeUnit unit) {
+        return unit.convert(tls, TimeUnit.NANOSECONDS);
+    }
+
+    public long getTimeToFirstByte(TimeUnit unit) {
+        return unit.convert(timeToFirstByte, TimeUnit.NANOSECONDS);
+    }
+
+    public long getBodyRead(TimeUnit unit) {
+        return unit.convert(bodyRead, TimeUnit.NANOSECONDS);
+    }
+
+    public long getParse(TimeUnit unit) {
+        return unit.convert(parse, TimeUnit.NANOSECONDS);
+    }
+
+    public long getDispatch(TimeUnit unit) {
+        return unit.convert(dispatch, TimeUnit.NANOSECONDS);
+    }
+
+    public long getTotal(TimeUnit unit) {
+        return unit.convert(total, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format(
+                "{0}: dns={1}us connect={2}us tls={3}us ttfb={4}us body={5}us parse={6}us dispatch={7}us total={8}us{9}",
+                endpoint,
+                String.valueOf(getDns(TimeUnit.MICROSECONDS)),
+                String.valueOf(getConnect(TimeUnit.MICROSECONDS)),
+                String.valueOf(getTls(TimeUnit.MICROSECONDS)),
+                String.valueOf(getTimeToFirstByte(TimeUnit.MICROSECONDS)),
+                String.valueOf(getBodyRead(TimeUnit.MICROSECONDS)),
+                String.valueOf(getParse(TimeUnit.MICROSECONDS)),
+                String.valueOf(getDispatch(TimeUnit.MICROSECONDS)),
+                String.valueOf(getTotal(TimeUnit.MICROSECONDS)),
+                successful ? "" : " (failed)"
+        );
+    }
+}
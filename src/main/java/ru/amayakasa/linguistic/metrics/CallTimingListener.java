@@ -0,0 +1,21 @@
+package ru.amayakasa.linguistic.metrics;
+
+/**
+ * Слушатель, получающий разбивку времени каждого запроса по этапам.
+ * <p>
+ * Устанавливается через {@link ru.amayakasa.linguistic.http.YandexExecutor#setTimingListener(CallTimingListener)}.
+ * Пока слушатель не установлен, события OkHttp не отслеживаются и разбивка не строится.
+ * Вызывается из потока, завершившего запрос (для асинхронных запросов — после колбэка), поэтому должен быть быстрым.
+ *
+ * @author Amayakasa
+ */
+@FunctionalInterface
+public interface CallTimingListener {
+
+    /**
+     * Запрос завершен.
+     *
+     * @param timing разбивка времени запроса по этапам.
+     */
+    void onTiming(CallTiming timing);
+}
@@ -0,0 +1,134 @@
+package ru.amayakasa.linguistic.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасная гистограмма задержек в стиле HdrHistogram.
+ * <p>
+ * Значения раскладываются по логарифмически-линейным корзинам: каждая степень двойки делится на 32 равные части,
+ * поэтому относительная погрешность перцентилей не превышает ~3% во всем диапазоне, а объем памяти не зависит
+ * от кол-ва записанных значений. Значения больше {@link #MAX_VALUE} наносекунд записываются в последнюю корзину.
+ * Запись значения не выделяет память и не использует блокировки.
+ *
+ * @author Amayakasa
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Максимальное различимое значение (~18 минут в наносекундах).
+     */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Запись значения.
+     *
+     * @param nanos задержка в наносекундах.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+
+        counts.incrementAndGet(index(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Геттер для получения кол-ва записанных значений.
+     *
+     * @return кол-во записанных значений.
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Геттер для получения среднего значения.
+     *
+     * @param unit единица измерения результата;
+     * @return среднее значение.
+     */
+    public double getMean(TimeUnit unit) {
+        long count = total.sum();
+
+        return count == 0 ? 0 : (double) sum.sum() / count / unit.toNanos(1);
+    }
+
+    /**
+     * Геттер для получения максимального значения.
+     *
+     * @param unit единица измерения результата;
+     * @return максимальное значение.
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Геттер для получения перцентиля.
+     *
+     * @param percentile перцентиль (от 0 до 100);
+     * @param unit       единица измерения результата;
+     * @return верхняя граница корзины, в которую попал перцентиль.
+     */
+    public long getPercentile(double percentile, TimeUnit unit) {
+        long count = 0;
+
+        for (int index = 0; index < counts.length(); index++) count += counts.get(index);
+
+        if (count == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+
+        long cumulative = 0;
+
+        for (int index = 0; index < counts.length(); index++) {
+            cumulative += counts.get(index);
+
+            if (cumulative >= target) return unit.convert(Math.min(upperBound(index), max.get()), TimeUnit.NANOSECONDS);
+        }
+
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Сброс всех записанных значений.
+     */
+    public void reset() {
+        for (int index = 0; index < counts.length(); index++) counts.set(index, 0);
+
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    private static int index(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long upperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) return index;
+
+        int bucket = index - 2 * SUB_BUCKETS;
+        int shift = bucket / SUB_BUCKETS + 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,266 @@
+package ru.amayakasa.linguistic.metrics;
+
+import ru.amayakasa.linguistic.http.CircuitBreaker;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.ResponseCode;
+
+import java.text.MessageFormat;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Реализация {@link YandexMetrics} по умолчанию, не требующая сторонних зависимостей.
+ * <p>
+ * Для каждого метода сервиса считает кол-во запросов и ошибок, ошибки по кодам ответа
+ * ({@link ResponseCode}), суммарный размер запросов и ответов, а также строит гистограммы
+ * времени сети и времени парсинга ({@link LatencyHistogram}), а также запоминает текущий лимит
+ * одновременных запросов ({@link ru.amayakasa.linguistic.http.AdaptiveLimiter}) и последнее состояние
+ * автоматического выключателя ({@link CircuitBreaker}).
+ * <p>
+ * Один объект можно передать сразу нескольким врапперам.
+ *
+ * @author Amayakasa
+ */
+public class SimpleMetrics implements YandexMetrics {
+
+    private final Map<Endpoint, EndpointMetrics> endpoints = new EnumMap<>(Endpoint.class);
+
+    /**
+     * Конструктор для инициализации нового объекта #SimpleMetrics.
+     */
+    public SimpleMetrics() {
+        for (Endpoint endpoint : Endpoint.values()) endpoints.put(endpoint, new EndpointMetrics());
+    }
+
+    /**
+     * Геттер для получения метрик указанного метода сервиса.
+     *
+     * @param endpoint метод сервиса;
+     * @return метрики метода.
+     */
+    public EndpointMetrics getMetrics(Endpoint endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    @Override
+    public void onRequest(Endpoint endpoint, long requestBytes) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+
+        metrics.requests.increment();
+        metrics.requestBytes.add(requestBytes);
+    }
+
+    @Override
+    public void onResponse(Endpoint endpoint, int code, long networkNanos, long responseBytes) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+
+        metrics.network.record(networkNanos);
+
+        if (responseBytes > 0) metrics.responseBytes.add(responseBytes);
+
+        ResponseCode responseCode = ResponseCode.byCode(code);
+
+        if (responseCode == null) metrics.unknownCodes.increment();
+        else metrics.codes.get(responseCode).increment();
+    }
+
+    @Override
+    public void onParse(Endpoint endpoint, long parseNanos) {
+        endpoints.get(endpoint).parse.record(parseNanos);
+    }
+
+    @Override
+    public void onFailure(Endpoint endpoint, Throwable throwable) {
+        endpoints.get(endpoint).failures.increment();
+    }
+
+    @Override
+    public void onConcurrencyLimit(Endpoint endpoint, int limit) {
+        endpoints.get(endpoint).concurrencyLimit = limit;
+    }
+
+    @Override
+    public void onCircuitState(Endpoint endpoint, CircuitBreaker.State state) {
+        endpoints.get(endpoint).circuitState = state;
+    }
+
+    /**
+     * Сброс всех метрик.
+     */
+    public void reset() {
+        for (EndpointMetrics metrics : endpoints.values()) metrics.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+
+        for (Map.Entry<Endpoint, EndpointMetrics> entry : endpoints.entrySet()) {
+            if (entry.getValue().getRequests() == 0) continue;
+
+            report.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Метрики одного метода сервиса.
+     */
+    public static class EndpointMetrics {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder unknownCodes = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+
+        private final Map<ResponseCode, LongAdder> codes = new EnumMap<>(ResponseCode.class);
+
+        private final LatencyHistogram network = new LatencyHistogram();
+        private final LatencyHistogram parse = new LatencyHistogram();
+
+        private volatile int concurrencyLimit = -1;
+
+        private volatile CircuitBreaker.State circuitState;
+
+        private EndpointMetrics() {
+            for (ResponseCode code : ResponseCode.values()) codes.put(code, new LongAdder());
+        }
+
+        /**
+         * Геттер для получения кол-ва отправленных запросов.
+         *
+         * @return кол-во запросов.
+         */
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        /**
+         * Геттер для получения кол-ва запросов, завершившихся ошибкой (сеть, код ответа или парсинг).
+         *
+         * @return кол-во ошибок.
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * Геттер для получения кол-ва ответов с указанным кодом.
+         *
+         * @param code код ответа;
+         * @return кол-во ответов.
+         */
+        public long getResponses(ResponseCode code) {
+            return codes.get(code).sum();
+        }
+
+        /**
+         * Геттер для получения кол-ва ответов с неизвестными кодами.
+         *
+         * @return кол-во ответов.
+         */
+        public long getUnknownResponses() {
+            return unknownCodes.sum();
+        }
+
+        /**
+         * Геттер для получения суммарного размера запросов в байтах.
+         *
+         * @return размер запросов.
+         */
+        public long getRequestBytes() {
+            return requestBytes.sum();
+        }
+
+        /**
+         * Геттер для получения суммарного размера ответов в байтах (только для ответов с известным размером).
+         *
+         * @return размер ответов.
+         */
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+
+        /**
+         * Геттер для получения гистограммы времени сети.
+         *
+         * @return гистограмма времени сети.
+         */
+        public LatencyHistogram getNetworkLatency() {
+            return network;
+        }
+
+        /**
+         * Геттер для получения гистограммы времени парсинга.
+         *
+         * @return гистограмма времени парсинга.
+         */
+        public LatencyHistogram getParseLatency() {
+            return parse;
+        }
+
+        /**
+         * Геттер для получения последнего лимита одновременных запросов.
+         *
+         * @return лимит или -1, если лимит не используется.
+         */
+        public int getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        /**
+         * Геттер для получения последнего состояния автоматического выключателя.
+         *
+         * @return состояние или null, если выключатель не используется или еще не менял состояние.
+         */
+        public CircuitBreaker.State getCircuitState() {
+            return circuitState;
+        }
+
+        private void reset() {
+            requests.reset();
+            failures.reset();
+            unknownCodes.reset();
+            requestBytes.reset();
+            responseBytes.reset();
+
+            for (LongAdder code : codes.values()) code.reset();
+
+            network.reset();
+            parse.reset();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder errors = new StringBuilder();
+
+            for (Map.Entry<ResponseCode, LongAdder> code : codes.entrySet()) {
+                if (code.getKey() == ResponseCode.OK || code.getValue().sum() == 0) continue;
+
+                errors.append(' ').append(code.getKey().code).append('=').append(code.getValue().sum());
+            }
+
+            if (unknownCodes.sum() > 0) errors.append(" other=").append(unknownCodes.sum());
+
+            String gauges = concurrencyLimit < 0 ? "" : " limit=" + concurrencyLimit;
+
+            if (circuitState != null) gauges += " circuit=" + circuitState;
+
+            return MessageFormat.format(
+                    "requests={0} failures={1} errors=[{2}] bytes={3}/{4} network p50={5}us p99={6}us max={7}us parse p50={8}us p99={9}us{10}",
+                    String.valueOf(getRequests()), String.valueOf(getFailures()), errors.toString().trim(),
+                    String.valueOf(getRequestBytes()), String.valueOf(getResponseBytes()),
+                    String.valueOf(network.getPercentile(50, TimeUnit.MICROSECONDS)),
+                    String.valueOf(network.getPercentile(99, TimeUnit.MICROSECONDS)),
+                    String.valueOf(network.getMax(TimeUnit.MICROSECONDS)),
+                    String.valueOf(parse.getPercentile(50, TimeUnit.MICROSECONDS)),
+                    String.valueOf(parse.getPercentile(99, TimeUnit.MICROSECONDS)),
+                    gauges
+            );
+        }
+    }
+}
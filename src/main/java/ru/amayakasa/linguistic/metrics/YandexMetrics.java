@@ -0,0 +1,124 @@
+package ru.amayakasa.linguistic.metrics;
+
+import ru.amayakasa.linguistic.http.CircuitBreaker;
+import ru.amayakasa.linguistic.http.Endpoint;
+
+/**
+ * Интерфейс для сбора метрик запросов к Яндекс.Переводчику, Яндекс.Словарю, Яндекс.Предиктору и Яндекс.Спеллеру.
+ * <p>
+ * Реализация по умолчанию без зависимостей — {@link SimpleMetrics}. Для выгрузки метрик в стороннюю
+ * систему мониторинга достаточно реализовать этот интерфейс и передать объект во враппер через
+ * {@link ru.amayakasa.linguistic.http.YandexExecutor#setMetrics(YandexMetrics)}.
+ * Все методы вызываются из потоков, выполняющих запросы, и должны быть потокобезопасными и быстрыми.
+ * <p>
+ * Время сети — от отправки запроса до получения заголовков ответа.
+ * Время парсинга — чтение тела ответа и его обработка в {@link ru.amayakasa.linguistic.response.parser.ResponseParser}.
+ *
+ * @author Amayakasa
+ */
+public interface YandexMetrics {
+
+    /**
+     * Пустая реализация, которая ничего не записывает.
+     */
+    YandexMetrics NONE = new YandexMetrics() {
+    };
+
+    /**
+     * Запрос к сервису отправлен.
+     *
+     * @param endpoint     метод сервиса;
+     * @param requestBytes размер запроса (длина URL) в байтах.
+     */
+    default void onRequest(Endpoint endpoint, long requestBytes) {
+    }
+
+    /**
+     * Получены заголовки ответа (в том числе с кодом ошибки).
+     *
+     * @param endpoint      метод сервиса;
+     * @param code          HTTP-код ответа, см. {@link ru.amayakasa.linguistic.http.ResponseCode};
+     * @param networkNanos  время сети в наносекундах;
+     * @param responseBytes размер тела ответа в байтах (-1, если неизвестен).
+     */
+    default void onResponse(Endpoint endpoint, int code, long networkNanos, long responseBytes) {
+    }
+
+    /**
+     * Ответ успешно пропарсен.
+     *
+     * @param endpoint   метод сервиса;
+     * @param parseNanos время парсинга в наносекундах.
+     */
+    default void onParse(Endpoint endpoint, long parseNanos) {
+    }
+
+    /**
+     * Запрос завершился ошибкой: сетевой, ошибкой валидации ответа или парсинга.
+     *
+     * @param endpoint  метод сервиса;
+     * @param throwable ошибка собственной персоной.
+     */
+    default void onFailure(Endpoint endpoint, Throwable throwable) {
+    }
+
+    /**
+     * Изменился лимит одновременных запросов, см. {@link ru.amayakasa.linguistic.http.AdaptiveLimiter}.
+     *
+     * @param endpoint метод сервиса;
+     * @param limit    новый лимит.
+     */
+    default void onConcurrencyLimit(Endpoint endpoint, int limit) {
+    }
+
+    /**
+     * Изменилось состояние автоматического выключателя, см. {@link ru.amayakasa.linguistic.http.CircuitBreaker}.
+     *
+     * @param endpoint метод сервиса, запрос к которому изменил состояние;
+     * @param state    новое состояние.
+     */
+    default void onCircuitState(Endpoint endpoint, CircuitBreaker.State state) {
+    }
+
+    /**
+     * Объединение нескольких объектов для сбора метрик в один.
+     *
+     * @param metrics объекты для сбора метрик;
+     * @return объект, передающий все события каждому из указанных объектов.
+     */
+    static YandexMetrics compose(YandexMetrics... metrics) {
+        YandexMetrics[] targets = metrics.clone();
+
+        return new YandexMetrics() {
+            @Override
+            public void onRequest(Endpoint endpoint, long requestBytes) {
+                for (YandexMetrics target : targets) target.onRequest(endpoint, requestBytes);
+            }
+
+            @Override
+            public void onResponse(Endpoint endpoint, int code, long networkNanos, long responseBytes) {
+                for (YandexMetrics target : targets) target.onResponse(endpoint, code, networkNanos, responseBytes);
+            }
+
+            @Override
+            public void onParse(Endpoint endpoint, long parseNanos) {
+                for (YandexMetrics target : targets) target.onParse(endpoint, parseNanos);
+            }
+
+            @Override
+            public void onFailure(Endpoint endpoint, Throwable throwable) {
+                for (YandexMetrics target : targets) target.onFailure(endpoint, throwable);
+            }
+
+            @Override
+            public void onConcurrencyLimit(Endpoint endpoint, int limit) {
+                for (YandexMetrics target : targets) target.onConcurrencyLimit(endpoint, limit);
+            }
+
+            @Override
+            public void onCircuitState(Endpoint endpoint, CircuitBreaker.State state) {
+                for (YandexMetrics target : targets) target.onCircuitState(endpoint, state);
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package ru.amayakasa.linguistic.parameters;
+
+import ru.amayakasa.linguistic.response.Phrase;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Правило автоматического исправления слов, в которых Яндекс.Спеллер нашел ошибки.
+ * <p>
+ * Для каждого слова с ошибкой правило возвращает замену или null, если слово нужно оставить как есть.
+ * Готовые правила можно комбинировать через {@link #skipping(SpellingMistake...)} и {@link #only(SpellingMistake...)}.
+ * <p>
+ * См. подробнее {@link ru.amayakasa.linguistic.YandexSpeller}     — Яндекс.Спеллер;
+ * См. подробнее {@link ru.amayakasa.linguistic.response.Phrase#getCorrectedText(CorrectionPolicy)}
+ *
+ * @author Amayakasa
+ */
+@FunctionalInterface
+public interface CorrectionPolicy {
+
+    /**
+     * Замена на первый из предложенных вариантов.
+     */
+    CorrectionPolicy FIRST_VARIANT = word -> {
+        List<String> variants = word.getVariants();
+
+        return variants == null || variants.isEmpty() ? null : variants.get(0);
+    };
+
+    /**
+     * Замена на первый из предложенных вариантов, кроме слов из текстов, в которых слишком много ошибок.
+     */
+    CorrectionPolicy SKIP_TOO_MANY_ERRORS = FIRST_VARIANT.skipping(SpellingMistake.ERROR_TOO_MANY_ERRORS);
+
+    /**
+     * Исправление только неверного использования прописных и строчных букв.
+     */
+    CorrectionPolicy CAPITALIZATION_ONLY = FIRST_VARIANT.only(SpellingMistake.ERROR_CAPITALIZATION);
+
+    /**
+     * Выбор замены для слова с ошибкой.
+     *
+     * @param word слово, в котором была найдена ошибка;
+     * @return замена для слова или null, если слово остается без изменений.
+     */
+    String correct(Phrase.Word word);
+
+    /**
+     * Правило, которое не исправляет слова с указанными ошибками.
+     *
+     * @param mistakes ошибки, которые нужно пропускать;
+     * @return новое правило исправления.
+     */
+    default CorrectionPolicy skipping(SpellingMistake... mistakes) {
+        EnumSet<SpellingMistake> skipped = EnumSet.noneOf(SpellingMistake.class);
+
+        for (SpellingMistake mistake : mistakes) if (mistake != null) skipped.add(mistake);
+
+        return word -> skipped.contains(word.getMistake()) ? null : correct(word);
+    }
+
+    /**
+     * Правило, которое исправляет только слова с указанными ошибками.
+     *
+     * @param mistakes ошибки, которые нужно исправлять;
+     * @return новое правило исправления.
+     */
+    default CorrectionPolicy only(SpellingMistake... mistakes) {
+        EnumSet<SpellingMistake> fixed = EnumSet.noneOf(SpellingMistake.class);
+
+        for (SpellingMistake mistake : mistakes) if (mistake != null) fixed.add(mistake);
+
+        return word -> fixed.contains(word.getMistake()) ? correct(word) : null;
+    }
+}
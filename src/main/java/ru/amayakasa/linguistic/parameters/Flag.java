@@ -16,7 +16,38 @@ public enum Flag {
 
     public final int bitmask;
 
+    private static final String[] QUERIES = new String[0x0010];
+
+    static {
+        for (int flags = 0; flags < QUERIES.length; flags++) QUERIES[flags] = String.valueOf(flags);
+    }
+
     Flag(int bitmask) {
         this.bitmask = bitmask;
     }
+
+    /**
+     * Битовая маска указанных опций в том виде, в котором она передается сервису.
+     *
+     * @param flags опции поиска (пустые значения пропускаются);
+     * @return битовая маска опций.
+     */
+    public static int encode(Flag... flags) {
+        int encoded = 0;
+
+        for (Flag flag : flags) if (flag != null) encoded = encoded | flag.bitmask;
+
+        return encoded;
+    }
+
+    /**
+     * Значение параметра "flags" для запроса к сервису.
+     * Для всех возможных сочетаний опций строка подготовлена заранее и не создается заново.
+     *
+     * @param flags битовая маска опций, см. {@link #encode(Flag...)};
+     * @return строковое представление битовой маски.
+     */
+    public static String query(int flags) {
+        return flags >= 0 && flags < QUERIES.length ? QUERIES[flags] : String.valueOf(flags);
+    }
 }
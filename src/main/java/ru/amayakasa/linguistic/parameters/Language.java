@@ -1,6 +1,10 @@
 package ru.amayakasa.linguistic.parameters;
 
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Список всех возможных языков, используемых Яндекс.Переводчиком.
@@ -120,17 +124,131 @@ public enum Language {
     public final String code;
     public final String description;
 
+    private static final Map<String, Language> BY_CODE = new HashMap<>();
+
+    private static final Language[][] BY_FIRST_CHAR = new Language[128][];
+
+    private static final int COUNT = values().length;
+
+    // Направления перевода по индексу from * COUNT + to; общие для всех потоков
+    private static final AtomicReferenceArray<String> DIRECTIONS = new AtomicReferenceArray<>(COUNT * COUNT);
+
+    static {
+        for (Language language : values()) {
+            BY_CODE.put(language.code, language);
+
+            if (language.code.isEmpty()) continue;
+
+            int bucket = language.code.charAt(0) & 0x7F;
+
+            Language[] languages = BY_FIRST_CHAR[bucket];
+
+            languages = languages == null ? new Language[1] : Arrays.copyOf(languages, languages.length + 1);
+            languages[languages.length - 1] = language;
+
+            BY_FIRST_CHAR[bucket] = languages;
+        }
+    }
+
     Language(String code, String description) {
         this.code = code;
         this.description = description;
     }
 
     public static Language byCode(String code) {
-        for (Language language : values()) if (language.code.equals(code)) return language;
+        Language language = BY_CODE.get(code);
+
+        if (language != null) return language;
 
         throw new IllegalArgumentException(MessageFormat.format("Unknown language code: {0}", code));
     }
 
+    /**
+     * Поиск языка по коду, который является частью строки (например, "en" в направлении "en-ru").
+     * В отличие от {@link #byCode(String)}, не требует выделения подстроки.
+     *
+     * @param source строка, содержащая код языка;
+     * @param from   индекс начала кода (включительно);
+     * @param to     индекс конца кода (исключительно);
+     * @return язык с указанным кодом.
+     */
+    public static Language byCode(String source, int from, int to) {
+        int length = to - from;
+
+        if (length == 0) return AUTODETECT;
+
+        Language[] languages = BY_FIRST_CHAR[source.charAt(from) & 0x7F];
+
+        if (languages != null) for (Language language : languages) {
+            if (language.code.length() == length && source.regionMatches(from, language.code, 0, length)) return language;
+        }
+
+        throw new IllegalArgumentException(MessageFormat.format("Unknown language code: {0}", source.substring(from, to)));
+    }
+
+    /**
+     * Формирование списка подсказок для определения языка текста (параметр "hint" Яндекс.Переводчика).
+     * <p>
+     * Для пустого списка и для одной подсказки новая строка не создается.
+     * Для нескольких подсказок строка собирается за один проход без промежуточных копий.
+     *
+     * @param languages список подсказок (пустые значения пропускаются);
+     * @return коды языков, перечисленные через запятую.
+     */
+    public static String hint(Language... languages) {
+        Language first = null;
+
+        int count = 0, length = 0;
+
+        for (Language language : languages) {
+            if (language == null) continue;
+
+            if (count == 0) first = language;
+
+            length = length + language.code.length() + 1;
+            count++;
+        }
+
+        if (count == 0) return "";
+
+        if (count == 1) return first.code;
+
+        StringBuilder hint = new StringBuilder(length - 1);
+
+        for (Language language : languages) {
+            if (language == null) continue;
+
+            if (hint.length() > 0) hint.append(',');
+
+            hint.append(language.code);
+        }
+
+        return hint.toString();
+    }
+
+    /**
+     * Направление перевода в форме "код языка-код языка" (параметр "lang" Яндекс.Переводчика).
+     * Строка создается при первом запросе пары языков и затем переиспользуется (в том числе из других потоков).
+     *
+     * @param from язык, с которого будет совершен перевод (если не указан, то язык определяется автоматически);
+     * @param to   язык, на который будет совершен перевод;
+     * @return направление перевода.
+     */
+    public static String direction(Language from, Language to) {
+        if (from == null || from == AUTODETECT) return to.code;
+
+        int index = from.ordinal() * COUNT + to.ordinal();
+
+        String direction = DIRECTIONS.get(index);
+
+        if (direction != null) return direction;
+
+        // Одновременные вызовы могут создать одинаковые строки, в таблице остается одна из них
+        direction = from.code + '-' + to.code;
+
+        return DIRECTIONS.compareAndSet(index, null, direction) ? direction : DIRECTIONS.get(index);
+    }
+
     @Override
     public String toString() {
         return code;
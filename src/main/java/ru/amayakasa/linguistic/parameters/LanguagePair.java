@@ -1,6 +1,8 @@
 package ru.amayakasa.linguistic.parameters;
 
 import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Список всех возможных языков пар, используемых Яндекс.Словарем.
@@ -47,6 +49,22 @@ public enum LanguagePair {
     public final Language to;
     public final String description;
 
+    private static final Map<String, LanguagePair> BY_CODE = new HashMap<>();
+
+    private static final LanguagePair[][] BY_LANGUAGES = new LanguagePair[Language.values().length][];
+
+    static {
+        for (LanguagePair languagePair : values()) {
+            BY_CODE.put(languagePair.code, languagePair);
+
+            LanguagePair[] pairs = BY_LANGUAGES[languagePair.from.ordinal()];
+
+            if (pairs == null) BY_LANGUAGES[languagePair.from.ordinal()] = pairs = new LanguagePair[BY_LANGUAGES.length];
+
+            pairs[languagePair.to.ordinal()] = languagePair;
+        }
+    }
+
     LanguagePair(String code, Language from, Language to, String description) {
         this.code = code;
         this.from = from;
@@ -55,15 +73,17 @@ public enum LanguagePair {
     }
 
     public static LanguagePair byCode(String code) {
-        for (LanguagePair languagePair : values()) if (languagePair.code.equals(code)) return languagePair;
+        LanguagePair languagePair = BY_CODE.get(code);
+
+        if (languagePair != null) return languagePair;
 
         throw new IllegalArgumentException(MessageFormat.format("Unknown language pair code: {0}", code));
     }
 
     public static LanguagePair byLanguages(Language from, Language to) {
-        for (LanguagePair languagePair : values()) {
-            if (languagePair.from.equals(from) && languagePair.to.equals(to)) return languagePair;
-        }
+        LanguagePair[] pairs = from == null || to == null ? null : BY_LANGUAGES[from.ordinal()];
+
+        if (pairs != null && pairs[to.ordinal()] != null) return pairs[to.ordinal()];
 
         throw new IllegalArgumentException(MessageFormat.format("Unknown language pair code: {0}-{1}", from, to));
     }
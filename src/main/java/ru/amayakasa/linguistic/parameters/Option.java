@@ -20,7 +20,38 @@ public enum Option {
 
     public final int option;
 
+    private static final String[] QUERIES = new String[1024];
+
+    static {
+        for (int options = 0; options < QUERIES.length; options++) QUERIES[options] = String.valueOf(options);
+    }
+
     Option(int option) {
         this.option = option;
     }
+
+    /**
+     * Сумма указанных опций в том виде, в котором она передается сервису.
+     *
+     * @param options опции (значения {@link #option});
+     * @return сумма опций.
+     */
+    public static int encode(int... options) {
+        int encoded = 0;
+
+        for (int option : options) encoded = encoded + option;
+
+        return encoded;
+    }
+
+    /**
+     * Значение параметра "options" для запроса к сервису.
+     * Для всех возможных сочетаний опций строка подготовлена заранее и не создается заново.
+     *
+     * @param options сумма опций, см. {@link #encode(int...)};
+     * @return строковое представление суммы опций.
+     */
+    public static String query(int options) {
+        return options >= 0 && options < QUERIES.length ? QUERIES[options] : String.valueOf(options);
+    }
 }
@@ -25,8 +25,20 @@ public enum SpellingMistake {
         this.description = description;
     }
 
+    private static final SpellingMistake[] BY_CODE;
+
+    static {
+        int maximum = 0;
+
+        for (SpellingMistake mistake : values()) maximum = Math.max(maximum, mistake.code);
+
+        BY_CODE = new SpellingMistake[maximum + 1];
+
+        for (SpellingMistake mistake : values()) BY_CODE[mistake.code] = mistake;
+    }
+
     public static SpellingMistake byCode(int code) {
-        for (SpellingMistake mistake : values()) if (mistake.code == code) return mistake;
+        if (code >= 0 && code < BY_CODE.length && BY_CODE[code] != null) return BY_CODE[code];
 
         throw new IllegalArgumentException(MessageFormat.format("Unknown spelling mistake code: {0}", code));
     }
@@ -0,0 +1,98 @@
+package ru.amayakasa.linguistic.response;
+
+/**
+ * Результат одного элемента пакетной обработки: исходные данные и ответ API или ошибка.
+ * <p>
+ * Ошибка одного элемента не прерывает обработку остальных.
+ * См. подробнее {@link ru.amayakasa.linguistic.stream.BulkPublisher}
+ *
+ * @param <I> тип исходных данных;
+ * @param <O> тип ответа.
+ * @author Amayakasa
+ */
+public class BulkResult<I, O> {
+
+    private final long index;
+
+    private final I input;
+
+    private final O response;
+
+    private final Throwable failure;
+
+    private BulkResult(long index, I input, O response, Throwable failure) {
+        this.index = index;
+        this.input = input;
+        this.response = response;
+        this.failure = failure;
+    }
+
+    /**
+     * Создание успешного результата.
+     *
+     * @param index    порядковый номер элемента (с нуля);
+     * @param input    исходные данные;
+     * @param response ответ API;
+     * @return результат элемента.
+     */
+    public static <I, O> BulkResult<I, O> success(long index, I input, O response) {
+        return new BulkResult<>(index, input, response, null);
+    }
+
+    /**
+     * Создание результата с ошибкой.
+     *
+     * @param index   порядковый номер элемента (с нуля);
+     * @param input   исходные данные;
+     * @param failure ошибка запроса или парсинга;
+     * @return результат элемента.
+     */
+    public static <I, O> BulkResult<I, O> failure(long index, I input, Throwable failure) {
+        return new BulkResult<>(index, input, null, failure);
+    }
+
+    /**
+     * Геттер для получения порядкового номера элемента во входном потоке.
+     *
+     * @return порядковый номер элемента (с нуля).
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Геттер для получения исходных данных элемента.
+     *
+     * @return исходные данные.
+     */
+    public I getInput() {
+        return input;
+    }
+
+    /**
+     * Геттер для получения ответа API.
+     *
+     * @return ответ API или null, если запрос завершился ошибкой.
+     */
+    public O getResponse() {
+        return response;
+    }
+
+    /**
+     * Геттер для получения ошибки запроса.
+     *
+     * @return ошибка или null, если запрос успешен.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Проверка успешности запроса.
+     *
+     * @return true, если получен ответ API.
+     */
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+}
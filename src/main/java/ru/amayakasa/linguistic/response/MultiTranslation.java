@@ -0,0 +1,97 @@
+package ru.amayakasa.linguistic.response;
+
+import ru.amayakasa.linguistic.parameters.Language;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Объект-враппер для представления переводов одного текста сразу на несколько языков.
+ * <p>
+ * Переводы, которые не удалось получить (ошибка запроса или истекший срок ожидания), не прерывают остальные:
+ * для таких языков вместо перевода хранится ошибка.
+ * <p>
+ * См. подробнее {@link ru.amayakasa.linguistic.YandexTranslator}  — Яндекс.Переводчик.
+ *
+ * @author Amayakasa
+ */
+public class MultiTranslation {
+
+    private final String text;
+
+    private final Language from;
+
+    private final Map<Language, Translation> translations;
+
+    private final Map<Language, Throwable> failures;
+
+    /**
+     * Конструктор для инициализации нового объекта #MultiTranslation.
+     *
+     * @param text         исходный текст;
+     * @param from         язык исходного текста (null, если его не удалось определить);
+     * @param translations переводы по языкам;
+     * @param failures     ошибки по языкам, на которые перевод не получен.
+     */
+    public MultiTranslation(String text, Language from, Map<Language, Translation> translations, Map<Language, Throwable> failures) {
+        this.text = text;
+        this.from = from;
+        this.translations = Collections.unmodifiableMap(translations);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Геттер для получения исходного текста.
+     *
+     * @return исходный текст.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Геттер для получения языка исходного текста.
+     *
+     * @return язык исходного текста или null, если его не удалось определить.
+     */
+    public Language getFrom() {
+        return from;
+    }
+
+    /**
+     * Геттер для получения полученных переводов.
+     *
+     * @return переводы по языкам.
+     */
+    public Map<Language, Translation> getTranslations() {
+        return translations;
+    }
+
+    /**
+     * Геттер для получения перевода на указанный язык.
+     *
+     * @param to язык перевода;
+     * @return перевод или null, если он не получен.
+     */
+    public Translation getTranslation(Language to) {
+        return translations.get(to);
+    }
+
+    /**
+     * Геттер для получения ошибок по языкам, на которые перевод не получен.
+     *
+     * @return ошибки по языкам.
+     */
+    public Map<Language, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Проверка того, что получены переводы на все языки.
+     *
+     * @return true, если ошибок нет.
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
@@ -1,7 +1,10 @@
 package ru.amayakasa.linguistic.response;
 
+import ru.amayakasa.linguistic.parameters.CorrectionPolicy;
 import ru.amayakasa.linguistic.parameters.SpellingMistake;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -46,6 +49,56 @@ public class Phrase {
         return misspelledWords;
     }
 
+    /**
+     * Исправление исходной фразы по указанному правилу.
+     * <p>
+     * Фраза собирается за один проход по позициям слов с ошибками ({@link Word#getPosition()} и {@link Word#getLength()}),
+     * без повторных поисков и замен в строке. Слова, которые пересекаются с уже исправленными или выходят за
+     * границы фразы, пропускаются. Если ни одно слово не было заменено, возвращается исходная фраза.
+     *
+     * @param policy правило исправления слов с ошибками;
+     * @return исправленная фраза.
+     */
+    public String getCorrectedText(CorrectionPolicy policy) {
+        if (text == null || misspelledWords == null || misspelledWords.isEmpty()) return text;
+
+        List<Word> words = misspelledWords;
+
+        for (int iterator = 1; iterator < words.size(); iterator++) {
+            if (words.get(iterator - 1).getPosition() > words.get(iterator).getPosition()) {
+                words = new ArrayList<>(misspelledWords);
+                words.sort(Comparator.comparingInt(Word::getPosition));
+                break;
+            }
+        }
+
+        StringBuilder corrected = null;
+
+        int cursor = 0;
+
+        for (Word word : words) {
+            int position = word.getPosition();
+            int end = position + word.getLength();
+
+            if (position < cursor || end > text.length()) continue;
+
+            String replacement = policy.correct(word);
+
+            if (replacement == null || text.regionMatches(position, replacement, 0, word.getLength())
+                    && replacement.length() == word.getLength()) continue;
+
+            if (corrected == null) corrected = new StringBuilder(text.length() + 16);
+
+            corrected.append(text, cursor, position).append(replacement);
+
+            cursor = end;
+        }
+
+        if (corrected == null) return text;
+
+        return corrected.append(text, cursor, text.length()).toString();
+    }
+
     /**
      * Вложенный объект-враппер для представления ответов Яндекс.Спеллера в удобной форме.
      * Данный объект используется в {@link ru.amayakasa.linguistic.response.Phrase}.
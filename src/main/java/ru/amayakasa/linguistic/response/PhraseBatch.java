@@ -0,0 +1,440 @@
+package ru.amayakasa.linguistic.response;
+
+import ru.amayakasa.linguistic.parameters.SpellingMistake;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Объект-враппер для компактного представления ответов Яндекс.Спеллера на большое кол-во фраз.
+ * <p>
+ * В отличие от списка объектов {@link Phrase}, данные о словах с ошибками хранятся по столбцам:
+ * позиции, строки, столбцы, длины и коды ошибок лежат в массивах int, а сами слова и варианты исправлений —
+ * в общем пуле строк, где каждая строка встречается один раз. Слова каждой фразы занимают непрерывный
+ * диапазон индексов, границы которого хранятся в отдельном массиве смещений.
+ * <p>
+ * Для совместимости с остальным кодом доступно представление в виде {@link Phrase} и {@link Phrase.Word}.
+ * Эти объекты не копируют данные, а читают их из массивов этого объекта.
+ * <p>
+ * См. подробнее {@link ru.amayakasa.linguistic.YandexSpeller}     — Яндекс.Спеллер.
+ *
+ * @author Amayakasa
+ */
+public class PhraseBatch {
+
+    private final String[] texts;
+
+    private final int[] phraseOffsets;
+
+    private final int[] codes, positions, rows, columns, lengths, words;
+
+    private final int[] variantOffsets, variants;
+
+    private final String[] pool;
+
+    private PhraseBatch(Builder builder) {
+        int wordCount = builder.wordCount;
+
+        this.texts = Arrays.copyOf(builder.texts, builder.phraseCount);
+        this.phraseOffsets = Arrays.copyOf(builder.phraseOffsets, builder.phraseCount + 1);
+        this.phraseOffsets[builder.phraseCount] = wordCount;
+
+        this.codes = Arrays.copyOf(builder.codes, wordCount);
+        this.positions = Arrays.copyOf(builder.positions, wordCount);
+        this.rows = Arrays.copyOf(builder.rows, wordCount);
+        this.columns = Arrays.copyOf(builder.columns, wordCount);
+        this.lengths = Arrays.copyOf(builder.lengths, wordCount);
+        this.words = Arrays.copyOf(builder.words, wordCount);
+
+        this.variantOffsets = Arrays.copyOf(builder.variantOffsets, wordCount + 1);
+        this.variantOffsets[wordCount] = builder.variantCount;
+        this.variants = Arrays.copyOf(builder.variants, builder.variantCount);
+
+        this.pool = Arrays.copyOf(builder.pool, builder.poolSize);
+    }
+
+    /**
+     * Геттер для получения кол-ва фраз, которые нуждались в проверке.
+     *
+     * @return кол-во фраз.
+     */
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * Геттер для получения общего кол-ва слов с ошибками во всех фразах.
+     *
+     * @return кол-во слов с ошибками.
+     */
+    public int getWordCount() {
+        return codes.length;
+    }
+
+    /**
+     * Геттер для получения исходной фразы, которая нуждалась в проверке.
+     *
+     * @param phrase индекс фразы;
+     * @return исходная фраза.
+     */
+    public String getText(int phrase) {
+        return texts[phrase];
+    }
+
+    /**
+     * Геттер для получения индекса первого слова с ошибкой в указанной фразе.
+     *
+     * @param phrase индекс фразы;
+     * @return индекс первого слова фразы.
+     */
+    public int getFirstWord(int phrase) {
+        return phraseOffsets[phrase];
+    }
+
+    /**
+     * Геттер для получения кол-ва слов с ошибками в указанной фразе.
+     *
+     * @param phrase индекс фразы;
+     * @return кол-во слов с ошибками.
+     */
+    public int getWordCount(int phrase) {
+        return phraseOffsets[phrase + 1] - phraseOffsets[phrase];
+    }
+
+    /**
+     * Геттер для получения ошибки, допущенной в слове.
+     *
+     * @param word индекс слова;
+     * @return ошибка, допущенная в слове.
+     */
+    public SpellingMistake getMistake(int word) {
+        return SpellingMistake.byCode(codes[word]);
+    }
+
+    /**
+     * Геттер для получения позиции слова, в котором найдена ошибка.
+     *
+     * @param word индекс слова;
+     * @return позиция слова.
+     */
+    public int getPosition(int word) {
+        return positions[word];
+    }
+
+    /**
+     * Геттер для получения номера строки, в которой найдена ошибка.
+     *
+     * @param word индекс слова;
+     * @return номер строки.
+     */
+    public int getRow(int word) {
+        return rows[word];
+    }
+
+    /**
+     * Геттер для получения номера столбца, в котором найдена ошибка.
+     *
+     * @param word индекс слова;
+     * @return номер столбца.
+     */
+    public int getColumn(int word) {
+        return columns[word];
+    }
+
+    /**
+     * Геттер для получения длины слова, в котором найдена ошибка.
+     *
+     * @param word индекс слова;
+     * @return длина слова.
+     */
+    public int getLength(int word) {
+        return lengths[word];
+    }
+
+    /**
+     * Геттер для получения исходного слова, в котором были найдены ошибки.
+     *
+     * @param word индекс слова;
+     * @return исходное слово.
+     */
+    public String getWord(int word) {
+        return pool[words[word]];
+    }
+
+    /**
+     * Геттер для получения кол-ва возможных значений слова.
+     *
+     * @param word индекс слова;
+     * @return кол-во возможных значений.
+     */
+    public int getVariantCount(int word) {
+        return variantOffsets[word + 1] - variantOffsets[word];
+    }
+
+    /**
+     * Геттер для получения возможного значения слова.
+     *
+     * @param word    индекс слова;
+     * @param variant индекс значения;
+     * @return возможное значение слова.
+     */
+    public String getVariant(int word, int variant) {
+        return pool[variants[variantOffsets[word] + variant]];
+    }
+
+    /**
+     * Представление указанной фразы в виде объекта #Phrase без копирования данных.
+     *
+     * @param phrase индекс фразы;
+     * @return объект-враппер #Phrase.
+     */
+    public Phrase getPhrase(int phrase) {
+        int first = phraseOffsets[phrase];
+        int count = phraseOffsets[phrase + 1] - first;
+
+        return new Phrase(texts[phrase], new AbstractList<Phrase.Word>() {
+            @Override
+            public Phrase.Word get(int index) {
+                if (index < 0 || index >= count) throw new IndexOutOfBoundsException(String.valueOf(index));
+
+                return new WordView(first + index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        });
+    }
+
+    /**
+     * Представление всех фраз в виде списка объектов #Phrase без копирования данных.
+     *
+     * @return список объектов-врапперов #Phrase.
+     */
+    public List<Phrase> asPhrases() {
+        return new AbstractList<Phrase>() {
+            @Override
+            public Phrase get(int index) {
+                return getPhrase(index);
+            }
+
+            @Override
+            public int size() {
+                return texts.length;
+            }
+        };
+    }
+
+    /**
+     * Представление слова из #PhraseBatch в виде объекта #Phrase.Word.
+     * Все значения читаются из массивов исходного объекта.
+     */
+    private final class WordView extends Phrase.Word {
+
+        private final int word;
+
+        private WordView(int word) {
+            super(null, 0, 0, 0, 0, null, null);
+            this.word = word;
+        }
+
+        @Override
+        public SpellingMistake getMistake() {
+            return PhraseBatch.this.getMistake(word);
+        }
+
+        @Override
+        public int getPosition() {
+            return positions[word];
+        }
+
+        @Override
+        public int getRow() {
+            return rows[word];
+        }
+
+        @Override
+        public int getColumn() {
+            return columns[word];
+        }
+
+        @Override
+        public int getLength() {
+            return lengths[word];
+        }
+
+        @Override
+        public String getText() {
+            return PhraseBatch.this.getWord(word);
+        }
+
+        @Override
+        public List<String> getVariants() {
+            int count = getVariantCount(word);
+
+            return new AbstractList<String>() {
+                @Override
+                public String get(int index) {
+                    if (index < 0 || index >= count) throw new IndexOutOfBoundsException(String.valueOf(index));
+
+                    return getVariant(word, index);
+                }
+
+                @Override
+                public int size() {
+                    return count;
+                }
+            };
+        }
+    }
+
+    /**
+     * Построитель объекта #PhraseBatch, который заполняется парсером по мере чтения ответа.
+     * Фразы добавляются по порядку, слова с ошибками относятся к последней начатой фразе,
+     * варианты исправлений — к последнему добавленному слову.
+     */
+    public static class Builder {
+
+        private String[] texts;
+
+        private int[] phraseOffsets;
+
+        private int phraseCount;
+
+        private int[] codes, positions, rows, columns, lengths, words, variantOffsets;
+
+        private int wordCount;
+
+        private int[] variants;
+
+        private int variantCount;
+
+        private String[] pool;
+
+        private int poolSize;
+
+        private final Map<String, Integer> poolIndex = new HashMap<>();
+
+        /**
+         * Конструктор для инициализации нового объекта #Builder.
+         *
+         * @param phrases ожидаемое кол-во фраз.
+         */
+        public Builder(int phrases) {
+            int capacity = Math.max(phrases, 1);
+
+            texts = new String[capacity];
+            phraseOffsets = new int[capacity + 1];
+
+            codes = new int[capacity];
+            positions = new int[capacity];
+            rows = new int[capacity];
+            columns = new int[capacity];
+            lengths = new int[capacity];
+            words = new int[capacity];
+            variantOffsets = new int[capacity + 1];
+
+            variants = new int[capacity * 4];
+            pool = new String[capacity * 4];
+        }
+
+        /**
+         * Начало новой фразы.
+         *
+         * @param text исходная фраза, которая нуждалась в проверке;
+         * @return этот же объект #Builder.
+         */
+        public Builder startPhrase(String text) {
+            if (phraseCount == texts.length) {
+                texts = Arrays.copyOf(texts, phraseCount * 2);
+                phraseOffsets = Arrays.copyOf(phraseOffsets, phraseCount * 2 + 1);
+            }
+
+            texts[phraseCount] = text;
+            phraseOffsets[phraseCount] = wordCount;
+            phraseCount++;
+
+            return this;
+        }
+
+        /**
+         * Добавление слова с ошибкой в последнюю начатую фразу.
+         *
+         * @param code     код ошибки, допущенной в слове;
+         * @param position позиция слова, в котором найдена ошибка;
+         * @param row      номер строки, в которой найдена ошибка;
+         * @param column   номер столбца, в котором найдена ошибка;
+         * @param length   длина слова, в котором найдена ошибка;
+         * @param word     исходное слово, в котором были найдены ошибки;
+         * @return этот же объект #Builder.
+         */
+        public Builder addWord(int code, int position, int row, int column, int length, String word) {
+            if (phraseCount == 0) throw new IllegalStateException("No phrase was started");
+
+            if (wordCount == codes.length) {
+                int capacity = wordCount * 2;
+
+                codes = Arrays.copyOf(codes, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+                columns = Arrays.copyOf(columns, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                words = Arrays.copyOf(words, capacity);
+                variantOffsets = Arrays.copyOf(variantOffsets, capacity + 1);
+            }
+
+            codes[wordCount] = code;
+            positions[wordCount] = position;
+            rows[wordCount] = row;
+            columns[wordCount] = column;
+            lengths[wordCount] = length;
+            words[wordCount] = intern(word);
+            variantOffsets[wordCount] = variantCount;
+            wordCount++;
+
+            return this;
+        }
+
+        /**
+         * Добавление возможного значения для последнего добавленного слова.
+         *
+         * @param variant возможное значение слова;
+         * @return этот же объект #Builder.
+         */
+        public Builder addVariant(String variant) {
+            if (wordCount == 0) throw new IllegalStateException("No word was added");
+
+            if (variantCount == variants.length) variants = Arrays.copyOf(variants, variantCount * 2);
+
+            variants[variantCount++] = intern(variant);
+
+            return this;
+        }
+
+        /**
+         * Формирование объекта #PhraseBatch. Массивы обрезаются до фактического размера.
+         *
+         * @return объект-враппер #PhraseBatch.
+         */
+        public PhraseBatch build() {
+            return new PhraseBatch(this);
+        }
+
+        private int intern(String value) {
+            Integer index = poolIndex.get(value);
+
+            if (index != null) return index;
+
+            if (poolSize == pool.length) pool = Arrays.copyOf(pool, poolSize * 2);
+
+            pool[poolSize] = value;
+            poolIndex.put(value, poolSize);
+
+            return poolSize++;
+        }
+    }
+}
@@ -3,12 +3,14 @@ package ru.amayakasa.linguistic.response.parser;
 import okhttp3.ResponseBody;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 import retrofit2.Response;
 import ru.amayakasa.linguistic.parameters.LanguagePair;
 import ru.amayakasa.linguistic.response.Translation;
 import ru.amayakasa.linguistic.response.Completion;
 import ru.amayakasa.linguistic.response.Dictionary;
 import ru.amayakasa.linguistic.response.Phrase;
+import ru.amayakasa.linguistic.response.PhraseBatch;
 import ru.amayakasa.linguistic.parameters.Language;
 import ru.amayakasa.linguistic.parameters.SpellingMistake;
 
@@ -127,6 +129,41 @@ public final class ResponseParser {
         return phrases;
     }
 
+    /**
+     * Парсинг и обертка ответа от Яндекс.Спеллера в компактной форме.
+     * Ответ читается потоком токенов, без дерева JSON-объектов: данные о словах с ошибками записываются сразу в столбцы #PhraseBatch, без промежуточных объектов #Phrase.
+     *
+     * @param text     исходные фразы, которая нуждались в проверке;
+     * @param response ответ на запрос, пришедший от вышеупомянотого сервиса;
+     * @return объект-враппер #PhraseBatch для удобного взаимодействия;
+     * @throws IOException в случае, если нельзя пропарсить JSON-объект.
+     */
+    public static PhraseBatch parsePhraseBatch(String[] text, Response<ResponseBody> response) throws IOException {
+        JSONTokener tokener = new JSONTokener(response.body().string());
+
+        PhraseBatch.Builder batch = new PhraseBatch.Builder(text.length);
+
+        List<String> variants = new ArrayList<>();
+
+        expect(tokener, '[');
+
+        int iterator = 0;
+
+        if (!isEnd(tokener, ']')) do {
+            batch.startPhrase(text[iterator]);
+
+            expect(tokener, '[');
+
+            if (!isEnd(tokener, ']')) do {
+                parseWord(tokener, batch, variants);
+            } while (hasNext(tokener, ']'));
+
+            iterator++;
+        } while (hasNext(tokener, ']'));
+
+        return batch.build();
+    }
+
     /**
      * Парсинг и обертка ответа от Яндекс.Переводчика.
      *
@@ -170,14 +207,16 @@ public final class ResponseParser {
 
         Language from, to;
 
-        String[] values = object.getString("lang").split("-");
+        String direction = object.getString("lang");
+
+        int separator = direction.indexOf('-');
 
-        if (values.length == 2) {
-            from = Language.byCode(values[0]);
-            to = Language.byCode(values[1]);
+        if (separator >= 0) {
+            from = Language.byCode(direction, 0, separator);
+            to = Language.byCode(direction, separator + 1, direction.length());
         } else {
             from = Language.AUTODETECT;
-            to = Language.byCode(values[0]);
+            to = Language.byCode(direction);
         }
 
         String translation = object.getJSONArray("text").getString(0);
@@ -189,6 +228,114 @@ public final class ResponseParser {
     // =========================== ВНУТРЯНКА, ХЫ  ===========================
     // TODO: Сделать документацию, оптимизировать парсинг
 
+    /**
+     * Внутреняя функция для потокового парсинга слова с ошибкой в #PhraseBatch.
+     *
+     * @param tokener  поток токенов, стоящий перед JSON-объектом слова;
+     * @param batch    построитель, в который записывается слово;
+     * @param variants буфер возможных значений слова, переиспользуемый между словами.
+     */
+    private static void parseWord(JSONTokener tokener, PhraseBatch.Builder batch, List<String> variants) {
+        int code = 0, position = 0, row = 0, column = 0, length = 0;
+
+        String word = null;
+
+        variants.clear();
+
+        expect(tokener, '{');
+
+        if (!isEnd(tokener, '}')) do {
+            String key = nextString(tokener);
+
+            expect(tokener, ':');
+
+            switch (key) {
+                case "code":
+                    code = nextInt(tokener);
+                    break;
+                case "pos":
+                    position = nextInt(tokener);
+                    break;
+                case "row":
+                    row = nextInt(tokener);
+                    break;
+                case "col":
+                    column = nextInt(tokener);
+                    break;
+                case "len":
+                    length = nextInt(tokener);
+                    break;
+                case "word":
+                    word = nextString(tokener);
+                    break;
+                case "s":
+                    expect(tokener, '[');
+
+                    if (!isEnd(tokener, ']')) do {
+                        variants.add(nextString(tokener));
+                    } while (hasNext(tokener, ']'));
+
+                    break;
+                default:
+                    tokener.nextValue();
+            }
+        } while (hasNext(tokener, '}'));
+
+        if (word == null) throw tokener.syntaxError("Missing \"word\"");
+
+        batch.addWord(code, position, row, column, length, word);
+
+        for (String variant : variants) batch.addVariant(variant);
+    }
+
+    private static void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) throw tokener.syntaxError("Expected '" + expected + "'");
+    }
+
+    private static boolean isEnd(JSONTokener tokener, char end) {
+        if (tokener.nextClean() == end) return true;
+
+        tokener.back();
+
+        return false;
+    }
+
+    private static boolean hasNext(JSONTokener tokener, char end) {
+        char next = tokener.nextClean();
+
+        if (next == ',') return true;
+        if (next == end) return false;
+
+        throw tokener.syntaxError("Expected ',' or '" + end + "'");
+    }
+
+    private static String nextString(JSONTokener tokener) {
+        expect(tokener, '"');
+
+        return tokener.nextString('"');
+    }
+
+    private static int nextInt(JSONTokener tokener) {
+        char next = tokener.nextClean();
+
+        boolean negative = next == '-';
+
+        if (negative) next = tokener.next();
+
+        if (next < '0' || next > '9') throw tokener.syntaxError("Expected an integer");
+
+        int value = 0;
+
+        while (next >= '0' && next <= '9') {
+            value = value * 10 + (next - '0');
+            next = tokener.next();
+        }
+
+        tokener.back();
+
+        return negative ? -value : value;
+    }
+
     /**
      * Внутреняя функция для парсинга и обертки ответа от Яндекс.Спеллера.
      *
@@ -255,11 +402,11 @@ public final class ResponseParser {
 
         if (object.has("ts")) definition.setTranscription(object.getString("ts"));
 
-        if (object.has("pos")) definition.setPartOfSpeech(object.getString("pos"));
+        if (object.has("pos")) definition.setPartOfSpeech(Vocabulary.canonical(object.getString("pos")));
 
-        if (object.has("gen")) definition.setGender(object.getString("gen"));
+        if (object.has("gen")) definition.setGender(Vocabulary.canonical(object.getString("gen")));
 
-        if (object.has("num")) definition.setNumber(object.getString("num"));
+        if (object.has("num")) definition.setNumber(Vocabulary.canonical(object.getString("num")));
 
         return definition.getText() != null ? definition : null;
     }
@@ -296,11 +443,11 @@ public final class ResponseParser {
 
         Dictionary.Translation translation = new Dictionary.Translation(text, synonyms, meanings, examples);
 
-        if (object.has("pos")) translation.setPartOfSpeech(object.getString("pos"));
+        if (object.has("pos")) translation.setPartOfSpeech(Vocabulary.canonical(object.getString("pos")));
 
-        if (object.has("gen")) translation.setGender(object.getString("gen"));
+        if (object.has("gen")) translation.setGender(Vocabulary.canonical(object.getString("gen")));
 
-        if (object.has("num")) translation.setNumber(object.getString("num"));
+        if (object.has("num")) translation.setNumber(Vocabulary.canonical(object.getString("num")));
 
         return translation.getText() != null ? translation : null;
     }
@@ -331,11 +478,11 @@ public final class ResponseParser {
 
         Dictionary.Example example = new Dictionary.Example(text, snippets);
 
-        if (object.has("pos")) example.setPartOfSpeech(object.getString("pos"));
+        if (object.has("pos")) example.setPartOfSpeech(Vocabulary.canonical(object.getString("pos")));
 
-        if (object.has("gen")) example.setGender(object.getString("gen"));
+        if (object.has("gen")) example.setGender(Vocabulary.canonical(object.getString("gen")));
 
-        if (object.has("num")) example.setNumber(object.getString("num"));
+        if (object.has("num")) example.setNumber(Vocabulary.canonical(object.getString("num")));
 
         return example.getText() != null ? example : null;
     }
@@ -363,11 +510,11 @@ public final class ResponseParser {
 
         Dictionary.Snippet snippet = new Dictionary.Snippet(text);
 
-        if (object.has("pos")) snippet.setPartOfSpeech(object.getString("pos"));
+        if (object.has("pos")) snippet.setPartOfSpeech(Vocabulary.canonical(object.getString("pos")));
 
-        if (object.has("gen")) snippet.setGender(object.getString("gen"));
+        if (object.has("gen")) snippet.setGender(Vocabulary.canonical(object.getString("gen")));
 
-        if (object.has("num")) snippet.setNumber(object.getString("num"));
+        if (object.has("num")) snippet.setNumber(Vocabulary.canonical(object.getString("num")));
 
         return snippet.getText() != null ? snippet : null;
     }
@@ -395,11 +542,11 @@ public final class ResponseParser {
 
         Dictionary.Synonym synonym = new Dictionary.Synonym(text);
 
-        if (object.has("pos")) synonym.setPartOfSpeech(object.getString("pos"));
+        if (object.has("pos")) synonym.setPartOfSpeech(Vocabulary.canonical(object.getString("pos")));
 
-        if (object.has("gen")) synonym.setGender(object.getString("gen"));
+        if (object.has("gen")) synonym.setGender(Vocabulary.canonical(object.getString("gen")));
 
-        if (object.has("num")) synonym.setNumber(object.getString("num"));
+        if (object.has("num")) synonym.setNumber(Vocabulary.canonical(object.getString("num")));
 
         return synonym.getText() != null ? synonym : null;
     }
@@ -427,11 +574,11 @@ public final class ResponseParser {
 
         Dictionary.Meaning meaning = new Dictionary.Meaning(text);
 
-        if (object.has("pos")) meaning.setPartOfSpeech(object.getString("pos"));
+        if (object.has("pos")) meaning.setPartOfSpeech(Vocabulary.canonical(object.getString("pos")));
 
-        if (object.has("gen")) meaning.setGender(object.getString("gen"));
+        if (object.has("gen")) meaning.setGender(Vocabulary.canonical(object.getString("gen")));
 
-        if (object.has("num")) meaning.setNumber(object.getString("num"));
+        if (object.has("num")) meaning.setNumber(Vocabulary.canonical(object.getString("num")));
 
         return meaning.getText() != null ? meaning : null;
     }
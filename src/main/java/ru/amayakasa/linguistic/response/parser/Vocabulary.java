@@ -0,0 +1,71 @@
+package ru.amayakasa.linguistic.response.parser;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Словарь канонических значений для атрибутов ответов Яндекс.Словаря.
+ * <p>
+ * Атрибуты "pos", "gen" и "num" принимают лишь небольшой набор значений ("noun", "verb", "m", "pl" и т.п.),
+ * но повторяются в каждой статье. Вместо того чтобы хранить собственную копию строки в каждом
+ * {@link ru.amayakasa.linguistic.response.Dictionary.Attribute}, парсер заменяет значение на общий экземпляр.
+ * <p>
+ * Известные значения (на английском и русском языках интерфейса) добавлены заранее.
+ * Неизвестные значения запоминаются по мере появления, но не более {@link #CAPACITY} штук,
+ * чтобы случайный мусор в ответах не раздувал словарь.
+ *
+ * @author Amayakasa
+ */
+final class Vocabulary {
+
+    /**
+     * Максимальное кол-во значений, которые могут быть добавлены в словарь во время парсинга.
+     */
+    static final int CAPACITY = 1024;
+
+    private static final ConcurrentMap<String, String> VALUES = new ConcurrentHashMap<>();
+
+    static {
+        String[] known = {
+                // части речи
+                "noun", "verb", "adjective", "adverb", "participle", "adverbial participle", "pronoun",
+                "preposition", "conjunction", "numeral", "interjection", "particle", "predicative",
+                "parenthetical", "foreign", "abbreviation", "determiner", "article", "invariable",
+                "существительное", "глагол", "прилагательное", "наречие", "причастие", "деепричастие",
+                "местоимение", "предлог", "союз", "числительное", "междометие", "частица", "предикатив",
+                "вводное слово", "иностранное слово", "сокращение",
+                // род
+                "m", "f", "n", "c", "м", "ж", "ср", "общ",
+                // число
+                "pl", "sg", "мн", "ед"
+        };
+
+        for (String value : known) VALUES.put(value, value);
+    }
+
+    private Vocabulary() {
+    }
+
+    /**
+     * Получение канонического экземпляра для указанного значения атрибута.
+     *
+     * @param value значение атрибута, полученное из ответа;
+     * @return общий экземпляр строки с тем же содержимым, само значение, если словарь уже заполнен,
+     * или null, если значение не указано.
+     */
+    static String canonical(String value) {
+        if (value == null) return null;
+
+        if (value.isEmpty()) return "";
+
+        String canonical = VALUES.get(value);
+
+        if (canonical != null) return canonical;
+
+        if (VALUES.size() >= CAPACITY) return value;
+
+        canonical = VALUES.putIfAbsent(value, value);
+
+        return canonical != null ? canonical : value;
+    }
+}
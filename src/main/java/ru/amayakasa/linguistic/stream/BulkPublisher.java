@@ -0,0 +1,435 @@
+package ru.amayakasa.linguistic.stream;
+
+import ru.amayakasa.linguistic.http.YandexCall;
+import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.response.BulkResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Пакетная обработка потока входных данных асинхронными запросами к API с управлением спросом.
+ * <p>
+ * Для каждого элемента входного {@link Publisher} выполняется асинхронная операция враппера (например,
+ * {@code (text, callback) -> translator.getTextTranslation(text, Language.RUSSIAN, callback)}),
+ * а результаты выдаются получателю как {@link BulkResult}: ошибка одного элемента не прерывает поток.
+ * <p>
+ * Одновременно выполняется и ожидает выдачи не больше {@code maxConcurrency} элементов: следующий элемент
+ * запрашивается у источника только после выдачи очередного результата получателю. Поэтому медленный получатель
+ * останавливает чтение источника, а не копит очередь запросов в диспетчере OkHttp. Результаты выдаются в порядке
+ * входных данных ({@code ordered}) или в порядке завершения запросов.
+ * <p>
+ * Ошибка источника сразу завершает поток с этой ошибкой. При ошибке источника и при отмене подписки
+ * выполняющиеся запросы отменяются ({@link YandexCall#cancel()}), а их результаты отбрасываются.
+ * Поддерживается один получатель. Для обработки результатов без реактивной подписки см. {@link #forEach(Consumer)}.
+ *
+ * @param <I> тип входных данных;
+ * @param <O> тип ответа API.
+ * @author Amayakasa
+ */
+public class BulkPublisher<I, O> implements Publisher<BulkResult<I, O>> {
+
+    private static final Object COMPLETE = new Object();
+
+    private final Publisher<? extends I> source;
+    private final BiFunction<? super I, YandexCallback<O>, YandexCall> operation;
+    private final int maxConcurrency;
+    private final boolean ordered;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Конструктор для инициализации нового объекта #BulkPublisher.
+     *
+     * @param source         источник входных данных;
+     * @param operation      асинхронная операция враппера для одного элемента, возвращающая управление запросом;
+     * @param maxConcurrency максимальное кол-во одновременных запросов;
+     * @param ordered        выдавать ли результаты в порядке входных данных.
+     */
+    public BulkPublisher(Publisher<? extends I> source, BiFunction<? super I, YandexCallback<O>, YandexCall> operation,
+                         int maxConcurrency, boolean ordered) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+
+        this.source = Objects.requireNonNull(source, "source");
+        this.operation = Objects.requireNonNull(operation, "operation");
+        this.maxConcurrency = maxConcurrency;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super BulkResult<I, O>> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long count) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("BulkPublisher supports a single subscriber"));
+            return;
+        }
+
+        BulkSubscription subscription = new BulkSubscription(subscriber);
+
+        subscriber.onSubscribe(subscription);
+
+        source.subscribe(subscription);
+    }
+
+    /**
+     * Блокирующая обработка всех результатов в текущем потоке.
+     * <p>
+     * Результаты передаются обработчику по одному в потоке, вызвавшем метод; пока обработчик работает,
+     * в буфере ждет не больше {@code maxConcurrency} результатов. Метод возвращает управление,
+     * когда обработаны результаты всех элементов источника.
+     *
+     * @param consumer обработчик результатов.
+     * @throws InterruptedException если поток прерван (новые запросы при этом не отправляются).
+     * @throws RuntimeException     при ошибке источника или обработчика.
+     */
+    public void forEach(Consumer<? super BulkResult<I, O>> consumer) throws InterruptedException {
+        BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+        subscribe(new Subscriber<BulkResult<I, O>>() {
+            @Override
+            public void onSubscribe(Subscription value) {
+                subscription.set(value);
+                value.request(maxConcurrency);
+            }
+
+            @Override
+            public void onNext(BulkResult<I, O> result) {
+                signals.add(result);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                signals.add(new Failure(throwable));
+            }
+
+            @Override
+            public void onComplete() {
+                signals.add(COMPLETE);
+            }
+        });
+
+        try {
+            while (true) {
+                Object signal = signals.take();
+
+                if (signal == COMPLETE) return;
+
+                if (signal instanceof Failure) {
+                    Throwable throwable = ((Failure) signal).throwable;
+
+                    if (throwable instanceof RuntimeException) throw (RuntimeException) throwable;
+                    if (throwable instanceof Error) throw (Error) throwable;
+
+                    throw new IllegalStateException(throwable);
+                }
+
+                @SuppressWarnings("unchecked")
+                BulkResult<I, O> result = (BulkResult<I, O>) signal;
+
+                consumer.accept(result);
+
+                subscription.get().request(1);
+            }
+        } catch (InterruptedException | RuntimeException | Error exception) {
+            subscription.get().cancel();
+            throw exception;
+        }
+    }
+
+    /**
+     * Ошибка источника в очереди сигналов {@link #forEach(Consumer)}.
+     */
+    private static final class Failure {
+
+        final Throwable throwable;
+
+        Failure(Throwable throwable) {
+            this.throwable = throwable;
+        }
+    }
+
+    /**
+     * Подписка получателя результатов, она же — получатель элементов источника.
+     * <p>
+     * Состояние меняется под блокировкой, а сигналы получателю выдает один поток за раз (цикл {@link #drain()}).
+     */
+    private final class BulkSubscription implements Subscription, Subscriber<I> {
+
+        private final Subscriber<? super BulkResult<I, O>> downstream;
+
+        private final Object lock = new Object();
+
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private final Map<Long, BulkResult<I, O>> completedBySequence = new HashMap<>();
+        private final ArrayDeque<BulkResult<I, O>> completed = new ArrayDeque<>();
+
+        // Запросы в работе по номерам элементов (null — операция еще не вернула управление запросом)
+        private final Map<Long, YandexCall> calls = new HashMap<>();
+
+        private Subscription upstream;
+
+        private long demand;
+        private long nextSequence;
+        private long nextEmitted;
+        private int inFlight;
+
+        private boolean upstreamDone;
+        private Throwable error;
+        private boolean cancelled;
+        private boolean terminated;
+
+        BulkSubscription(Subscriber<? super BulkResult<I, O>> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void request(long count) {
+            synchronized (lock) {
+                if (count <= 0) {
+                    if (error == null) error = new IllegalArgumentException("Requested count must be positive: " + count);
+                } else {
+                    demand = demand + count < 0 ? Long.MAX_VALUE : demand + count;
+                }
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            Subscription subscription;
+
+            synchronized (lock) {
+                cancelled = true;
+                subscription = upstream;
+
+                completedBySequence.clear();
+                completed.clear();
+            }
+
+            if (subscription != null) subscription.cancel();
+
+            cancelCalls();
+        }
+
+        /**
+         * Отмена всех выполняющихся запросов после отмены подписки или ошибки источника.
+         */
+        private void cancelCalls() {
+            List<YandexCall> pending;
+
+            synchronized (lock) {
+                pending = new ArrayList<>(calls.values());
+
+                calls.clear();
+            }
+
+            for (YandexCall call : pending) {
+                if (call != null) call.cancel();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            boolean duplicate;
+            boolean cancel;
+
+            synchronized (lock) {
+                duplicate = upstream != null;
+                cancel = cancelled;
+
+                if (!duplicate) upstream = subscription;
+            }
+
+            if (duplicate || cancel) subscription.cancel();
+            else subscription.request(maxConcurrency);
+        }
+
+        @Override
+        public void onNext(I item) {
+            long sequence;
+
+            synchronized (lock) {
+                if (cancelled || terminated) return;
+
+                sequence = nextSequence++;
+                inFlight++;
+
+                calls.put(sequence, null);
+            }
+
+            YandexCall call;
+
+            try {
+                call = operation.apply(item, new YandexCallback<O>() {
+                    @Override
+                    public void onResponse(O response) {
+                        complete(BulkResult.success(sequence, item, response));
+                    }
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        complete(BulkResult.failure(sequence, item, throwable));
+                    }
+                });
+            } catch (Throwable throwable) {
+                complete(BulkResult.failure(sequence, item, throwable));
+                return;
+            }
+
+            if (call == null) return;
+
+            boolean abandoned;
+
+            synchronized (lock) {
+                abandoned = cancelled || terminated;
+
+                // Запрос мог завершиться раньше, чем операция вернула управление им
+                if (!abandoned && calls.containsKey(sequence)) calls.put(sequence, call);
+            }
+
+            if (abandoned) call.cancel();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (lock) {
+                upstreamDone = true;
+
+                if (error == null) error = throwable;
+            }
+
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (lock) {
+                upstreamDone = true;
+            }
+
+            drain();
+        }
+
+        private void complete(BulkResult<I, O> result) {
+            synchronized (lock) {
+                inFlight--;
+
+                calls.remove(result.getIndex());
+
+                if (cancelled || terminated) return;
+
+                if (ordered) completedBySequence.put(result.getIndex(), result);
+                else completed.add(result);
+            }
+
+            drain();
+        }
+
+        /**
+         * Выдача готовых результатов в пределах спроса и завершение потока.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) return;
+
+            int missed = 1;
+
+            do {
+                long emitted = 0;
+
+                while (true) {
+                    BulkResult<I, O> result = null;
+                    Throwable failure = null;
+                    boolean complete = false;
+
+                    synchronized (lock) {
+                        if (cancelled || terminated) break;
+
+                        if (error != null) {
+                            terminated = true;
+                            failure = error;
+                        } else if (demand > 0 && (result = poll()) != null) {
+                            if (demand != Long.MAX_VALUE) demand--;
+                        } else if (upstreamDone && inFlight == 0 && completed.isEmpty() && completedBySequence.isEmpty()) {
+                            terminated = true;
+                            complete = true;
+                        }
+                    }
+
+                    if (failure != null) {
+                        Subscription subscription;
+
+                        synchronized (lock) {
+                            subscription = upstreamDone ? null : upstream;
+                        }
+
+                        if (subscription != null) subscription.cancel();
+
+                        cancelCalls();
+
+                        downstream.onError(failure);
+                        break;
+                    }
+
+                    if (complete) {
+                        downstream.onComplete();
+                        break;
+                    }
+
+                    if (result == null) break;
+
+                    downstream.onNext(result);
+
+                    emitted++;
+                }
+
+                if (emitted > 0) {
+                    Subscription subscription;
+
+                    synchronized (lock) {
+                        subscription = upstreamDone || cancelled || terminated ? null : upstream;
+                    }
+
+                    // Каждый выданный результат освобождает место для следующего элемента источника
+                    if (subscription != null) subscription.request(emitted);
+                }
+
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private BulkResult<I, O> poll() {
+            if (!ordered) return completed.poll();
+
+            BulkResult<I, O> result = completedBySequence.remove(nextEmitted);
+
+            if (result != null) nextEmitted++;
+
+            return result;
+        }
+    }
+}
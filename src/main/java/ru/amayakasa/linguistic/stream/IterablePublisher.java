@@ -0,0 +1,141 @@
+package ru.amayakasa.linguistic.stream;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Источник элементов из {@link Iterable}: элементы берутся из итератора только по мере спроса получателя.
+ * <p>
+ * Каждая подписка получает собственный итератор. Элементы выдаются в потоке, запросившем их,
+ * без рекурсии при запросе из {@link Subscriber#onNext}.
+ *
+ * @param <T> тип элементов.
+ * @author Amayakasa
+ */
+public class IterablePublisher<T> implements Publisher<T> {
+
+    private final Iterable<? extends T> items;
+
+    /**
+     * Конструктор для инициализации нового объекта #IterablePublisher.
+     *
+     * @param items элементы (например, список или {@code stream::iterator} для однократного обхода).
+     */
+    public IterablePublisher(Iterable<? extends T> items) {
+        this.items = Objects.requireNonNull(items, "items");
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+
+        Iterator<? extends T> iterator;
+
+        try {
+            iterator = items.iterator();
+        } catch (Throwable throwable) {
+            subscriber.onSubscribe(IterableSubscription.EMPTY);
+            subscriber.onError(throwable);
+            return;
+        }
+
+        subscriber.onSubscribe(new IterableSubscription<>(subscriber, iterator));
+    }
+
+    /**
+     * Подписка с выдачей элементов итератора по спросу.
+     */
+    private static final class IterableSubscription<T> implements Subscription {
+
+        static final Subscription EMPTY = new Subscription() {
+            @Override
+            public void request(long count) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+
+        private final Subscriber<? super T> subscriber;
+        private final Iterator<? extends T> iterator;
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private volatile boolean cancelled;
+
+        IterableSubscription(Subscriber<? super T> subscriber, Iterator<? extends T> iterator) {
+            this.subscriber = subscriber;
+            this.iterator = iterator;
+        }
+
+        @Override
+        public void request(long count) {
+            if (count <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested count must be positive: " + count));
+                return;
+            }
+
+            // Эмиссию ведет тот, кто поднял спрос с нуля; остальные только добавляют спрос
+            if (add(count) != 0) return;
+
+            long emitted = 0;
+            long requested = count;
+
+            while (true) {
+                while (emitted != requested) {
+                    if (cancelled) return;
+
+                    T item;
+
+                    try {
+                        if (!iterator.hasNext()) {
+                            cancelled = true;
+                            subscriber.onComplete();
+                            return;
+                        }
+
+                        item = Objects.requireNonNull(iterator.next(), "Iterable produced a null item");
+                    } catch (Throwable throwable) {
+                        cancelled = true;
+                        subscriber.onError(throwable);
+                        return;
+                    }
+
+                    subscriber.onNext(item);
+
+                    emitted++;
+                }
+
+                requested = demand.get();
+
+                if (requested == emitted) {
+                    requested = demand.addAndGet(-emitted);
+
+                    if (requested == 0) return;
+
+                    emitted = 0;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private long add(long count) {
+            while (true) {
+                long current = demand.get();
+
+                if (current == Long.MAX_VALUE) return current;
+
+                long next = current + count < 0 ? Long.MAX_VALUE : current + count;
+
+                if (demand.compareAndSet(current, next)) return current;
+            }
+        }
+    }
+}
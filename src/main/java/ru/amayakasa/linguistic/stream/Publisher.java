@@ -0,0 +1,24 @@
+package ru.amayakasa.linguistic.stream;
+
+/**
+ * Источник потока элементов с управлением спросом со стороны получателя.
+ * <p>
+ * Интерфейс повторяет сигналы и правила {@code org.reactivestreams.Publisher} и {@code java.util.concurrent.Flow.Publisher}
+ * (библиотека собирается под Java 8 и не имеет зависимости от Reactive Streams), но это отдельные типы: объекты
+ * библиотеки нельзя передать туда, где ожидается {@code Flow.Publisher}, без адаптера. Адаптеры к {@code Flow}
+ * есть в классе {@code FlowAdapters} версии для Java 11+ ({@code META-INF/versions/11}); адаптер к Reactive Streams
+ * пишется так же. См. подробнее {@link BulkPublisher}
+ *
+ * @param <T> тип элементов.
+ * @author Amayakasa
+ */
+@FunctionalInterface
+public interface Publisher<T> {
+
+    /**
+     * Подписка получателя на поток элементов.
+     *
+     * @param subscriber получатель элементов.
+     */
+    void subscribe(Subscriber<? super T> subscriber);
+}
@@ -0,0 +1,40 @@
+package ru.amayakasa.linguistic.stream;
+
+/**
+ * Получатель потока элементов от {@link Publisher}.
+ * <p>
+ * Интерфейс повторяет {@code org.reactivestreams.Subscriber} и {@code java.util.concurrent.Flow.Subscriber}.
+ * Сигналы приходят последовательно: {@link #onSubscribe}, затем не больше запрошенного кол-ва {@link #onNext},
+ * затем не больше одного из {@link #onError} или {@link #onComplete}.
+ *
+ * @param <T> тип элементов.
+ * @author Amayakasa
+ */
+public interface Subscriber<T> {
+
+    /**
+     * Начало подписки. Элементы не приходят, пока не запрошены через {@link Subscription#request(long)}.
+     *
+     * @param subscription подписка.
+     */
+    void onSubscribe(Subscription subscription);
+
+    /**
+     * Очередной элемент.
+     *
+     * @param item элемент.
+     */
+    void onNext(T item);
+
+    /**
+     * Завершение потока с ошибкой.
+     *
+     * @param throwable ошибка.
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Успешное завершение потока.
+     */
+    void onComplete();
+}
@@ -0,0 +1,23 @@
+package ru.amayakasa.linguistic.stream;
+
+/**
+ * Подписка получателя на {@link Publisher}.
+ * <p>
+ * Интерфейс повторяет {@code org.reactivestreams.Subscription} и {@code java.util.concurrent.Flow.Subscription}.
+ *
+ * @author Amayakasa
+ */
+public interface Subscription {
+
+    /**
+     * Запрос следующих элементов. Спрос складывается (до {@link Long#MAX_VALUE} — без ограничения).
+     *
+     * @param count кол-во элементов (больше 0, иначе поток завершается с {@link IllegalArgumentException}).
+     */
+    void request(long count);
+
+    /**
+     * Отмена подписки: после нее элементы перестают приходить.
+     */
+    void cancel();
+}
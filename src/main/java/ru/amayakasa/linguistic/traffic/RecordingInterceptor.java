@@ -0,0 +1,102 @@
+package ru.amayakasa.linguistic.traffic;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Перехватчик OkHttp, записывающий все пары запрос-ответ в {@link TrafficLog}.
+ * <p>
+ * Подключается через {@link ru.amayakasa.linguistic.http.YandexConfiguration.Builder#addInterceptor(Interceptor)}.
+ * API-ключ (параметр {@code key}) удаляется из запроса до записи. Тело ответа читается в память целиком
+ * и передается дальше без изменений, поэтому враппер получает тот же ответ, что и без записи.
+ * Ошибки записи в журнал не прерывают запрос, а только учитываются в {@link #getFailures()}.
+ *
+ * @author Amayakasa
+ */
+public class RecordingInterceptor implements Interceptor {
+
+    private static final String KEY_PARAMETER = "key";
+
+    private final TrafficLog log;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Конструктор для инициализации нового объекта #RecordingInterceptor.
+     *
+     * @param log журнал, открытый на запись.
+     */
+    public RecordingInterceptor(TrafficLog log) {
+        this.log = log;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        long timestamp = TrafficLog.currentMicros();
+        long start = System.nanoTime();
+
+        Response response = chain.proceed(chain.request());
+
+        ResponseBody body = response.body();
+
+        if (body == null) return response;
+
+        MediaType contentType = body.contentType();
+
+        byte[] bytes = body.bytes();
+
+        long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+        try {
+            log.write(new TrafficRecord(timestamp, latency, response.code(), redact(chain.request().url()),
+                    contentType == null ? null : contentType.toString(), bytes));
+
+            recorded.increment();
+        } catch (IOException exception) {
+            failures.increment();
+        }
+
+        return response.newBuilder().body(ResponseBody.create(contentType, bytes)).build();
+    }
+
+    /**
+     * Геттер для получения кол-ва записанных пар запрос-ответ.
+     *
+     * @return кол-во записей.
+     */
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    /**
+     * Геттер для получения кол-ва пар запрос-ответ, которые не удалось записать.
+     *
+     * @return кол-во ошибок записи.
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Путь запроса с параметрами, из которых удален API-ключ.
+     *
+     * @param url адрес запроса;
+     * @return путь с параметрами.
+     */
+    static String redact(HttpUrl url) {
+        HttpUrl redacted = url.queryParameter(KEY_PARAMETER) == null ? url
+                : url.newBuilder().removeAllQueryParameters(KEY_PARAMETER).build();
+
+        String query = redacted.encodedQuery();
+
+        return query == null ? redacted.encodedPath() : redacted.encodedPath() + '?' + query;
+    }
+}
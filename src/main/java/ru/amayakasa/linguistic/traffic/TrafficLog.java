@@ -0,0 +1,365 @@
+package ru.amayakasa.linguistic.traffic;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Компактный двоичный журнал пар запрос-ответ, в который можно только дописывать.
+ * <p>
+ * Формат: заголовок {@code YLBT} и версия формата, затем записи вида «тип, длина, содержимое».
+ * Каждое открытие журнала на запись начинает сессию с абсолютным временем, а записи внутри сессии хранят
+ * только разницу во времени с предыдущей записью. Числа записываются в переменной длине (varint),
+ * тела ответов больше {@value #DEFLATE_THRESHOLD} байт сжимаются. Запись, оборванная на середине
+ * (например, при аварийном завершении), при чтении пропускается, а при следующем открытии на запись отрезается.
+ * <p>
+ * Писатель потокобезопасен. См. подробнее {@link RecordingInterceptor}
+ *
+ * @author Amayakasa
+ */
+public final class TrafficLog implements Closeable, Flushable {
+
+    private static final byte[] MAGIC = {'Y', 'L', 'B', 'T'};
+    private static final int VERSION = 1;
+
+    private static final int SESSION = 1;
+    private static final int EXCHANGE = 2;
+
+    private static final int FLAG_DEFLATED = 1;
+
+    private static final int DEFLATE_THRESHOLD = 256;
+
+    private final DataOutputStream output;
+
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(1024);
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    private final byte[] buffer = new byte[8192];
+
+    private long lastTimestamp;
+
+    private TrafficLog(DataOutputStream output, long timestamp) {
+        this.output = output;
+        this.lastTimestamp = timestamp;
+    }
+
+    /**
+     * Открытие журнала на дозапись (файл создается, если его нет).
+     *
+     * @param path путь к файлу журнала;
+     * @return журнал, открытый на запись.
+     * @throws IOException если файл нельзя открыть или он не является журналом.
+     */
+    public static TrafficLog append(Path path) throws IOException {
+        boolean empty = !Files.exists(path) || Files.size(path) == 0;
+
+        if (!empty) {
+            long valid = scan(path, null);
+
+            if (valid < Files.size(path)) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                }
+            }
+        }
+
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile(), true), 64 * 1024));
+
+        if (empty) {
+            output.write(MAGIC);
+            output.write(VERSION);
+        }
+
+        long timestamp = currentMicros();
+
+        TrafficLog log = new TrafficLog(output, timestamp);
+
+        log.record.reset();
+        log.writeVarLong(timestamp);
+        log.writeRecord(SESSION);
+
+        return log;
+    }
+
+    /**
+     * Дозапись пары запрос-ответ.
+     *
+     * @param record пара запрос-ответ.
+     * @throws IOException при ошибке записи.
+     */
+    public synchronized void write(TrafficRecord record) throws IOException {
+        this.record.reset();
+
+        writeVarLong(record.getTimestamp() - lastTimestamp);
+        writeVarLong(record.getLatency());
+        writeVarLong(record.getCode());
+        writeString(record.getRequest());
+        writeString(record.getContentType() == null ? "" : record.getContentType());
+
+        byte[] body = record.getBody();
+
+        if (body.length > DEFLATE_THRESHOLD) {
+            byte[] deflated = deflate(body);
+
+            if (deflated.length < body.length) {
+                writeVarLong(FLAG_DEFLATED);
+                writeVarLong(body.length);
+                writeBytes(deflated);
+            } else {
+                writeVarLong(0);
+                writeBytes(body);
+            }
+        } else {
+            writeVarLong(0);
+            writeBytes(body);
+        }
+
+        writeRecord(EXCHANGE);
+
+        lastTimestamp = record.getTimestamp();
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        output.close();
+        deflater.end();
+    }
+
+    /**
+     * Чтение всех записей журнала.
+     *
+     * @param path путь к файлу журнала;
+     * @return записи в порядке записи.
+     * @throws IOException если файл нельзя прочитать или он не является журналом.
+     */
+    public static List<TrafficRecord> read(Path path) throws IOException {
+        List<TrafficRecord> records = new ArrayList<>();
+
+        scan(path, records);
+
+        return records;
+    }
+
+    /**
+     * Чтение журнала до конца или до первой оборванной записи.
+     *
+     * @param path    путь к файлу журнала;
+     * @param records список для прочитанных записей (null — только проверить журнал);
+     * @return длина целой части журнала в байтах.
+     * @throws IOException если файл нельзя прочитать или он не является журналом.
+     */
+    private static long scan(Path path, List<TrafficRecord> records) throws IOException {
+        long fileSize = Files.size(path);
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            checkHeader(input);
+
+            long valid = MAGIC.length + 1;
+
+            Inflater inflater = new Inflater();
+
+            long timestamp = 0;
+
+            try {
+                while (true) {
+                    int type = input.read();
+
+                    if (type < 0) break;
+
+                    long length = readVarLong(input);
+
+                    if (length < 0 || valid + 1 + varLongSize(length) + length > fileSize) break;
+
+                    byte[] payload = new byte[(int) length];
+
+                    input.readFully(payload);
+
+                    valid += 1 + varLongSize(length) + length;
+
+                    if (records == null) continue;
+
+                    DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+
+                    if (type == SESSION) {
+                        timestamp = readVarLong(record);
+                    } else if (type == EXCHANGE) {
+                        timestamp += readVarLong(record);
+
+                        long latency = readVarLong(record);
+                        int code = (int) readVarLong(record);
+                        String request = readString(record);
+                        String contentType = readString(record);
+                        int flags = (int) readVarLong(record);
+
+                        byte[] body;
+
+                        if ((flags & FLAG_DEFLATED) != 0) {
+                            int size = (int) readVarLong(record);
+
+                            body = inflate(inflater, readBytes(record), size);
+                        } else {
+                            body = readBytes(record);
+                        }
+
+                        records.add(new TrafficRecord(timestamp, latency, code, request,
+                                contentType.isEmpty() ? null : contentType, body));
+                    }
+                }
+            } catch (EOFException exception) {
+                // Оборванная последняя запись: все, что было до нее, уже прочитано
+            } finally {
+                inflater.end();
+            }
+
+            return valid;
+        }
+    }
+
+    /**
+     * Текущее время в микросекундах от начала эпохи.
+     *
+     * @return время в микросекундах.
+     */
+    static long currentMicros() {
+        Instant now = Instant.now();
+
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1000;
+    }
+
+    private void writeRecord(int type) throws IOException {
+        output.write(type);
+
+        writeVarLong(output, record.size());
+
+        record.writeTo(output);
+    }
+
+    private void writeVarLong(long value) {
+        try {
+            writeVarLong(record, value);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private static void writeVarLong(OutputStream output, long value) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+
+        while ((zigzag & ~0x7FL) != 0) {
+            output.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+
+        output.write((int) zigzag);
+    }
+
+    private static int varLongSize(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+
+        int size = 1;
+
+        while ((zigzag & ~0x7FL) != 0) {
+            zigzag >>>= 7;
+            size++;
+        }
+
+        return size;
+    }
+
+    private void writeString(String value) {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] value) {
+        writeVarLong(value.length);
+        record.write(value, 0, value.length);
+    }
+
+    private byte[] deflate(byte[] body) {
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream(body.length / 2);
+
+        deflater.reset();
+        deflater.setInput(body);
+        deflater.finish();
+
+        while (!deflater.finished()) {
+            int count = deflater.deflate(buffer);
+
+            deflated.write(buffer, 0, count);
+        }
+
+        return deflated.toByteArray();
+    }
+
+    private static byte[] inflate(Inflater inflater, byte[] deflated, int size) throws IOException {
+        byte[] body = new byte[size];
+
+        inflater.reset();
+        inflater.setInput(deflated);
+
+        try {
+            int offset = 0;
+
+            while (offset < size && !inflater.finished()) offset += inflater.inflate(body, offset, size - offset);
+        } catch (DataFormatException exception) {
+            throw new IOException("Corrupted traffic log record", exception);
+        }
+
+        return body;
+    }
+
+    private static long readVarLong(DataInputStream input) throws IOException {
+        long zigzag = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            int next = input.readUnsignedByte();
+
+            zigzag |= (long) (next & 0x7F) << shift;
+
+            if ((next & 0x80) == 0) return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        throw new IOException("Corrupted traffic log record");
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream input) throws IOException {
+        byte[] value = new byte[(int) readVarLong(input)];
+
+        input.readFully(value);
+
+        return value;
+    }
+
+    private static void checkHeader(DataInputStream input) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+
+        input.readFully(magic);
+
+        for (int index = 0; index < MAGIC.length; index++) {
+            if (magic[index] != MAGIC[index]) throw new IOException("Not a traffic log");
+        }
+
+        int version = input.read();
+
+        if (version != VERSION) throw new IOException("Unsupported traffic log version: " + version);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.amayakasa.linguistic.traffic;
+
+import ru.amayakasa.linguistic.http.Endpoint;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Одна записанная пара запрос-ответ из {@link TrafficLog}.
+ * <p>
+ * Запрос хранится как путь с параметрами, из которых удален API-ключ.
+ * Время запроса — абсолютное, в микросекундах от начала эпохи.
+ *
+ * @author Amayakasa
+ */
+public class TrafficRecord {
+
+    private final long timestamp;
+    private final long latency;
+    private final int code;
+    private final String request;
+    private final String contentType;
+    private final byte[] body;
+
+    /**
+     * Конструктор для инициализации нового объекта #TrafficRecord.
+     *
+     * @param timestamp   время отправки запроса в микросекундах от начала эпохи;
+     * @param latency     время от отправки запроса до получения ответа в микросекундах;
+     * @param code        HTTP-код ответа;
+     * @param request     путь запроса с параметрами (без API-ключа);
+     * @param contentType тип содержимого ответа (может быть null);
+     * @param body        тело ответа.
+     */
+    public TrafficRecord(long timestamp, long latency, int code, String request, String contentType, byte[] body) {
+        this.timestamp = timestamp;
+        this.latency = latency;
+        this.code = code;
+        this.request = request;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getRequest() {
+        return request;
+    }
+
+    /**
+     * Геттер для получения пути запроса без параметров.
+     *
+     * @return путь запроса.
+     */
+    public String getPath() {
+        int query = request.indexOf('?');
+
+        return query < 0 ? request : request.substring(0, query);
+    }
+
+    /**
+     * Геттер для получения метода сервиса, к которому относится запрос.
+     *
+     * @return метод сервиса или null, если путь неизвестен.
+     */
+    public Endpoint getEndpoint() {
+        return Endpoint.byPath(getPath());
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return code + " " + request + " (" + latency + "us, " + body.length + " bytes): "
+                + new String(body, 0, Math.min(body.length, 80), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.amayakasa.linguistic.http;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import okhttp3.HttpUrl;
+import retrofit2.Call;
+
+import java.util.List;
+
+/**
+ * Событие Java Flight Recorder для одного запроса к Яндекс.Переводчику, Яндекс.Словарю, Яндекс.Предиктору или Яндекс.Спеллеру.
+ * <p>
+ * Длительность события — от отправки запроса до завершения его обработки (для асинхронных запросов — после колбэка),
+ * поэтому в записи его можно сопоставить с потоком, сборками мусора и блокировками за этот же период.
+ * <p>
+ * Класс есть только в {@code META-INF/versions/11} многоверсионного jar и загружается только через {@link CallEvents},
+ * который проверяет наличие JFR в текущей JVM.
+ *
+ * @author Amayakasa
+ */
+@Name("ru.amayakasa.linguistic.Call")
+@Label("Yandex API Call")
+@Category({"Yandex Linguistic Bundle"})
+@Description("Request to Yandex.Translate, Yandex.Dictionary, Yandex.Predictor or Yandex.Speller")
+final class CallEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(CallEvent.class);
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Language")
+    @Description("Language or language pair of the request")
+    String language;
+
+    @Label("Text Length")
+    @Description("Total length of the request texts in characters")
+    int textLength;
+
+    @Label("Request Size")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Code")
+    int responseCode;
+
+    @Label("Parse Duration")
+    @Timespan
+    long parseDuration;
+
+    @Label("Failure")
+    String failure;
+
+    /**
+     * Начало события для указанного запроса.
+     *
+     * @param endpoint метод сервиса;
+     * @param call     запрос для HTTP-клиента;
+     * @return событие или null, если событие не записывается.
+     */
+    static Object begin(Endpoint endpoint, Call<?> call) {
+        if (!TYPE.isEnabled()) return null;
+
+        CallEvent event = new CallEvent();
+
+        HttpUrl url = call.request().url();
+
+        event.endpoint = endpoint.toString();
+        event.language = url.queryParameter("lang");
+        event.requestBytes = url.toString().length();
+
+        List<String> texts = url.queryParameterValues("text");
+
+        for (String text : texts) if (text != null) event.textLength += text.length();
+
+        event.begin();
+
+        return event;
+    }
+
+    /**
+     * Получен ответ с указанным кодом.
+     *
+     * @param event событие;
+     * @param code  HTTP-код ответа.
+     */
+    static void respond(Object event, int code) {
+        ((CallEvent) event).responseCode = code;
+    }
+
+    /**
+     * Завершение и запись события.
+     *
+     * @param event     событие;
+     * @param parseNanos время парсинга в наносекундах;
+     * @param throwable ошибка, которой завершился запрос (null — запрос успешен).
+     */
+    static void end(Object event, long parseNanos, Throwable throwable) {
+        CallEvent callEvent = (CallEvent) event;
+
+        callEvent.end();
+
+        if (!callEvent.shouldCommit()) return;
+
+        callEvent.parseDuration = parseNanos;
+        callEvent.failure = throwable == null ? null : throwable.toString();
+
+        callEvent.commit();
+    }
+}
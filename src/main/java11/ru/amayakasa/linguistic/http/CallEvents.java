@@ -0,0 +1,43 @@
+package ru.amayakasa.linguistic.http;
+
+import retrofit2.Call;
+
+/**
+ * Точка входа для событий Java Flight Recorder ({@link CallEvent}).
+ * <p>
+ * Версия для Java 11+ из {@code META-INF/versions/11}: см. подробнее описание основной версии класса.
+ * На JVM без модуля jdk.jfr события просто не создаются, а класс {@link CallEvent} не загружается.
+ * Если запись не ведется или событие отключено в настройках записи, то на запрос тратится
+ * одна проверка без выделения памяти.
+ *
+ * @author Amayakasa
+ */
+final class CallEvents {
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    private CallEvents() {
+    }
+
+    static Object begin(Endpoint endpoint, Call<?> call) {
+        return AVAILABLE ? CallEvent.begin(endpoint, call) : null;
+    }
+
+    static void respond(Object event, int code) {
+        if (event != null) CallEvent.respond(event, code);
+    }
+
+    static void end(Object event, long parseNanos, Throwable throwable) {
+        if (event != null) CallEvent.end(event, parseNanos, throwable);
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, CallEvents.class.getClassLoader());
+
+            return jdk.jfr.FlightRecorder.isAvailable();
+        } catch (ClassNotFoundException | LinkageError exception) {
+            return false;
+        }
+    }
+}
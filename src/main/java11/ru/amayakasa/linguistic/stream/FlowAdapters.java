@@ -0,0 +1,154 @@
+package ru.amayakasa.linguistic.stream;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+/**
+ * Адаптеры между {@link Publisher} библиотеки и {@link Flow.Publisher} из Java 9+.
+ * <p>
+ * Класс есть только в версии для Java 11+ из {@code META-INF/versions/11}. Интерфейсы пакета повторяют
+ * {@link Flow} по сигналам и правилам, поэтому адаптеры ничего не буферизуют и не меняют порядок:
+ * каждый вызов {@code onSubscribe}, {@code onNext}, {@code onError}, {@code onComplete}, {@code request}
+ * и {@code cancel} передается второй стороне в том же потоке. Повторная адаптация снимает обертку,
+ * а не добавляет вторую.
+ * <p>
+ * Например, результаты {@link BulkPublisher} передаются в {@link java.util.concurrent.SubmissionPublisher}
+ * или в библиотеку реактивных потоков через {@code FlowAdapters.toFlowPublisher(bulk)}.
+ *
+ * @author Amayakasa
+ */
+public final class FlowAdapters {
+
+    private FlowAdapters() {
+    }
+
+    /**
+     * Метод для представления источника библиотеки как {@link Flow.Publisher}.
+     *
+     * @param publisher источник библиотеки;
+     * @param <T>       тип элементов;
+     * @return источник {@link Flow}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Flow.Publisher<T> toFlowPublisher(Publisher<? extends T> publisher) {
+        Objects.requireNonNull(publisher, "publisher");
+
+        if (publisher instanceof FromFlowPublisher) return (Flow.Publisher<T>) ((FromFlowPublisher<? extends T>) publisher).flow;
+
+        return new ToFlowPublisher<>(publisher);
+    }
+
+    /**
+     * Метод для представления {@link Flow.Publisher} как источника библиотеки (например, для {@link BulkPublisher}).
+     *
+     * @param publisher источник {@link Flow};
+     * @param <T>       тип элементов;
+     * @return источник библиотеки.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Publisher<T> fromFlowPublisher(Flow.Publisher<? extends T> publisher) {
+        Objects.requireNonNull(publisher, "publisher");
+
+        if (publisher instanceof ToFlowPublisher) return (Publisher<T>) ((ToFlowPublisher<? extends T>) publisher).source;
+
+        return new FromFlowPublisher<>(publisher);
+    }
+
+    /**
+     * Источник библиотеки, представленный как {@link Flow.Publisher}.
+     */
+    private static final class ToFlowPublisher<T> implements Flow.Publisher<T> {
+
+        final Publisher<? extends T> source;
+
+        ToFlowPublisher(Publisher<? extends T> source) {
+            this.source = source;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            Objects.requireNonNull(subscriber, "subscriber");
+
+            source.subscribe(new Subscriber<T>() {
+                @Override
+                public void onSubscribe(Subscription subscription) {
+                    subscriber.onSubscribe(new Flow.Subscription() {
+                        @Override
+                        public void request(long count) {
+                            subscription.request(count);
+                        }
+
+                        @Override
+                        public void cancel() {
+                            subscription.cancel();
+                        }
+                    });
+                }
+
+                @Override
+                public void onNext(T item) {
+                    subscriber.onNext(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    subscriber.onError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    subscriber.onComplete();
+                }
+            });
+        }
+    }
+
+    /**
+     * {@link Flow.Publisher}, представленный как источник библиотеки.
+     */
+    private static final class FromFlowPublisher<T> implements Publisher<T> {
+
+        final Flow.Publisher<? extends T> flow;
+
+        FromFlowPublisher(Flow.Publisher<? extends T> flow) {
+            this.flow = flow;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super T> subscriber) {
+            Objects.requireNonNull(subscriber, "subscriber");
+
+            flow.subscribe(new Flow.Subscriber<T>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscriber.onSubscribe(new Subscription() {
+                        @Override
+                        public void request(long count) {
+                            subscription.request(count);
+                        }
+
+                        @Override
+                        public void cancel() {
+                            subscription.cancel();
+                        }
+                    });
+                }
+
+                @Override
+                public void onNext(T item) {
+                    subscriber.onNext(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    subscriber.onError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    subscriber.onComplete();
+                }
+            });
+        }
+    }
+}
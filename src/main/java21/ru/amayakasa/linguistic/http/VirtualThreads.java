@@ -0,0 +1,37 @@
+package ru.amayakasa.linguistic.http;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Исполнитель задач на виртуальных потоках (Java 21+).
+ * <p>
+ * Версия для Java 21+ из {@code META-INF/versions/21}: каждая задача запускается в новом виртуальном потоке.
+ * См. подробнее описание основной версии класса.
+ *
+ * @author Amayakasa
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Проверка поддержки виртуальных потоков текущей JVM.
+     *
+     * @return true, если исполнитель создает виртуальные потоки.
+     */
+    public static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Создание исполнителя, запускающего каждую задачу в новом виртуальном потоке.
+     *
+     * @param name префикс имени потоков;
+     * @return исполнитель без ограничения кол-ва одновременных задач.
+     */
+    public static ExecutorService newExecutor(String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+    }
+}
@@ -0,0 +1,242 @@
+package ru.amayakasa.linguistic;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import ru.amayakasa.linguistic.bench.StandInServer;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.parameters.Language;
+import ru.amayakasa.linguistic.parameters.ResponseInterface;
+import ru.amayakasa.linguistic.parameters.Version;
+import ru.amayakasa.linguistic.response.BulkResult;
+import ru.amayakasa.linguistic.response.MultiTranslation;
+import ru.amayakasa.linguistic.response.Translation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка пакетного перевода ({@code getTextTranslations}: много текстов на один язык) и перевода на несколько
+ * языков ({@code getMultiTranslation}: один текст на много языков) на локальной заглушке Яндекс.Переводчика.
+ * <p>
+ * Заглушка «переводит» текст в верхний регистр, определяет язык любого текста как английский и ведет себя
+ * по-особому для отдельных текстов и направлений, которые задает проверка.
+ *
+ * @author Amayakasa
+ */
+class YandexTranslatorTest {
+
+    private static final String FAILING_TEXT = "broken";
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    private final CountDownLatch stuck = new CountDownLatch(1);
+
+    // Направления перевода и методы, которые заглушка не завершает до конца проверки, и направления с ошибкой 501
+    private final Set<String> stalled = new HashSet<>();
+    private final Set<String> unsupported = new HashSet<>();
+
+    @Test
+    void bulkResultsFollowInputOrder() throws Exception {
+        List<String> texts = new ArrayList<>();
+
+        for (int index = 0; index < 12; index++) texts.add("text " + index);
+
+        try (StandInServer server = new StandInServer(0, 16, this::handle)) {
+            List<BulkResult<String, Translation>> results = translator(server).getTextTranslations(texts, Language.RUSSIAN, 4);
+
+            assertEquals(texts.size(), results.size());
+
+            for (int index = 0; index < texts.size(); index++) {
+                BulkResult<String, Translation> result = results.get(index);
+
+                assertEquals(index, result.getIndex());
+                assertEquals(texts.get(index), result.getInput());
+                assertEquals(texts.get(index).toUpperCase(), result.getResponse().getTranslation());
+            }
+
+            assertTrue(maxActive.get() <= 4, "maxConcurrency was exceeded: " + maxActive.get());
+        } finally {
+            stuck.countDown();
+        }
+    }
+
+    @Test
+    void bulkFailureStaysWithItsText() throws Exception {
+        List<String> texts = Arrays.asList("first", FAILING_TEXT, "third", FAILING_TEXT, "fifth");
+
+        try (StandInServer server = new StandInServer(0, 8, this::handle)) {
+            List<BulkResult<String, Translation>> unordered = new ArrayList<>();
+
+            translator(server).getTextTranslations(texts, Language.RUSSIAN, 2, false, unordered::add);
+
+            List<BulkResult<String, Translation>> ordered = translator(server).getTextTranslations(texts, Language.RUSSIAN, 2);
+
+            for (List<BulkResult<String, Translation>> results : Arrays.asList(ordered, unordered)) {
+                assertEquals(texts.size(), results.size());
+
+                for (BulkResult<String, Translation> result : results) {
+                    String text = texts.get((int) result.getIndex());
+
+                    assertEquals(text, result.getInput());
+
+                    if (text.equals(FAILING_TEXT)) {
+                        assertFalse(result.isSuccessful());
+                        assertTrue(result.getFailure().getMessage().startsWith("413"), "Unexpected failure: " + result.getFailure());
+                    } else {
+                        assertTrue(result.isSuccessful(), "Unexpected failure: " + result.getFailure());
+                        assertEquals(text.toUpperCase(), result.getResponse().getTranslation());
+                    }
+                }
+            }
+        } finally {
+            stuck.countDown();
+        }
+    }
+
+    @Test
+    void multiTranslationKeepsTargetOrderAndFailures() throws Exception {
+        unsupported.add("en-de");
+
+        try (StandInServer server = new StandInServer(0, 8, this::handle)) {
+            List<Language> targets = Arrays.asList(Language.FRENCH, Language.GERMAN, Language.RUSSIAN);
+
+            MultiTranslation translation = translator(server).getMultiTranslation("hello", targets, 5, TimeUnit.SECONDS);
+
+            assertEquals(Language.ENGLISH, translation.getFrom());
+            assertEquals(Arrays.asList(Language.FRENCH, Language.RUSSIAN), new ArrayList<>(translation.getTranslations().keySet()));
+            assertEquals("HELLO", translation.getTranslation(Language.RUSSIAN).getTranslation());
+            assertEquals(Language.ENGLISH, translation.getTranslation(Language.FRENCH).getFrom());
+
+            Throwable failure = translation.getFailures().get(Language.GERMAN);
+
+            assertTrue(failure.getMessage().startsWith("501"), "Unexpected failure: " + failure);
+            assertFalse(translation.isComplete());
+        } finally {
+            stuck.countDown();
+        }
+    }
+
+    @Test
+    void multiTranslationSharesDeadline() throws Exception {
+        stalled.add("en-fr");
+
+        try (StandInServer server = new StandInServer(0, 8, this::handle)) {
+            long start = System.nanoTime();
+
+            MultiTranslation translation = translator(server).getMultiTranslation("hello",
+                    Arrays.asList(Language.RUSSIAN, Language.FRENCH, Language.GERMAN), 500, TimeUnit.MILLISECONDS);
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(elapsed < 2_000, "Fan-out waited past the deadline: " + elapsed + " ms");
+
+            assertEquals(Arrays.asList(Language.RUSSIAN, Language.GERMAN), new ArrayList<>(translation.getTranslations().keySet()));
+            assertTrue(translation.getFailures().get(Language.FRENCH) instanceof TimeoutException,
+                    "Unexpected failure: " + translation.getFailures().get(Language.FRENCH));
+        } finally {
+            stuck.countDown();
+        }
+    }
+
+    @Test
+    void languageDetectionSpendsSharedDeadline() throws Exception {
+        stalled.add("detect");
+
+        try (StandInServer server = new StandInServer(0, 8, this::handle)) {
+            long start = System.nanoTime();
+
+            MultiTranslation translation = translator(server).getMultiTranslation("hello",
+                    Arrays.asList(Language.RUSSIAN, Language.GERMAN), 300, TimeUnit.MILLISECONDS);
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Срок ушел на определение языка: переводы уже не успевают, и второй срок не начинается
+            assertTrue(elapsed < 2_000, "Fan-out waited past the deadline: " + elapsed + " ms");
+            assertNull(translation.getFrom());
+            assertTrue(translation.getTranslations().isEmpty(), "Translated after the deadline: " + translation.getTranslations());
+            assertEquals(2, translation.getFailures().size());
+        } finally {
+            stuck.countDown();
+        }
+    }
+
+    private static YandexTranslator translator(StandInServer server) {
+        YandexConfiguration configuration = YandexConfiguration.builder().baseUrl(server.getBaseUrl()).build();
+
+        return new YandexTranslator("key", Version.TRANSLATE_V1_5, ResponseInterface.TRANSLATE_JSON, configuration);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+        try {
+            boolean detect = exchange.getRequestURI().getPath().endsWith("/detect");
+
+            String text = parameter(exchange, "text");
+            String direction = parameter(exchange, "lang");
+
+            if (stalled.contains(detect ? "detect" : direction)) {
+                try {
+                    stuck.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (detect) {
+                send(exchange, 200, "{\"code\":200,\"lang\":\"en\"}");
+            } else if (text.equals(FAILING_TEXT)) {
+                send(exchange, 413, "{\"code\":413,\"message\":\"Text size exceeds the maximum\"}");
+            } else if (unsupported.contains(direction)) {
+                send(exchange, 501, "{\"code\":501,\"message\":\"The specified translation direction is not supported\"}");
+            } else {
+                // Тексты отвечают в обратном порядке: чем больше номер текста, тем быстрее ответ
+                if (text.startsWith("text ")) TimeUnit.MILLISECONDS.sleep(10L * (12 - Integer.parseInt(text.substring(5))));
+
+                send(exchange, 200, "{\"code\":200,\"lang\":\"" + direction + "\",\"text\":[\"" + text.toUpperCase() + "\"]}");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private static String parameter(HttpExchange exchange, String name) throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+
+        for (String parameter : query == null ? new String[0] : query.split("&")) {
+            if (parameter.startsWith(name + "=")) return URLDecoder.decode(parameter.substring(name.length() + 1), "UTF-8");
+        }
+
+        return "";
+    }
+
+    private static void send(HttpExchange exchange, int code, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, body.length);
+
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+}
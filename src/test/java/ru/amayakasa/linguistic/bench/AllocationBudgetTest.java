@@ -0,0 +1,182 @@
+package ru.amayakasa.linguistic.bench;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import retrofit2.Response;
+import ru.amayakasa.linguistic.YandexDictionary;
+import ru.amayakasa.linguistic.YandexPredictor;
+import ru.amayakasa.linguistic.YandexSpeller;
+import ru.amayakasa.linguistic.YandexTranslator;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.parameters.*;
+import ru.amayakasa.linguistic.response.parser.ResponseParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка выделения памяти на одну операцию для каждого метода врапперов против заданного бюджета.
+ * <p>
+ * Измеряется кол-во байт, выделенных вызывающим потоком (по счетчику {@link com.sun.management.ThreadMXBean}):
+ * <ul>
+ * <li>{@code parse.*} — валидация и парсинг готового ответа ({@link ResponseParser}) без сети;</li>
+ * <li>{@code call.*} — полный синхронный вызов враппера против локальной заглушки ({@link StandInServer}):
+ * формирование запроса, OkHttp, валидация и парсинг. Память потоков заглушки не учитывается.</li>
+ * </ul>
+ * Бюджеты в байтах на операцию берутся из {@code allocation-budgets.properties} рядом с классом; у каждой операции
+ * должен быть бюджет. Кол-во итераций измерения и множитель бюджетов задаются системными свойствами
+ * {@code allocation.iterations} и {@code allocation.tolerance} (по умолчанию из {@code pom.xml}:
+ * {@code mvn test -Dallocation.tolerance=1.2}).
+ *
+ * @author Amayakasa
+ */
+class AllocationBudgetTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final String TEXT = "Hello, World!";
+
+    private static final String[] PHRASES = {"синхрафазатрон в дубне", "превет мир", "в лесу радилась елочка"};
+
+    private static volatile Object sink;
+
+    private static StandInServer server;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = new StandInServer(0, 2);
+    }
+
+    @AfterAll
+    static void stop() {
+        server.close();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> operationsStayWithinBudget() throws IOException {
+        Properties budgets = loadBudgets();
+
+        int iterations = Integer.getInteger("allocation.iterations", 5_000);
+        double tolerance = Double.parseDouble(System.getProperty("allocation.tolerance", "1.0"));
+
+        return operations(server.getBaseUrl()).entrySet().stream().map(operation -> DynamicTest.dynamicTest(operation.getKey(), () -> {
+            String budget = budgets.getProperty(operation.getKey());
+
+            assertNotNull(budget, "No allocation budget for " + operation.getKey());
+
+            long limit = (long) (Long.parseLong(budget.trim()) * tolerance);
+
+            double bytes = measure(operation.getValue(), iterations / 4, iterations);
+
+            String result = MessageFormat.format("{0}: {1} bytes/op (budget {2})",
+                    operation.getKey(), String.format("%.0f", bytes), String.valueOf(limit));
+
+            System.out.println(result);
+
+            assertTrue(bytes <= limit, result);
+        }));
+    }
+
+    /**
+     * Операции для всех методов врапперов.
+     *
+     * @param baseUrl адрес локальной заглушки;
+     * @return операции по именам.
+     */
+    private static Map<String, Callable<?>> operations(String baseUrl) {
+        Map<String, Callable<?>> operations = new LinkedHashMap<>();
+
+        byte[] translationDirections = Fixtures.body("/api/v1.5/tr.json/getLangs", null);
+        byte[] textLanguage = Fixtures.body("/api/v1.5/tr.json/detect", null);
+        byte[] textTranslation = Fixtures.body("/api/v1.5/tr.json/translate", null);
+        byte[] dictionaryDirections = Fixtures.body("/api/v1/dicservice.json/getLangs", null);
+        byte[] lookup = Fixtures.body("/api/v1/dicservice.json/lookup", null);
+        byte[] predictionDirections = Fixtures.body("/api/v1/predict.json/getLangs", null);
+        byte[] completion = Fixtures.body("/api/v1/predict.json/complete", null);
+        byte[] phrase = Fixtures.body("/services/spellservice.json/checkText", null);
+        byte[] phrases = Fixtures.body("/services/spellservice.json/checkTexts", "text=a&text=b&text=c");
+
+        operations.put("parse.getTranslationDirections", () -> ResponseParser.parseTranslationDirections(response(translationDirections)));
+        operations.put("parse.getTextLanguage", () -> ResponseParser.parseTextLanguage(response(textLanguage)));
+        operations.put("parse.getTextTranslation", () -> ResponseParser.parseTextTranslation(TEXT, response(textTranslation)));
+        operations.put("parse.getDictionaryDirections", () -> ResponseParser.parseDictionaryDirections(response(dictionaryDirections)));
+        operations.put("parse.getLookup", () -> ResponseParser.parseDictionary(response(lookup)));
+        operations.put("parse.getPredictionDirections", () -> ResponseParser.parsePredictionDirections(response(predictionDirections)));
+        operations.put("parse.getCompletion", () -> ResponseParser.parseCompletion("hel", response(completion)));
+        operations.put("parse.getSpelledPhrase", () -> ResponseParser.parsePhrase(PHRASES[0], response(phrase)));
+        operations.put("parse.getSpelledPhrases", () -> ResponseParser.parsePhrases(PHRASES, response(phrases)));
+
+        YandexConfiguration configuration = YandexConfiguration.builder().baseUrl(baseUrl).build();
+
+        YandexTranslator translator = new YandexTranslator("key", Version.TRANSLATE_V1_5, ResponseInterface.TRANSLATE_JSON, configuration);
+        YandexDictionary dictionary = new YandexDictionary("key", Version.DICTIONARY_V1, ResponseInterface.DICTIONARY_JSON, configuration);
+        YandexPredictor predictor = new YandexPredictor("key", Version.PREDICTOR_V1, ResponseInterface.PREDICTOR_JSON, configuration);
+        YandexSpeller speller = new YandexSpeller(Version.SPELLER_LATEST, ResponseInterface.SPELLER_JSON, configuration);
+
+        operations.put("call.getTranslationDirections", translator::getTranslationDirections);
+        operations.put("call.getTextLanguage", () -> translator.getTextLanguage(TEXT, Language.ENGLISH, Language.RUSSIAN));
+        operations.put("call.getTextTranslation", () -> translator.getTextTranslation(TEXT, Language.ENGLISH, Language.RUSSIAN, Format.PLAIN));
+        operations.put("call.getDictionaryDirections", dictionary::getDictionaryDirections);
+        operations.put("call.getLookup", () -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN, Flag.MORPHO));
+        operations.put("call.getPredictionDirections", predictor::getPredictionDirections);
+        operations.put("call.getCompletion", () -> predictor.getCompletion("hel", Language.ENGLISH, 3));
+        operations.put("call.getSpelledPhrase", () -> speller.getSpelledPhrase(PHRASES[0], Language.RUSSIAN));
+        operations.put("call.getSpelledPhrases", () -> speller.getSpelledPhrases(PHRASES, Language.RUSSIAN));
+
+        return operations;
+    }
+
+    /**
+     * Измерение среднего кол-ва байт, выделенных текущим потоком на одну операцию.
+     *
+     * @param operation  измеряемая операция;
+     * @param warmup     кол-во итераций прогрева;
+     * @param iterations кол-во итераций измерения;
+     * @return среднее кол-во байт на операцию.
+     */
+    private static double measure(Callable<?> operation, int warmup, int iterations) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long thread = Thread.currentThread().getId();
+
+        for (int iterator = 0; iterator < warmup; iterator++) sink = operation.call();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+
+        for (int iterator = 0; iterator < iterations; iterator++) sink = operation.call();
+
+        long after = threads.getThreadAllocatedBytes(thread);
+
+        return (double) (after - before) / iterations;
+    }
+
+    private static Response<ResponseBody> response(byte[] body) {
+        return Response.success(ResponseBody.create(JSON, body));
+    }
+
+    private static Properties loadBudgets() throws IOException {
+        Properties budgets = new Properties();
+
+        try (InputStream input = AllocationBudgetTest.class.getResourceAsStream("allocation-budgets.properties")) {
+            assertNotNull(input, "allocation-budgets.properties is missing");
+
+            budgets.load(input);
+        }
+
+        return budgets;
+    }
+}
@@ -0,0 +1,331 @@
+package ru.amayakasa.linguistic.bench;
+
+import ru.amayakasa.linguistic.YandexDictionary;
+import ru.amayakasa.linguistic.YandexPredictor;
+import ru.amayakasa.linguistic.YandexSpeller;
+import ru.amayakasa.linguistic.YandexTranslator;
+import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.metrics.LatencyHistogram;
+import ru.amayakasa.linguistic.metrics.SimpleMetrics;
+import ru.amayakasa.linguistic.metrics.YandexMetrics;
+import ru.amayakasa.linguistic.parameters.*;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Бенчмарк полного пути запроса для всех методов врапперов.
+ * <p>
+ * Для каждого метода и каждого уровня параллелизма измеряет пропускную способность и задержки
+ * синхронных и асинхронных вызовов: прокси {@link ru.amayakasa.linguistic.http.YandexService}, OkHttp,
+ * валидация ответа и {@link ru.amayakasa.linguistic.response.parser.ResponseParser}.
+ * По умолчанию запросы уходят в локальную заглушку ({@link StandInServer}), поэтому сеть не требуется.
+ * <p>
+ * Ограничения диспетчера OkHttp поднимаются до максимального уровня параллелизма,
+ * чтобы асинхронные вызовы не упирались в его очередь (по умолчанию 5 одновременных запросов к одному хосту).
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.amayakasa.linguistic.bench.EndToEndBenchmark
+ * -Dexec.args="[--base-url http://host:port] [--concurrency 1,4,16] [--requests 20000] [--warmup 5000] [--filter getLookup]
+ * [--faults latency=exp:20,reset=0.01,403=0.02]"}
+ * <p>
+ * С {@code --faults} заглушка вносит сбои из {@link FaultProfile}, а в конце выводятся метрики врапперов
+ * ({@link SimpleMetrics}) с разбивкой ошибок по кодам ответа и статистика внесенных сбоев.
+ *
+ * @author Amayakasa
+ */
+public final class EndToEndBenchmark {
+
+    private static final String TEXT = "Hello, World!";
+
+    private static final String[] PHRASES = {"синхрафазатрон в дубне", "превет мир", "в лесу радилась елочка"};
+
+    private EndToEndBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = null;
+        String filter = null;
+        FaultProfile faults = null;
+        int[] levels = {1, 4, 16};
+        int requests = 20_000;
+        int warmup = 5_000;
+
+        for (int index = 0; index + 1 < args.length; index += 2) {
+            switch (args[index]) {
+                case "--base-url":
+                    baseUrl = args[index + 1];
+                    break;
+                case "--concurrency":
+                    levels = parseLevels(args[index + 1]);
+                    break;
+                case "--requests":
+                    requests = Integer.parseInt(args[index + 1]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[index + 1]);
+                    break;
+                case "--filter":
+                    filter = args[index + 1];
+                    break;
+                case "--faults":
+                    faults = FaultProfile.parse(args[index + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[index]);
+            }
+        }
+
+        int maxConcurrency = 1;
+
+        for (int concurrency : levels) maxConcurrency = Math.max(maxConcurrency, concurrency);
+
+        FaultInjectingHandler handler = faults == null ? null : new FaultInjectingHandler(new Fixtures(), faults);
+
+        StandInServer server = null;
+
+        if (baseUrl == null) {
+            int threads = handler == null ? Runtime.getRuntime().availableProcessors() : 2 * maxConcurrency;
+
+            server = handler == null ? new StandInServer(0, threads) : new StandInServer(0, threads, handler);
+            baseUrl = server.getBaseUrl();
+        }
+
+        System.out.println("Base URL: " + baseUrl);
+
+        SimpleMetrics metrics = new SimpleMetrics();
+
+        try {
+            YandexConfiguration configuration = YandexConfiguration.builder()
+                    .baseUrl(baseUrl)
+                    .maxRequests(Math.max(64, maxConcurrency))
+                    .maxRequestsPerHost(maxConcurrency)
+                    .build();
+
+            for (Scenario scenario : scenarios(configuration, metrics)) {
+                if (filter != null && !scenario.name.contains(filter)) continue;
+
+                for (int concurrency : levels) {
+                    runSync(scenario, concurrency, warmup);
+                    report(scenario.name + " sync", concurrency, runSync(scenario, concurrency, requests));
+
+                    runAsync(scenario, concurrency, warmup);
+                    report(scenario.name + " async", concurrency, runAsync(scenario, concurrency, requests));
+                }
+            }
+        } finally {
+            if (server != null) server.close();
+        }
+
+        if (handler != null) {
+            System.out.print(metrics);
+            System.out.println("Injected faults: " + handler);
+        }
+
+        System.exit(0);
+    }
+
+    /**
+     * Сценарии для всех методов врапперов.
+     *
+     * @param configuration настройки транспорта всех врапперов;
+     * @param metrics       метрики всех врапперов;
+     * @return список сценариев.
+     */
+    static List<Scenario> scenarios(YandexConfiguration configuration, YandexMetrics metrics) {
+        YandexTranslator translator = new YandexTranslator("key", Version.TRANSLATE_V1_5, ResponseInterface.TRANSLATE_JSON, configuration);
+        YandexDictionary dictionary = new YandexDictionary("key", Version.DICTIONARY_V1, ResponseInterface.DICTIONARY_JSON, configuration);
+        YandexPredictor predictor = new YandexPredictor("key", Version.PREDICTOR_V1, ResponseInterface.PREDICTOR_JSON, configuration);
+        YandexSpeller speller = new YandexSpeller(Version.SPELLER_LATEST, ResponseInterface.SPELLER_JSON, configuration);
+
+        translator.setMetrics(metrics);
+        dictionary.setMetrics(metrics);
+        predictor.setMetrics(metrics);
+        speller.setMetrics(metrics);
+
+        List<Scenario> scenarios = new ArrayList<>();
+
+        scenarios.add(new Scenario("translator.getTranslationDirections",
+                translator::getTranslationDirections,
+                callback -> translator.getTranslationDirections(cast(callback))));
+        scenarios.add(new Scenario("translator.getTextLanguage",
+                () -> translator.getTextLanguage(TEXT, Language.ENGLISH, Language.RUSSIAN),
+                callback -> translator.getTextLanguage(TEXT, cast(callback), Language.ENGLISH, Language.RUSSIAN)));
+        scenarios.add(new Scenario("translator.getTextTranslation",
+                () -> translator.getTextTranslation(TEXT, Language.ENGLISH, Language.RUSSIAN, Format.PLAIN),
+                callback -> translator.getTextTranslation(TEXT, Language.ENGLISH, Language.RUSSIAN, Format.PLAIN, cast(callback))));
+        scenarios.add(new Scenario("dictionary.getDictionaryDirections",
+                dictionary::getDictionaryDirections,
+                callback -> dictionary.getDictionaryDirections(cast(callback))));
+        scenarios.add(new Scenario("dictionary.getLookup",
+                () -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN, Flag.MORPHO),
+                callback -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN, cast(callback), Flag.MORPHO)));
+        scenarios.add(new Scenario("predictor.getPredictionDirections",
+                predictor::getPredictionDirections,
+                callback -> predictor.getPredictionDirections(cast(callback))));
+        scenarios.add(new Scenario("predictor.getCompletion",
+                () -> predictor.getCompletion("hel", Language.ENGLISH, 3),
+                callback -> predictor.getCompletion("hel", Language.ENGLISH, 3, cast(callback))));
+        scenarios.add(new Scenario("speller.getSpelledPhrase",
+                () -> speller.getSpelledPhrase(PHRASES[0], Language.RUSSIAN),
+                callback -> speller.getSpelledPhrase(PHRASES[0], Language.RUSSIAN, cast(callback))));
+        scenarios.add(new Scenario("speller.getSpelledPhrases",
+                () -> speller.getSpelledPhrases(PHRASES, Language.RUSSIAN),
+                callback -> speller.getSpelledPhrases(PHRASES, Language.RUSSIAN, cast(callback))));
+
+        return scenarios;
+    }
+
+    /**
+     * Синхронные вызовы из указанного кол-ва потоков.
+     *
+     * @param scenario    сценарий;
+     * @param concurrency кол-во потоков;
+     * @param requests    общее кол-во запросов;
+     * @return результат прогона.
+     */
+    static Result runSync(Scenario scenario, int concurrency, int requests) throws InterruptedException {
+        Result result = new Result();
+
+        AtomicInteger remaining = new AtomicInteger(requests);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        long start = System.nanoTime();
+
+        for (int thread = 0; thread < concurrency; thread++) {
+            executor.execute(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    long begin = System.nanoTime();
+
+                    try {
+                        scenario.sync.call();
+                    } catch (Exception exception) {
+                        result.errors.incrementAndGet();
+                    }
+
+                    result.latency.record(System.nanoTime() - begin);
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+
+        result.elapsed = System.nanoTime() - start;
+
+        return result;
+    }
+
+    /**
+     * Асинхронные вызовы с указанным кол-вом запросов в полете.
+     *
+     * @param scenario    сценарий;
+     * @param concurrency кол-во одновременных запросов;
+     * @param requests    общее кол-во запросов;
+     * @return результат прогона.
+     */
+    static Result runAsync(Scenario scenario, int concurrency, int requests) throws InterruptedException {
+        Result result = new Result();
+
+        Semaphore permits = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(requests);
+
+        long start = System.nanoTime();
+
+        for (int request = 0; request < requests; request++) {
+            permits.acquire();
+
+            long begin = System.nanoTime();
+
+            scenario.async.accept(new YandexCallback<Object>() {
+                @Override
+                public void onResponse(Object response) {
+                    complete(true);
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    complete(false);
+                }
+
+                private void complete(boolean successful) {
+                    if (!successful) result.errors.incrementAndGet();
+
+                    result.latency.record(System.nanoTime() - begin);
+
+                    permits.release();
+                    done.countDown();
+                }
+            });
+        }
+
+        done.await();
+
+        result.elapsed = System.nanoTime() - start;
+
+        return result;
+    }
+
+    private static void report(String name, int concurrency, Result result) {
+        LatencyHistogram latency = result.latency;
+
+        System.out.println(MessageFormat.format(
+                "{0} c={1}: {2} ops/s p50={3}us p90={4}us p99={5}us max={6}us errors={7}",
+                name, String.valueOf(concurrency),
+                String.format("%.0f", latency.getCount() * 1e9 / result.elapsed),
+                String.valueOf(latency.getPercentile(50, TimeUnit.MICROSECONDS)),
+                String.valueOf(latency.getPercentile(90, TimeUnit.MICROSECONDS)),
+                String.valueOf(latency.getPercentile(99, TimeUnit.MICROSECONDS)),
+                String.valueOf(latency.getMax(TimeUnit.MICROSECONDS)),
+                String.valueOf(result.errors.get())
+        ));
+    }
+
+    private static int[] parseLevels(String levels) {
+        String[] parts = levels.split(",");
+
+        int[] result = new int[parts.length];
+
+        for (int index = 0; index < parts.length; index++) result[index] = Integer.parseInt(parts[index].trim());
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> YandexCallback<T> cast(YandexCallback<Object> callback) {
+        return (YandexCallback<T>) (YandexCallback<?>) callback;
+    }
+
+    /**
+     * Один метод враппера: синхронный и асинхронный вызов с одинаковыми параметрами.
+     */
+    static final class Scenario {
+
+        final String name;
+        final Callable<?> sync;
+        final Consumer<YandexCallback<Object>> async;
+
+        Scenario(String name, Callable<?> sync, Consumer<YandexCallback<Object>> async) {
+            this.name = name;
+            this.sync = sync;
+            this.async = async;
+        }
+    }
+
+    /**
+     * Результат одного прогона.
+     */
+    static final class Result {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicInteger errors = new AtomicInteger();
+
+        long elapsed;
+    }
+}
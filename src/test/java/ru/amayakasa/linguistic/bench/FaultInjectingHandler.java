@@ -0,0 +1,142 @@
+package ru.amayakasa.linguistic.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.amayakasa.linguistic.http.ResponseCode;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Обработчик для {@link StandInServer}, вносящий сбои из {@link FaultProfile} в ответы другого обработчика.
+ * <p>
+ * Перед каждым ответом выдерживается задержка из распределения профиля, затем одним случайным числом выбирается
+ * исход: обрыв соединения (соединение закрывается без ответа), медленная отдача тела (тело ответа исходного
+ * обработчика отдается частями с ограничением скорости), ответ с кодом ошибки в формате Яндекса или обычный ответ.
+ * Кол-во внесенных сбоев каждого вида доступно через {@link #toString()}.
+ *
+ * @author Amayakasa
+ */
+public final class FaultInjectingHandler implements HttpHandler {
+
+    private static final int SLOW_CHUNK = 512;
+
+    private final HttpHandler delegate;
+    private final FaultProfile profile;
+
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder slowBodies = new LongAdder();
+    private final Map<ResponseCode, LongAdder> codes = new EnumMap<>(ResponseCode.class);
+
+    /**
+     * Конструктор для инициализации нового объекта #FaultInjectingHandler.
+     *
+     * @param delegate обработчик, отвечающий на запросы без сбоев;
+     * @param profile  профиль сбоев.
+     */
+    public FaultInjectingHandler(HttpHandler delegate, FaultProfile profile) {
+        this.delegate = delegate;
+        this.profile = profile;
+
+        for (ResponseCode code : profile.getCodeRates().keySet()) codes.put(code, new LongAdder());
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Random random = ThreadLocalRandom.current();
+
+        long latency = profile.getLatency().sample(random);
+
+        if (latency > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(latency);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        double outcome = random.nextDouble();
+
+        if ((outcome -= profile.getResetRate()) < 0) {
+            resets.increment();
+            exchange.close();
+            return;
+        }
+
+        if ((outcome -= profile.getSlowBodyRate()) < 0) {
+            slowBodies.increment();
+            exchange.setStreams(null, new ThrottledOutputStream(exchange.getResponseBody(), profile.getSlowBodyBytesPerSecond()));
+            delegate.handle(exchange);
+            return;
+        }
+
+        for (Map.Entry<ResponseCode, Double> entry : profile.getCodeRates().entrySet()) {
+            if ((outcome -= entry.getValue()) < 0) {
+                ResponseCode code = entry.getKey();
+
+                codes.get(code).increment();
+
+                byte[] body = MessageFormat.format("'{'\"code\":{0},\"message\":\"{1}\"'}'", String.valueOf(code.code), code.description)
+                        .getBytes(StandardCharsets.UTF_8);
+
+                Fixtures.send(exchange, code.code, body);
+                return;
+            }
+        }
+
+        passed.increment();
+        delegate.handle(exchange);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("passed=").append(passed.sum())
+                .append(" resets=").append(resets.sum())
+                .append(" slow=").append(slowBodies.sum());
+
+        for (Map.Entry<ResponseCode, LongAdder> entry : codes.entrySet()) {
+            report.append(' ').append(entry.getKey().code).append('=').append(entry.getValue().sum());
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Поток, отдающий данные частями с ограничением скорости.
+     */
+    private static final class ThrottledOutputStream extends FilterOutputStream {
+
+        private final long nanosPerChunk;
+
+        private ThrottledOutputStream(OutputStream output, int bytesPerSecond) {
+            super(output);
+
+            this.nanosPerChunk = TimeUnit.SECONDS.toNanos(1) * SLOW_CHUNK / Math.max(1, bytesPerSecond);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            for (int written = 0; written < length; written += SLOW_CHUNK) {
+                out.write(bytes, offset + written, Math.min(SLOW_CHUNK, length - written));
+                out.flush();
+
+                try {
+                    TimeUnit.NANOSECONDS.sleep(nanosPerChunk);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", exception);
+                }
+            }
+        }
+    }
+}
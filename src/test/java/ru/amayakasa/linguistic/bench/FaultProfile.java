@@ -0,0 +1,255 @@
+package ru.amayakasa.linguistic.bench;
+
+import ru.amayakasa.linguistic.http.ResponseCode;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Набор сбоев, которые {@link FaultInjectingHandler} вносит в ответы локальной заглушки.
+ * <p>
+ * Задержка перед ответом берется из распределения ({@link Latency}), а каждый ответ с указанной вероятностью
+ * заменяется обрывом соединения, медленной отдачей тела или ошибкой с одним из кодов {@link ResponseCode}.
+ * Вероятности сбоев складываются, поэтому их сумма не должна превышать 1.
+ * <p>
+ * Профиль можно задать строкой (см. {@link #parse(String)}), например
+ * {@code latency=exp:20,reset=0.01,slow=0.05:65536,403=0.02,413=0.005}.
+ *
+ * @author Amayakasa
+ */
+public class FaultProfile {
+
+    /**
+     * Профиль без сбоев.
+     */
+    public static final FaultProfile NONE = builder().build();
+
+    private final Latency latency;
+
+    private final double resetRate;
+
+    private final double slowBodyRate;
+    private final int slowBodyBytesPerSecond;
+
+    private final Map<ResponseCode, Double> codeRates;
+
+    private FaultProfile(Builder builder) {
+        this.latency = builder.latency;
+        this.resetRate = builder.resetRate;
+        this.slowBodyRate = builder.slowBodyRate;
+        this.slowBodyBytesPerSecond = builder.slowBodyBytesPerSecond;
+        this.codeRates = Collections.unmodifiableMap(new EnumMap<>(builder.codeRates));
+
+        double total = resetRate + slowBodyRate;
+
+        for (double rate : codeRates.values()) total += rate;
+
+        if (total > 1) throw new IllegalArgumentException("Total fault rate exceeds 1: " + total);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    public double getResetRate() {
+        return resetRate;
+    }
+
+    public double getSlowBodyRate() {
+        return slowBodyRate;
+    }
+
+    public int getSlowBodyBytesPerSecond() {
+        return slowBodyBytesPerSecond;
+    }
+
+    public Map<ResponseCode, Double> getCodeRates() {
+        return codeRates;
+    }
+
+    /**
+     * Метод для разбора профиля из строки вида {@code ключ=значение,ключ=значение}.
+     * <p>
+     * Ключи: {@code latency} — распределение задержки (см. {@link Latency#parse(String)});
+     * {@code reset} — вероятность обрыва соединения; {@code slow} — вероятность медленного тела
+     * и скорость отдачи в байтах в секунду через двоеточие; числовой код ответа (401, 402, 403, 404, 413, 422, 501)
+     * — вероятность ответа с этим кодом.
+     *
+     * @param specification строка с профилем;
+     * @return профиль сбоев.
+     */
+    public static FaultProfile parse(String specification) {
+        Builder builder = builder();
+
+        if (specification == null || specification.trim().isEmpty()) return builder.build();
+
+        for (String entry : specification.split(",")) {
+            int separator = entry.indexOf('=');
+
+            if (separator < 0) throw new IllegalArgumentException("Invalid fault: " + entry);
+
+            String key = entry.substring(0, separator).trim();
+            String value = entry.substring(separator + 1).trim();
+
+            switch (key) {
+                case "latency":
+                    builder.latency(Latency.parse(value));
+                    break;
+                case "reset":
+                    builder.resets(Double.parseDouble(value));
+                    break;
+                case "slow":
+                    String[] parts = value.split(":");
+
+                    builder.slowBodies(Double.parseDouble(parts[0]), parts.length > 1 ? Integer.parseInt(parts[1]) : 16 * 1024);
+                    break;
+                default:
+                    ResponseCode code = ResponseCode.byCode(Integer.parseInt(key));
+
+                    if (code == null || code == ResponseCode.OK) throw new IllegalArgumentException("Unknown response code: " + key);
+
+                    builder.responseCode(code, Double.parseDouble(value));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Построитель для #FaultProfile.
+     */
+    public static class Builder {
+
+        private Latency latency = Latency.none();
+
+        private double resetRate;
+
+        private double slowBodyRate;
+        private int slowBodyBytesPerSecond = 16 * 1024;
+
+        private final Map<ResponseCode, Double> codeRates = new EnumMap<>(ResponseCode.class);
+
+        private Builder() {
+        }
+
+        /**
+         * Распределение задержки перед каждым ответом.
+         *
+         * @param latency распределение задержки;
+         * @return этот построитель.
+         */
+        public Builder latency(Latency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Вероятность обрыва соединения вместо ответа.
+         *
+         * @param rate вероятность (от 0 до 1);
+         * @return этот построитель.
+         */
+        public Builder resets(double rate) {
+            this.resetRate = rate;
+            return this;
+        }
+
+        /**
+         * Вероятность медленной отдачи тела ответа.
+         *
+         * @param rate           вероятность (от 0 до 1);
+         * @param bytesPerSecond скорость отдачи тела в байтах в секунду;
+         * @return этот построитель.
+         */
+        public Builder slowBodies(double rate, int bytesPerSecond) {
+            this.slowBodyRate = rate;
+            this.slowBodyBytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        /**
+         * Вероятность ответа с указанным кодом ошибки.
+         *
+         * @param code код ответа;
+         * @param rate вероятность (от 0 до 1);
+         * @return этот построитель.
+         */
+        public Builder responseCode(ResponseCode code, double rate) {
+            this.codeRates.put(code, rate);
+            return this;
+        }
+
+        public FaultProfile build() {
+            return new FaultProfile(this);
+        }
+    }
+
+    /**
+     * Распределение задержки ответа в микросекундах.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        /**
+         * Случайная задержка.
+         *
+         * @param random генератор случайных чисел;
+         * @return задержка в микросекундах.
+         */
+        long sample(Random random);
+
+        static Latency none() {
+            return random -> 0;
+        }
+
+        static Latency fixed(double millis) {
+            long micros = (long) (millis * 1000);
+
+            return random -> micros;
+        }
+
+        static Latency uniform(double minMillis, double maxMillis) {
+            return random -> (long) ((minMillis + random.nextDouble() * (maxMillis - minMillis)) * 1000);
+        }
+
+        static Latency exponential(double meanMillis) {
+            return random -> (long) (-Math.log(1 - random.nextDouble()) * meanMillis * 1000);
+        }
+
+        static Latency logNormal(double medianMillis, double sigma) {
+            return random -> (long) (medianMillis * Math.exp(sigma * random.nextGaussian()) * 1000);
+        }
+
+        /**
+         * Метод для разбора распределения из строки (значения в миллисекундах):
+         * {@code fixed:10}, {@code uniform:5:50}, {@code exp:20} или {@code lognormal:15:0.8}.
+         *
+         * @param specification строка с распределением;
+         * @return распределение задержки.
+         */
+        static Latency parse(String specification) {
+            String[] parts = specification.split(":");
+
+            switch (parts[0]) {
+                case "none":
+                    return none();
+                case "fixed":
+                    return fixed(Double.parseDouble(parts[1]));
+                case "uniform":
+                    return uniform(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "exp":
+                    return exponential(Double.parseDouble(parts[1]));
+                case "lognormal":
+                    return logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution: " + specification);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package ru.amayakasa.linguistic.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Записанные ответы Яндекс.Переводчика, Яндекс.Словаря, Яндекс.Предиктора и Яндекс.Спеллера для всех методов.
+ * <p>
+ * Ответ выбирается по пути запроса, параметры запроса (кроме кол-ва текстов для checkTexts) не учитываются.
+ * Используется как обработчик по умолчанию в {@link StandInServer}.
+ *
+ * @author Amayakasa
+ */
+public final class Fixtures implements HttpHandler {
+
+    static final String TRANSLATION_DIRECTIONS = "{\"dirs\":[\"en-ru\",\"ru-en\",\"en-de\",\"de-en\",\"en-fr\",\"fr-en\"],"
+            + "\"langs\":{\"en\":\"English\",\"ru\":\"Russian\",\"de\":\"German\",\"fr\":\"French\"}}";
+
+    static final String TEXT_LANGUAGE = "{\"code\":200,\"lang\":\"en\"}";
+
+    static final String TEXT_TRANSLATION = "{\"code\":200,\"lang\":\"en-ru\",\"text\":[\"Привет, мир!\"]}";
+
+    static final String DICTIONARY_DIRECTIONS = "[\"en-ru\",\"ru-en\",\"en-de\",\"de-en\",\"en-fr\",\"fr-en\",\"ru-ru\",\"en-en\"]";
+
+    static final String LOOKUP = "{\"head\":{},\"def\":["
+            + "{\"text\":\"time\",\"pos\":\"noun\",\"ts\":\"taɪm\",\"tr\":["
+            + "{\"text\":\"время\",\"pos\":\"noun\",\"gen\":\"ср\","
+            + "\"syn\":[{\"text\":\"раз\",\"pos\":\"noun\",\"gen\":\"м\"},{\"text\":\"срок\",\"pos\":\"noun\",\"gen\":\"м\"}],"
+            + "\"mean\":[{\"text\":\"period\"},{\"text\":\"once\"},{\"text\":\"term\"}],"
+            + "\"ex\":[{\"text\":\"prehistoric time\",\"tr\":[{\"text\":\"доисторическое время\"}]},"
+            + "{\"text\":\"hundredth time\",\"tr\":[{\"text\":\"сотый раз\"}]}]},"
+            + "{\"text\":\"период\",\"pos\":\"noun\",\"gen\":\"м\",\"mean\":[{\"text\":\"period\"}]}]},"
+            + "{\"text\":\"time\",\"pos\":\"verb\",\"ts\":\"taɪm\",\"tr\":["
+            + "{\"text\":\"приурочивать\",\"pos\":\"verb\",\"asp\":\"несов\",\"mean\":[{\"text\":\"schedule\"}]}]}]}";
+
+    static final String PREDICTION_DIRECTIONS = "[\"en\",\"ru\",\"de\",\"fr\",\"es\",\"it\"]";
+
+    static final String COMPLETION = "{\"endOfWord\":false,\"pos\":-2,\"text\":[\"hello\",\"help\",\"helicopter\"]}";
+
+    static final String PHRASE = "[{\"code\":1,\"pos\":0,\"row\":0,\"col\":0,\"len\":14,"
+            + "\"word\":\"синхрафазатрон\",\"s\":[\"синхрофазотрон\",\"синхрофазотрона\"]},"
+            + "{\"code\":1,\"pos\":17,\"row\":0,\"col\":17,\"len\":6,\"word\":\"дубне\",\"s\":[\"Дубне\"]}]";
+
+    private static final byte[] TRANSLATION_DIRECTIONS_BYTES = bytes(TRANSLATION_DIRECTIONS);
+    private static final byte[] TEXT_LANGUAGE_BYTES = bytes(TEXT_LANGUAGE);
+    private static final byte[] TEXT_TRANSLATION_BYTES = bytes(TEXT_TRANSLATION);
+    private static final byte[] DICTIONARY_DIRECTIONS_BYTES = bytes(DICTIONARY_DIRECTIONS);
+    private static final byte[] LOOKUP_BYTES = bytes(LOOKUP);
+    private static final byte[] PREDICTION_DIRECTIONS_BYTES = bytes(PREDICTION_DIRECTIONS);
+    private static final byte[] COMPLETION_BYTES = bytes(COMPLETION);
+    private static final byte[] PHRASE_BYTES = bytes(PHRASE);
+
+    private static final byte[] NOT_FOUND = bytes("{\"code\":404,\"message\":\"Unknown method\"}");
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        byte[] body = body(exchange.getRequestURI().getRawPath(), exchange.getRequestURI().getRawQuery());
+
+        send(exchange, body == null ? 404 : 200, body == null ? NOT_FOUND : body);
+    }
+
+    /**
+     * Выбор записанного ответа для запроса.
+     *
+     * @param path  путь запроса;
+     * @param query строка параметров запроса (может быть null);
+     * @return тело ответа или null, если метод неизвестен.
+     */
+    public static byte[] body(String path, String query) {
+        String method = path.substring(path.lastIndexOf('/') + 1);
+
+        switch (method) {
+            case "getLangs":
+                if (path.contains("/tr")) return TRANSLATION_DIRECTIONS_BYTES;
+                if (path.contains("/dicservice")) return DICTIONARY_DIRECTIONS_BYTES;
+                if (path.contains("/predict")) return PREDICTION_DIRECTIONS_BYTES;
+                return null;
+            case "detect":
+                return TEXT_LANGUAGE_BYTES;
+            case "translate":
+                return TEXT_TRANSLATION_BYTES;
+            case "lookup":
+                return LOOKUP_BYTES;
+            case "complete":
+                return COMPLETION_BYTES;
+            case "checkText":
+                return PHRASE_BYTES;
+            case "checkTexts":
+                return phrases(count(query, "text="));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Отправка ответа с известной длиной тела (соединение остается открытым для следующих запросов).
+     *
+     * @param exchange запрос и ответ;
+     * @param code     HTTP-код ответа;
+     * @param body     тело ответа.
+     */
+    static void send(HttpExchange exchange, int code, byte[] body) throws IOException {
+        send(exchange, code, "application/json; charset=utf-8", body);
+    }
+
+    /**
+     * Отправка ответа с указанным типом содержимого.
+     *
+     * @param exchange    запрос и ответ;
+     * @param code        HTTP-код ответа;
+     * @param contentType тип содержимого (null — не указывать);
+     * @param body        тело ответа.
+     */
+    static void send(HttpExchange exchange, int code, String contentType, byte[] body) throws IOException {
+        if (contentType != null) exchange.getResponseHeaders().set("Content-Type", contentType);
+
+        exchange.sendResponseHeaders(code, body.length == 0 ? -1 : body.length);
+
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+
+    private static byte[] phrases(int count) {
+        StringBuilder builder = new StringBuilder(PHRASE.length() * count + 2).append('[');
+
+        for (int iterator = 0; iterator < count; iterator++) {
+            if (iterator > 0) builder.append(',');
+
+            builder.append(PHRASE);
+        }
+
+        return bytes(builder.append(']').toString());
+    }
+
+    private static int count(String query, String parameter) {
+        if (query == null) return 0;
+
+        int count = 0;
+
+        for (int index = 0; index >= 0; index = query.indexOf('&', index + 1)) {
+            if (query.startsWith(parameter, index == 0 ? 0 : index + 1)) count++;
+        }
+
+        return count;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
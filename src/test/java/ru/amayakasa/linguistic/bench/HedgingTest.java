@@ -0,0 +1,165 @@
+package ru.amayakasa.linguistic.bench;
+
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.jupiter.api.Test;
+import ru.amayakasa.linguistic.YandexDictionary;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.HedgingPolicy;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.parameters.LanguagePair;
+import ru.amayakasa.linguistic.parameters.ResponseInterface;
+import ru.amayakasa.linguistic.parameters.Version;
+import ru.amayakasa.linguistic.response.Dictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка дублирования синхронных запросов ({@link HedgingPolicy}) на локальной заглушке.
+ * <p>
+ * Исходные синхронные запросы не должны проходить через диспетчер OkHttp: иначе с политикой дублирования
+ * одновременно выполняется не больше 5 блокирующих запросов к хосту (maxRequestsPerHost по умолчанию).
+ *
+ * @author Amayakasa
+ */
+class HedgingTest {
+
+    private static final int CALLERS = 16;
+
+    @Test
+    void syncCallsAreNotLimitedByDispatcher() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        Fixtures fixtures = new Fixtures();
+
+        HttpHandler handler = exchange -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(300);
+
+                fixtures.handle(exchange);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+
+        HedgingPolicy hedging = hedging();
+
+        try (StandInServer server = new StandInServer(0, CALLERS * 2, handler)) {
+            YandexDictionary dictionary = dictionary(server, hedging);
+
+            // Первый ответ задает задержку копий
+            dictionary.getLookup("warm", LanguagePair.ENGLISH_RUSSIAN);
+
+            maxActive.set(0);
+
+            List<Dictionary> results = lookups(dictionary);
+
+            assertTrue(maxActive.get() >= CALLERS, "Concurrent sync calls were capped: " + maxActive.get());
+            assertTrue(hedging.getHedges(Endpoint.LOOKUP) > 0, "No hedges were sent");
+
+            for (Dictionary result : results) assertFalse(result.getDefinitions().isEmpty());
+        }
+    }
+
+    @Test
+    void hedgeAnswersStuckSyncCall() throws Exception {
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        Fixtures fixtures = new Fixtures();
+
+        // Первый запрос с каждым текстом зависает, копия отвечает сразу
+        HttpHandler handler = exchange -> {
+            try {
+                if (seen.add(exchange.getRequestURI().getQuery())) TimeUnit.SECONDS.sleep(5);
+
+                fixtures.handle(exchange);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        HedgingPolicy hedging = hedging();
+
+        try (StandInServer server = new StandInServer(0, CALLERS * 2, handler)) {
+            YandexDictionary dictionary = dictionary(server, hedging);
+
+            seen.add("warm");
+
+            dictionary.getLookup("warm", LanguagePair.ENGLISH_RUSSIAN);
+
+            long start = System.nanoTime();
+
+            List<Dictionary> results = lookups(dictionary);
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(elapsed < 3_000, "Sync calls waited for the stuck originals: " + elapsed + " ms");
+            assertTrue(hedging.getHedgeWins(Endpoint.LOOKUP) >= CALLERS, "Hedges did not win: " + hedging.getHedgeWins(Endpoint.LOOKUP));
+
+            for (Dictionary result : results) assertFalse(result.getDefinitions().isEmpty());
+        }
+    }
+
+    private static List<Dictionary> lookups(YandexDictionary dictionary) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+
+            List<Future<Dictionary>> futures = new ArrayList<>();
+
+            for (int iterator = 0; iterator < CALLERS; iterator++) {
+                String text = "time" + iterator;
+
+                futures.add(callers.submit(() -> {
+                    start.await();
+
+                    return dictionary.getLookup(text, LanguagePair.ENGLISH_RUSSIAN);
+                }));
+            }
+
+            start.countDown();
+
+            List<Dictionary> results = new ArrayList<>();
+
+            for (Future<Dictionary> future : futures) results.add(future.get(30, TimeUnit.SECONDS));
+
+            return results;
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static HedgingPolicy hedging() {
+        return HedgingPolicy.builder()
+                .window(1, 1)
+                .delayBounds(50, 50, TimeUnit.MILLISECONDS)
+                .budget(1, CALLERS * 2)
+                .build();
+    }
+
+    private static YandexDictionary dictionary(StandInServer server, HedgingPolicy hedging) {
+        YandexConfiguration configuration = YandexConfiguration.builder()
+                .baseUrl(server.getBaseUrl())
+                .hedgingPolicy(hedging)
+                .build();
+
+        return new YandexDictionary("key", Version.DICTIONARY_V1, ResponseInterface.DICTIONARY_JSON, configuration);
+    }
+}
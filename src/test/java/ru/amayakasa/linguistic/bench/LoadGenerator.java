@@ -0,0 +1,545 @@
+package ru.amayakasa.linguistic.bench;
+
+import ru.amayakasa.linguistic.YandexDictionary;
+import ru.amayakasa.linguistic.YandexPredictor;
+import ru.amayakasa.linguistic.YandexSpeller;
+import ru.amayakasa.linguistic.YandexTranslator;
+import ru.amayakasa.linguistic.http.AdaptiveLimiter;
+import ru.amayakasa.linguistic.http.CircuitBreaker;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.HedgingPolicy;
+import ru.amayakasa.linguistic.http.VirtualThreads;
+import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.metrics.LatencyHistogram;
+import ru.amayakasa.linguistic.metrics.SimpleMetrics;
+import ru.amayakasa.linguistic.parameters.*;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки на один метод врапперов с текстами из корпуса.
+ * <p>
+ * Два режима нагрузки:
+ * <ul>
+ * <li>{@code --qps N} — открытая модель: запросы отправляются асинхронно по расписанию с постоянной частотой,
+ * независимо от того, сколько из них еще не завершено. Задержка считается от запланированного времени отправки,
+ * поэтому отставание самого генератора и очередь диспетчера OkHttp тоже попадают в задержку;</li>
+ * <li>{@code --concurrency N} — закрытая модель: N потоков выполняют синхронные вызовы один за другим.</li>
+ * </ul>
+ * Корпус — текстовый файл в UTF-8, одна строка — один текст (пустые строки пропускаются); строки используются
+ * по кругу. Для {@code checkTexts} в один запрос собирается {@code --batch} строк подряд.
+ * <p>
+ * В отчете — пропускная способность, перцентили задержки, метрики врапперов ({@link SimpleMetrics})
+ * с ошибками по кодам ответа и скорость выделения памяти всеми потоками процесса
+ * (по счетчику {@link com.sun.management.ThreadMXBean}; память потоков, завершившихся во время прогона, не учитывается).
+ * Без {@code --base-url} запросы уходят в локальную заглушку ({@link StandInServer}),
+ * в которую можно внести сбои через {@code --faults} (см. {@link FaultProfile#parse(String)}).
+ * С {@code --threads virtual} синхронные вызовы закрытой модели и асинхронные вызовы выполняются
+ * на виртуальных потоках ({@link VirtualThreads}, Java 21+). С {@code --limit N} запросы проходят через
+ * {@link AdaptiveLimiter} с начальным пределом N, а текущий предел выводится в метриках. С {@code --hedge P}
+ * медленные запросы дублируются после P-го перцентиля времени сети ({@link HedgingPolicy}). С {@code --breaker R}
+ * запросы проходят через {@link CircuitBreaker}, который размыкается при доле ошибок R, а в отчет добавляется
+ * кол-во отклоненных им запросов. С {@code --parse-threads N} и {@code --callback-threads N} ответы асинхронных
+ * запросов парсятся, а колбэки вызываются в отдельных пулах потоков вместо потоков диспетчера OkHttp.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.amayakasa.linguistic.bench.LoadGenerator -Dexec.args="--method translate|detect|lookup|complete|checkText|checkTexts [--corpus файл] [--qps 500 | --concurrency 16]
+ * [--duration 30] [--warmup 5] [--lang en-ru] [--batch 10] [--key ключ] [--base-url http://host:port] [--faults профиль]
+ * [--threads platform|virtual] [--limit 20] [--hedge 95] [--breaker 0.5]
+ * [--parse-threads 4] [--callback-threads 4]"}
+ *
+ * @author Amayakasa
+ */
+public final class LoadGenerator {
+
+    private static final String[] DEFAULT_CORPUS = {
+            "Hello, World!", "time", "The quick brown fox jumps over the lazy dog",
+            "синхрафазатрон в дубне", "превет мир", "в лесу радилась елочка"
+    };
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+
+        for (int index = 0; index + 1 < args.length; index += 2) {
+            if (!args[index].startsWith("--")) throw new IllegalArgumentException("Unknown option: " + args[index]);
+
+            options.put(args[index].substring(2), args[index + 1]);
+        }
+
+        String method = options.get("method");
+
+        if (method == null) {
+            System.out.println("Usage: LoadGenerator --method translate|detect|lookup|complete|checkText|checkTexts "
+                    + "[--corpus file] [--qps N | --concurrency N] [--duration s] [--warmup s] [--lang en-ru] "
+                    + "[--batch N] [--key key] [--base-url url] [--faults spec] [--threads platform|virtual] [--limit N] [--hedge P] "
+                    + "[--breaker R] [--parse-threads N] [--callback-threads N]");
+            return;
+        }
+
+        String[] corpus = options.containsKey("corpus") ? readCorpus(options.get("corpus")) : DEFAULT_CORPUS;
+
+        double qps = Double.parseDouble(options.getOrDefault("qps", "0"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", qps > 0 ? "0" : "8"));
+
+        if (qps > 0 && concurrency > 0) throw new IllegalArgumentException("Use either --qps or --concurrency");
+
+        long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "30")));
+        long warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("warmup", "5")));
+
+        boolean virtual = "virtual".equals(options.getOrDefault("threads", "platform"));
+
+        if (virtual && !VirtualThreads.isAvailable()) System.out.println("Virtual threads require Java 21+, using platform threads");
+
+        String baseUrl = options.get("base-url");
+
+        StandInServer server = null;
+
+        if (baseUrl == null) {
+            int threads = Math.max(Runtime.getRuntime().availableProcessors(), Math.min(256, Math.max(concurrency, 16)));
+
+            server = options.containsKey("faults")
+                    ? new StandInServer(0, threads, new FaultInjectingHandler(new Fixtures(), FaultProfile.parse(options.get("faults"))))
+                    : new StandInServer(0, threads);
+            baseUrl = server.getBaseUrl();
+        }
+
+        YandexConfiguration.Builder builder = YandexConfiguration.builder()
+                .baseUrl(baseUrl)
+                .maxRequests(4096)
+                .maxRequestsPerHost(qps > 0 ? 4096 : Math.max(5, concurrency));
+
+        if (virtual) builder.virtualThreads();
+
+        if (options.containsKey("limit")) {
+            builder.adaptiveLimiter(AdaptiveLimiter.builder().initialLimit(Integer.parseInt(options.get("limit"))).build());
+        }
+
+        HedgingPolicy hedging = null;
+
+        if (options.containsKey("hedge")) {
+            hedging = HedgingPolicy.builder().percentile(Double.parseDouble(options.get("hedge"))).build();
+
+            builder.hedgingPolicy(hedging);
+        }
+
+        CircuitBreaker breaker = null;
+
+        if (options.containsKey("breaker")) {
+            breaker = CircuitBreaker.builder().failureRate(Double.parseDouble(options.get("breaker"))).build();
+
+            builder.circuitBreaker(breaker);
+        }
+
+        ExecutorService parsers = null, callbacks = null;
+
+        if (options.containsKey("parse-threads")) {
+            parsers = Executors.newFixedThreadPool(Integer.parseInt(options.get("parse-threads")));
+
+            builder.parseExecutor(parsers);
+        }
+
+        if (options.containsKey("callback-threads")) {
+            callbacks = Executors.newFixedThreadPool(Integer.parseInt(options.get("callback-threads")));
+
+            builder.callbackExecutor(callbacks);
+        }
+
+        YandexConfiguration configuration = builder.build();
+
+        SimpleMetrics metrics = new SimpleMetrics();
+
+        Target target = target(method, options.getOrDefault("key", "key"), options.getOrDefault("lang", "en-ru"),
+                Integer.parseInt(options.getOrDefault("batch", "10")), configuration, metrics);
+
+        System.out.println(MessageFormat.format("{0} against {1}: {2}, corpus of {3} texts",
+                method, baseUrl, qps > 0 ? "open loop at " + qps + " req/s" : "closed loop with " + concurrency + " threads",
+                String.valueOf(corpus.length)));
+
+        try {
+            if (warmup > 0) run(target, corpus, qps, concurrency, virtual, warmup);
+
+            metrics.reset();
+
+            long allocatedBefore = allocatedBytes();
+
+            Result result = run(target, corpus, qps, concurrency, virtual, duration);
+
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            report(result, allocated);
+
+            System.out.print(metrics);
+
+            if (hedging != null) {
+                for (Endpoint endpoint : Endpoint.values()) {
+                    if (metrics.getMetrics(endpoint).getRequests() == 0) continue;
+
+                    System.out.println(MessageFormat.format("{0}: hedges={1} won={2} delay={3}us", endpoint,
+                            String.valueOf(hedging.getHedges(endpoint)), String.valueOf(hedging.getHedgeWins(endpoint)),
+                            String.valueOf(hedging.getDelay(endpoint, TimeUnit.MICROSECONDS))));
+                }
+            }
+
+            if (breaker != null) {
+                for (Endpoint endpoint : Endpoint.values()) {
+                    if (breaker.getRejected(endpoint) == 0 && breaker.getState(endpoint) == CircuitBreaker.State.CLOSED) continue;
+
+                    System.out.println(MessageFormat.format("{0}: circuit={1} rejected={2}", endpoint,
+                            breaker.getState(endpoint), String.valueOf(breaker.getRejected(endpoint))));
+                }
+            }
+        } finally {
+            if (server != null) server.close();
+            if (parsers != null) parsers.shutdown();
+            if (callbacks != null) callbacks.shutdown();
+        }
+
+        System.exit(0);
+    }
+
+    /**
+     * Метод враппера, на который подается нагрузка.
+     */
+    interface Target {
+
+        /**
+         * Синхронный вызов.
+         *
+         * @param texts корпус;
+         * @param index номер запроса.
+         * @throws Exception при ошибке запроса.
+         */
+        void call(String[] texts, int index) throws Exception;
+
+        /**
+         * Асинхронный вызов.
+         *
+         * @param texts    корпус;
+         * @param index    номер запроса;
+         * @param callback обратный вызов по завершении запроса.
+         */
+        void enqueue(String[] texts, int index, YandexCallback<Object> callback);
+    }
+
+    /**
+     * Метод для создания нагрузки на указанный метод враппера.
+     *
+     * @param method        имя метода;
+     * @param key           API-ключ;
+     * @param lang          направление перевода ({@code en-ru}) или язык ({@code ru});
+     * @param batch         кол-во текстов в одном запросе {@code checkTexts};
+     * @param configuration настройки транспорта;
+     * @param metrics       метрики враппера;
+     * @return метод враппера.
+     */
+    static Target target(String method, String key, String lang, int batch, YandexConfiguration configuration,
+                         SimpleMetrics metrics) {
+        String[] codes = lang.split("-");
+
+        Language source = Language.byCode(codes[0]);
+        Language destination = codes.length > 1 ? Language.byCode(codes[1]) : source;
+
+        switch (method) {
+            case "translate": {
+                YandexTranslator translator = new YandexTranslator(key, Version.TRANSLATE_V1_5, ResponseInterface.TRANSLATE_JSON, configuration);
+
+                translator.setMetrics(metrics);
+
+                return target(
+                        (texts, index) -> translator.getTextTranslation(text(texts, index), source, destination, Format.PLAIN),
+                        (texts, index, callback) -> translator.getTextTranslation(text(texts, index), source, destination, Format.PLAIN, cast(callback))
+                );
+            }
+            case "detect": {
+                YandexTranslator translator = new YandexTranslator(key, Version.TRANSLATE_V1_5, ResponseInterface.TRANSLATE_JSON, configuration);
+
+                translator.setMetrics(metrics);
+
+                return target(
+                        (texts, index) -> translator.getTextLanguage(text(texts, index), source, destination),
+                        (texts, index, callback) -> translator.getTextLanguage(text(texts, index), cast(callback), source, destination)
+                );
+            }
+            case "lookup": {
+                YandexDictionary dictionary = new YandexDictionary(key, Version.DICTIONARY_V1, ResponseInterface.DICTIONARY_JSON, configuration);
+
+                LanguagePair pair = LanguagePair.byCode(lang);
+
+                if (pair == null) throw new IllegalArgumentException("Unknown dictionary direction: " + lang);
+
+                dictionary.setMetrics(metrics);
+
+                return target(
+                        (texts, index) -> dictionary.getLookup(text(texts, index), pair),
+                        (texts, index, callback) -> dictionary.getLookup(text(texts, index), pair, cast(callback))
+                );
+            }
+            case "complete": {
+                YandexPredictor predictor = new YandexPredictor(key, Version.PREDICTOR_V1, ResponseInterface.PREDICTOR_JSON, configuration);
+
+                predictor.setMetrics(metrics);
+
+                return target(
+                        (texts, index) -> predictor.getCompletion(text(texts, index), source, 3),
+                        (texts, index, callback) -> predictor.getCompletion(text(texts, index), source, 3, cast(callback))
+                );
+            }
+            case "checkText": {
+                YandexSpeller speller = new YandexSpeller(Version.SPELLER_LATEST, ResponseInterface.SPELLER_JSON, configuration);
+
+                speller.setMetrics(metrics);
+
+                return target(
+                        (texts, index) -> speller.getSpelledPhrase(text(texts, index), source),
+                        (texts, index, callback) -> speller.getSpelledPhrase(text(texts, index), source, cast(callback))
+                );
+            }
+            case "checkTexts": {
+                YandexSpeller speller = new YandexSpeller(Version.SPELLER_LATEST, ResponseInterface.SPELLER_JSON, configuration);
+
+                speller.setMetrics(metrics);
+
+                return target(
+                        (texts, index) -> speller.getSpelledPhrases(texts(texts, index, batch), source),
+                        (texts, index, callback) -> speller.getSpelledPhrases(texts(texts, index, batch), source, cast(callback))
+                );
+            }
+            default:
+                throw new IllegalArgumentException("Unknown method: " + method);
+        }
+    }
+
+    /**
+     * Прогон нагрузки в течение указанного времени.
+     *
+     * @param target      метод враппера;
+     * @param corpus      корпус;
+     * @param qps         частота запросов в открытой модели (0 — закрытая модель);
+     * @param concurrency кол-во потоков в закрытой модели;
+     * @param virtual     использовать ли виртуальные потоки в закрытой модели;
+     * @param duration    длительность в наносекундах;
+     * @return результат прогона.
+     */
+    static Result run(Target target, String[] corpus, double qps, int concurrency, boolean virtual, long duration)
+            throws InterruptedException {
+        return qps > 0 ? runOpen(target, corpus, qps, duration) : runClosed(target, corpus, concurrency, virtual, duration);
+    }
+
+    private static Result runClosed(Target target, String[] corpus, int concurrency, boolean virtual, long duration)
+            throws InterruptedException {
+        Result result = new Result();
+
+        AtomicInteger sequence = new AtomicInteger();
+
+        ExecutorService executor = virtual ? VirtualThreads.newExecutor("LoadGenerator") : Executors.newFixedThreadPool(concurrency);
+
+        long start = System.nanoTime();
+        long deadline = start + duration;
+
+        for (int thread = 0; thread < concurrency; thread++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    long begin = System.nanoTime();
+
+                    try {
+                        target.call(corpus, sequence.getAndIncrement());
+                    } catch (Exception exception) {
+                        result.errors.incrementAndGet();
+                    }
+
+                    result.latency.record(System.nanoTime() - begin);
+                }
+            });
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+
+        result.elapsed = System.nanoTime() - start;
+
+        return result;
+    }
+
+    private static Result runOpen(Target target, String[] corpus, double qps, long duration) throws InterruptedException {
+        Result result = new Result();
+
+        AtomicLong pending = new AtomicLong();
+
+        long interval = (long) (1e9 / qps);
+
+        long start = System.nanoTime();
+
+        int index = 0;
+
+        for (long due = start; due < start + duration; due += interval, index++) {
+            long now = System.nanoTime();
+
+            if (due > now) LockSupport.parkNanos(due - now);
+
+            long scheduled = due;
+
+            pending.incrementAndGet();
+
+            target.enqueue(corpus, index, new YandexCallback<Object>() {
+                @Override
+                public void onResponse(Object response) {
+                    complete(true);
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    complete(false);
+                }
+
+                private void complete(boolean successful) {
+                    if (!successful) result.errors.incrementAndGet();
+
+                    result.latency.record(System.nanoTime() - scheduled);
+
+                    synchronized (pending) {
+                        if (pending.decrementAndGet() == 0) pending.notifyAll();
+                    }
+                }
+            });
+        }
+
+        synchronized (pending) {
+            while (pending.get() > 0) pending.wait();
+        }
+
+        result.elapsed = System.nanoTime() - start;
+
+        return result;
+    }
+
+    private static void report(Result result, long allocated) {
+        LatencyHistogram latency = result.latency;
+
+        double seconds = result.elapsed / 1e9;
+
+        System.out.println(MessageFormat.format(
+                "{0} requests in {1} s: {2} req/s, errors={3}",
+                String.valueOf(latency.getCount()), String.format("%.1f", seconds),
+                String.format("%.0f", latency.getCount() / seconds), String.valueOf(result.errors.get())
+        ));
+        System.out.println(MessageFormat.format(
+                "latency p50={0}us p90={1}us p99={2}us p99.9={3}us max={4}us",
+                String.valueOf(latency.getPercentile(50, TimeUnit.MICROSECONDS)),
+                String.valueOf(latency.getPercentile(90, TimeUnit.MICROSECONDS)),
+                String.valueOf(latency.getPercentile(99, TimeUnit.MICROSECONDS)),
+                String.valueOf(latency.getPercentile(99.9, TimeUnit.MICROSECONDS)),
+                String.valueOf(latency.getMax(TimeUnit.MICROSECONDS))
+        ));
+
+        if (allocated >= 0) {
+            System.out.println(MessageFormat.format(
+                    "allocation {0} MB/s, {1} bytes/request (all threads, including the stand-in server)",
+                    String.format("%.1f", allocated / seconds / (1024 * 1024)),
+                    String.valueOf(latency.getCount() == 0 ? 0 : allocated / latency.getCount())
+            ));
+        }
+    }
+
+    /**
+     * Суммарный объем памяти, выделенной всеми живыми потоками процесса.
+     *
+     * @return кол-во байт или -1, если JVM не поддерживает счетчик.
+     */
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return -1;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) return -1;
+
+        long total = 0;
+
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+
+        return total;
+    }
+
+    private static String[] readCorpus(String path) throws Exception {
+        List<String> texts = new ArrayList<>();
+
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            if (!line.trim().isEmpty()) texts.add(line);
+        }
+
+        if (texts.isEmpty()) throw new IllegalArgumentException("Corpus is empty: " + path);
+
+        return texts.toArray(new String[0]);
+    }
+
+    private static String text(String[] texts, int index) {
+        return texts[Math.floorMod(index, texts.length)];
+    }
+
+    private static String[] texts(String[] texts, int index, int batch) {
+        String[] result = new String[batch];
+
+        for (int offset = 0; offset < batch; offset++) result[offset] = text(texts, index * batch + offset);
+
+        return result;
+    }
+
+    private static Target target(Call call, Enqueue enqueue) {
+        return new Target() {
+            @Override
+            public void call(String[] texts, int index) throws Exception {
+                call.call(texts, index);
+            }
+
+            @Override
+            public void enqueue(String[] texts, int index, YandexCallback<Object> callback) {
+                enqueue.enqueue(texts, index, callback);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> YandexCallback<T> cast(YandexCallback<Object> callback) {
+        return (YandexCallback<T>) (YandexCallback<?>) callback;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Object call(String[] texts, int index) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Enqueue {
+        void enqueue(String[] texts, int index, YandexCallback<Object> callback);
+    }
+
+    /**
+     * Результат одного прогона.
+     */
+    static final class Result {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicInteger errors = new AtomicInteger();
+
+        long elapsed;
+    }
+}
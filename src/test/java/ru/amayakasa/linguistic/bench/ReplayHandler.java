@@ -0,0 +1,100 @@
+package ru.amayakasa.linguistic.bench;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import ru.amayakasa.linguistic.traffic.TrafficRecord;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Обработчик для {@link StandInServer}, отвечающий записанными ответами из {@link ru.amayakasa.linguistic.traffic.TrafficLog}.
+ * <p>
+ * Ответ ищется по пути и параметрам запроса (без API-ключа), а если такого запроса в журнале нет — по пути.
+ * Если на один запрос записано несколько ответов, они отдаются по кругу. По желанию перед ответом
+ * выдерживается записанная задержка, чтобы заглушка вела себя как настоящий сервис.
+ *
+ * @author Amayakasa
+ */
+final class ReplayHandler implements HttpHandler {
+
+    private static final byte[] NOT_RECORDED = "{\"code\":404,\"message\":\"Not recorded\"}".getBytes();
+
+    private final Map<String, Responses> byRequest = new HashMap<>();
+    private final Map<String, Responses> byPath = new HashMap<>();
+
+    private final boolean latency;
+
+    /**
+     * Конструктор для инициализации нового объекта #ReplayHandler.
+     *
+     * @param records записанные пары запрос-ответ;
+     * @param latency выдерживать ли записанную задержку перед ответом.
+     */
+    ReplayHandler(List<TrafficRecord> records, boolean latency) {
+        this.latency = latency;
+
+        for (TrafficRecord record : records) {
+            byRequest.computeIfAbsent(record.getRequest(), request -> new Responses()).records.add(record);
+            byPath.computeIfAbsent(record.getPath(), path -> new Responses()).records.add(record);
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getRawPath();
+        String query = redact(exchange.getRequestURI().getRawQuery());
+
+        Responses responses = byRequest.get(query == null ? path : path + '?' + query);
+
+        if (responses == null) responses = byPath.get(path);
+
+        if (responses == null) {
+            Fixtures.send(exchange, 404, NOT_RECORDED);
+            return;
+        }
+
+        TrafficRecord record = responses.next();
+
+        if (latency && record.getLatency() > 0) {
+            try {
+                TimeUnit.MICROSECONDS.sleep(record.getLatency());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        Fixtures.send(exchange, record.getCode(), record.getContentType(), record.getBody());
+    }
+
+    private static String redact(String query) {
+        if (query == null) return null;
+
+        StringBuilder redacted = new StringBuilder(query.length());
+
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("key=") || parameter.equals("key")) continue;
+
+            if (redacted.length() > 0) redacted.append('&');
+
+            redacted.append(parameter);
+        }
+
+        return redacted.length() == 0 ? null : redacted.toString();
+    }
+
+    private static final class Responses {
+
+        private final List<TrafficRecord> records = new ArrayList<>(1);
+        private final AtomicInteger next = new AtomicInteger();
+
+        private TrafficRecord next() {
+            return records.get(Math.floorMod(next.getAndIncrement(), records.size()));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package ru.amayakasa.linguistic.bench;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import ru.amayakasa.linguistic.http.QueryValueConverterFactory;
+import ru.amayakasa.linguistic.http.YandexService;
+import ru.amayakasa.linguistic.parameters.*;
+
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * Бенчмарк выделения памяти при формировании запросов к Яндекс.Переводчику, Яндекс.Словарю и Яндекс.Спеллеру.
+ * <p>
+ * Измеряет кол-во байт, выделяемых потоком на одну операцию (по счетчику {@link com.sun.management.ThreadMXBean}).
+ * Отдельно измеряется кодирование параметров ({@link Option}, {@link Flag}, подсказки и направления перевода),
+ * которое должно обходиться без выделения памяти (кроме подсказки из нескольких языков, для которой создается
+ * ровно одна строка), и полный путь формирования HTTP-запроса через Retrofit2
+ * с теми же параметрами, что передают врапперы. Запросы не отправляются, сеть не требуется.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.amayakasa.linguistic.bench.RequestAllocationBenchmark -Dexec.args="[кол-во итераций]"}
+ *
+ * @author Amayakasa
+ */
+public final class RequestAllocationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+
+    private static final Flag[] FLAGS = {Flag.FAMILY, Flag.MORPHO};
+
+    private static final int[] OPTIONS = {Option.IGNORE_DIGITS.option, Option.IGNORE_URLS.option};
+
+    private static final Language[] HINTS = {Language.ENGLISH, Language.RUSSIAN};
+
+    private static volatile Object sink;
+
+    private RequestAllocationBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        YandexService service = new Retrofit.Builder()
+                .baseUrl("http://localhost/")
+                .addConverterFactory(QueryValueConverterFactory.create())
+                .build()
+                .create(YandexService.class);
+
+        Map<String, IntSupplier> operations = new LinkedHashMap<>();
+
+        operations.put("encode options", () -> Option.query(Option.encode(OPTIONS)).length());
+        operations.put("encode flags", () -> Flag.query(Flag.encode(FLAGS)).length());
+        operations.put("encode hint", () -> Language.hint(HINTS).length());
+        operations.put("encode direction", () -> Language.direction(Language.ENGLISH, Language.RUSSIAN).length());
+        operations.put("lookup by code", () -> LanguagePair.byCode("en-ru").ordinal() + Language.byCode("ru").ordinal());
+
+        operations.put("request translate", () -> request(service.getTextTranslation(
+                Version.TRANSLATE_V1_5, ResponseInterface.TRANSLATE_JSON, "key", "Hello, World!",
+                Language.direction(Language.ENGLISH, Language.RUSSIAN), Format.PLAIN, Option.encode(OPTIONS)
+        )));
+        operations.put("request detect", () -> request(service.getTextLanguage(
+                Version.TRANSLATE_V1_5, ResponseInterface.TRANSLATE_JSON, "key", "Hello, World!", Language.hint(HINTS)
+        )));
+        operations.put("request lookup", () -> request(service.getLookup(
+                Version.DICTIONARY_V1, ResponseInterface.DICTIONARY_JSON, "key", LanguagePair.ENGLISH_RUSSIAN,
+                "time", Language.ENGLISH, Flag.encode(FLAGS)
+        )));
+        operations.put("request checkText", () -> request(service.getSpelledPhrase(
+                ResponseInterface.SPELLER_JSON, "синхрафазатрон", Language.RUSSIAN,
+                Option.encode(OPTIONS), Format.PLAIN
+        )));
+
+        for (Map.Entry<String, IntSupplier> operation : operations.entrySet()) {
+            double bytes = measure(operation.getValue(), iterations);
+
+            System.out.println(MessageFormat.format("{0}: {1} bytes/op", operation.getKey(), String.format("%.1f", bytes)));
+        }
+    }
+
+    /**
+     * Измерение среднего кол-ва байт, выделенных текущим потоком на одну операцию.
+     *
+     * @param operation  измеряемая операция;
+     * @param iterations кол-во итераций измерения;
+     * @return среднее кол-во байт на операцию.
+     */
+    static double measure(IntSupplier operation, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long thread = Thread.currentThread().getId();
+
+        int checksum = 0;
+
+        for (int iterator = 0; iterator < WARMUP_ITERATIONS; iterator++) checksum += operation.getAsInt();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+
+        for (int iterator = 0; iterator < iterations; iterator++) checksum += operation.getAsInt();
+
+        long after = threads.getThreadAllocatedBytes(thread);
+
+        sink = checksum;
+
+        return (double) (after - before) / iterations;
+    }
+
+    private static int request(Call<ResponseBody> call) {
+        return call.request().url().encodedQuery().length();
+    }
+}
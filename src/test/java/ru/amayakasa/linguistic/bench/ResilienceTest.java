@@ -0,0 +1,225 @@
+package ru.amayakasa.linguistic.bench;
+
+import com.sun.net.httpserver.HttpHandler;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+import ru.amayakasa.linguistic.YandexDictionary;
+import ru.amayakasa.linguistic.http.CircuitBreaker;
+import ru.amayakasa.linguistic.http.Deadline;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.ResponseCode;
+import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.parameters.LanguagePair;
+import ru.amayakasa.linguistic.parameters.ResponseInterface;
+import ru.amayakasa.linguistic.parameters.Version;
+import ru.amayakasa.linguistic.response.Dictionary;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка поведения врапперов при сбоях, которые вносит локальная заглушка ({@link FaultInjectingHandler}).
+ * <p>
+ * Повторов запросов во врапперах нет, поэтому проверяется то, что их заменяет: срок запроса ({@link Deadline})
+ * при медленной отдаче тела, размыкание {@link CircuitBreaker} при обрывах соединения, запасной источник ответов,
+ * пробные запросы после восстановления сервиса и то, что ошибки валидации (4xx, 501) не размыкают выключатель.
+ * Все запросы идут к методу lookup: его записанный ответ больше одной порции медленного тела.
+ *
+ * @author Amayakasa
+ */
+class ResilienceTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final String LOOKUP_PATH = "/api/v1/dicservice.json/lookup";
+
+    @Test
+    @SuppressWarnings("try")
+    void deadlineCutsSlowBody() throws Exception {
+        assertTrue(Fixtures.body(LOOKUP_PATH, null).length > 512, "Lookup fixture fits into one slow chunk");
+
+        FaultProfile profile = FaultProfile.builder().slowBodies(1, 128).build();
+
+        try (StandInServer server = new StandInServer(0, 2, new FaultInjectingHandler(new Fixtures(), profile))) {
+            YandexDictionary dictionary = dictionary(server, null);
+
+            long start = System.nanoTime();
+
+            try (Deadline.Scope ignored = Deadline.after(300, TimeUnit.MILLISECONDS).attach()) {
+                assertThrows(TimeoutException.class, () -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN));
+            }
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Без срока тело отдается 4 с
+            assertTrue(elapsed < 2_000, "Slow body was read past the deadline: " + elapsed + " ms");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void deadlineCutsSlowBodyOfAsyncCall() throws Exception {
+        FaultProfile profile = FaultProfile.builder().slowBodies(1, 128).build();
+
+        try (StandInServer server = new StandInServer(0, 2, new FaultInjectingHandler(new Fixtures(), profile))) {
+            YandexDictionary dictionary = dictionary(server, null);
+
+            CompletableFuture<Dictionary> result = new CompletableFuture<>();
+
+            long start = System.nanoTime();
+
+            try (Deadline.Scope ignored = Deadline.after(300, TimeUnit.MILLISECONDS).attach()) {
+                dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN, callback(result));
+            }
+
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(failure.getCause() instanceof TimeoutException, "Unexpected failure: " + failure.getCause());
+            assertTrue(elapsed < 2_000, "Slow body was read past the deadline: " + elapsed + " ms");
+        }
+    }
+
+    @Test
+    void resetsOpenCircuitBreaker() throws Exception {
+        FaultProfile profile = FaultProfile.builder().resets(1).build();
+
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .window(4, 4)
+                .openDuration(1, TimeUnit.MINUTES)
+                .build();
+
+        try (StandInServer server = new StandInServer(0, 2, new FaultInjectingHandler(new Fixtures(), profile))) {
+            YandexDictionary dictionary = dictionary(server, breaker);
+
+            for (int iterator = 0; iterator < 4; iterator++) {
+                assertThrows(IOException.class, () -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN));
+            }
+
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState(Endpoint.LOOKUP));
+
+            assertThrows(RejectedExecutionException.class, () -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN));
+
+            assertEquals(1, breaker.getRejected(Endpoint.LOOKUP));
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(Endpoint.TRANSLATE));
+        }
+    }
+
+    @Test
+    void fallbackAnswersWhileBreakerIsOpen() throws Exception {
+        FaultProfile profile = FaultProfile.builder().resets(1).build();
+
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .window(4, 4)
+                .openDuration(1, TimeUnit.MINUTES)
+                .fallback((endpoint, request, cause) -> ResponseBody.create(JSON, Fixtures.body(request.url().encodedPath(), null)))
+                .build();
+
+        try (StandInServer server = new StandInServer(0, 2, new FaultInjectingHandler(new Fixtures(), profile))) {
+            YandexDictionary dictionary = dictionary(server, breaker);
+
+            for (int iterator = 0; iterator < 4; iterator++) {
+                assertThrows(IOException.class, () -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN));
+            }
+
+            Dictionary lookup = dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN);
+
+            assertNotNull(lookup);
+            assertFalse(lookup.getDefinitions().isEmpty());
+            assertEquals(1, breaker.getRejected(Endpoint.LOOKUP));
+        }
+    }
+
+    @Test
+    void breakerClosesAfterServiceRecovers() throws Exception {
+        FaultProfile profile = FaultProfile.builder().resets(1).build();
+
+        AtomicReference<HttpHandler> handler = new AtomicReference<>(new FaultInjectingHandler(new Fixtures(), profile));
+
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .window(4, 4)
+                .openDuration(100, TimeUnit.MILLISECONDS)
+                .probes(2)
+                .build();
+
+        try (StandInServer server = new StandInServer(0, 2, exchange -> handler.get().handle(exchange))) {
+            YandexDictionary dictionary = dictionary(server, breaker);
+
+            for (int iterator = 0; iterator < 4; iterator++) {
+                assertThrows(IOException.class, () -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN));
+            }
+
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState(Endpoint.LOOKUP));
+
+            handler.set(new Fixtures());
+
+            TimeUnit.MILLISECONDS.sleep(150);
+
+            for (int iterator = 0; iterator < 2; iterator++) {
+                assertNotNull(dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN));
+            }
+
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(Endpoint.LOOKUP));
+        }
+    }
+
+    @Test
+    void clientErrorsDoNotOpenBreaker() throws Exception {
+        for (ResponseCode code : new ResponseCode[]{ResponseCode.DAILY_REQUEST_LIMIT_EXCEEDED, ResponseCode.CHARACTER_LIMIT_EXCEEDED, ResponseCode.LANGUAGE_NOT_SUPPORTED}) {
+            FaultProfile profile = FaultProfile.builder().responseCode(code, 1).build();
+
+            CircuitBreaker breaker = CircuitBreaker.builder()
+                    .window(4, 4)
+                    .openDuration(1, TimeUnit.MINUTES)
+                    .build();
+
+            try (StandInServer server = new StandInServer(0, 2, new FaultInjectingHandler(new Fixtures(), profile))) {
+                YandexDictionary dictionary = dictionary(server, breaker);
+
+                for (int iterator = 0; iterator < 8; iterator++) {
+                    Exception failure = assertThrows(Exception.class, () -> dictionary.getLookup("time", LanguagePair.ENGLISH_RUSSIAN));
+
+                    assertTrue(failure.getMessage().startsWith(String.valueOf(code.code)), "Unexpected failure: " + failure);
+                }
+
+                assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(Endpoint.LOOKUP), code.toString());
+            }
+        }
+    }
+
+    private static YandexDictionary dictionary(StandInServer server, CircuitBreaker breaker) {
+        YandexConfiguration.Builder configuration = YandexConfiguration.builder().baseUrl(server.getBaseUrl());
+
+        if (breaker != null) configuration.circuitBreaker(breaker);
+
+        return new YandexDictionary("key", Version.DICTIONARY_V1, ResponseInterface.DICTIONARY_JSON, configuration.build());
+    }
+
+    private static <T> YandexCallback<T> callback(CompletableFuture<T> result) {
+        return new YandexCallback<T>() {
+            @Override
+            public void onResponse(T response) {
+                result.complete(response);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package ru.amayakasa.linguistic.bench;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Локальная заглушка Яндекс.Переводчика, Яндекс.Словаря, Яндекс.Предиктора и Яндекс.Спеллера.
+ * <p>
+ * Отвечает записанными ответами на запросы ко всем методам, поэтому бенчмарки проходят полный путь запроса
+ * (прокси {@link ru.amayakasa.linguistic.http.YandexService}, OkHttp, валидацию ответа и парсинг) без сети.
+ * Все сервисы обслуживаются одним адресом — его нужно передать врапперам как базовый адрес.
+ * <p>
+ * Запуск отдельно: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.amayakasa.linguistic.bench.StandInServer -Dexec.args="[порт] [кол-во потоков] [профиль сбоев]"},
+ * профиль сбоев — см. {@link FaultProfile#parse(String)}.
+ *
+ * @author Amayakasa
+ */
+public final class StandInServer implements AutoCloseable {
+
+    static {
+        // Без TCP_NODELAY заголовки и тело ответа уходят разными пакетами, и каждый ответ ждет отложенного ACK (~40 мс)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Конструктор для запуска заглушки с записанными ответами по умолчанию.
+     *
+     * @param port    порт (0 — любой свободный);
+     * @param threads кол-во потоков, обрабатывающих запросы.
+     * @throws IOException если порт занят.
+     */
+    public StandInServer(int port, int threads) throws IOException {
+        this(port, threads, new Fixtures());
+    }
+
+    /**
+     * Конструктор для запуска заглушки со своим обработчиком запросов.
+     *
+     * @param port    порт (0 — любой свободный);
+     * @param threads кол-во потоков, обрабатывающих запросы;
+     * @param handler обработчик всех запросов.
+     * @throws IOException если порт занят.
+     */
+    public StandInServer(int port, int threads, HttpHandler handler) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-server");
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        server.createContext("/", handler);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Геттер для получения базового адреса заглушки.
+     *
+     * @return базовый адрес для врапперов.
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        HttpHandler handler = args.length > 2 ? new FaultInjectingHandler(new Fixtures(), FaultProfile.parse(args[2])) : new Fixtures();
+
+        StandInServer server = new StandInServer(port, threads, handler);
+
+        System.out.println("Stand-in server started at " + server.getBaseUrl());
+
+        Thread.currentThread().join();
+    }
+}
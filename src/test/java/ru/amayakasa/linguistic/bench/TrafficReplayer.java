@@ -0,0 +1,226 @@
+package ru.amayakasa.linguistic.bench;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import ru.amayakasa.linguistic.http.Endpoint;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.metrics.SimpleMetrics;
+import ru.amayakasa.linguistic.response.parser.ResponseParser;
+import ru.amayakasa.linguistic.traffic.TrafficLog;
+import ru.amayakasa.linguistic.traffic.TrafficRecord;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Воспроизведение записанного трафика ({@link TrafficLog}) с исходной или масштабированной частотой.
+ * <p>
+ * Запросы отправляются в том же порядке и с теми же интервалами, что и при записи (интервалы делятся на
+ * коэффициент {@code --rate}; 0 — без пауз). Ответы парсятся {@link ResponseParser} так же, как во врапперах,
+ * а метрики по каждому методу собираются в {@link SimpleMetrics}.
+ * Без {@code --base-url} запросы уходят в локальную заглушку, которая отвечает записанными ответами
+ * (с записанной задержкой при {@code --latency}), поэтому можно проверять кэширование, пакетирование и парсинг
+ * на реалистичном наборе запросов и размерах ответов без сети.
+ * <p>
+ * Запуск: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.amayakasa.linguistic.bench.TrafficReplayer
+ * -Dexec.args="<журнал> [--rate 1.0] [--base-url http://host:port] [--latency] [--no-parse]"}
+ *
+ * @author Amayakasa
+ */
+public final class TrafficReplayer {
+
+    private TrafficReplayer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Usage: TrafficReplayer <log> [--rate 1.0] [--base-url url] [--latency] [--no-parse]");
+            return;
+        }
+
+        List<TrafficRecord> records = TrafficLog.read(Paths.get(args[0]));
+
+        double rate = 1.0;
+        String baseUrl = null;
+        boolean latency = false;
+        boolean parse = true;
+
+        for (int index = 1; index < args.length; index++) {
+            switch (args[index]) {
+                case "--rate":
+                    rate = Double.parseDouble(args[++index]);
+                    break;
+                case "--base-url":
+                    baseUrl = args[++index];
+                    break;
+                case "--latency":
+                    latency = true;
+                    break;
+                case "--no-parse":
+                    parse = false;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[index]);
+            }
+        }
+
+        if (records.isEmpty()) {
+            System.out.println("Traffic log is empty");
+            return;
+        }
+
+        StandInServer server = baseUrl == null ? new StandInServer(0, 64, new ReplayHandler(records, latency)) : null;
+
+        if (server != null) baseUrl = server.getBaseUrl();
+
+        System.out.println(MessageFormat.format("Replaying {0} requests to {1} at rate x{2}",
+                String.valueOf(records.size()), baseUrl, String.valueOf(rate)));
+
+        OkHttpClient client = YandexConfiguration.builder().maxRequests(1024).maxRequestsPerHost(1024).build().getClient();
+
+        try {
+            replay(client, HttpUrl.get(baseUrl), records, rate, parse);
+        } finally {
+            if (server != null) server.close();
+        }
+
+        System.exit(0);
+    }
+
+    /**
+     * Воспроизведение записанных запросов.
+     *
+     * @param client  HTTP-клиент;
+     * @param baseUrl базовый адрес сервисов;
+     * @param records записанные пары запрос-ответ;
+     * @param rate    коэффициент частоты (0 — без пауз);
+     * @param parse   парсить ли ответы.
+     * @return метрики по каждому методу.
+     */
+    static SimpleMetrics replay(OkHttpClient client, HttpUrl baseUrl, List<TrafficRecord> records, double rate, boolean parse)
+            throws InterruptedException {
+        SimpleMetrics metrics = new SimpleMetrics();
+
+        CountDownLatch done = new CountDownLatch(records.size());
+
+        AtomicLong unknown = new AtomicLong();
+
+        long lag = 0;
+
+        long origin = records.get(0).getTimestamp();
+        long start = System.nanoTime();
+
+        for (TrafficRecord record : records) {
+            long due = rate <= 0 ? start : start + (long) ((record.getTimestamp() - origin) * 1000 / rate);
+
+            long now = System.nanoTime();
+
+            if (due > now) LockSupport.parkNanos(due - now);
+            else lag = Math.max(lag, now - due);
+
+            Endpoint endpoint = record.getEndpoint();
+
+            if (endpoint == null) unknown.incrementAndGet();
+
+            HttpUrl url = HttpUrl.get(baseUrl.toString().replaceAll("/$", "") + record.getRequest());
+
+            send(client, metrics, endpoint, url, parse, done);
+        }
+
+        done.await();
+
+        long elapsed = System.nanoTime() - start;
+
+        long recorded = records.get(records.size() - 1).getTimestamp() - origin;
+
+        System.out.print(metrics);
+        System.out.println(MessageFormat.format(
+                "Replayed in {0} ms (recorded {1} ms), {2} req/s, max schedule lag {3} us, unknown endpoints {4}",
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(elapsed)),
+                String.valueOf(TimeUnit.MICROSECONDS.toMillis(recorded)),
+                String.format("%.0f", records.size() * 1e9 / elapsed),
+                String.valueOf(TimeUnit.NANOSECONDS.toMicros(lag)),
+                String.valueOf(unknown.get())
+        ));
+
+        return metrics;
+    }
+
+    private static void send(OkHttpClient client, SimpleMetrics metrics, Endpoint endpoint, HttpUrl url, boolean parse,
+                             CountDownLatch done) {
+        long start = System.nanoTime();
+
+        if (endpoint != null) metrics.onRequest(endpoint, url.toString().length());
+
+        client.newCall(new Request.Builder().url(url).build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException exception) {
+                if (endpoint != null) metrics.onFailure(endpoint, exception);
+
+                done.countDown();
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                long received = System.nanoTime();
+
+                try (ResponseBody body = response.body()) {
+                    if (endpoint == null) return;
+
+                    metrics.onResponse(endpoint, response.code(), received - start, body == null ? -1 : body.contentLength());
+
+                    if (!response.isSuccessful() || body == null) {
+                        metrics.onFailure(endpoint, new IOException("HTTP " + response.code()));
+                        return;
+                    }
+
+                    if (parse) parse(endpoint, url, retrofit2.Response.success(body));
+                    else body.bytes();
+
+                    metrics.onParse(endpoint, System.nanoTime() - received);
+                } catch (Exception exception) {
+                    if (endpoint != null) metrics.onFailure(endpoint, exception);
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+    }
+
+    private static Object parse(Endpoint endpoint, HttpUrl url, retrofit2.Response<ResponseBody> response) throws IOException {
+        switch (endpoint) {
+            case TRANSLATOR_LANGUAGES:
+                return ResponseParser.parseTranslationDirections(response);
+            case DETECT:
+                return ResponseParser.parseTextLanguage(response);
+            case TRANSLATE:
+                return ResponseParser.parseTextTranslation(url.queryParameter("text"), response);
+            case DICTIONARY_LANGUAGES:
+                return ResponseParser.parseDictionaryDirections(response);
+            case LOOKUP:
+                return ResponseParser.parseDictionary(response);
+            case PREDICTOR_LANGUAGES:
+                return ResponseParser.parsePredictionDirections(response);
+            case COMPLETE:
+                return ResponseParser.parseCompletion(url.queryParameter("q"), response);
+            case CHECK_TEXT:
+                return ResponseParser.parsePhrase(url.queryParameter("text"), response);
+            case CHECK_TEXTS:
+                return ResponseParser.parsePhrases(url.queryParameterValues("text").toArray(new String[0]), response);
+            default:
+                throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+        }
+    }
+}
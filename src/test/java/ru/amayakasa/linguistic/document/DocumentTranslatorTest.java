@@ -0,0 +1,213 @@
+package ru.amayakasa.linguistic.document;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.jupiter.api.Test;
+import ru.amayakasa.linguistic.YandexTranslator;
+import ru.amayakasa.linguistic.bench.StandInServer;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.parameters.Format;
+import ru.amayakasa.linguistic.parameters.Language;
+import ru.amayakasa.linguistic.parameters.ResponseInterface;
+import ru.amayakasa.linguistic.parameters.Version;
+import ru.amayakasa.linguistic.response.Translation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка {@link DocumentTranslator} на локальной заглушке Яндекс.Переводчика.
+ * <p>
+ * Заглушка «переводит» сегмент в верхний регистр и запоминает отправленные ей сегменты.
+ *
+ * @author Amayakasa
+ */
+class DocumentTranslatorTest {
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void onlyChangedSegmentsAreSent() throws Exception {
+        try (StandInServer server = new StandInServer(0, 4, this::translate)) {
+            DocumentTranslator translator = new DocumentTranslator(translator(server));
+
+            String first = "First sentence. Second sentence.\n\n  Third one!";
+
+            assertEquals("FIRST SENTENCE. SECOND SENTENCE.\n\n  THIRD ONE!", translate(translator, first).getTranslation());
+            assertEquals(sorted("First sentence.", "Second sentence.", "Third one!"), sorted(requests));
+
+            requests.clear();
+
+            String second = "First sentence. Changed sentence.\n\n  Third one! New one.";
+
+            assertEquals("FIRST SENTENCE. CHANGED SENTENCE.\n\n  THIRD ONE! NEW ONE.", translate(translator, second).getTranslation());
+            assertEquals(sorted("Changed sentence.", "New one."), sorted(requests));
+
+            requests.clear();
+
+            assertEquals("FIRST SENTENCE. CHANGED SENTENCE.\n\n  THIRD ONE! NEW ONE.", translate(translator, second).getTranslation());
+            assertTrue(requests.isEmpty(), "Unchanged document was sent again: " + requests);
+
+            // Повтор сегмента в документе отправляется один раз, а другое направление перевода — отдельный сегмент
+            Translation repeated = translator.translate("Again. Again.", Language.ENGLISH, Language.GERMAN, Format.PLAIN);
+
+            assertEquals("AGAIN. AGAIN.", repeated.getTranslation());
+            assertEquals(Collections.singletonList("Again."), requests);
+        }
+    }
+
+    @Test
+    void deadlineStopsSendingAndWaiting() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+
+        List<String> arrived = Collections.synchronizedList(new ArrayList<>());
+
+        HttpHandler handler = exchange -> {
+            arrived.add(text(exchange));
+
+            try {
+                stuck.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+
+            respond(exchange);
+        };
+
+        try (StandInServer server = new StandInServer(0, 8, handler)) {
+            DocumentTranslator translator = new DocumentTranslator(translator(server), 2, DocumentTranslator.DEFAULT_CAPACITY);
+
+            String document = "One. Two. Three. Four. Five.";
+
+            long start = System.nanoTime();
+
+            assertThrows(TimeoutException.class, () -> translator.translate(document, Language.ENGLISH, Language.RUSSIAN, Format.PLAIN, 300, TimeUnit.MILLISECONDS));
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(elapsed < 2_000, "Translation waited past the deadline: " + elapsed + " ms");
+
+            // Сегменты сверх parallelism ждали места и после срока уже не отправлялись
+            TimeUnit.MILLISECONDS.sleep(200);
+
+            assertEquals(2, arrived.size(), "Sent segments: " + arrived);
+
+            stuck.countDown();
+
+            arrived.clear();
+
+            // Отмененные запросы не сохранили переводов: следующая редакция отправляет все сегменты
+            assertEquals("ONE. TWO. THREE. FOUR. FIVE.", translate(translator, document).getTranslation());
+            assertEquals(sorted("One.", "Two.", "Three.", "Four.", "Five."), sorted(arrived));
+        }
+    }
+
+    @Test
+    void firstFailureStopsWaiting() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+
+        HttpHandler handler = exchange -> {
+            if (text(exchange).equals("Broken.")) {
+                send(exchange, 413, "{\"code\":413,\"message\":\"Text size exceeds the maximum\"}");
+                return;
+            }
+
+            try {
+                stuck.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+
+            respond(exchange);
+        };
+
+        try (StandInServer server = new StandInServer(0, 8, handler)) {
+            DocumentTranslator translator = new DocumentTranslator(translator(server), 4, DocumentTranslator.DEFAULT_CAPACITY);
+
+            long start = System.nanoTime();
+
+            Exception failure = assertThrows(Exception.class, () -> translate(translator, "Slow one. Broken. Slow two."));
+
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertTrue(failure.getMessage().startsWith("413"), "Unexpected failure: " + failure);
+            assertTrue(elapsed < 2_000, "Failure waited for the other segments: " + elapsed + " ms");
+
+            stuck.countDown();
+        }
+    }
+
+    private static Translation translate(DocumentTranslator translator, String document) throws Exception {
+        return translator.translate(document, Language.ENGLISH, Language.RUSSIAN, Format.PLAIN);
+    }
+
+    private static YandexTranslator translator(StandInServer server) {
+        YandexConfiguration configuration = YandexConfiguration.builder().baseUrl(server.getBaseUrl()).build();
+
+        return new YandexTranslator("key", Version.TRANSLATE_V1_5, ResponseInterface.TRANSLATE_JSON, configuration);
+    }
+
+    private void translate(HttpExchange exchange) throws IOException {
+        requests.add(text(exchange));
+
+        respond(exchange);
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        String text = text(exchange);
+
+        send(exchange, 200, "{\"code\":200,\"lang\":\"" + parameter(exchange, "lang") + "\",\"text\":[\"" + text.toUpperCase() + "\"]}");
+    }
+
+    private static String text(HttpExchange exchange) throws IOException {
+        return parameter(exchange, "text");
+    }
+
+    private static String parameter(HttpExchange exchange, String name) throws IOException {
+        for (String parameter : exchange.getRequestURI().getRawQuery().split("&")) {
+            if (parameter.startsWith(name + "=")) return URLDecoder.decode(parameter.substring(name.length() + 1), "UTF-8");
+        }
+
+        return "";
+    }
+
+    private static void send(HttpExchange exchange, int code, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(code, body.length);
+
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+
+    private static List<String> sorted(String... values) {
+        return sorted(Arrays.asList(values));
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> sorted;
+
+        synchronized (values) {
+            sorted = new ArrayList<>(values);
+        }
+
+        Collections.sort(sorted);
+
+        return sorted;
+    }
+}
@@ -0,0 +1,187 @@
+package ru.amayakasa.linguistic.document;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.Test;
+import ru.amayakasa.linguistic.YandexSpeller;
+import ru.amayakasa.linguistic.bench.StandInServer;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.parameters.Format;
+import ru.amayakasa.linguistic.parameters.Language;
+import ru.amayakasa.linguistic.parameters.ResponseInterface;
+import ru.amayakasa.linguistic.parameters.Version;
+import ru.amayakasa.linguistic.response.Phrase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка {@link IncrementalSpeller} на локальной заглушке Яндекс.Спеллера.
+ * <p>
+ * Заглушка считает ошибкой каждое вхождение {@value #MISTAKE} и запоминает отправленные ей абзацы.
+ * Правильный результат для документа — ответ той же заглушки на весь документ целиком.
+ *
+ * @author Amayakasa
+ */
+class IncrementalSpellerTest {
+
+    private static final String MISTAKE = "ощибка";
+
+    private final List<List<String>> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void onlyChangedParagraphsAreSent() throws Exception {
+        try (StandInServer server = new StandInServer(0, 2, this::checkTexts)) {
+            IncrementalSpeller speller = new IncrementalSpeller(speller(server), Language.RUSSIAN, Format.PLAIN, 0);
+
+            String first = "первая " + MISTAKE + "\nвторая строка\n\nтретья " + MISTAKE + " и еще " + MISTAKE;
+
+            assertWords(first, speller.check(first));
+            assertEquals(Arrays.asList(Arrays.asList("первая " + MISTAKE, "вторая строка", "третья " + MISTAKE + " и еще " + MISTAKE)), requests);
+
+            requests.clear();
+
+            // Новый абзац сверху сдвигает позиции и строки всех абзацев из кэша
+            String second = "новая " + MISTAKE + " сверху\nпервая " + MISTAKE + "\nвторая " + MISTAKE + "\n\nтретья " + MISTAKE + " и еще " + MISTAKE;
+
+            assertWords(second, speller.check(second));
+            assertEquals(Arrays.asList(Arrays.asList("новая " + MISTAKE + " сверху", "вторая " + MISTAKE)), requests);
+
+            requests.clear();
+
+            assertWords(second, speller.check(second));
+            assertTrue(requests.isEmpty(), "Unchanged document was sent again: " + requests);
+        }
+    }
+
+    @Test
+    void htmlMarkupIsNotSplit() throws Exception {
+        String link = "<a\nhref=\"https://example.com/?a=1>2\">ссылка " + MISTAKE + "</a>";
+        String comment = "<!-- комментарий\n> -->текст " + MISTAKE;
+
+        try (StandInServer server = new StandInServer(0, 2, this::checkTexts)) {
+            IncrementalSpeller speller = new IncrementalSpeller(speller(server), Language.RUSSIAN, Format.HTML, 0);
+
+            String first = "<p class=\"lead\">" + MISTAKE + "</p>\n" + link + "\n" + comment;
+
+            assertWords(first, speller.check(first));
+            assertEquals(Arrays.asList(Arrays.asList("<p class=\"lead\">" + MISTAKE + "</p>", link, comment)), requests);
+
+            requests.clear();
+
+            String second = "<p class=\"lead\">" + MISTAKE + " " + MISTAKE + "</p>\n<br>\n" + link + "\n" + comment;
+
+            assertWords(second, speller.check(second));
+            assertEquals(Arrays.asList(Arrays.asList("<p class=\"lead\">" + MISTAKE + " " + MISTAKE + "</p>", "<br>")), requests);
+        }
+    }
+
+    @Test
+    void plainTextIsSplitByLines() throws Exception {
+        try (StandInServer server = new StandInServer(0, 2, this::checkTexts)) {
+            IncrementalSpeller speller = new IncrementalSpeller(speller(server), Language.RUSSIAN, Format.PLAIN, 0);
+
+            String document = "<a\nhref=\"x\">" + MISTAKE + "</a>";
+
+            assertWords(document, speller.check(document));
+            assertEquals(Arrays.asList(Arrays.asList("<a", "href=\"x\">" + MISTAKE + "</a>")), requests);
+        }
+    }
+
+    private static YandexSpeller speller(StandInServer server) {
+        YandexConfiguration configuration = YandexConfiguration.builder().baseUrl(server.getBaseUrl()).build();
+
+        return new YandexSpeller(Version.SPELLER_LATEST, ResponseInterface.SPELLER_JSON, configuration);
+    }
+
+    private static void assertWords(String document, Phrase actual) {
+        List<Phrase.Word> expected = misspelled(document);
+        List<Phrase.Word> words = actual.getMisspelledWords();
+
+        assertEquals(document, actual.getText());
+        assertEquals(expected.size(), words.size(), "Words of " + document);
+
+        for (int index = 0; index < expected.size(); index++) {
+            Phrase.Word left = expected.get(index);
+            Phrase.Word right = words.get(index);
+
+            assertEquals(left.getPosition(), right.getPosition(), "Position of word " + index);
+            assertEquals(left.getRow(), right.getRow(), "Row of word " + index);
+            assertEquals(left.getColumn(), right.getColumn(), "Column of word " + index);
+            assertEquals(left.getLength(), right.getLength());
+            assertEquals(left.getText(), right.getText());
+            assertEquals(MISTAKE, document.substring(right.getPosition(), right.getPosition() + right.getLength()));
+        }
+    }
+
+    /**
+     * Ответ заглушки для одного текста: все вхождения {@value #MISTAKE} с позицией, строкой и столбцом.
+     */
+    private static List<Phrase.Word> misspelled(String text) {
+        List<Phrase.Word> words = new ArrayList<>();
+
+        for (int position = text.indexOf(MISTAKE); position >= 0; position = text.indexOf(MISTAKE, position + 1)) {
+            int row = 0;
+
+            for (int index = text.indexOf('\n'); index >= 0 && index < position; index = text.indexOf('\n', index + 1)) row++;
+
+            int column = position - (text.lastIndexOf('\n', position) + 1);
+
+            words.add(new Phrase.Word(null, position, row, column, MISTAKE.length(), MISTAKE, Collections.singletonList("ошибка")));
+        }
+
+        return words;
+    }
+
+    private void checkTexts(HttpExchange exchange) throws IOException {
+        List<String> texts = new ArrayList<>();
+
+        for (String parameter : exchange.getRequestURI().getRawQuery().split("&")) {
+            if (parameter.startsWith("text=")) texts.add(decode(parameter.substring(5)));
+        }
+
+        requests.add(texts);
+
+        StringBuilder builder = new StringBuilder("[");
+
+        for (String text : texts) {
+            if (builder.length() > 1) builder.append(',');
+
+            builder.append('[');
+
+            for (Phrase.Word word : misspelled(text)) {
+                if (builder.charAt(builder.length() - 1) != '[') builder.append(',');
+
+                builder.append("{\"code\":1,\"pos\":").append(word.getPosition())
+                        .append(",\"row\":").append(word.getRow())
+                        .append(",\"col\":").append(word.getColumn())
+                        .append(",\"len\":").append(word.getLength())
+                        .append(",\"word\":\"").append(word.getText()).append("\",\"s\":[\"ошибка\"]}");
+            }
+
+            builder.append(']');
+        }
+
+        byte[] body = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+
+        try (OutputStream stream = exchange.getResponseBody()) {
+            stream.write(body);
+        }
+    }
+
+    private static String decode(String value) throws UnsupportedEncodingException {
+        return URLDecoder.decode(value, "UTF-8");
+    }
+}
@@ -0,0 +1,84 @@
+package ru.amayakasa.linguistic.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка очереди синхронных запросов {@link AdaptiveLimiter}: запрос, переставший ждать, не занимает место в очереди.
+ *
+ * @author Amayakasa
+ */
+class AdaptiveLimiterTest {
+
+    private static AdaptiveLimiter limiter() {
+        return AdaptiveLimiter.builder()
+                .initialLimit(1)
+                .limits(1, 1)
+                .maxQueue(1)
+                .maxWait(50, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Test
+    void timedOutWaiterLeavesQueue() throws Exception {
+        AdaptiveLimiter limiter = limiter();
+
+        AdaptiveLimiter.Permit held = limiter.acquire(Endpoint.LOOKUP, null);
+
+        for (int iterator = 0; iterator < 3; iterator++) {
+            RejectedExecutionException rejected = assertThrows(RejectedExecutionException.class, () -> limiter.acquire(Endpoint.LOOKUP, null));
+
+            assertTrue(rejected.getMessage().contains("timed out"), "Rejected by a dead waiter: " + rejected.getMessage());
+            assertEquals(0, limiter.getQueued(Endpoint.LOOKUP));
+        }
+
+        held.ignore();
+
+        assertNotNull(limiter.acquire(Endpoint.LOOKUP, null));
+    }
+
+    @Test
+    void interruptedWaiterLeavesQueue() throws Exception {
+        AdaptiveLimiter limiter = AdaptiveLimiter.builder()
+                .initialLimit(1)
+                .limits(1, 1)
+                .maxQueue(1)
+                .maxWait(0, TimeUnit.SECONDS)
+                .build();
+
+        AdaptiveLimiter.Permit held = limiter.acquire(Endpoint.LOOKUP, null);
+
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+        Thread waiting = new Thread(() -> {
+            try {
+                limiter.acquire(Endpoint.LOOKUP, null);
+
+                failure.complete(null);
+            } catch (Throwable throwable) {
+                failure.complete(throwable);
+            }
+        });
+
+        waiting.start();
+
+        while (limiter.getQueued(Endpoint.LOOKUP) == 0) Thread.sleep(1);
+
+        waiting.interrupt();
+
+        assertTrue(failure.get(5, TimeUnit.SECONDS) instanceof InterruptedException);
+        assertEquals(0, limiter.getQueued(Endpoint.LOOKUP));
+
+        held.ignore();
+
+        assertNotNull(limiter.acquire(Endpoint.LOOKUP, null));
+    }
+}
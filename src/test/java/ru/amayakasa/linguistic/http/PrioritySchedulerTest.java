@@ -0,0 +1,80 @@
+package ru.amayakasa.linguistic.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка очередей синхронных запросов {@link PriorityScheduler}: запрос, переставший ждать, не занимает место в очереди.
+ *
+ * @author Amayakasa
+ */
+class PrioritySchedulerTest {
+
+    private static PriorityScheduler scheduler(long maxWaitMillis) {
+        // Одно место для фоновых запросов, второе зарезервировано за интерактивными
+        return PriorityScheduler.builder()
+                .maxConcurrency(2)
+                .reserve(Priority.INTERACTIVE, 1)
+                .maxQueue(1)
+                .maxWait(maxWaitMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Test
+    void timedOutWaiterLeavesQueue() throws Exception {
+        PriorityScheduler scheduler = scheduler(50);
+
+        PriorityScheduler.Slot held = scheduler.acquire(Priority.BATCH, null);
+
+        for (int iterator = 0; iterator < 3; iterator++) {
+            RejectedExecutionException rejected = assertThrows(RejectedExecutionException.class, () -> scheduler.acquire(Priority.BATCH, null));
+
+            assertTrue(rejected.getMessage().contains("timed out"), "Rejected by a dead waiter: " + rejected.getMessage());
+            assertEquals(0, scheduler.getQueued(Priority.BATCH));
+        }
+
+        held.release();
+
+        assertNotNull(scheduler.acquire(Priority.BATCH, null));
+    }
+
+    @Test
+    void interruptedWaiterLeavesQueue() throws Exception {
+        PriorityScheduler scheduler = scheduler(0);
+
+        PriorityScheduler.Slot held = scheduler.acquire(Priority.BATCH, null);
+
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+        Thread waiting = new Thread(() -> {
+            try {
+                scheduler.acquire(Priority.BATCH, null);
+
+                failure.complete(null);
+            } catch (Throwable throwable) {
+                failure.complete(throwable);
+            }
+        });
+
+        waiting.start();
+
+        while (scheduler.getQueued(Priority.BATCH) == 0) Thread.sleep(1);
+
+        waiting.interrupt();
+
+        assertTrue(failure.get(5, TimeUnit.SECONDS) instanceof InterruptedException);
+        assertEquals(0, scheduler.getQueued(Priority.BATCH));
+
+        held.release();
+
+        assertNotNull(scheduler.acquire(Priority.BATCH, null));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.amayakasa.linguistic.response.parser;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+import retrofit2.Response;
+import ru.amayakasa.linguistic.bench.Fixtures;
+import ru.amayakasa.linguistic.response.Phrase;
+import ru.amayakasa.linguistic.response.PhraseBatch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка потокового парсинга {@link ResponseParser#parsePhraseBatch}: для одного и того же ответа checkTexts
+ * он должен давать те же слова, что и {@link ResponseParser#parsePhrases}, — и через {@link PhraseBatch#asPhrases()},
+ * и через столбцы {@link PhraseBatch}.
+ *
+ * @author Amayakasa
+ */
+class ResponseParserTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    // Пустые фразы, слово без вариантов, порядок ключей не как в API, лишние ключи, экранирование и пробелы
+    private static final String EDGE_CASES = "[[],"
+            + "[{\"code\":3,\"pos\":0,\"row\":0,\"col\":0,\"len\":6,\"word\":\"москва\",\"s\":[\"Москва\"]},"
+            + "{\"s\":[],\"word\":\"ыыы\",\"len\":3,\"col\":4,\"row\":1,\"pos\":12,\"code\":1}],"
+            + "[ ],"
+            + " [ { \"code\" : 2 , \"pos\" : 1048576 , \"row\" : 12 , \"col\" : 345 , \"len\" : 2 ,"
+            + " \"word\" : \"\\\"\\u0430\\\\\" , \"hint\" : {\"a\":[1,2,{}]} , \"s\" : [ \"\\u0430\" , \"б\\/в\" ] } ],"
+            + "[{\"code\":4,\"pos\":0,\"row\":0,\"col\":0,\"len\":0,\"word\":\"\",\"s\":[]}]]";
+
+    @Test
+    void batchMatchesPhrasesOnFixture() throws IOException {
+        String[] texts = {"синхрафазатрон в дубне", "синхрафазатрон в дубне", "синхрафазатрон в дубне"};
+
+        byte[] body = Fixtures.body("/services/spellservice.json/checkTexts", "text=a&text=b&text=c");
+
+        assertEquals(6, assertEquivalent(texts, body).getWordCount());
+    }
+
+    @Test
+    void batchMatchesPhrasesOnEdgeCases() throws IOException {
+        String[] texts = {"", "москва ыыы\nтекст", "все верно", "а \"а\\ б/в", "?"};
+
+        PhraseBatch batch = assertEquivalent(texts, EDGE_CASES.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(4, batch.getWordCount());
+        assertEquals("\"а\\", batch.getWord(2));
+    }
+
+    private static PhraseBatch assertEquivalent(String[] texts, byte[] body) throws IOException {
+        List<Phrase> phrases = ResponseParser.parsePhrases(texts, response(body));
+        PhraseBatch batch = ResponseParser.parsePhraseBatch(texts, response(body));
+
+        assertEquals(phrases.size(), batch.size());
+
+        List<Phrase> views = batch.asPhrases();
+
+        int wordCount = 0;
+
+        for (int phrase = 0; phrase < phrases.size(); phrase++) {
+            Phrase expected = phrases.get(phrase);
+
+            assertEquals(expected.getText(), batch.getText(phrase));
+            assertEquals(expected.getText(), views.get(phrase).getText());
+
+            List<Phrase.Word> words = expected.getMisspelledWords();
+
+            assertEquals(words.size(), batch.getWordCount(phrase), "Words of phrase " + phrase);
+            assertEquals(wordCount, batch.getFirstWord(phrase), "First word of phrase " + phrase);
+
+            for (int index = 0; index < words.size(); index++) {
+                Phrase.Word word = words.get(index);
+                Phrase.Word view = views.get(phrase).getMisspelledWords().get(index);
+
+                int wordIndex = batch.getFirstWord(phrase) + index;
+
+                assertWord(word, view);
+
+                assertEquals(word.getMistake(), batch.getMistake(wordIndex));
+                assertEquals(word.getPosition(), batch.getPosition(wordIndex));
+                assertEquals(word.getRow(), batch.getRow(wordIndex));
+                assertEquals(word.getColumn(), batch.getColumn(wordIndex));
+                assertEquals(word.getLength(), batch.getLength(wordIndex));
+                assertEquals(word.getText(), batch.getWord(wordIndex));
+                assertEquals(word.getVariants().size(), batch.getVariantCount(wordIndex));
+
+                for (int variant = 0; variant < word.getVariants().size(); variant++) {
+                    assertEquals(word.getVariants().get(variant), batch.getVariant(wordIndex, variant));
+                }
+            }
+
+            wordCount += words.size();
+        }
+
+        assertEquals(wordCount, batch.getWordCount());
+
+        return batch;
+    }
+
+    private static void assertWord(Phrase.Word expected, Phrase.Word actual) {
+        assertEquals(expected.getMistake(), actual.getMistake());
+        assertEquals(expected.getPosition(), actual.getPosition());
+        assertEquals(expected.getRow(), actual.getRow());
+        assertEquals(expected.getColumn(), actual.getColumn());
+        assertEquals(expected.getLength(), actual.getLength());
+        assertEquals(expected.getText(), actual.getText());
+        assertEquals(expected.getVariants(), actual.getVariants());
+    }
+
+    private static Response<ResponseBody> response(byte[] body) {
+        return Response.success(ResponseBody.create(JSON, body));
+    }
+}
@@ -0,0 +1,365 @@
+package ru.amayakasa.linguistic.stream;
+
+import org.junit.jupiter.api.Test;
+import ru.amayakasa.linguistic.YandexDictionary;
+import ru.amayakasa.linguistic.bench.StandInServer;
+import ru.amayakasa.linguistic.http.YandexCall;
+import ru.amayakasa.linguistic.http.YandexCallback;
+import ru.amayakasa.linguistic.http.YandexConfiguration;
+import ru.amayakasa.linguistic.parameters.LanguagePair;
+import ru.amayakasa.linguistic.parameters.ResponseInterface;
+import ru.amayakasa.linguistic.parameters.Version;
+import ru.amayakasa.linguistic.response.BulkResult;
+import ru.amayakasa.linguistic.response.Dictionary;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка {@link BulkPublisher}: порядок выдачи результатов, спрос к источнику и отмена подписки.
+ * <p>
+ * Операция над элементом в большинстве проверок — заглушка, которую тест завершает вручную через сохраненный
+ * колбэк, поэтому порядок завершения запросов задается явно.
+ *
+ * @author Amayakasa
+ */
+class BulkPublisherTest {
+
+    private static final List<String> ITEMS = Arrays.asList("a", "b", "c", "d");
+
+    @Test
+    void orderedResultsFollowInput() {
+        Operation operation = new Operation();
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+        new BulkPublisher<>(new IterablePublisher<>(ITEMS), operation, ITEMS.size(), true).subscribe(recorder);
+
+        assertEquals(ITEMS, operation.started());
+
+        operation.complete("d");
+        operation.complete("b");
+
+        assertTrue(recorder.inputs().isEmpty(), "Result was emitted before the first item completed");
+
+        operation.fail("a");
+
+        assertEquals(Arrays.asList("a", "b"), recorder.inputs());
+
+        operation.complete("c");
+
+        assertEquals(ITEMS, recorder.inputs());
+        assertFalse(recorder.results.get(0).isSuccessful());
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L), recorder.indices());
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void unorderedResultsFollowCompletion() {
+        Operation operation = new Operation();
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+        new BulkPublisher<>(new IterablePublisher<>(ITEMS), operation, ITEMS.size(), false).subscribe(recorder);
+
+        operation.complete("d");
+        operation.complete("b");
+        operation.fail("a");
+        operation.complete("c");
+
+        assertEquals(Arrays.asList("d", "b", "a", "c"), recorder.inputs());
+        assertEquals(Arrays.asList(3L, 1L, 0L, 2L), recorder.indices());
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void slowSubscriberStopsReadingSource() {
+        Source source = new Source(100);
+        Operation operation = new Operation().immediate();
+        Recorder recorder = new Recorder(0);
+
+        new BulkPublisher<>(source, operation, 2, true).subscribe(recorder);
+
+        // Без спроса получателя читается только окно maxConcurrency
+        assertEquals(2, source.pulled.get());
+        assertTrue(recorder.results.isEmpty());
+
+        recorder.subscription.request(1);
+
+        assertEquals(1, recorder.results.size());
+        assertEquals(3, source.pulled.get());
+
+        recorder.subscription.request(5);
+
+        assertEquals(6, recorder.results.size());
+        assertEquals(8, source.pulled.get());
+
+        recorder.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(100, recorder.results.size());
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void cancellationStopsSourceAndDropsResults() {
+        Source source = new Source(100);
+        Operation operation = new Operation();
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+        new BulkPublisher<>(source, operation, 2, false).subscribe(recorder);
+
+        assertEquals(2, source.pulled.get());
+
+        recorder.subscription.cancel();
+
+        assertTrue(source.cancelled.get());
+
+        operation.complete("0");
+        operation.complete("1");
+
+        assertTrue(recorder.results.isEmpty());
+        assertEquals(2, source.pulled.get());
+        assertFalse(recorder.completed);
+        assertNull(recorder.failure);
+    }
+
+    @Test
+    void cancellationCancelsCalls() throws Exception {
+        CountDownLatch stuck = new CountDownLatch(1);
+
+        // Заглушка не отвечает, пока запросы не отменены
+        try (StandInServer server = new StandInServer(0, 4, exchange -> {
+            try {
+                stuck.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        })) {
+            YandexConfiguration configuration = YandexConfiguration.builder().baseUrl(server.getBaseUrl()).build();
+
+            YandexDictionary dictionary = new YandexDictionary("key", Version.DICTIONARY_V1, ResponseInterface.DICTIONARY_JSON, configuration);
+
+            List<YandexCall> calls = Collections.synchronizedList(new ArrayList<>());
+            Map<String, Throwable> failures = new ConcurrentHashMap<>();
+            CountDownLatch failed = new CountDownLatch(2);
+
+            Recorder recorder = new Recorder(Long.MAX_VALUE);
+
+            new BulkPublisher<String, Dictionary>(new IterablePublisher<>(ITEMS), (text, callback) -> {
+                YandexCall call = dictionary.getLookup(text, LanguagePair.ENGLISH_RUSSIAN, new YandexCallback<Dictionary>() {
+                    @Override
+                    public void onResponse(Dictionary response) {
+                        callback.onResponse(response);
+                    }
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        failures.put(text, throwable);
+                        failed.countDown();
+
+                        callback.onFailure(throwable);
+                    }
+                });
+
+                calls.add(call);
+
+                return call;
+            }, 2, true).subscribe(recorder);
+
+            recorder.subscription.cancel();
+
+            assertTrue(failed.await(5, TimeUnit.SECONDS), "Cancelled calls did not fail");
+
+            stuck.countDown();
+
+            assertEquals(2, calls.size());
+
+            for (YandexCall call : calls) assertTrue(call.isCanceled());
+            for (Throwable failure : failures.values()) assertTrue(failure instanceof IOException, "Unexpected failure: " + failure);
+
+            assertTrue(recorder.results.isEmpty());
+        }
+    }
+
+    /**
+     * Операция-заглушка: колбэки элементов сохраняются и завершаются тестом.
+     */
+    private static final class Operation implements BiFunction<String, YandexCallback<String>, YandexCall> {
+
+        private final Map<String, YandexCallback<String>> callbacks = new ConcurrentHashMap<>();
+        private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+        private boolean immediate;
+
+        Operation immediate() {
+            this.immediate = true;
+            return this;
+        }
+
+        @Override
+        public YandexCall apply(String item, YandexCallback<String> callback) {
+            started.add(item);
+
+            if (immediate) callback.onResponse(item.toUpperCase());
+            else callbacks.put(item, callback);
+
+            return null;
+        }
+
+        List<String> started() {
+            return new ArrayList<>(started);
+        }
+
+        void complete(String item) {
+            callbacks.remove(item).onResponse(item.toUpperCase());
+        }
+
+        void fail(String item) {
+            callbacks.remove(item).onFailure(new IOException("Failed " + item));
+        }
+    }
+
+    /**
+     * Источник из чисел от 0 с подсчетом прочитанных элементов и отметкой отмены.
+     */
+    private static final class Source implements Publisher<String> {
+
+        private final int size;
+
+        final AtomicInteger pulled = new AtomicInteger();
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
+        Source(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super String> subscriber) {
+            Iterable<String> items = () -> new Iterator<String>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public String next() {
+                    pulled.incrementAndGet();
+
+                    return String.valueOf(next++);
+                }
+            };
+
+            new IterablePublisher<>(items).subscribe(new Subscriber<String>() {
+                @Override
+                public void onSubscribe(Subscription subscription) {
+                    subscriber.onSubscribe(new Subscription() {
+                        @Override
+                        public void request(long count) {
+                            subscription.request(count);
+                        }
+
+                        @Override
+                        public void cancel() {
+                            cancelled.set(true);
+                            subscription.cancel();
+                        }
+                    });
+                }
+
+                @Override
+                public void onNext(String item) {
+                    subscriber.onNext(item);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    subscriber.onError(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    subscriber.onComplete();
+                }
+            });
+        }
+    }
+
+    /**
+     * Получатель, запоминающий сигналы; начальный спрос задается в конструкторе.
+     */
+    private static final class Recorder implements Subscriber<BulkResult<String, ?>> {
+
+        private final long initialDemand;
+
+        final List<BulkResult<String, ?>> results = Collections.synchronizedList(new ArrayList<>());
+
+        volatile Subscription subscription;
+        volatile boolean completed;
+        volatile Throwable failure;
+
+        Recorder(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+
+            if (initialDemand > 0) subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(BulkResult<String, ?> result) {
+            results.add(result);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            failure = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        List<String> inputs() {
+            List<String> inputs = new ArrayList<>();
+
+            synchronized (results) {
+                for (BulkResult<String, ?> result : results) inputs.add(result.getInput());
+            }
+
+            return inputs;
+        }
+
+        List<Long> indices() {
+            List<Long> indices = new ArrayList<>();
+
+            synchronized (results) {
+                for (BulkResult<String, ?> result : results) indices.add(result.getIndex());
+            }
+
+            return indices;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ru.amayakasa.linguistic.traffic;
+
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка формата {@link TrafficLog}: чтение записанного, сессии, оборванные записи
+ * и удаление API-ключа в {@link RecordingInterceptor}.
+ *
+ * @author Amayakasa
+ */
+class TrafficLogTest {
+
+    private static final long START = 1_700_000_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void smallAndDeflatedBodiesRoundTrip() throws IOException {
+        Path path = directory.resolve("traffic.ylbt");
+
+        byte[] small = "{\"code\":200,\"lang\":\"en-ru\",\"text\":[\"время\"]}".getBytes(StandardCharsets.UTF_8);
+        byte[] compressible = repeat("{\"text\":\"time\",\"pos\":\"noun\",\"tr\":[{\"text\":\"время\"}]},", 64);
+        byte[] incompressible = new byte[1024];
+
+        new Random(42).nextBytes(incompressible);
+
+        List<TrafficRecord> written = Arrays.asList(
+                new TrafficRecord(START, 1_500, 200, "/api/v1.5/tr.json/translate?lang=en-ru&text=time", "application/json; charset=utf-8", small),
+                new TrafficRecord(START + 10, 12_000, 200, "/api/v1/dicservice.json/lookup?lang=en-ru&text=time", null, compressible),
+                new TrafficRecord(START + 5, 0, 413, "/api/v1/predict.json/complete", "application/octet-stream", incompressible),
+                new TrafficRecord(START + 20, 7, 200, "/services/spellservice.json/checkText", "application/json", new byte[0])
+        );
+
+        try (TrafficLog log = TrafficLog.append(path)) {
+            for (TrafficRecord record : written) log.write(record);
+        }
+
+        assertRecords(written, TrafficLog.read(path));
+
+        // Повторяющееся тело хранится сжатым
+        assertTrue(Files.size(path) < small.length + compressible.length / 2 + incompressible.length,
+                "Body was not deflated: " + Files.size(path) + " bytes");
+    }
+
+    @Test
+    void sessionsAppendToLog() throws IOException {
+        Path path = directory.resolve("traffic.ylbt");
+
+        List<TrafficRecord> first = Arrays.asList(record(START, "first"), record(START + 1_000, "second"));
+        List<TrafficRecord> second = Arrays.asList(record(START - 5_000, "third"), record(START + 2_000_000, "fourth"));
+
+        try (TrafficLog log = TrafficLog.append(path)) {
+            for (TrafficRecord record : first) log.write(record);
+        }
+
+        try (TrafficLog log = TrafficLog.append(path)) {
+            for (TrafficRecord record : second) log.write(record);
+        }
+
+        // Пустая сессия не добавляет записей
+        TrafficLog.append(path).close();
+
+        assertRecords(concat(first, second), TrafficLog.read(path));
+    }
+
+    @Test
+    void truncatedRecordIsSkippedAndCutOnAppend() throws IOException {
+        Path path = directory.resolve("traffic.ylbt");
+
+        TrafficRecord complete = record(START, "complete");
+        TrafficRecord torn = new TrafficRecord(START + 1, 3, 200, "/torn", "application/json", repeat("torn body ", 100));
+
+        long end;
+
+        try (TrafficLog log = TrafficLog.append(path)) {
+            log.write(complete);
+            log.flush();
+
+            end = Files.size(path);
+
+            log.write(torn);
+        }
+
+        byte[] full = Files.readAllBytes(path);
+
+        // Обрыв в любом месте второй записи: в типе, длине или содержимом
+        for (long cut = end + 1; cut < full.length; cut += 7) {
+            Files.write(path, Arrays.copyOf(full, (int) cut));
+
+            assertRecords(Arrays.asList(complete), TrafficLog.read(path));
+        }
+
+        Files.write(path, Arrays.copyOf(full, full.length - 3));
+
+        TrafficRecord next = record(START + 2, "next");
+
+        try (TrafficLog log = TrafficLog.append(path)) {
+            log.flush();
+
+            // Оборванный хвост отрезан, дальше идет только запись новой сессии
+            assertTrue(Files.size(path) > end && Files.size(path) < end + 32, "Torn record was not cut: " + Files.size(path));
+
+            log.write(next);
+        }
+
+        assertRecords(Arrays.asList(complete, next), TrafficLog.read(path));
+    }
+
+    @Test
+    void notTrafficLogIsRejected() throws IOException {
+        Path path = directory.resolve("traffic.ylbt");
+
+        Files.write(path, "{\"code\":200}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("Not a traffic log", assertThrows(IOException.class, () -> TrafficLog.read(path)).getMessage());
+        assertEquals("Not a traffic log", assertThrows(IOException.class, () -> TrafficLog.append(path).close()).getMessage());
+
+        // Файл, который не является журналом, не обрезается
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            assertEquals(12, channel.size());
+        }
+    }
+
+    @Test
+    void redactRemovesKey() {
+        HttpUrl url = HttpUrl.get("https://dictionary.yandex.net/api/v1/dicservice.json/lookup?key=dict.1.1.secret&lang=en-ru&text=time&key=again");
+
+        assertEquals("/api/v1/dicservice.json/lookup?lang=en-ru&text=time", RecordingInterceptor.redact(url));
+
+        HttpUrl onlyKey = HttpUrl.get("https://dictionary.yandex.net/api/v1/dicservice.json/getLangs?key=dict.1.1.secret");
+
+        assertEquals("/api/v1/dicservice.json/getLangs", RecordingInterceptor.redact(onlyKey));
+
+        HttpUrl noKey = HttpUrl.get("https://speller.yandex.net/services/spellservice.json/checkText?text=%D0%B2%D1%80%D0%B5%D0%BC%D1%8F");
+
+        assertEquals("/services/spellservice.json/checkText?text=%D0%B2%D1%80%D0%B5%D0%BC%D1%8F", RecordingInterceptor.redact(noKey));
+    }
+
+    private static TrafficRecord record(long timestamp, String text) {
+        return new TrafficRecord(timestamp, 250, 200, "/api/v1/dicservice.json/lookup?lang=en-ru&text=" + text,
+                "application/json; charset=utf-8", ("{\"def\":[],\"text\":\"" + text + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertRecords(List<TrafficRecord> expected, List<TrafficRecord> actual) {
+        assertEquals(expected.size(), actual.size(), "Records: " + actual);
+
+        for (int index = 0; index < expected.size(); index++) {
+            TrafficRecord left = expected.get(index);
+            TrafficRecord right = actual.get(index);
+
+            assertEquals(left.getTimestamp(), right.getTimestamp());
+            assertEquals(left.getLatency(), right.getLatency());
+            assertEquals(left.getCode(), right.getCode());
+            assertEquals(left.getRequest(), right.getRequest());
+            assertEquals(left.getContentType(), right.getContentType());
+            assertArrayEquals(left.getBody(), right.getBody());
+        }
+    }
+
+    private static List<TrafficRecord> concat(List<TrafficRecord> first, List<TrafficRecord> second) {
+        List<TrafficRecord> records = new ArrayList<>(first);
+
+        records.addAll(second);
+
+        return records;
+    }
+
+    private static byte[] repeat(String value, int count) {
+        StringBuilder builder = new StringBuilder(value.length() * count);
+
+        for (int index = 0; index < count; index++) builder.append(value);
+
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}